@@ -0,0 +1,431 @@
+package io.kuzzle.sdk.codec;
+
+import org.json.JSONArray;
+import org.json.JSONException;
+import org.json.JSONObject;
+
+import java.nio.charset.Charset;
+import java.util.Arrays;
+import java.util.Iterator;
+
+/**
+ * CBOR (RFC 7049) binary codec.
+ * Encodes JSON trees with the smallest CBOR representation of each value: integers on
+ * 1 to 9 bytes, and floating-point numbers on 4 bytes whenever it is lossless.
+ * Decodes definite and indefinite-length items; tags are ignored, and byte strings are
+ * not supported since they have no JSON equivalent.
+ * Truncated frames, lengths exceeding the frame size and items nested deeper than
+ * {@link #MAX_DEPTH} levels are rejected as malformed.
+ */
+public class CborCodec implements Codec {
+  private static final Charset UTF8 = Charset.forName("UTF-8");
+
+  private static final int UNSIGNED = 0;
+  private static final int NEGATIVE = 1;
+  private static final int BYTES = 2;
+  private static final int TEXT = 3;
+  private static final int ARRAY = 4;
+  private static final int MAP = 5;
+  private static final int TAG = 6;
+  private static final int SIMPLE = 7;
+
+  private static final int FALSE = 0xf4;
+  private static final int TRUE = 0xf5;
+  private static final int NULL = 0xf6;
+  private static final int UNDEFINED = 0xf7;
+  private static final int HALF_FLOAT = 0xf9;
+  private static final int FLOAT = 0xfa;
+  private static final int DOUBLE = 0xfb;
+  private static final int BREAK = 0xff;
+  private static final int INDEFINITE = 31;
+
+  /**
+   * Maximum nesting level of decoded items
+   */
+  public static final int MAX_DEPTH = 256;
+
+  @Override
+  public String getName() {
+    return "cbor";
+  }
+
+  @Override
+  public boolean isBinary() {
+    return true;
+  }
+
+  @Override
+  public byte[] encode(JSONObject payload) {
+    Encoder encoder = new Encoder();
+
+    try {
+      encoder.writeObject(payload);
+    } catch (JSONException e) {
+      throw new RuntimeException(e);
+    }
+
+    return encoder.toByteArray();
+  }
+
+  @Override
+  public JSONObject decode(byte[] frame) {
+    Decoder decoder = new Decoder(frame);
+
+    try {
+      Object value = decoder.read();
+
+      if (!(value instanceof JSONObject)) {
+        throw new IllegalArgumentException("Malformed CBOR frame: a map is expected");
+      }
+
+      if (decoder.position != frame.length) {
+        throw new IllegalArgumentException("Malformed CBOR frame: trailing bytes");
+      }
+
+      return (JSONObject) value;
+    } catch (JSONException e) {
+      throw new IllegalArgumentException("Malformed CBOR frame", e);
+    }
+  }
+
+  private static class Encoder {
+    private byte[] buffer = new byte[256];
+    private int size = 0;
+
+    byte[] toByteArray() {
+      return Arrays.copyOf(this.buffer, this.size);
+    }
+
+    void writeObject(JSONObject object) throws JSONException {
+      writeHeader(MAP, object.length());
+
+      Iterator<?> keys = object.keys();
+      while (keys.hasNext()) {
+        String key = (String) keys.next();
+        writeText(key);
+        writeValue(object.get(key));
+      }
+    }
+
+    void writeValue(Object value) throws JSONException {
+      if (value == null || value == JSONObject.NULL) {
+        writeByte(NULL);
+      } else if (value instanceof String) {
+        writeText((String) value);
+      } else if (value instanceof JSONObject) {
+        writeObject((JSONObject) value);
+      } else if (value instanceof JSONArray) {
+        JSONArray array = (JSONArray) value;
+        writeHeader(ARRAY, array.length());
+
+        for (int i = 0; i < array.length(); i++) {
+          writeValue(array.get(i));
+        }
+      } else if (value instanceof Boolean) {
+        writeByte((Boolean) value ? TRUE : FALSE);
+      } else if (value instanceof Integer || value instanceof Long || value instanceof Short || value instanceof Byte) {
+        long l = ((Number) value).longValue();
+
+        if (l >= 0) {
+          writeHeader(UNSIGNED, l);
+        } else {
+          writeHeader(NEGATIVE, -1 - l);
+        }
+      } else if (value instanceof Number) {
+        double d = ((Number) value).doubleValue();
+        float f = (float) d;
+
+        if ((double) f == d || Double.isNaN(d)) {
+          writeByte(FLOAT);
+          writeInt(Float.floatToIntBits(f));
+        } else {
+          writeByte(DOUBLE);
+          writeLong(Double.doubleToLongBits(d));
+        }
+      } else {
+        writeText(value.toString());
+      }
+    }
+
+    void writeText(String text) {
+      byte[] bytes = text.getBytes(UTF8);
+      writeHeader(TEXT, bytes.length);
+      ensureCapacity(bytes.length);
+      System.arraycopy(bytes, 0, this.buffer, this.size, bytes.length);
+      this.size += bytes.length;
+    }
+
+    void writeHeader(int majorType, long length) {
+      int type = majorType << 5;
+
+      if (length < 24) {
+        writeByte(type | (int) length);
+      } else if (length < 0x100) {
+        writeByte(type | 24);
+        writeByte((int) length);
+      } else if (length < 0x10000) {
+        writeByte(type | 25);
+        writeByte((int) (length >> 8));
+        writeByte((int) length);
+      } else if (length < 0x100000000L) {
+        writeByte(type | 26);
+        writeInt((int) length);
+      } else {
+        writeByte(type | 27);
+        writeLong(length);
+      }
+    }
+
+    void writeInt(int value) {
+      writeByte(value >>> 24);
+      writeByte(value >>> 16);
+      writeByte(value >>> 8);
+      writeByte(value);
+    }
+
+    void writeLong(long value) {
+      writeInt((int) (value >>> 32));
+      writeInt((int) value);
+    }
+
+    void writeByte(int value) {
+      ensureCapacity(1);
+      this.buffer[this.size++] = (byte) value;
+    }
+
+    private void ensureCapacity(int additional) {
+      if (this.size + additional > this.buffer.length) {
+        this.buffer = Arrays.copyOf(this.buffer, Math.max(this.buffer.length * 2, this.size + additional));
+      }
+    }
+  }
+
+  private static class Decoder {
+    private static final Object BREAK_MARKER = new Object();
+
+    private final byte[] data;
+    int position = 0;
+    private int depth = 0;
+
+    Decoder(byte[] data) {
+      this.data = data;
+    }
+
+    Object read() throws JSONException {
+      if (++this.depth > MAX_DEPTH) {
+        throw new IllegalArgumentException("Malformed CBOR frame: nesting too deep");
+      }
+
+      try {
+        return readValue();
+      } finally {
+        this.depth--;
+      }
+    }
+
+    private Object readValue() throws JSONException {
+      int initial = readByte();
+      int majorType = initial >>> 5;
+      int info = initial & 0x1f;
+
+      switch (majorType) {
+        case UNSIGNED:
+          return toNumber(readLength(info), false);
+        case NEGATIVE:
+          return toNumber(readLength(info), true);
+        case BYTES:
+          throw new IllegalArgumentException("Malformed CBOR frame: byte strings are not supported");
+        case TEXT:
+          return readText(info);
+        case ARRAY: {
+          JSONArray array = new JSONArray();
+
+          if (info == INDEFINITE) {
+            Object value;
+            while ((value = read()) != BREAK_MARKER) {
+              array.put(value);
+            }
+          } else {
+            // every item takes one byte at least
+            long length = readLength(info);
+            require(length);
+            for (long i = 0; i < length; i++) {
+              array.put(readItem());
+            }
+          }
+
+          return array;
+        }
+        case MAP: {
+          JSONObject object = new JSONObject();
+
+          if (info == INDEFINITE) {
+            Object key;
+            while ((key = read()) != BREAK_MARKER) {
+              object.put(String.valueOf(key), readItem());
+            }
+          } else {
+            // every entry takes two bytes at least
+            long length = readLength(info);
+            require(length);
+            require(length * 2);
+            for (long i = 0; i < length; i++) {
+              object.put(String.valueOf(readItem()), readItem());
+            }
+          }
+
+          return object;
+        }
+        case TAG:
+          readLength(info);
+          return readItem();
+        default:
+          return readSimple(initial, info);
+      }
+    }
+
+    private Object readItem() throws JSONException {
+      Object value = read();
+
+      if (value == BREAK_MARKER) {
+        throw new IllegalArgumentException("Malformed CBOR frame: unexpected break");
+      }
+
+      return value;
+    }
+
+    private Object readSimple(int initial, int info) {
+      switch (initial) {
+        case FALSE:
+          return Boolean.FALSE;
+        case TRUE:
+          return Boolean.TRUE;
+        case NULL:
+        case UNDEFINED:
+          return JSONObject.NULL;
+        case HALF_FLOAT:
+          return halfToDouble((readByte() << 8) | readByte());
+        case FLOAT:
+          return (double) Float.intBitsToFloat((int) readUnsigned(4));
+        case DOUBLE:
+          return Double.longBitsToDouble(readUnsigned(8));
+        case BREAK:
+          return BREAK_MARKER;
+        default:
+          if (info < 24) {
+            return JSONObject.NULL;
+          }
+          throw new IllegalArgumentException("Malformed CBOR frame: unsupported simple value " + initial);
+      }
+    }
+
+    private String readText(int info) throws JSONException {
+      if (info == INDEFINITE) {
+        StringBuilder builder = new StringBuilder();
+        Object chunk;
+
+        while ((chunk = read()) != BREAK_MARKER) {
+          if (!(chunk instanceof String)) {
+            throw new IllegalArgumentException("Malformed CBOR frame: invalid text chunk");
+          }
+          builder.append((String) chunk);
+        }
+
+        return builder.toString();
+      }
+
+      long length = readLength(info);
+      require(length);
+
+      String text = new String(this.data, this.position, (int) length, UTF8);
+      this.position += (int) length;
+      return text;
+    }
+
+    private long readLength(int info) {
+      if (info < 24) {
+        return info;
+      }
+
+      switch (info) {
+        case 24:
+          return readUnsigned(1);
+        case 25:
+          return readUnsigned(2);
+        case 26:
+          return readUnsigned(4);
+        case 27:
+          return readUnsigned(8);
+        default:
+          throw new IllegalArgumentException("Malformed CBOR frame: invalid length");
+      }
+    }
+
+    private long readUnsigned(int bytes) {
+      long value = 0;
+
+      for (int i = 0; i < bytes; i++) {
+        value = (value << 8) | readByte();
+      }
+
+      return value;
+    }
+
+    private int readByte() {
+      require(1);
+      return this.data[this.position++] & 0xff;
+    }
+
+    /**
+     * Checks that the frame holds enough bytes past the current position
+     *
+     * @param length - Number of bytes, as read from the frame (lengths beyond
+     *                 Long.MAX_VALUE are negative)
+     */
+    private void require(long length) {
+      if (length < 0 || length > this.data.length - this.position) {
+        throw new IllegalArgumentException("Malformed CBOR frame: truncated");
+      }
+    }
+
+    /**
+     * Uses the same number types as the JSON parser: integers beyond the long range
+     * are decoded as floating-point numbers
+     *
+     * @param value - Unsigned integer read from the frame
+     * @param negative - true to decode -1 - value
+     */
+    private static Object toNumber(long value, boolean negative) {
+      if (value < 0) {
+        double unsigned = (double) (value >>> 1) * 2 + (value & 1);
+        return negative ? -1 - unsigned : unsigned;
+      }
+
+      if (negative) {
+        value = -1 - value;
+      }
+
+      if (value >= Integer.MIN_VALUE && value <= Integer.MAX_VALUE) {
+        return (int) value;
+      }
+
+      return value;
+    }
+
+    private static double halfToDouble(int half) {
+      int exponent = (half >> 10) & 0x1f;
+      int mantissa = half & 0x3ff;
+      double value;
+
+      if (exponent == 0) {
+        value = mantissa * Math.pow(2, -24);
+      } else if (exponent != 31) {
+        value = (mantissa + 1024) * Math.pow(2, exponent - 25);
+      } else {
+        value = mantissa == 0 ? Double.POSITIVE_INFINITY : Double.NaN;
+      }
+
+      return (half & 0x8000) != 0 ? -value : value;
+    }
+  }
+}
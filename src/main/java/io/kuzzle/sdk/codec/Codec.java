@@ -0,0 +1,36 @@
+package io.kuzzle.sdk.codec;
+
+import org.json.JSONObject;
+
+/**
+ * Encoding of the frames exchanged with a Kuzzle server.
+ * Text codecs are sent as text frames, binary codecs as binary frames.
+ */
+public interface Codec {
+  /**
+   * @return codec name, advertised to the server during the connection negotiation
+   */
+  String getName();
+
+  /**
+   * @return true if encoded frames must be sent as binary frames
+   */
+  boolean isBinary();
+
+  /**
+   * Encodes a request or a response
+   *
+   * @param payload - Request or response to encode
+   * @return encoded frame
+   */
+  byte[] encode(JSONObject payload);
+
+  /**
+   * Decodes a frame
+   *
+   * @param frame - Encoded frame
+   * @return decoded request or response
+   * @throws IllegalArgumentException if the frame is malformed
+   */
+  JSONObject decode(byte[] frame);
+}
@@ -0,0 +1,37 @@
+package io.kuzzle.sdk.codec;
+
+import org.json.JSONException;
+import org.json.JSONObject;
+
+import java.nio.charset.Charset;
+
+/**
+ * Default codec: JSON text frames
+ */
+public class JsonCodec implements Codec {
+  private static final Charset UTF8 = Charset.forName("UTF-8");
+
+  @Override
+  public String getName() {
+    return "json";
+  }
+
+  @Override
+  public boolean isBinary() {
+    return false;
+  }
+
+  @Override
+  public byte[] encode(JSONObject payload) {
+    return payload.toString().getBytes(UTF8);
+  }
+
+  @Override
+  public JSONObject decode(byte[] frame) {
+    try {
+      return new JSONObject(new String(frame, UTF8));
+    } catch (JSONException e) {
+      throw new IllegalArgumentException("Malformed JSON frame", e);
+    }
+  }
+}
@@ -11,11 +11,13 @@ import java.util.Arrays;
 import java.util.Iterator;
 import java.util.List;
 
+import io.kuzzle.sdk.enums.Overflow;
 import io.kuzzle.sdk.listeners.ResponseListener;
 import io.kuzzle.sdk.listeners.SubscribeListener;
 import io.kuzzle.sdk.listeners.OnQueryDoneListener;
 import io.kuzzle.sdk.responses.SearchResult;
 import io.kuzzle.sdk.responses.NotificationResponse;
+import io.kuzzle.sdk.util.NotificationPublisher;
 
 public class Collection {
   private final Kuzzle kuzzle;
@@ -1739,6 +1741,33 @@ public class Collection {
     return subscribeResponseListener;
   }
 
+  /**
+   * Subscribes to this data collection with a set of Kuzzle DSL filters, delivering
+   * notifications to a demand-driven stream.
+   * See {@link Room#stream(JSONObject, int, Overflow, SubscribeListener)}
+   *
+   * @param filters  Subscription filters
+   * @param options  Subscription options
+   * @param bufferSize  Maximum number of buffered notifications
+   * @param overflow  What to do with notifications received while the buffer is full
+   * @return notification stream
+   */
+  public NotificationPublisher<NotificationResponse> stream(final JSONObject filters, final RoomOptions options, final int bufferSize, @NonNull final Overflow overflow) {
+    this.kuzzle.isValid();
+    return new Room(this, options).stream(filters, bufferSize, overflow, null);
+  }
+
+  /**
+   * Watcher of the documents of this data collection, sharing a single subscription
+   * among all watched documents. Created on first use, and shared by every Collection
+   * object of the same index and collection
+   *
+   * @return document watcher
+   */
+  public DocumentWatcher getDocumentWatcher() {
+    return this.kuzzle.getDocumentWatcher(this);
+  }
+
   /**
    * {@link #truncate(Options, ResponseListener)}
    */
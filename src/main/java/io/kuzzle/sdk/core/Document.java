@@ -446,6 +446,38 @@ public class Document {
     return returnValue;
   }
 
+  /**
+   * Watches changes occuring on this document, through the single subscription shared
+   * by all the watched documents of the data collection.
+   * Unlike {@link #subscribe(RoomOptions, ResponseListener)}, watching many documents
+   * does not open one subscription per document
+   *
+   * @param listener - Notification listener
+   * @return this
+   */
+  public Document watch(@NonNull final ResponseListener<NotificationResponse> listener) {
+    if (this.id == null) {
+      throw new IllegalStateException("Document.watch: cannot watch a document if no ID has been provided");
+    }
+
+    this.dataCollection.getDocumentWatcher().watch(this.id, listener);
+    return this;
+  }
+
+  /**
+   * Stops notifying a listener of the changes occuring on this document
+   *
+   * @param listener - Notification listener passed to {@link #watch(ResponseListener)}
+   * @return this
+   */
+  public Document unwatch(@NonNull final ResponseListener<NotificationResponse> listener) {
+    if (this.id != null) {
+      this.dataCollection.getDocumentWatcher().unwatch(this.id, listener);
+    }
+
+    return this;
+  }
+
   /**
    * Get the parent data collection name
    *
@@ -0,0 +1,290 @@
+package io.kuzzle.sdk.core;
+
+import android.support.annotation.NonNull;
+
+import org.json.JSONArray;
+import org.json.JSONException;
+import org.json.JSONObject;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+
+import io.kuzzle.sdk.listeners.ResponseListener;
+import io.kuzzle.sdk.listeners.SubscribeListener;
+import io.kuzzle.sdk.responses.NotificationResponse;
+
+/**
+ * Watches documents of a data collection with a single subscription, filtering on the
+ * watched document IDs, instead of one subscription per document.
+ * Notifications are dispatched to the listeners of the notified document.
+ *
+ * Watched documents are added and removed without waiting: changes made within the
+ * debounce delay are applied together. Applying a change subscribes with the new IDs
+ * first, and only then drops the previous subscription, so that no notification is missed
+ * in between
+ */
+public class DocumentWatcher {
+  public static final long DEFAULT_DEBOUNCE = 100;
+
+  private final Collection dataCollection;
+  private final RoomOptions options;
+  private final long debounce;
+  private final ConcurrentHashMap<String, List<ResponseListener<NotificationResponse>>> listeners = new ConcurrentHashMap<>();
+  private Room room;
+  private Set<String> subscribedIds = Collections.emptySet();
+  private boolean scheduled = false;
+  private boolean updating = false;
+
+  private final ResponseListener<NotificationResponse> dispatcher = new ResponseListener<NotificationResponse>() {
+    @Override
+    public void onSuccess(NotificationResponse notification) {
+      String id = null;
+
+      if (notification.getDocument() != null) {
+        id = notification.getDocument().getId();
+      } else if (notification.getResult() != null) {
+        id = notification.getResult().optString("_id", null);
+      }
+
+      List<ResponseListener<NotificationResponse>> watchers = id != null ? DocumentWatcher.this.listeners.get(id) : null;
+
+      if (watchers != null) {
+        for (ResponseListener<NotificationResponse> listener : watchers) {
+          listener.onSuccess(notification);
+        }
+      }
+    }
+
+    @Override
+    public void onError(JSONObject error) {
+      failAll(error);
+    }
+  };
+
+  /**
+   * {@link #DocumentWatcher(Collection, RoomOptions, long)}
+   */
+  public DocumentWatcher(@NonNull final Collection dataCollection) {
+    this(dataCollection, null, DEFAULT_DEBOUNCE);
+  }
+
+  /**
+   * Constructor
+   *
+   * @param dataCollection - Data collection of the watched documents
+   * @param options - Subscription options
+   * @param debounce - Delay applying the changes made to the watched documents together, in milliseconds
+   */
+  public DocumentWatcher(@NonNull final Collection dataCollection, final RoomOptions options, final long debounce) {
+    if (dataCollection == null) {
+      throw new IllegalArgumentException("DocumentWatcher: a valid data collection is required");
+    }
+
+    if (debounce < 0) {
+      throw new IllegalArgumentException("DocumentWatcher: debounce must be positive or null");
+    }
+
+    this.dataCollection = dataCollection;
+    this.options = options;
+    this.debounce = debounce;
+  }
+
+  /**
+   * Starts watching a document
+   *
+   * @param documentId - Document ID
+   * @param listener - Notification listener of the document
+   * @return this
+   */
+  public DocumentWatcher watch(@NonNull final String documentId, @NonNull final ResponseListener<NotificationResponse> listener) {
+    if (documentId == null || listener == null) {
+      throw new IllegalArgumentException("DocumentWatcher.watch: document ID and listener required");
+    }
+
+    boolean added;
+
+    synchronized (this) {
+      List<ResponseListener<NotificationResponse>> watchers = this.listeners.get(documentId);
+      added = watchers == null;
+
+      if (added) {
+        watchers = new CopyOnWriteArrayList<>();
+        this.listeners.put(documentId, watchers);
+      }
+
+      watchers.add(listener);
+    }
+
+    if (added) {
+      scheduleUpdate();
+    }
+
+    return this;
+  }
+
+  /**
+   * Stops notifying a listener of a document
+   *
+   * @param documentId - Document ID
+   * @param listener - Notification listener to remove
+   * @return this
+   */
+  public DocumentWatcher unwatch(@NonNull final String documentId, @NonNull final ResponseListener<NotificationResponse> listener) {
+    boolean removed = false;
+
+    synchronized (this) {
+      List<ResponseListener<NotificationResponse>> watchers = this.listeners.get(documentId);
+
+      if (watchers != null && watchers.remove(listener) && watchers.isEmpty()) {
+        this.listeners.remove(documentId);
+        removed = true;
+      }
+    }
+
+    if (removed) {
+      scheduleUpdate();
+    }
+
+    return this;
+  }
+
+  /**
+   * Stops watching a document, whatever its listeners
+   *
+   * @param documentId - Document ID
+   * @return this
+   */
+  public DocumentWatcher unwatch(@NonNull final String documentId) {
+    boolean removed;
+
+    synchronized (this) {
+      removed = this.listeners.remove(documentId) != null;
+    }
+
+    if (removed) {
+      scheduleUpdate();
+    }
+
+    return this;
+  }
+
+  /**
+   * @return IDs of the watched documents
+   */
+  public Set<String> getWatchedIds() {
+    return Collections.unmodifiableSet(new TreeSet<>(this.listeners.keySet()));
+  }
+
+  /**
+   * @return IDs filtering the current subscription
+   */
+  public synchronized Set<String> getSubscribedIds() {
+    return Collections.unmodifiableSet(this.subscribedIds);
+  }
+
+  private synchronized void scheduleUpdate() {
+    if (this.scheduled) {
+      return;
+    }
+
+    this.scheduled = true;
+    this.dataCollection.getKuzzle().getScheduler().schedule(new Runnable() {
+      @Override
+      public void run() {
+        update();
+      }
+    }, this.debounce, TimeUnit.MILLISECONDS);
+  }
+
+  /**
+   * Replaces the subscription with one filtering on the watched document IDs.
+   * A single update runs at a time: changes made in the meantime are applied once it is done
+   */
+  private void update() {
+    final Set<String> ids;
+    final Room previous;
+
+    synchronized (this) {
+      this.scheduled = false;
+      ids = new TreeSet<>(this.listeners.keySet());
+
+      if (this.updating || ids.equals(this.subscribedIds)) {
+        return;
+      }
+
+      this.updating = true;
+      previous = this.room;
+    }
+
+    if (ids.isEmpty()) {
+      synchronized (this) {
+        this.room = null;
+        this.subscribedIds = ids;
+      }
+
+      previous.unsubscribe();
+      updated();
+      return;
+    }
+
+    final Room next = new Room(this.dataCollection, this.options);
+    SubscribeListener done = new SubscribeListener();
+
+    done.onDone(new ResponseListener<Room>() {
+      @Override
+      public void onSuccess(Room response) {
+        synchronized (DocumentWatcher.this) {
+          DocumentWatcher.this.room = next;
+          DocumentWatcher.this.subscribedIds = ids;
+        }
+
+        if (previous != null) {
+          previous.unsubscribe();
+        }
+
+        updated();
+      }
+
+      @Override
+      public void onError(JSONObject error) {
+        synchronized (DocumentWatcher.this) {
+          DocumentWatcher.this.updating = false;
+        }
+
+        failAll(error);
+      }
+    });
+
+    try {
+      next.renew(new JSONObject().put("ids", new JSONObject().put("values", new JSONArray(ids))), this.dispatcher, done);
+    } catch (JSONException e) {
+      throw new RuntimeException(e);
+    }
+  }
+
+  private void updated() {
+    boolean changed;
+
+    synchronized (this) {
+      this.updating = false;
+      changed = !this.subscribedIds.equals(this.listeners.keySet());
+    }
+
+    if (changed) {
+      scheduleUpdate();
+    }
+  }
+
+  private void failAll(final JSONObject error) {
+    for (List<ResponseListener<NotificationResponse>> watchers : this.listeners.values()) {
+      for (ResponseListener<NotificationResponse> listener : watchers) {
+        listener.onError(error);
+      }
+    }
+  }
+}
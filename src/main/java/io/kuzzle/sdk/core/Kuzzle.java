@@ -14,32 +14,70 @@ import java.io.InputStreamReader;
 import java.net.HttpURLConnection;
 import java.net.URI;
 import java.net.URISyntaxException;
+import java.nio.ByteBuffer;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
 import java.util.Calendar;
+import java.util.Collections;
 import java.util.Date;
+import java.util.HashSet;
+import java.util.IdentityHashMap;
 import java.util.Iterator;
+import java.util.List;
 import java.util.Map;
 import java.util.Queue;
-import java.util.Timer;
-import java.util.TimerTask;
-import java.util.UUID;
+import java.util.Set;
+import java.util.WeakHashMap;
 import java.util.concurrent.ConcurrentHashMap;
-
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import io.kuzzle.sdk.codec.Codec;
+import io.kuzzle.sdk.codec.JsonCodec;
 import io.kuzzle.sdk.enums.Event;
+import io.kuzzle.sdk.enums.EventDelivery;
 import io.kuzzle.sdk.enums.Mode;
+import io.kuzzle.sdk.enums.Sharding;
 import io.kuzzle.sdk.listeners.EventListener;
 import io.kuzzle.sdk.listeners.ResponseListener;
 import io.kuzzle.sdk.listeners.OnQueryDoneListener;
+import io.kuzzle.sdk.metrics.Gauge;
+import io.kuzzle.sdk.metrics.KuzzleMetrics;
 import io.kuzzle.sdk.responses.TokenValidity;
 import io.kuzzle.sdk.security.Security;
 import io.kuzzle.sdk.security.User;
 import io.kuzzle.sdk.state.KuzzleQueue;
+import io.kuzzle.sdk.state.OfflineQueueJournal;
 import io.kuzzle.sdk.state.States;
+import io.kuzzle.sdk.transport.HeartbeatListener;
+import io.kuzzle.sdk.transport.HeartbeatTransport;
+import io.kuzzle.sdk.transport.ReconnectionPolicy;
+import io.kuzzle.sdk.transport.ShardedTransport;
+import io.kuzzle.sdk.transport.Transport;
+import io.kuzzle.sdk.transport.TransportListener;
+import io.kuzzle.sdk.transport.WebSocketTransport;
+import io.kuzzle.sdk.util.CollectionCache;
+import io.kuzzle.sdk.util.ConcurrencyLimiter;
 import io.kuzzle.sdk.util.EventList;
+import io.kuzzle.sdk.util.ExpiringSet;
 import io.kuzzle.sdk.util.OfflineQueueLoader;
 import io.kuzzle.sdk.util.QueryObject;
 import io.kuzzle.sdk.util.QueueFilter;
+import io.kuzzle.sdk.util.RequestEnvelope;
+import io.kuzzle.sdk.util.RequestIdGenerator;
+import io.kuzzle.sdk.util.RequestSerializer;
+import io.kuzzle.sdk.util.SerialExecutor;
+import io.kuzzle.sdk.util.SessionRequestIdGenerator;
+import io.kuzzle.sdk.util.TimingWheel;
 import io.kuzzle.sdk_android.BuildConfig;
-import tech.gusavila92.websocketclient.WebSocketClient;
 
 /**
  * The type Kuzzle.
@@ -47,14 +85,56 @@ import tech.gusavila92.websocketclient.WebSocketClient;
 public class Kuzzle {
   private final int MAX_EMIT_TIMEOUT = 10;
   private final int EVENT_TIMEOUT = 200;
+  private final long REQUEST_DEADLINE_TICK = 100;
+  private final long SCHEDULER_KEEP_ALIVE = 10000;
+  private static final Codec JSON_CODEC = new JsonCodec();
+  public static final long DEFAULT_REQUEST_TIMEOUT = 30000;
 
   protected ConcurrentHashMap<Event, EventList> eventListeners = new ConcurrentHashMap<>();
-
-  protected WebSocketClient socket;
+  protected EventDelivery eventDelivery;
+  private final ConcurrentHashMap<Event, EventDelivery> eventDeliveries = new ConcurrentHashMap<>();
+  protected Executor eventExecutor;
+  protected int eventBufferSize;
+  private final ConcurrentLinkedQueue<PendingEvent> pendingEvents = new ConcurrentLinkedQueue<>();
+  private final AtomicInteger pendingEventsCount = new AtomicInteger();
+  private final AtomicBoolean drainingEvents = new AtomicBoolean();
+  private final AtomicLong droppedEvents = new AtomicLong();
+  protected Executor callbackExecutor;
+  protected long slowListenerThreshold;
+  protected int resubscribeConcurrency;
+  private ResubscriptionPlanner resubscription;
+  private volatile long resubscriptionLatency = -1;
+  private final ConcurrentHashMap<String, SerialExecutor> roomExecutors = new ConcurrentHashMap<>();
+
+  protected Transport transport;
+  protected Transport customTransport;
+  protected int connectionPoolSize;
+  protected KuzzleMetrics metrics;
+  protected ReconnectionPolicy reconnectionPolicy;
+  protected long heartbeatInterval;
+  protected long heartbeatTimeout;
+  private ScheduledFuture<?> heartbeat;
+  private TransportListener transportListener;
+  private volatile long lastActivity;
+  private volatile double roundTripTime = -1;
+  private static final double RTT_SMOOTHING = 0.125;
+  private static final long MAX_RECONNECTION_DELAY = 30000;
+  private static final long NOTIFICATION_HISTORY_TTL = 5000;
+  protected Sharding sharding;
+  protected Codec codec;
+  protected boolean codecNegotiation;
+  private volatile boolean binaryFrames = false;
+  private final double REQUEST_WINDOW_BACKOFF = 0.5;
+  private final double REQUEST_WINDOW_LATENCY_TOLERANCE = 2.0;
+  protected ConcurrencyLimiter requestWindow;
+  private final ArrayDeque<QueryObject> pendingRequests = new ArrayDeque<>();
+  private boolean drainingRequests = false;
   protected ConcurrentHashMap<String, OnQueryDoneListener> currentQueries = new ConcurrentHashMap<>();
   protected ConcurrentHashMap<String, EventListener> roomList = new ConcurrentHashMap<>();
 
-  protected Map<String, Map<String, Collection>> collections = new ConcurrentHashMap<>();
+  protected CollectionCache<Collection> collections;
+  // by index and collection: watchers outlive the Collection objects evicted from the cache
+  private final ConcurrentHashMap<String, DocumentWatcher> documentWatchers = new ConcurrentHashMap<>();
   protected boolean autoReconnect = true;
   protected JSONObject headers = new JSONObject();
   protected JSONObject _volatile;
@@ -76,13 +156,29 @@ public class Kuzzle {
   };
 
   protected long replayInterval;
+  protected int replayBatchSize;
+  protected int replayWindow;
+  private final Object replayLock = new Object();
+  private final AtomicInteger replayInFlight = new AtomicInteger();
+  private boolean replayPaused = false;
+  private long replayStartedAt = -1;
+  private int replayedCount = 0;
   protected boolean queuing = false;
   protected String defaultIndex;
-  protected ConcurrentHashMap<String, Date> requestHistory = new ConcurrentHashMap<>();
+  protected ExpiringSet<String> requestHistory = new ExpiringSet<>(MAX_EMIT_TIMEOUT * 1000, 10);
   protected KuzzleQueue<QueryObject> offlineQueue = new KuzzleQueue<>();
   protected int queueTTL;
   protected int queueMaxSize;
   protected String jwtToken = null;
+  private volatile RequestEnvelope envelope;
+  private final RequestSerializer serializer = new RequestSerializer();
+  protected RequestIdGenerator requestIdGenerator;
+  protected long requestTimeout;
+  protected TimingWheel<String> requestDeadlines = new TimingWheel<>(REQUEST_DEADLINE_TICK, 512);
+  private ScheduledFuture<?> requestReaper;
+  protected ScheduledExecutorService scheduler;
+  protected int schedulerThreads;
+  private boolean ownsScheduler;
 
   /*
    This property contains the centralized subscription list in the following format:
@@ -100,7 +196,22 @@ public class Kuzzle {
    */
   protected ConcurrentHashMap<String, ConcurrentHashMap<String, Room>> subscriptions = new ConcurrentHashMap<>();
 
+  /*
+   Server subscriptions shared by the rooms subscribing with identical parameters,
+   indexed by the canonical form of their subscribe request
+   */
+  private final ConcurrentHashMap<String, SharedSubscription> sharedSubscriptions = new ConcurrentHashMap<>();
+
+  // Document notifications recently delivered to each room listener, to deliver them once
+  // to listeners attached to overlapping rooms
+  private final Map<Object, ExpiringSet<String>> deliveredNotifications = new WeakHashMap<>();
+
+  // Number of subscribed rooms per room listener: only listeners shared by several rooms
+  // need their notifications deduplicated. Updated with the sharedSubscriptions lock held
+  private final ConcurrentHashMap<Object, Integer> listenerRooms = new ConcurrentHashMap<>();
+
   private OfflineQueueLoader offlineQueueLoader;
+  protected OfflineQueueJournal offlineQueueJournal;
 
   /**
    * Security static class
@@ -118,27 +229,162 @@ public class Kuzzle {
     public String collection;
   }
 
+  /**
+   * Global event waiting for the event executor
+   */
+  private static class PendingEvent {
+    final io.kuzzle.sdk.util.Event[] listeners;
+    final Object[] args;
+
+    PendingEvent(io.kuzzle.sdk.util.Event[] listeners, Object[] args) {
+      this.listeners = listeners;
+      this.args = args;
+    }
+  }
+
   /**
    * Emit an event to all registered listeners
-   * An event cannot be emitted multiple times before a timeout has been reached.
+   * Depending on the event delivery mode, an event emitted multiple times before a timeout
+   * has been reached is either dropped, coalesced with the next ones, or delivered.
+   * Coalesced events are delivered with one more argument: the number of events merged
+   * into the delivered one
    *
    * @param event - Event name to emit
    * @param args - Event payload
    */
   protected void emitEvent(Event event, Object... args) {
-    long now = System.currentTimeMillis();
+    final EventList l = this.eventListeners.get(event);
+
+    if (l == null) {
+      return;
+    }
 
-    if (this.eventListeners.containsKey(event)) {
-      EventList l = this.eventListeners.get(event);
+    long now = System.currentTimeMillis();
 
-      if (l.lastEmitted < now - this.EVENT_TIMEOUT) {
-        for (io.kuzzle.sdk.util.Event e : l.values()) {
-          e.trigger(args);
+    switch (this.getEventDelivery(event)) {
+      case ALL:
+        this.deliverEvent(l, args);
+        break;
+      case COALESCE:
+        if (l.acquire(now, this.EVENT_TIMEOUT)) {
+          this.deliverEvent(l, EventList.withCount(args, 1));
+        } else if (l.coalesce(args)) {
+          getScheduler().schedule(new Runnable() {
+            @Override
+            public void run() {
+              deliverEvent(l, l.takeCoalesced(System.currentTimeMillis()));
+            }
+          }, Math.max(0, l.lastEmitted + this.EVENT_TIMEOUT - now), TimeUnit.MILLISECONDS);
+        } else {
+          this.droppedEvents.incrementAndGet();
+        }
+        break;
+      default:
+        if (l.acquire(now, this.EVENT_TIMEOUT)) {
+          this.deliverEvent(l, args);
+        } else {
+          this.droppedEvents.incrementAndGet();
         }
+    }
+  }
+
+  /**
+   * Triggers the listeners of an event, either right away, or in emission order on the
+   * event executor if any
+   *
+   * @param l - Event listeners
+   * @param args - Event payload
+   */
+  private void deliverEvent(EventList l, Object[] args) {
+    io.kuzzle.sdk.util.Event[] listeners = l.getListeners();
+
+    if (this.eventExecutor == null) {
+      for (io.kuzzle.sdk.util.Event e : listeners) {
+        e.trigger(args);
+      }
+      return;
+    }
+
+    if (listeners.length == 0) {
+      return;
+    }
+
+    if (this.pendingEventsCount.incrementAndGet() > this.eventBufferSize) {
+      this.pendingEventsCount.decrementAndGet();
+      this.droppedEvents.incrementAndGet();
+      return;
+    }
+
+    this.pendingEvents.add(new PendingEvent(listeners, args));
+    this.drainEvents();
+  }
+
+  /**
+   * Runs the pending events on the event executor, one at a time so that they are
+   * delivered in emission order
+   */
+  private void drainEvents() {
+    if (!this.drainingEvents.compareAndSet(false, true)) {
+      return;
+    }
+
+    this.eventExecutor.execute(new Runnable() {
+      @Override
+      public void run() {
+        try {
+          PendingEvent pending;
+
+          while ((pending = pendingEvents.poll()) != null) {
+            pendingEventsCount.decrementAndGet();
+
+            for (io.kuzzle.sdk.util.Event e : pending.listeners) {
+              e.trigger(pending.args);
+            }
+          }
+        } finally {
+          drainingEvents.set(false);
 
-        l.lastEmitted = now;
+          if (!pendingEvents.isEmpty()) {
+            drainEvents();
+          }
+        }
       }
+    });
+  }
+
+  /**
+   * Delivery mode of an event
+   *
+   * @param event - Event type
+   * @return delivery mode set for this event, or the default one
+   */
+  public EventDelivery getEventDelivery(Event event) {
+    EventDelivery delivery = this.eventDeliveries.get(event);
+    return delivery != null ? delivery : this.eventDelivery;
+  }
+
+  /**
+   * Sets how an event emitted in quick succession is delivered, overriding the
+   * eventDelivery option
+   *
+   * @param event - Event type
+   * @param delivery - Delivery mode
+   * @return this
+   */
+  public Kuzzle setEventDelivery(@NonNull Event event, @NonNull EventDelivery delivery) {
+    if (event == null || delivery == null) {
+      throw new IllegalArgumentException("Kuzzle.setEventDelivery: event and delivery mode required");
     }
+
+    this.eventDeliveries.put(event, delivery);
+    return this;
+  }
+
+  /**
+   * @return number of events dropped, either by the delivery mode or because the event executor buffer was full
+   */
+  public long getDroppedEventCount() {
+    return this.droppedEvents.get();
   }
 
   /**
@@ -179,6 +425,49 @@ public class Kuzzle {
     this.queueTTL = opt.getQueueTTL();
     this.reconnectionDelay = opt.getReconnectionDelay();
     this.replayInterval = opt.getReplayInterval();
+    this.replayBatchSize = opt.getReplayBatchSize();
+    this.replayWindow = opt.getReplayWindow();
+    this.customTransport = opt.getTransport();
+    this.connectionPoolSize = opt.getConnectionPoolSize();
+    this.sharding = opt.getSharding();
+    this.codec = opt.getCodec();
+    this.codecNegotiation = opt.isCodecNegotiation();
+
+    if (opt.getRequestWindow() > 0) {
+      this.requestWindow = new ConcurrencyLimiter(opt.getRequestWindow(), 1, Math.max(opt.getRequestWindow(), opt.getMaxRequestWindow()),
+        REQUEST_WINDOW_BACKOFF, REQUEST_WINDOW_LATENCY_TOLERANCE);
+    }
+    this.requestTimeout = opt.getRequestTimeout() != null ? opt.getRequestTimeout() : DEFAULT_REQUEST_TIMEOUT;
+    this.scheduler = opt.getScheduler();
+    this.schedulerThreads = opt.getSchedulerThreads();
+    this.offlineQueueJournal = opt.getOfflineQueueJournal();
+    this.requestIdGenerator = opt.getRequestIdGenerator() != null ? opt.getRequestIdGenerator() : new SessionRequestIdGenerator();
+    this.metrics = opt.getMetrics();
+    this.heartbeatInterval = opt.getHeartbeatInterval();
+    this.heartbeatTimeout = opt.getHeartbeatTimeout();
+    this.eventDelivery = opt.getEventDelivery();
+    this.eventExecutor = opt.getEventExecutor();
+    this.eventBufferSize = opt.getEventBufferSize();
+    this.callbackExecutor = opt.getCallbackExecutor();
+    this.slowListenerThreshold = opt.getSlowListenerThreshold();
+    this.resubscribeConcurrency = opt.getResubscribeConcurrency();
+    this.collections = new CollectionCache<>(opt.getCollectionCacheSize(), new CollectionCache.Factory<Collection>() {
+      @Override
+      public Collection create(String index, String collection) {
+        return new Collection(Kuzzle.this, collection, index);
+      }
+    });
+    this.reconnectionPolicy = opt.getReconnectionPolicy() != null
+      ? opt.getReconnectionPolicy()
+      : new ReconnectionPolicy(Math.max(0, this.reconnectionDelay), Math.max(this.reconnectionDelay, MAX_RECONNECTION_DELAY));
+
+    if (this.metrics != null) {
+      this.registerGauges(this.metrics);
+    }
+
+    if (this.offlineQueueJournal != null) {
+      this.mergeOfflineQueue(this.offlineQueueJournal.load());
+    }
 
     this.connectionCallback = connectionCallback;
 
@@ -246,11 +535,18 @@ public class Kuzzle {
       }
     };
 
-    if (!eventListeners.containsKey(kuzzleEvent)) {
-      eventListeners.put(kuzzleEvent, new EventList());
+    EventList l = eventListeners.get(kuzzleEvent);
+
+    if (l == null) {
+      EventList created = new EventList();
+      l = eventListeners.putIfAbsent(kuzzleEvent, created);
+
+      if (l == null) {
+        l = created;
+      }
     }
 
-    eventListeners.get(kuzzleEvent).put(listener, e);
+    l.put(listener, e);
     return this;
   }
 
@@ -318,16 +614,33 @@ public class Kuzzle {
       }
     }
 
-    if (this.socket != null) {
+    if (this.transport != null) {
       this.disconnect();
     }
 
-    this.socket = createSocket();
+    this.transport = createTransport();
 
     Kuzzle.this.state = States.CONNECTING;
 
-    if (socket != null) {
-      socket.connect();
+    if (transport != null) {
+      this.transportListener = createTransportListener();
+      transport.setListener(this.transportListener);
+
+      if (transport instanceof ShardedTransport) {
+        ((ShardedTransport) transport).setShardListener(new ShardedTransport.ShardListener() {
+          @Override
+          public void onShardReconnected(int shard) {
+            Kuzzle.this.renewSubscriptions(shard);
+          }
+
+          @Override
+          public boolean isPending(String requestId) {
+            return Kuzzle.this.currentQueries.containsKey(requestId);
+          }
+        });
+      }
+
+      transport.connect();
     }
 
     return this;
@@ -349,7 +662,9 @@ public class Kuzzle {
   }
 
   /**
-   * Collection object factory
+   * Collection object factory.
+   * Collection objects are cached: the same instance is returned for the same index and
+   * collection, unless evicted from a cache bounded by the collectionCacheSize option
    *
    * @param collection - Data collection name
    * @param index - Parent data index name
@@ -361,12 +676,33 @@ public class Kuzzle {
       throw new IllegalArgumentException("Collection: unable to create a new data collection object: no index specified");
     }
 
-    if (!this.collections.containsKey(collection)) {
-      Map<String, Collection> col = new ConcurrentHashMap<>();
-      col.put(collection, new Collection(this, collection, index));
-      this.collections.put(index, col);
+    if (collection == null) {
+      throw new IllegalArgumentException("Collection: index and collection required");
+    }
+
+    return this.collections.get(index != null ? index : this.defaultIndex, collection);
+  }
+
+  /**
+   * Returns the document watcher of a data collection, created on first use
+   *
+   * @param dataCollection - Data collection of the watched documents
+   * @return document watcher
+   */
+  DocumentWatcher getDocumentWatcher(final Collection dataCollection) {
+    String key = dataCollection.getIndex() + "/" + dataCollection.getCollection();
+    DocumentWatcher watcher = this.documentWatchers.get(key);
+
+    if (watcher == null) {
+      DocumentWatcher created = new DocumentWatcher(dataCollection);
+      watcher = this.documentWatchers.putIfAbsent(key, created);
+
+      if (watcher == null) {
+        watcher = created;
+      }
     }
-    return this.collections.get(index).get(collection);
+
+    return watcher;
   }
 
   /**
@@ -432,6 +768,15 @@ public class Kuzzle {
    */
   public Kuzzle flushQueue() {
     this.getOfflineQueue().clear();
+
+    if (this.offlineQueueJournal != null) {
+      try {
+        this.offlineQueueJournal.clear();
+      } catch (IOException e) {
+        throw new RuntimeException(e);
+      }
+    }
+
     return this;
   }
 
@@ -883,7 +1228,7 @@ public class Kuzzle {
     @Override
     public boolean shouldOverrideUrlLoading(WebView view, final String url) {
       if (url.contains("code=")) {
-        new Thread(new Runnable() {
+        Kuzzle.this.getScheduler().execute(new Runnable() {
           @Override
           public void run() {
             try {
@@ -918,7 +1263,7 @@ public class Kuzzle {
               e.printStackTrace();
             }
           }
-        }).start();
+        });
       } else {
         view.loadUrl(url);
       }
@@ -940,11 +1285,16 @@ public class Kuzzle {
    * Does not fire a disconnected event.
    */
   public void disconnect() {
-    if (this.socket != null) {
-      this.socket.close();
+    if (this.transport != null) {
+      this.transport.close();
     }
 
-    this.socket = null;
+    this.transport = null;
+    this.stopHeartbeat();
+    this.stopRequestReaper();
+    this.resetReplay();
+    this.flushPendingRequests();
+    this.shutdownScheduler();
     this.collections.clear();
     this.state = States.DISCONNECTED;
   }
@@ -1071,27 +1421,23 @@ public class Kuzzle {
    */
   public Kuzzle query(final QueryArgs queryArgs, final JSONObject query, final Options options, final OnQueryDoneListener listener) throws JSONException {
     this.isValid();
+    OnQueryDoneListener cb = this.callbackListener(queryArgs, listener);
     JSONObject object = query != null ? query : new JSONObject();
 
     if (object.isNull("requestId")) {
-      object.put("requestId", UUID.randomUUID().toString());
+      object.put("requestId", this.requestIdGenerator.next());
     }
 
     object
             .put("action", queryArgs.action)
             .put("controller", queryArgs.controller);
 
-    // Global volatile data
-    JSONObject _volatile = new JSONObject();
-    for (Iterator ite = this._volatile.keys(); ite.hasNext(); ) {
-      String key = (String) ite.next();
-      _volatile.put(key, this._volatile.get(key));
-    }
-
     // Volatile data for this query
+    JSONObject queryVolatile = null;
+
     if (options != null) {
       if (!options.isQueuable() && this.state != States.CONNECTED) {
-        discardRequest(listener, object);
+        discardRequest(cb, object);
         return this;
       }
 
@@ -1099,12 +1445,7 @@ public class Kuzzle {
         object.put("refresh", options.getRefresh());
       }
 
-      if (options.getVolatile() != null) {
-        for (Iterator iterator = options.getVolatile().keys(); iterator.hasNext(); ) {
-          String key = (String) iterator.next();
-          _volatile.put(key, options.getVolatile().get(key));
-        }
-      }
+      queryVolatile = options.getVolatile();
 
       if (options.getFrom() != null) {
         object.put("from", options.getFrom());
@@ -1123,8 +1464,8 @@ public class Kuzzle {
       }
     }
 
-    _volatile.put("sdkVersion", this.getSdkVersion());
-    object.put("volatile", _volatile);
+    RequestEnvelope envelope = this.getEnvelope();
+    object.put("volatile", envelope.getVolatile(queryVolatile));
 
     if (queryArgs.collection != null) {
       object.put("collection", queryArgs.collection);
@@ -1134,7 +1475,7 @@ public class Kuzzle {
       object.put("index", queryArgs.index);
     }
 
-    this.addHeaders(object, this.headers);
+    envelope.addHeaders(object);
 
     /*
      * Do not add the token for the checkToken route, to avoid getting a token error when
@@ -1145,32 +1486,37 @@ public class Kuzzle {
     }
 
     if (this.state == States.CONNECTED || (options != null && !options.isQueuable())) {
-      emitRequest(object, listener == null ? null : new OnQueryDoneListener() {
-        @Override
-        public void onSuccess(JSONObject response) {
-          listener.onSuccess(response);
-        }
+      if (this.requestWindow != null && this.state == States.CONNECTED) {
+        QueryObject o = new QueryObject();
+        o.setTimestamp(new Date());
+        o.setCb(cb);
+        o.setQuery(object);
+        o.setOptions(options);
 
-        @Override
-        public void onError(JSONObject error) {
-          if (error != null) {
-            listener.onError(error);
-          }
+        synchronized (this.pendingRequests) {
+          this.pendingRequests.add(o);
         }
-      });
+
+        this.drainPendingRequests();
+      } else {
+        emitRequest(object, this.getRequestTimeout(options), cb);
+      }
     } else if (this.queuing || (options != null && options.isQueuable()) || this.state == States.INITIALIZING || this.state == States.CONNECTING) {
       cleanQueue();
+      detachVolatile(object);
 
       if (queueFilter.filter(object)) {
         QueryObject o = new QueryObject();
         o.setTimestamp(new Date());
-        o.setCb(listener);
+        o.setCb(cb);
         o.setQuery(object);
+        o.setOptions(options);
         this.offlineQueue.addToQueue(o);
+        this.journalAppend(o);
         Kuzzle.this.emitEvent(Event.offlineQueuePush, o);
       }
     } else {
-      discardRequest(listener, object);
+      discardRequest(cb, object);
     }
 
     return this;
@@ -1222,11 +1568,106 @@ public class Kuzzle {
    * - after a successful login attempt, to subscribe with the new credentials
    */
   protected void renewSubscriptions() {
+    this.renewSubscriptions(false);
+  }
+
+  /**
+   * Renew all registered subscriptions, at most resubscribeConcurrency at a time.
+   * A new plan replaces the one in progress, if any: its remaining rooms are part of the new one
+   *
+   * @param dropped - true if the subscriptions were dropped along with the connection
+   */
+  private void renewSubscriptions(final boolean dropped) {
+    ResubscriptionPlanner planner = new ResubscriptionPlanner(this.getRenewableRooms(null, -1), dropped, this.resubscribeConcurrency, this.resubscriptionListener);
+    ResubscriptionPlanner previous;
+
+    synchronized (this) {
+      previous = this.resubscription;
+      this.resubscription = planner;
+    }
+
+    if (previous != null) {
+      previous.abort();
+    }
+
+    planner.start();
+  }
+
+  /**
+   * Renew the subscriptions made on a pooled connection, after it reconnected alone
+   *
+   * @param shard - Shard index
+   */
+  protected void renewSubscriptions(int shard) {
+    if (!(this.transport instanceof ShardedTransport)) {
+      return;
+    }
+
+    new ResubscriptionPlanner(this.getRenewableRooms((ShardedTransport) this.transport, shard), true, this.resubscribeConcurrency, this.resubscriptionListener).start();
+  }
+
+  /**
+   * Lists the registered rooms, forgetting their shared subscriptions so that
+   * renewed rooms share new ones
+   *
+   * @param sharded - Pooled connection, or null to list all rooms
+   * @param shard - Shard index, if sharded is set
+   * @return rooms to renew
+   */
+  private List<Room> getRenewableRooms(final ShardedTransport sharded, final int shard) {
+    Set<Room> rooms = Collections.newSetFromMap(new IdentityHashMap<Room, Boolean>());
+
     for (Map<String, Room> roomSubscriptions : subscriptions.values()) {
       for (Room room : roomSubscriptions.values()) {
-        room.renew(room.getListener(), room.getSubscribeListener());
+        if (sharded == null || getShard(sharded, room.dataCollection.getIndex(), room.getCollection()) == shard) {
+          rooms.add(room);
+        }
+      }
+    }
+
+    for (Room room : rooms) {
+      forgetSharedSubscription(room);
+    }
+
+    return new ArrayList<>(rooms);
+  }
+
+  private final ResubscriptionPlanner.Listener resubscriptionListener = new ResubscriptionPlanner.Listener() {
+    @Override
+    public void done(ResubscriptionPlanner planner) {
+      long duration = planner.getDuration();
+
+      synchronized (Kuzzle.this) {
+        if (Kuzzle.this.resubscription == planner) {
+          Kuzzle.this.resubscription = null;
+        }
+      }
+
+      if (planner.getRoomCount() == 0) {
+        return;
+      }
+
+      Kuzzle.this.resubscriptionLatency = duration;
+
+      try {
+        Kuzzle.this.emitEvent(Event.resubscribed, new JSONObject()
+          .put("rooms", planner.getRoomCount())
+          .put("failed", planner.getFailedCount())
+          .put("duration", duration));
+      } catch (JSONException e) {
+        throw new RuntimeException(e);
       }
     }
+  };
+
+  /**
+   * Duration of the last subscriptions renewal, from the first renewal request
+   * to the last response
+   *
+   * @return duration in milliseconds, or -1 if no subscription was renewed yet
+   */
+  public long getResubscriptionLatency() {
+    return this.resubscriptionLatency;
   }
 
   /**
@@ -1260,6 +1701,8 @@ public class Kuzzle {
    * @return this
    */
   public Kuzzle setHeaders(final JSONObject content, boolean replace) {
+    this.envelope = null;
+
     if (this.headers == null) {
       this.headers = new JSONObject();
     }
@@ -1322,37 +1765,88 @@ public class Kuzzle {
   }
 
   /**
-   * Handles network reconnection
+   * Handles network reconnection.
+   * Subscriptions are renewed and queued requests replayed after the random delay given
+   * by the reconnection policy, to spread the load of clients reconnecting all at once
    */
   private void reconnect() {
+    long delay = this.reconnectionPolicy.getResumeDelay();
+
+    if (delay > 0) {
+      getScheduler().schedule(new Runnable() {
+        @Override
+        public void run() {
+          if (Kuzzle.this.state == States.CONNECTED) {
+            resume();
+          }
+        }
+      }, delay, TimeUnit.MILLISECONDS);
+    } else {
+      this.resume();
+    }
+
+    this.emitEvent(Event.reconnected);
+  }
+
+  private void resume() {
     if (this.autoResubscribe) {
-      this.renewSubscriptions();
+      this.renewSubscriptions(true);
     }
 
     if (this.autoReplay) {
       this.cleanQueue();
       this.dequeue();
     }
-
-    this.emitEvent(Event.reconnected);
   }
 
   /**
-   * Create a new connection socket
-   * @return created socket
+   * Create a new transport. Uses the transport provided in the constructor options
+   * if any, or a WebSocket connection otherwise
+   * @return created transport
    * @throws URISyntaxException
    */
-  protected WebSocketClient createSocket() throws URISyntaxException {
-    URI uri = null;
-    try {
-      uri = new URI((this.isSsl ? "wss" : "ws")+"://"+this.host+":"+this.port+"/");
+  protected Transport createTransport() throws URISyntaxException {
+    if (this.customTransport != null) {
+      return this.customTransport;
     }
-    catch (URISyntaxException e) {
-      e.printStackTrace();
+
+    if (this.connectionPoolSize > 1) {
+      List<Transport> shards = new ArrayList<>(this.connectionPoolSize);
+
+      for (int i = 0; i < this.connectionPoolSize; i++) {
+        shards.add(createWebSocketTransport());
+      }
+
+      return new ShardedTransport(shards, this.queueMaxSize);
+    }
+
+    return createWebSocketTransport();
+  }
+
+  private WebSocketTransport createWebSocketTransport() throws URISyntaxException {
+    URI uri = new URI((this.isSsl ? "wss" : "ws")+"://"+this.host+":"+this.port+"/");
+    WebSocketTransport webSocket = new WebSocketTransport(uri, this.autoReconnect ? this.reconnectionPolicy : null, getScheduler());
+
+    if (this.codec != null && this.codec.isBinary()) {
+      webSocket.addHeader("Sec-WebSocket-Protocol", "kuzzle-" + this.codec.getName());
     }
-    socket = new WebSocketClient(uri) {
+
+    return webSocket;
+  }
+
+  /**
+   * Create the listener handling the transport events
+   * @return transport listener
+   */
+  protected TransportListener createTransportListener() {
+    return new HeartbeatListener() {
       @Override
       public void onOpen() {
+        Kuzzle.this.startHeartbeat();
+
+        // With codec negotiation, requests are sent as JSON text until the server answers with a binary frame
+        Kuzzle.this.binaryFrames = Kuzzle.this.codec != null && Kuzzle.this.codec.isBinary() && !Kuzzle.this.codecNegotiation;
+
         if (Kuzzle.this.state == States.OFFLINE) { // Reconnect
           Kuzzle.this.state = States.CONNECTED;
 
@@ -1381,7 +1875,7 @@ public class Kuzzle {
         } else {
           Kuzzle.this.state = States.CONNECTED;
 
-          Kuzzle.this.renewSubscriptions();
+          Kuzzle.this.renewSubscriptions(true);
           Kuzzle.this.dequeue();
           Kuzzle.this.emitEvent(Event.connected);
 
@@ -1392,33 +1886,83 @@ public class Kuzzle {
       }
 
       @Override
-      public void onTextReceived(String message) {
+      public void onMessage(String message) {
+        Kuzzle.this.lastActivity = System.nanoTime();
+
+        if (Kuzzle.this.metrics != null) {
+          Kuzzle.this.metrics.recordReceived(KuzzleMetrics.utf8Length(message));
+        }
+
+        try {
+          dispatch(new JSONObject(message));
+        } catch (JSONException e) {
+          throw new RuntimeException(e);
+        }
+      }
+
+      @Override
+      public void onBinaryMessage(byte[] message) {
+        Kuzzle.this.lastActivity = System.nanoTime();
+
+        if (Kuzzle.this.metrics != null) {
+          Kuzzle.this.metrics.recordReceived(message.length);
+        }
+
+        if (Kuzzle.this.codec != null && Kuzzle.this.codec.isBinary()) {
+          // The server answering with binary frames accepted the negotiated codec
+          Kuzzle.this.binaryFrames = true;
+          dispatch(Kuzzle.this.codec.decode(message));
+        } else {
+          dispatch(JSON_CODEC.decode(message));
+        }
+      }
+
+      /**
+       * Routes a decoded frame to the matching query and room listeners.
+       * Frames are decoded once: the same tree is handed to the query and room listeners
+       */
+      private void dispatch(JSONObject json) {
         try {
-          JSONObject json = new JSONObject(message);
-          OnQueryDoneListener listener = null;
-          if (json.has("requestId")) {
-            listener = currentQueries.get(json.getString("requestId"));
+          String requestId = json.optString("requestId", null);
+          String room = json.optString("room", null);
+          OnQueryDoneListener listener;
+
+          if (requestId != null) {
+            listener = currentQueries.remove(requestId);
+
+            if (listener != null) {
+              requestDeadlines.cancel(requestId);
+            }
           } else {
-            listener = currentQueries.get(json.getString("room"));
+            listener = room != null ? currentQueries.get(room) : null;
           }
 
+          EventListener l = room != null ? roomList.get(room) : null;
+
           if (listener != null) {
+            JSONObject error = json.optJSONObject("error");
+
             // checking token expiration
-            if (!json.isNull("error") && json.getJSONObject("error").getString("message").equals("Token expired") && !json.getString("action").equals("logout")) {
+            if (error != null && error.getString("message").equals("Token expired") && !json.getString("action").equals("logout")) {
               emitEvent(Event.tokenExpired, listener);
             }
 
-            if (!json.isNull("error")) {
-              listener.onError(json.getJSONObject("error"));
+            // the query listener may alter the response: the room listener gets its own copy
+            JSONObject response = l != null ? new JSONObject(json.toString()) : json;
+
+            if (error != null) {
+              listener.onError(response.getJSONObject("error"));
             } else {
-              listener.onSuccess(json);
+              listener.onSuccess(response);
             }
-            currentQueries.remove(json.getString("requestId"));
           }
 
-          EventListener l  = roomList.get(json.getString("room"));
           if (l != null) {
-            l.trigger(new JSONObject(message));
+            if (metrics != null && listener == null) {
+              metrics.recordNotification(room);
+            }
+
+            Kuzzle.this.notifyRoom(room, l, json);
           }
         } catch (JSONException e) {
           throw new RuntimeException(e);
@@ -1426,23 +1970,11 @@ public class Kuzzle {
       }
 
       @Override
-      public void onBinaryReceived(byte[] data) {
-
-      }
-
-      @Override
-      public void onPingReceived(byte[] data) {
-
-      }
-
-      @Override
-      public void onPongReceived(byte[] data) {
-
-      }
-
-      @Override
-      public void onException(Exception e) {
-        Kuzzle.this.state = States.ERROR;
+      public void onError(Exception e) {
+        // A failed reconnection attempt keeps the offline mode: the next successful attempt is a reconnection
+        if (Kuzzle.this.state != States.OFFLINE) {
+          Kuzzle.this.state = States.ERROR;
+        }
         Kuzzle.this.emitEvent(Event.error, e.getMessage());
 
         if (connectionCallback != null) {
@@ -1457,7 +1989,18 @@ public class Kuzzle {
       }
 
       @Override
-      public void onCloseReceived() {
+      public void onPong(byte[] payload) {
+        Kuzzle.this.heartbeatReceived(payload);
+      }
+
+      @Override
+      public void onPing(byte[] payload) {
+        Kuzzle.this.lastActivity = System.nanoTime();
+      }
+
+      @Override
+      public void onClose() {
+        Kuzzle.this.stopHeartbeat();
         Kuzzle.this.state = States.OFFLINE;
         if (!Kuzzle.this.autoReconnect) {
           Kuzzle.this.disconnect();
@@ -1466,172 +2009,1074 @@ public class Kuzzle {
           Kuzzle.this.queuing = true;
         }
         currentQueries.clear();
+        requestDeadlines.clear();
+        Kuzzle.this.resetReplay();
+        Kuzzle.this.flushPendingRequests();
 
         Kuzzle.this.emitEvent(Event.disconnected);
       }
     };
-
-    if (this.autoReconnect) {
-      socket.enableAutomaticReconnection(this.reconnectionDelay);
-    }
-
-    return socket;
   }
 
   /**
-   * Emit request.
+   * Emit request, using the global request timeout
    *
    * @param request - Request to emit
    * @param listener - Response callback listener
    * @throws JSONException
    */
   protected void emitRequest(final JSONObject request, final OnQueryDoneListener listener) throws JSONException {
-    Date now = new Date();
-    Calendar c = Calendar.getInstance();
-    c.setTime(now);
-    c.add(Calendar.SECOND, -MAX_EMIT_TIMEOUT);
-
-    if (listener != null) {
-      currentQueries.put(request.get("requestId").toString(), listener);
-    }
-
-    socket.send(request.toString());
-
-    // Track requests made to allow Room.subscribeToSelf to work
-    this.requestHistory.put(request.getString("requestId"), new Date());
+    emitRequest(request, this.requestTimeout, listener);
+  }
 
-    // Clean history from requests made more than 10s ago
-    Iterator ite = requestHistory.keySet().iterator();
+  /**
+   * Emit request.
+   * If the request is not answered before the provided timeout, the response listener
+   * is invoked with a timeout error and discarded
+   *
+   * @param request - Request to emit
+   * @param timeout - Maximum time to wait for a response, in milliseconds (0 = no timeout)
+   * @param listener - Response callback listener
+   * @throws JSONException
+   */
+  protected void emitRequest(final JSONObject request, long timeout, final OnQueryDoneListener listener) throws JSONException {
+    KuzzleMetrics metrics = this.metrics;
+    // requests without a listener are sent by a reconnecting shard whatever happened meanwhile
+    String requestId = null;
+
+    if (listener != null) {
+      requestId = request.get("requestId").toString();
+      currentQueries.put(requestId, metrics != null ? timedListener(metrics, request, listener) : listener);
+
+      if (timeout > 0) {
+        requestDeadlines.schedule(requestId, timeout, System.currentTimeMillis());
+        startRequestReaper();
+      }
+    }
+
+    Transport current = this.transport;
+    int shard = current instanceof ShardedTransport ? this.getShard((ShardedTransport) current, request) : -1;
+
+    if (this.binaryFrames) {
+      byte[] frame = this.codec.encode(request);
+
+      if (shard >= 0) {
+        ((ShardedTransport) current).send(frame, shard, requestId);
+      } else {
+        current.send(frame);
+      }
+
+      if (metrics != null) {
+        metrics.recordSent(frame.length);
+      }
+    } else {
+      String frame;
+
+      synchronized (this.serializer) {
+        frame = this.serializer.serialize(request, this.envelope);
+      }
+
+      if (shard >= 0) {
+        ((ShardedTransport) current).send(frame, shard, requestId);
+      } else {
+        current.send(frame);
+      }
+
+      if (metrics != null) {
+        metrics.recordSent(KuzzleMetrics.utf8Length(frame));
+      }
+    }
+
+    // Track requests made to allow Room.subscribeToSelf to work.
+    // Requests made more than 10s ago expire from the history
+    this.requestHistory.add(request.getString("requestId"));
+  }
+
+  /**
+   * Wraps a request callback, to run it on the callback executor and to report it if
+   * it runs for too long
+   *
+   * @param queryArgs - Request controller and action
+   * @param listener - Request callback, may be null
+   * @return wrapped callback
+   */
+  private OnQueryDoneListener callbackListener(final QueryArgs queryArgs, final OnQueryDoneListener listener) {
+    if (listener == null || (this.callbackExecutor == null && this.slowListenerThreshold <= 0)) {
+      return listener;
+    }
+
+    final String route = queryArgs.controller + ":" + queryArgs.action;
+
+    return new OnQueryDoneListener() {
+      @Override
+      public void onSuccess(final JSONObject response) {
+        runCallback(callbackExecutor, "response", route, new Runnable() {
+          @Override
+          public void run() {
+            listener.onSuccess(response);
+          }
+        });
+      }
+
+      @Override
+      public void onError(final JSONObject error) {
+        runCallback(callbackExecutor, "response", route, new Runnable() {
+          @Override
+          public void run() {
+            listener.onError(error);
+          }
+        });
+      }
+    };
+  }
+
+  /**
+   * Triggers a room listener. With a callback executor, the notifications of a room
+   * run one at a time, in reception order
+   *
+   * @param channel - Room channel
+   * @param l - Room listener
+   * @param notification - Received notification
+   */
+  void notifyRoom(final String channel, final EventListener l, final JSONObject notification) {
+    if (this.callbackExecutor == null && this.slowListenerThreshold <= 0) {
+      l.trigger(notification);
+      return;
+    }
+
+    Executor executor = null;
+
+    if (this.callbackExecutor != null) {
+      executor = this.roomExecutors.get(channel);
+
+      if (executor == null) {
+        SerialExecutor created = new SerialExecutor(this.callbackExecutor);
+        executor = this.roomExecutors.putIfAbsent(channel, created);
+
+        if (executor == null) {
+          executor = created;
+        }
+      }
+    }
+
+    runCallback(executor, "notification", channel, new Runnable() {
+      @Override
+      public void run() {
+        l.trigger(notification);
+      }
+    });
+  }
+
+  /**
+   * Runs an application callback, and emits a slowListener event if it runs for longer
+   * than the slowListenerThreshold option
+   *
+   * @param executor - Executor running the callback, or null to run it right away
+   * @param type - Callback type: "response" or "notification"
+   * @param source - Request route or room channel
+   * @param callback - Application callback
+   */
+  private void runCallback(final Executor executor, final String type, final String source, final Runnable callback) {
+    Runnable task = callback;
+
+    if (this.slowListenerThreshold > 0) {
+      task = new Runnable() {
+        @Override
+        public void run() {
+          long start = System.nanoTime();
+
+          try {
+            callback.run();
+          } finally {
+            long duration = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+
+            if (duration >= slowListenerThreshold) {
+              try {
+                emitEvent(Event.slowListener, new JSONObject()
+                  .put("type", type)
+                  .put("source", source)
+                  .put("duration", duration)
+                  .put("thread", Thread.currentThread().getName()));
+              } catch (JSONException e) {
+                throw new RuntimeException(e);
+              }
+            }
+          }
+        }
+      };
+    }
+
+    if (executor == null) {
+      task.run();
+    } else {
+      executor.execute(task);
+    }
+  }
+
+  /**
+   * Registers the gauges of this instance: requests waiting for a response or for a slot
+   * in the request window, offline queue depth, active rooms, round-trip time
+   * and duration of the last subscriptions renewal
+   *
+   * @param metrics - Metrics registry
+   */
+  private void registerGauges(final KuzzleMetrics metrics) {
+    metrics
+      .registerGauge("currentQueries", new Gauge() {
+        @Override
+        public long value() {
+          return Kuzzle.this.currentQueries.size();
+        }
+      })
+      .registerGauge("pendingRequests", new Gauge() {
+        @Override
+        public long value() {
+          return Kuzzle.this.getPendingRequestsCount();
+        }
+      })
+      .registerGauge("offlineQueue", new Gauge() {
+        @Override
+        public long value() {
+          return Kuzzle.this.offlineQueue.getQueue().size();
+        }
+      })
+      .registerGauge("activeRooms", new Gauge() {
+        @Override
+        public long value() {
+          return Kuzzle.this.roomList.size();
+        }
+      })
+      .registerGauge("roundTripTimeMicros", new Gauge() {
+        @Override
+        public long value() {
+          return (long) (Kuzzle.this.roundTripTime * 1000);
+        }
+      })
+      .registerGauge("resubscriptionMillis", new Gauge() {
+        @Override
+        public long value() {
+          return Kuzzle.this.resubscriptionLatency;
+        }
+      });
+  }
+
+  /**
+   * Metrics registry getter
+   *
+   * @return metrics registry, or null if metrics are disabled
+   */
+  public KuzzleMetrics getMetrics() {
+    return this.metrics;
+  }
+
+  /**
+   * Returns the pooled connection a request must be sent on.
+   * Realtime requests are routed by index and collection, so that subscriptions,
+   * notifications and unsubscriptions stick to the same connection
+   *
+   * @param sharded - Connection pool
+   * @param request - Request to route
+   * @return shard index, or -1 for the next connection in round-robin order
+   */
+  protected int getShard(final ShardedTransport sharded, final JSONObject request) {
+    if (this.sharding != Sharding.COLLECTION && !"realtime".equals(request.optString("controller"))) {
+      return -1;
+    }
+
+    return getShard(sharded, request.optString("index", null), request.optString("collection", null));
+  }
+
+  private int getShard(final ShardedTransport sharded, final String index, final String collection) {
+    if (collection == null) {
+      return -1;
+    }
+
+    return sharded.shardOf(index + "/" + collection);
+  }
+
+  /**
+   * Sends the requests waiting for a free slot in the in-flight request window, in order.
+   * Only one thread sends pending requests at a time: others leave them to it
+   */
+  private void drainPendingRequests() {
+    synchronized (this.pendingRequests) {
+      if (this.drainingRequests) {
+        return;
+      }
+      this.drainingRequests = true;
+    }
+
+    boolean drained = false;
+
+    try {
+      while (true) {
+        QueryObject o;
+
+        synchronized (this.pendingRequests) {
+          if (this.pendingRequests.isEmpty() || this.state != States.CONNECTED || !this.requestWindow.tryAcquire()) {
+            this.drainingRequests = false;
+            drained = true;
+            return;
+          }
+
+          o = this.pendingRequests.poll();
+        }
+
+        emitRequest(o.getQuery(), this.getRequestTimeout(o.getOptions()), windowListener(o.getCb()));
+      }
+    } catch (JSONException e) {
+      throw new RuntimeException(e);
+    } finally {
+      if (!drained) {
+        synchronized (this.pendingRequests) {
+          this.drainingRequests = false;
+        }
+      }
+    }
+  }
+
+  /**
+   * Wraps a request callback, to release its slot in the in-flight request window
+   * once a response is received. Overload errors and timeouts shrink the window
+   *
+   * @param cb - Request callback, may be null
+   * @return wrapped callback
+   */
+  private OnQueryDoneListener windowListener(final OnQueryDoneListener cb) {
+    final long sentAt = System.currentTimeMillis();
+
+    return new OnQueryDoneListener() {
+      @Override
+      public void onSuccess(JSONObject response) {
+        releaseWindow(sentAt, false);
+
+        if (cb != null) {
+          cb.onSuccess(response);
+        }
+      }
+
+      @Override
+      public void onError(JSONObject error) {
+        int status = error != null ? error.optInt("status") : 0;
+        releaseWindow(sentAt, status == 408 || status == 429 || status == 503);
+
+        if (cb != null) {
+          cb.onError(error);
+        }
+      }
+    };
+  }
+
+  /**
+   * Wraps a request callback, to record the request latency once a response or a timeout error is received
+   *
+   * @param metrics - Metrics registry
+   * @param request - Sent request
+   * @param cb - Request callback
+   * @return wrapped callback
+   */
+  private OnQueryDoneListener timedListener(final KuzzleMetrics metrics, final JSONObject request, final OnQueryDoneListener cb) {
+    final String controller = request.optString("controller");
+    final String action = request.optString("action");
+    final long sentAt = System.nanoTime();
+
+    return new OnQueryDoneListener() {
+      @Override
+      public void onSuccess(JSONObject response) {
+        metrics.recordLatency(controller, action, System.nanoTime() - sentAt);
+        cb.onSuccess(response);
+      }
+
+      @Override
+      public void onError(JSONObject error) {
+        metrics.recordLatency(controller, action, System.nanoTime() - sentAt);
+        cb.onError(error);
+      }
+    };
+  }
+
+  private void releaseWindow(long sentAt, boolean overloaded) {
+    long now = System.currentTimeMillis();
+
+    this.requestWindow.release(now - sentAt, overloaded, now);
+    this.drainPendingRequests();
+  }
+
+  /**
+   * Moves the requests waiting for a free slot in the in-flight request window to the
+   * offline queue if queuing, or discards them otherwise
+   */
+  private void flushPendingRequests() {
+    List<QueryObject> pending;
+
+    synchronized (this.pendingRequests) {
+      pending = new ArrayList<>(this.pendingRequests);
+      this.pendingRequests.clear();
+    }
+
+    if (this.requestWindow != null) {
+      this.requestWindow.reset();
+    }
+
+    try {
+      for (QueryObject o : pending) {
+        if (this.queuing) {
+          cleanQueue();
+          detachVolatile(o.getQuery());
+          this.offlineQueue.addToQueue(o);
+          this.journalAppend(o);
+          this.emitEvent(Event.offlineQueuePush, o);
+        } else {
+          discardRequest(o.getCb(), o.getQuery());
+        }
+      }
+    } catch (JSONException e) {
+      throw new RuntimeException(e);
+    }
+  }
+
+  /**
+   * Returns the in-flight request window, adapting the number of requests allowed
+   * to wait for a response
+   *
+   * @return in-flight request window, or null if disabled
+   */
+  public ConcurrencyLimiter getRequestWindow() {
+    return this.requestWindow;
+  }
+
+  /**
+   * @return number of requests waiting for a free slot in the in-flight request window
+   */
+  public int getPendingRequestsCount() {
+    synchronized (this.pendingRequests) {
+      return this.pendingRequests.size();
+    }
+  }
+
+  /**
+   * Starts sending heartbeats, if enabled and supported by the transport.
+   * The connection is considered half-open, and lost, if nothing is received from
+   * Kuzzle during heartbeatTimeout milliseconds
+   */
+  private synchronized void startHeartbeat() {
+    this.lastActivity = System.nanoTime();
+
+    if (this.heartbeat != null || this.heartbeatInterval <= 0 || !(this.transport instanceof HeartbeatTransport)) {
+      return;
+    }
+
+    this.heartbeat = getScheduler().scheduleAtFixedRate(new Runnable() {
+      @Override
+      public void run() {
+        sendHeartbeat();
+      }
+    }, this.heartbeatInterval, this.heartbeatInterval, TimeUnit.MILLISECONDS);
+  }
+
+  private synchronized void stopHeartbeat() {
+    if (this.heartbeat != null) {
+      this.heartbeat.cancel(false);
+      this.heartbeat = null;
+    }
+  }
+
+  /**
+   * Sends a heartbeat carrying its emission time, or closes the connection if
+   * no frame was received for too long
+   */
+  protected void sendHeartbeat() {
+    Transport current = this.transport;
+
+    if (this.state != States.CONNECTED || !(current instanceof HeartbeatTransport)) {
+      return;
+    }
+
+    long now = System.nanoTime();
+
+    if (now - this.lastActivity > TimeUnit.MILLISECONDS.toNanos(this.heartbeatTimeout)) {
+      this.connectionLost(current);
+      return;
+    }
+
+    ((HeartbeatTransport) current).sendPing(ByteBuffer.allocate(8).putLong(now).array());
+  }
+
+  /**
+   * Updates the smoothed round-trip time from a heartbeat answer
+   *
+   * @param payload - Heartbeat payload, holding its emission time
+   */
+  private void heartbeatReceived(byte[] payload) {
+    long now = System.nanoTime();
+    this.lastActivity = now;
+
+    if (payload == null || payload.length != 8) {
+      return;
+    }
+
+    long rtt = now - ByteBuffer.wrap(payload).getLong();
+
+    if (rtt >= 0 && rtt <= TimeUnit.MILLISECONDS.toNanos(this.heartbeatTimeout)) {
+      double ms = rtt / 1000000.0;
+      double smoothed = this.roundTripTime;
+      this.roundTripTime = smoothed < 0 ? ms : smoothed + RTT_SMOOTHING * (ms - smoothed);
+    }
+  }
+
+  /**
+   * Handles a half-open connection as a connection loss: switches to offline mode
+   * right away, then reconnects if autoReconnect is set
+   *
+   * @param lost - Half-open transport
+   */
+  private void connectionLost(Transport lost) {
+    TransportListener listener = this.transportListener;
+
+    if (listener != null) {
+      listener.onClose();
+    }
+
+    if (this.autoReconnect && this.transport == lost) {
+      lost.close();
+      lost.connect();
+    }
+  }
+
+  /**
+   * Smoothed round-trip time, measured with heartbeats
+   *
+   * @return round-trip time in milliseconds, or -1 if not measured yet
+   */
+  public double getRoundTripTime() {
+    return this.roundTripTime;
+  }
+
+  /**
+   * Starts the timer evicting expired requests, if not already running
+   */
+  private synchronized void startRequestReaper() {
+    if (this.requestReaper != null) {
+      return;
+    }
+
+    this.requestReaper = getScheduler().scheduleAtFixedRate(new Runnable() {
+      @Override
+      public void run() {
+        reapExpiredRequests();
+      }
+    }, REQUEST_DEADLINE_TICK, REQUEST_DEADLINE_TICK, TimeUnit.MILLISECONDS);
+  }
+
+  private synchronized void stopRequestReaper() {
+    if (this.requestReaper != null) {
+      this.requestReaper.cancel(false);
+      this.requestReaper = null;
+    }
+  }
+
+  /**
+   * Returns the scheduler running all the SDK background tasks.
+   * Unless one was provided in the constructor options, a scheduler is lazily created,
+   * with at most schedulerThreads daemon threads, and shut down on disconnect.
+   *
+   * @return SDK scheduler
+   */
+  protected synchronized ScheduledExecutorService getScheduler() {
+    if (this.scheduler == null) {
+      final AtomicInteger count = new AtomicInteger();
+      ScheduledThreadPoolExecutor executor = new ScheduledThreadPoolExecutor(this.schedulerThreads, new ThreadFactory() {
+        @Override
+        public Thread newThread(Runnable r) {
+          Thread thread = new Thread(r, "kuzzle-scheduler-" + count.incrementAndGet());
+          thread.setDaemon(true);
+          return thread;
+        }
+      });
+
+      // Lets idle threads die, to avoid keeping them alive for nothing on mobile devices
+      executor.setKeepAliveTime(SCHEDULER_KEEP_ALIVE, TimeUnit.MILLISECONDS);
+      executor.allowCoreThreadTimeOut(true);
+
+      this.scheduler = executor;
+      this.ownsScheduler = true;
+    }
+
+    return this.scheduler;
+  }
+
+  /**
+   * Shuts the scheduler down, dropping pending tasks, if it was created by this instance
+   */
+  private synchronized void shutdownScheduler() {
+    if (this.ownsScheduler && this.scheduler != null) {
+      this.scheduler.shutdownNow();
+      this.scheduler = null;
+      this.ownsScheduler = false;
+    }
+  }
+
+  /**
+   * Fails and discards all requests whose deadline has been reached
+   */
+  protected void reapExpiredRequests() {
+    List<String> expired = requestDeadlines.advance(System.currentTimeMillis());
+
+    for (String requestId : expired) {
+      OnQueryDoneListener listener = currentQueries.remove(requestId);
+
+      if (listener != null) {
+        try {
+          listener.onError(new JSONObject()
+            .put("status", 408)
+            .put("message", "Request timed out: no response received from Kuzzle.\nRequest ID: " + requestId));
+        } catch (JSONException e) {
+          throw new RuntimeException(e);
+        }
+      }
+    }
+
+    synchronized (this) {
+      if (requestDeadlines.isEmpty()) {
+        stopRequestReaper();
+      }
+    }
+  }
+
+  /**
+   * Returns the timeout applying to a request
+   *
+   * @param options - Request options
+   * @return request timeout, in milliseconds
+   */
+  private long getRequestTimeout(final Options options) {
+    if (options != null && options.getRequestTimeout() != null) {
+      return options.getRequestTimeout();
+    }
+
+    return this.requestTimeout;
+  }
+
+  /**
+   * Helper function ensuring that this Kuzzle object is still valid before performing a query
+   */
+  protected void isValid() {
+    if (this.state == States.DISCONNECTED) {
+      throw new IllegalStateException("This Kuzzle object has been invalidated. Did you try to access it after a disconnect call?");
+    }
+  }
+
+  /**
+   * Returns the global headers and volatile data merged for the next requests,
+   * built again after any change
+   *
+   * @return request envelope
+   */
+  protected RequestEnvelope getEnvelope() {
+    RequestEnvelope current = this.envelope;
+
+    if (current == null) {
+      current = new RequestEnvelope(this.headers, this._volatile, this.getSdkVersion());
+      this.envelope = current;
+    }
+
+    return current;
+  }
+
+  /**
+   * Helper function copying headers to the query data
+   *
+   * @param query - Query to update
+   * @param headers - Headers to set
+   */
+  public void addHeaders(JSONObject query, final JSONObject headers) {
+    try {
+      for (Iterator iterator = headers.keys(); iterator.hasNext(); ) {
+        String key = (String) iterator.next();
+        if (query.isNull(key)) {
+          query.put(key, headers.get(key));
+        }
+      }
+    } catch (JSONException e) {
+      throw new RuntimeException(e);
+    }
+  }
+
+  /**
+   * autoReconnect option getter
+   *
+   * @return autoReconnect option value
+   */
+  public boolean isAutoReconnect() {
+    return autoReconnect;
+  }
+
+  /**
+   * autoResubscribe option getter
+   *
+   * @return autoResubscribe option value
+   */
+  public boolean isAutoResubscribe() {
+    return this.autoResubscribe;
+  }
+
+  /**
+   * autoResubscribe option setter
+   *
+   * @param resubscribe - autoResubscribe new value
+   * @return this
+   */
+  public Kuzzle setAutoResubscribe(boolean resubscribe) {
+    this.autoResubscribe = resubscribe;
+    return this;
+  }
+
+  /**
+   * Global headers getter.
+   * Returns a copy: headers are changed with {@link #setHeaders(JSONObject, boolean)}
+   *
+   * @return global headers
+   */
+  public JSONObject getHeaders() {
+    return copy(this.headers);
+  }
+
+  /**
+   * Returns the current SDK version.
+   *
+   * @return Current SDK version
+   */
+  public String getSdkVersion() {
+    return BuildConfig.VERSION_NAME;
+  }
+
+  /**
+   * Add pending subscription kuzzle.
+   *
+   * @param id - Room instance unique ID
+   * @param room - Associated Room instance
+   * @return this
+   */
+  protected Kuzzle addPendingSubscription(final String id, final Room room) {
+    this.subscriptions.get("pending").put(id, room);
+    return this;
+  }
+
+  /**
+   * Delete a pending subscription
+   *
+   * @param id - Unique ID of the Room instance to delete
+   * @return this
+   */
+  protected Kuzzle deletePendingSubscription(final String id) {
+    ConcurrentHashMap<String, Room> pending = this.subscriptions.get("pending");
+
+    if (pending != null) {
+      pending.remove(id);
+    }
+
+    return this;
+  }
+
+  /**
+   * Add a new subscription
+   *
+   * @param roomId - Subscription identifier
+   * @param id - Room instance unique ID
+   * @param kuzzleRoom - Associated Room instance
+   * @return this
+   */
+  protected Kuzzle addSubscription(final String roomId, final String id, final Room kuzzleRoom) {
+    ConcurrentHashMap<String, Room> room = this.subscriptions.get(roomId);
+
+    if (room == null) {
+      ConcurrentHashMap<String, Room> created = new ConcurrentHashMap<>();
+      room = this.subscriptions.putIfAbsent(roomId, created);
+
+      if (room == null) {
+        room = created;
+      }
+    }
+
+    room.put(id, kuzzleRoom);
+
+    return this;
+  }
+
+  /**
+   * Subscribes a room, sharing the server subscription of the rooms subscribing with
+   * identical parameters: only the first one sends the subscribe request, and the
+   * notifications received on the subscription channel are fanned out to all of them
+   *
+   * @param key - Canonical form of the subscribe request
+   * @param room - Subscribing room
+   * @param args - Subscribe query arguments
+   * @param query - Subscribe query
+   * @param options - Subscribe query options
+   * @param listener - Subscribe response listener of the room
+   * @throws JSONException
+   */
+  void subscribe(final String key, final Room room, final QueryArgs args, final JSONObject query, final Options options, final OnQueryDoneListener listener) throws JSONException {
+    final SharedSubscription shared;
+    final JSONObject active;
+    boolean created = false;
+
+    synchronized (this.sharedSubscriptions) {
+      SharedSubscription existing = this.sharedSubscriptions.get(key);
+
+      if (existing == null) {
+        existing = new SharedSubscription(key);
+        this.sharedSubscriptions.put(key, existing);
+        created = true;
+      }
+
+      shared = existing;
+      active = shared.join(room, listener);
+      attachListener(room);
+
+      // attached before anything is sent: renewals must see the subscription being made
+      room.shared = shared;
+    }
+
+    if (!created) {
+      if (active != null) {
+        listener.onSuccess(active);
+      }
+
+      return;
+    }
+
+    if (!this.isShardConnected(args)) {
+      deferSubscription(shared);
+      return;
+    }
+
+    this.query(args, query, options, new OnQueryDoneListener() {
+      @Override
+      public void onSuccess(JSONObject response) {
+        String channel;
+
+        try {
+          channel = response.getJSONObject("result").getString("channel");
+        } catch (JSONException e) {
+          throw new RuntimeException(e);
+        }
+
+        addRoom(channel, shared);
+
+        for (OnQueryDoneListener waiting : shared.subscribed(response, channel)) {
+          waiting.onSuccess(response);
+        }
+      }
+
+      @Override
+      public void onError(JSONObject error) {
+        List<OnQueryDoneListener> waiting;
 
-    while (ite.hasNext()) {
-      if (this.requestHistory.get(ite.next()).before(c.getTime())) {
-        ite.remove();
+        synchronized (Kuzzle.this.sharedSubscriptions) {
+          if (shared.isSubscribed()) {
+            return;
+          }
+
+          Kuzzle.this.sharedSubscriptions.remove(shared.key, shared);
+
+          for (Room attached : shared.getRooms()) {
+            detachListener(attached);
+          }
+
+          waiting = shared.failed();
+        }
+
+        for (OnQueryDoneListener l : waiting) {
+          l.onError(error);
+        }
       }
-    }
+    });
   }
 
   /**
-   * Helper function ensuring that this Kuzzle object is still valid before performing a query
+   * @param args - Realtime query arguments
+   * @return false if the request would be buffered by a disconnected shard of a pooled connection
    */
-  protected void isValid() {
-    if (this.state == States.DISCONNECTED) {
-      throw new IllegalStateException("This Kuzzle object has been invalidated. Did you try to access it after a disconnect call?");
+  private boolean isShardConnected(final QueryArgs args) {
+    Transport current = this.transport;
+
+    if (!(current instanceof ShardedTransport)) {
+      return true;
     }
+
+    int shard = getShard((ShardedTransport) current, args.index, args.collection);
+    return shard < 0 || ((ShardedTransport) current).isOpen(shard);
   }
 
   /**
-   * Helper function copying headers to the query data
+   * Gives up a shared subscription made while its shard is disconnected, without sending
+   * anything: the attached rooms stay pending, and are renewed once the shard reconnects
    *
-   * @param query - Query to update
-   * @param headers - Headers to set
+   * @param shared - Shared subscription
    */
-  public void addHeaders(JSONObject query, final JSONObject headers) {
-    try {
-      for (Iterator iterator = headers.keys(); iterator.hasNext(); ) {
-        String key = (String) iterator.next();
-        if (query.isNull(key)) {
-          query.put(key, headers.get(key));
+  private void deferSubscription(final SharedSubscription shared) {
+    List<Room> deferred = new ArrayList<>();
+
+    synchronized (this.sharedSubscriptions) {
+      this.sharedSubscriptions.remove(shared.key, shared);
+
+      for (Room attached : shared.getRooms()) {
+        detachListener(attached);
+
+        // already renewed otherwise
+        if (attached.shared == shared) {
+          attached.shared = null;
+          attached.subscribing = false;
+          deferred.add(attached);
         }
       }
-    } catch (JSONException e) {
-      throw new RuntimeException(e);
     }
-  }
 
-  /**
-   * autoReconnect option getter
-   *
-   * @return autoReconnect option value
-   */
-  public boolean isAutoReconnect() {
-    return autoReconnect;
+    // resubscription plans move on to the other rooms
+    for (Room room : deferred) {
+      room.deferred();
+    }
   }
 
   /**
-   * autoResubscribe option getter
+   * Detaches a room from its shared subscription, and stops listening to the subscription
+   * channel if no room is attached anymore
    *
-   * @return autoResubscribe option value
+   * @param shared - Shared subscription
+   * @param room - Detached room
+   * @return true if no room is attached anymore: the server subscription may be dropped
    */
-  public boolean isAutoResubscribe() {
-    return this.autoResubscribe;
-  }
+  boolean releaseSubscription(final SharedSubscription shared, final Room room) {
+    synchronized (this.sharedSubscriptions) {
+      detachListener(room);
 
-  /**
-   * autoResubscribe option setter
-   *
-   * @param resubscribe - autoResubscribe new value
-   * @return this
-   */
-  public Kuzzle setAutoResubscribe(boolean resubscribe) {
-    this.autoResubscribe = resubscribe;
-    return this;
+      if (!shared.leave(room)) {
+        return false;
+      }
+
+      this.sharedSubscriptions.remove(shared.key, shared);
+    }
+
+    String channel = shared.getChannel();
+
+    // the channel may already be used by a newer subscription with the same parameters
+    if (channel != null && roomList.remove(channel, shared)) {
+      roomExecutors.remove(channel);
+
+      if (this.metrics != null) {
+        this.metrics.removeNotifications(channel);
+      }
+    }
+
+    return true;
   }
 
   /**
-   * Global headers getter
+   * Forgets the shared subscription of a room, so that renewing it sends a new subscribe
+   * request instead of joining a subscription lost with the connection
    *
-   * @return global headers
+   * @param room - Room about to be renewed
    */
-  public JSONObject getHeaders() {
-    return this.headers;
+  private void forgetSharedSubscription(final Room room) {
+    SharedSubscription shared = room.shared;
+
+    if (shared != null) {
+      this.sharedSubscriptions.remove(shared.key, shared);
+    }
   }
 
   /**
-   * Returns the current SDK version.
-   *
-   * @return Current SDK version
+   * @return number of server subscriptions shared by rooms
    */
-  public String getSdkVersion() {
-    return BuildConfig.VERSION_NAME;
+  public int getSharedSubscriptionCount() {
+    return this.sharedSubscriptions.size();
   }
 
   /**
-   * Add pending subscription kuzzle.
+   * Counts a subscribed room for its listener. Called with the sharedSubscriptions lock held
    *
-   * @param id - Room instance unique ID
-   * @param room - Associated Room instance
-   * @return this
+   * @param room - Room joining a shared subscription
    */
-  protected Kuzzle addPendingSubscription(final String id, final Room room) {
-    this.subscriptions.get("pending").put(id, room);
-    return this;
+  private void attachListener(final Room room) {
+    if (room.attachedListener != null) {
+      detachListener(room);
+    }
+
+    Object listener = room.listener;
+    room.attachedListener = listener;
+
+    if (listener != null) {
+      Integer count = this.listenerRooms.get(listener);
+      this.listenerRooms.put(listener, count == null ? 1 : count + 1);
+    }
   }
 
   /**
-   * Delete a pending subscription
+   * Stops counting a room for its listener. Called with the sharedSubscriptions lock held
    *
-   * @param id - Unique ID of the Room instance to delete
-   * @return this
+   * @param room - Room leaving its shared subscription
    */
-  protected Kuzzle deletePendingSubscription(final String id) {
-    ConcurrentHashMap<String, Room> pending = this.subscriptions.get("pending");
+  private void detachListener(final Room room) {
+    Object listener = room.attachedListener;
+    room.attachedListener = null;
 
-    if (pending != null) {
-      pending.remove(id);
+    if (listener == null) {
+      return;
     }
 
-    return this;
+    Integer count = this.listenerRooms.get(listener);
+
+    if (count != null && count > 1) {
+      this.listenerRooms.put(listener, count - 1);
+      return;
+    }
+
+    this.listenerRooms.remove(listener);
+
+    synchronized (this.deliveredNotifications) {
+      this.deliveredNotifications.remove(listener);
+    }
   }
 
   /**
-   * Add a new subscription
+   * Checks whether a document notification was already delivered to a listener through
+   * another room, such as rooms with overlapping filters sharing the same listener.
+   * Notifications are identified by the request and the document triggering them.
+   * Listeners of a single room are never checked
    *
-   * @param roomId - Subscription identifier
-   * @param id - Room instance unique ID
-   * @param kuzzleRoom - Associated Room instance
-   * @return this
+   * @param listener - Room listener
+   * @param notification - Received notification
+   * @return true if the notification must not be delivered again
    */
-  protected Kuzzle addSubscription(final String roomId, final String id, final Room kuzzleRoom) {
-    ConcurrentHashMap<String, Room> room = this.subscriptions.get(roomId);
+  protected boolean isDuplicateNotification(final Object listener, final JSONObject notification) {
+    String requestId = notification.optString("requestId", null);
+    JSONObject result = notification.optJSONObject("result");
+    String id = result != null ? result.optString("_id", null) : null;
 
-    if (room == null) {
-      room = new ConcurrentHashMap<>();
-      this.subscriptions.put(id, room);
+    if (listener == null || requestId == null || id == null) {
+      return false;
     }
 
-    room.put(id, kuzzleRoom);
+    Integer rooms = this.listenerRooms.get(listener);
 
-    return this;
+    if (rooms == null || rooms < 2) {
+      return false;
+    }
+
+    ExpiringSet<String> delivered;
+
+    synchronized (this.deliveredNotifications) {
+      delivered = this.deliveredNotifications.get(listener);
+
+      if (delivered == null) {
+        delivered = new ExpiringSet<>(NOTIFICATION_HISTORY_TTL, 10);
+        this.deliveredNotifications.put(listener, delivered);
+      }
+    }
+
+    return !delivered.add(requestId + "/" + id + "/" + notification.optString("action") + "/"
+      + notification.optString("scope") + "/" + notification.optString("state"));
   }
 
   protected Kuzzle addRoom(final String channel, EventListener listener) {
@@ -1645,27 +3090,32 @@ public class Kuzzle {
   protected Kuzzle removeRoom(final String channel) {
     if (channel != null) {
       roomList.remove(channel);
+      roomExecutors.remove(channel);
+
+      if (this.metrics != null) {
+        this.metrics.removeNotifications(channel);
+      }
     }
 
     return this;
   }
 
   /**
-   * Connection socket getter
+   * Transport getter
    *
-   * @return Connection socket
+   * @return Current transport
    */
-  protected WebSocketClient getSocket() {
-    return socket;
+  protected Transport getTransport() {
+    return transport;
   }
 
   /**
-   * Connection socket setter
+   * Transport setter
    *
-   * @param socket - New connection socket
+   * @param transport - New transport
    */
-  protected void setSocket(WebSocketClient socket) {
-    this.socket = socket;
+  protected void setTransport(Transport transport) {
+    this.transport = transport;
   }
 
   /**
@@ -1824,6 +3274,7 @@ public class Kuzzle {
       while ((o = (QueryObject) offlineQueue.getQueue().peek()) != null) {
         if (o.getTimestamp().before(cal.getTime())) {
           offlineQueue.getQueue().poll();
+          journalAcknowledge(o);
         } else {
           break;
         }
@@ -1834,26 +3285,44 @@ public class Kuzzle {
     if (this.queueMaxSize > 0 && size > this.queueMaxSize) {
       int i = 0;
       while (offlineQueue.getQueue().peek() != null && (size - this.queueMaxSize) >= i) {
-        this.offlineQueue.getQueue().poll();
+        journalAcknowledge((QueryObject) this.offlineQueue.getQueue().poll());
         i++;
       }
     }
   }
 
   private void mergeOfflineQueueWithLoader() {
-    KuzzleQueue<QueryObject> additionalOfflineQueue = this.offlineQueueLoader.load();
+    this.mergeOfflineQueue(this.offlineQueueLoader.load());
+  }
+
+  /**
+   * Appends requests to the offline queue, skipping those whose requestId is already queued
+   *
+   * @param additionalOfflineQueue - Requests to add
+   */
+  private void mergeOfflineQueue(KuzzleQueue<QueryObject> additionalOfflineQueue) {
+    Set<String> queued = new HashSet<>();
+
     try {
-      for (QueryObject additionalQuery : additionalOfflineQueue) {
-        for (QueryObject offlineQuery : this.offlineQueue) {
-          if (additionalQuery.getQuery() != null && additionalQuery.getQuery().has("requestId") && additionalQuery.getQuery().has("action") && additionalQuery.getQuery().has("controller")) {
-            if (!offlineQuery.getQuery().getString("requestId").equals(additionalQuery.getQuery().getString("requestId"))) {
-              this.offlineQueue.addToQueue(additionalOfflineQueue.dequeue());
-            } else {
-              additionalOfflineQueue.dequeue();
-            }
-          } else {
-            throw new IllegalArgumentException("Invalid offline queue request. One or more missing properties: requestId, action, controller.");
+      for (QueryObject offlineQuery : this.offlineQueue) {
+        queued.add(offlineQuery.getQuery().getString("requestId"));
+      }
+
+      QueryObject additionalQuery;
+      while ((additionalQuery = additionalOfflineQueue.dequeue()) != null) {
+        JSONObject query = additionalQuery.getQuery();
+
+        if (query == null || !query.has("requestId") || !query.has("action") || !query.has("controller")) {
+          throw new IllegalArgumentException("Invalid offline queue request. One or more missing properties: requestId, action, controller.");
+        }
+
+        if (queued.add(query.getString("requestId"))) {
+          if (additionalQuery.getTimestamp() == null) {
+            additionalQuery.setTimestamp(new Date());
           }
+
+          this.offlineQueue.addToQueue(additionalQuery);
+          this.journalAppend(additionalQuery);
         }
       }
     } catch (JSONException e) {
@@ -1861,30 +3330,166 @@ public class Kuzzle {
     }
   }
 
+  private void journalAppend(QueryObject query) {
+    if (this.offlineQueueJournal != null) {
+      try {
+        this.offlineQueueJournal.append(query);
+      } catch (IOException e) {
+        throw new RuntimeException(e);
+      }
+    }
+  }
+
+  private void journalAcknowledge(QueryObject query) {
+    if (this.offlineQueueJournal != null && query != null) {
+      try {
+        this.offlineQueueJournal.acknowledge(query.getQuery().getString("requestId"));
+      } catch (JSONException | IOException e) {
+        throw new RuntimeException(e);
+      }
+    }
+  }
+
   /**
    * Play all queued requests, in order.
+   * Up to replayBatchSize requests are sent every replayInterval milliseconds,
+   * as long as less than replayWindow replayed requests are waiting for a response.
+   * Once the window is full, the replay resumes as soon as responses come back.
    */
   private void dequeue() {
-    if (offlineQueueLoader != null) {
-      this.mergeOfflineQueueWithLoader();
-    }
-    if (this.offlineQueue.getQueue().size() > 0) {
+    synchronized (this.replayLock) {
+      if (this.replayStartedAt < 0) {
+        if (offlineQueueLoader != null) {
+          this.mergeOfflineQueueWithLoader();
+        }
+
+        this.replayStartedAt = System.currentTimeMillis();
+        this.replayedCount = 0;
+      }
+
+      List<QueryObject> batch = new ArrayList<>();
+      QueryObject query;
+
       try {
-        QueryObject query = (QueryObject) this.offlineQueue.getQueue().poll();
-        this.emitRequest(query.getQuery(), query.getCb());
-        this.emitEvent(Event.offlineQueuePop, query);
+        while (batch.size() < this.replayBatchSize && this.replayInFlight.get() < this.replayWindow
+          && (query = (QueryObject) this.offlineQueue.getQueue().poll()) != null) {
+          this.replayInFlight.incrementAndGet();
+          this.emitRequest(query.getQuery(), this.getRequestTimeout(query.getOptions()), replayListener(query));
+          batch.add(query);
+        }
       } catch (JSONException e) {
         throw new RuntimeException(e);
       }
-      Timer timer = new Timer(UUID.randomUUID().toString());
-      timer.schedule(new TimerTask() {
+
+      if (!batch.isEmpty()) {
+        this.replayedCount += batch.size();
+        this.emitEvent(Event.offlineQueuePop, batch.toArray());
+      }
+
+      if (this.offlineQueue.getQueue().isEmpty()) {
+        this.queuing = false;
+        this.endReplay();
+      } else if (this.replayInFlight.get() >= this.replayWindow) {
+        this.replayPaused = true;
+      } else {
+        getScheduler().schedule(new Runnable() {
+          @Override
+          public void run() {
+            dequeue();
+          }
+        }, Math.max(0, this.replayInterval), TimeUnit.MILLISECONDS);
+      }
+    }
+  }
+
+  /**
+   * Wraps a replayed request callback, to release its slot in the replay window
+   * and remove it from the offline queue journal once a response (or a timeout) is received
+   *
+   * @param query - Replayed request
+   * @return wrapped callback
+   */
+  private OnQueryDoneListener replayListener(final QueryObject query) {
+    final OnQueryDoneListener cb = query.getCb();
+
+    return new OnQueryDoneListener() {
+      @Override
+      public void onSuccess(JSONObject response) {
+        replayAcknowledged(query);
+
+        if (cb != null) {
+          cb.onSuccess(response);
+        }
+      }
+
+      @Override
+      public void onError(JSONObject error) {
+        replayAcknowledged(query);
+
+        if (cb != null) {
+          cb.onError(error);
+        }
+      }
+    };
+  }
+
+  private void replayAcknowledged(QueryObject query) {
+    boolean resume = false;
+
+    journalAcknowledge(query);
+
+    synchronized (this.replayLock) {
+      if (this.replayInFlight.decrementAndGet() < this.replayWindow && this.replayPaused) {
+        this.replayPaused = false;
+        resume = true;
+      }
+    }
+
+    if (resume) {
+      getScheduler().execute(new Runnable() {
         @Override
         public void run() {
           dequeue();
         }
-      }, Math.max(0, this.replayInterval));
-    } else {
-      this.queuing = false;
+      });
+    }
+  }
+
+  /**
+   * Ends the current replay, reporting its throughput with an offlineQueueReplayed event
+   */
+  private void endReplay() {
+    if (this.replayStartedAt < 0) {
+      return;
+    }
+
+    long duration = System.currentTimeMillis() - this.replayStartedAt;
+    int count = this.replayedCount;
+
+    this.replayStartedAt = -1;
+    this.replayedCount = 0;
+
+    if (count > 0) {
+      try {
+        this.emitEvent(Event.offlineQueueReplayed, new JSONObject()
+          .put("count", count)
+          .put("duration", duration)
+          .put("throughput", duration > 0 ? count * 1000.0 / duration : count * 1000.0));
+      } catch (JSONException e) {
+        throw new RuntimeException(e);
+      }
+    }
+  }
+
+  /**
+   * Forgets about replayed requests still waiting for a response: they will never get one
+   */
+  private void resetReplay() {
+    synchronized (this.replayLock) {
+      this.replayInFlight.set(0);
+      this.replayPaused = false;
+      this.replayStartedAt = -1;
+      this.replayedCount = 0;
     }
   }
 
@@ -1935,7 +3540,7 @@ public class Kuzzle {
    *
    * @return Request history
    */
-  protected Map<String, Date> getRequestHistory() {
+  protected Set<String> getRequestHistory() {
     return requestHistory;
   }
 
@@ -2060,16 +3665,45 @@ public class Kuzzle {
    */
   public Kuzzle setVolatile(JSONObject _volatile) {
     this._volatile = _volatile;
+    this.envelope = null;
     return this;
   }
 
   /**
-   * Global volatile data getter
+   * Global volatile data getter.
+   * Returns a copy: volatile data are changed with {@link #setVolatile(JSONObject)}
    *
    * @return Global volatile data
    */
   public JSONObject getVolatile() {
-    return this._volatile;
+    return copy(this._volatile);
+  }
+
+  private static JSONObject copy(final JSONObject object) {
+    if (object == null) {
+      return null;
+    }
+
+    try {
+      return new JSONObject(object.toString());
+    } catch (JSONException e) {
+      throw new RuntimeException(e);
+    }
+  }
+
+  /**
+   * Gives a request its own copy of its volatile data before it is handed to the
+   * application (queue filter, offline queue, events): requests without volatile data of
+   * their own share those of the request envelope
+   *
+   * @param query - Request
+   */
+  private static void detachVolatile(final JSONObject query) throws JSONException {
+    JSONObject _volatile = query.optJSONObject("volatile");
+
+    if (_volatile != null) {
+      query.put("volatile", copy(_volatile));
+    }
   }
 
 
@@ -2093,6 +3727,46 @@ public class Kuzzle {
     return this.replayInterval;
   }
 
+  /**
+   * replayBatchSize option setter
+   *
+   * @param size - Maximum number of queued requests replayed per replayInterval
+   * @return this
+   */
+  public Kuzzle setReplayBatchSize(int size) {
+    this.replayBatchSize = Math.max(1, size);
+    return this;
+  }
+
+  /**
+   * replayBatchSize option getter
+   *
+   * @return replayBatchSize value
+   */
+  public int getReplayBatchSize() {
+    return this.replayBatchSize;
+  }
+
+  /**
+   * replayWindow option setter
+   *
+   * @param window - Maximum number of replayed requests waiting for a response
+   * @return this
+   */
+  public Kuzzle setReplayWindow(int window) {
+    this.replayWindow = Math.max(1, window);
+    return this;
+  }
+
+  /**
+   * replayWindow option getter
+   *
+   * @return replayWindow value
+   */
+  public int getReplayWindow() {
+    return this.replayWindow;
+  }
+
   /**
    * reconnectionDelay option getter
    *
@@ -2102,6 +3776,26 @@ public class Kuzzle {
     return this.reconnectionDelay;
   }
 
+  /**
+   * requestTimeout option setter
+   *
+   * @param timeout - New default request timeout, in milliseconds (0 = no timeout)
+   * @return this
+   */
+  public Kuzzle setRequestTimeout(long timeout) {
+    this.requestTimeout = Math.max(0, timeout);
+    return this;
+  }
+
+  /**
+   * requestTimeout option getter
+   *
+   * @return default request timeout, in milliseconds
+   */
+  public long getRequestTimeout() {
+    return this.requestTimeout;
+  }
+
   /**
    * Offline queue loader setter
    *
@@ -0,0 +1,230 @@
+package io.kuzzle.sdk.core;
+
+import android.support.annotation.NonNull;
+
+import org.json.JSONException;
+import org.json.JSONObject;
+
+import java.util.concurrent.TimeUnit;
+
+import io.kuzzle.sdk.exceptions.KuzzleException;
+import io.kuzzle.sdk.listeners.ResponseListener;
+import io.kuzzle.sdk.responses.SearchResult;
+import io.kuzzle.sdk.util.KuzzleFuture;
+
+/**
+ * Blocking facade of the Kuzzle API, for worker threads and batch jobs.
+ * Each call sends its request with the asynchronous API, and parks the calling thread
+ * until its response is received or the timeout elapses: no thread is created.
+ *
+ * Requests sent without a shorter requestTimeout option are given the facade timeout,
+ * so that unanswered requests are discarded once the caller stopped waiting.
+ *
+ * Blocking calls must not be made from a response callback or a room notification
+ * listener, which would wait until the timeout.
+ */
+public class KuzzleSync {
+  private final Kuzzle kuzzle;
+  private final long timeout;
+
+  /**
+   * Constructor
+   *
+   * @param kuzzle - Kuzzle instance
+   * @param timeout - Maximum time to wait for a response, in milliseconds (must be positive)
+   */
+  public KuzzleSync(@NonNull final Kuzzle kuzzle, final long timeout) {
+    if (kuzzle == null) {
+      throw new IllegalArgumentException("KuzzleSync: a valid Kuzzle instance is required");
+    }
+
+    if (timeout <= 0) {
+      throw new IllegalArgumentException("KuzzleSync: timeout must be positive");
+    }
+
+    this.kuzzle = kuzzle;
+    this.timeout = timeout;
+  }
+
+  /**
+   * Runs any asynchronous call, and waits for its result
+   *
+   * @param operation - Asynchronous call, reporting to the provided listener
+   * @param <T> - Result type
+   * @return result
+   * @throws KuzzleException if Kuzzle returns an error, or KuzzleTimeoutException if no response is received in time
+   * @throws InterruptedException if the calling thread is interrupted while waiting
+   */
+  public <T> T await(@NonNull final KuzzleFuture.Operation<T> operation) throws KuzzleException, InterruptedException {
+    return KuzzleFuture.of(operation).get(this.timeout, TimeUnit.MILLISECONDS);
+  }
+
+  /**
+   * {@link Collection#search(JSONObject, Options, ResponseListener)}
+   */
+  public SearchResult search(@NonNull final Collection collection, final JSONObject filters, final Options options) throws KuzzleException, InterruptedException {
+    final Options opts = withTimeout(options);
+
+    return await(new KuzzleFuture.Operation<SearchResult>() {
+      @Override
+      public void run(ResponseListener<SearchResult> listener) {
+        collection.search(filters, opts, listener);
+      }
+    });
+  }
+
+  /**
+   * {@link Collection#count(JSONObject, Options, ResponseListener)}
+   */
+  public int count(@NonNull final Collection collection, final JSONObject filters, final Options options) throws KuzzleException, InterruptedException {
+    final Options opts = withTimeout(options);
+
+    return await(new KuzzleFuture.Operation<Integer>() {
+      @Override
+      public void run(ResponseListener<Integer> listener) {
+        collection.count(filters, opts, listener);
+      }
+    });
+  }
+
+  /**
+   * {@link Collection#fetchDocument(String, Options, ResponseListener)}
+   */
+  public Document fetchDocument(@NonNull final Collection collection, @NonNull final String documentId, final Options options) throws KuzzleException, InterruptedException {
+    final Options opts = withTimeout(options);
+
+    return await(new KuzzleFuture.Operation<Document>() {
+      @Override
+      public void run(ResponseListener<Document> listener) {
+        collection.fetchDocument(documentId, opts, listener);
+      }
+    });
+  }
+
+  /**
+   * {@link Collection#mGetDocument(String[], Options, ResponseListener)}
+   */
+  public JSONObject mGetDocument(@NonNull final Collection collection, @NonNull final String[] documentIds, final Options options) throws KuzzleException, InterruptedException {
+    final Options opts = withTimeout(options);
+
+    return await(new KuzzleFuture.Operation<JSONObject>() {
+      @Override
+      public void run(ResponseListener<JSONObject> listener) throws JSONException {
+        collection.mGetDocument(documentIds, opts, listener);
+      }
+    });
+  }
+
+  /**
+   * {@link MemoryStorage#get(String, Options, ResponseListener)}
+   */
+  public String get(@NonNull final String key, final Options options) throws KuzzleException, InterruptedException {
+    final Options opts = withTimeout(options);
+
+    return await(new KuzzleFuture.Operation<String>() {
+      @Override
+      public void run(ResponseListener<String> listener) {
+        kuzzle.memoryStorage.get(key, opts, listener);
+      }
+    });
+  }
+
+  /**
+   * {@link MemoryStorage#mget(String[], Options, ResponseListener)}
+   */
+  public String[] mget(@NonNull final String[] keys, final Options options) throws KuzzleException, InterruptedException {
+    final Options opts = withTimeout(options);
+
+    return await(new KuzzleFuture.Operation<String[]>() {
+      @Override
+      public void run(ResponseListener<String[]> listener) {
+        kuzzle.memoryStorage.mget(keys, opts, listener);
+      }
+    });
+  }
+
+  /**
+   * {@link MemoryStorage#set(String, String, Options, ResponseListener)}
+   */
+  public String set(@NonNull final String key, @NonNull final String value, final Options options) throws KuzzleException, InterruptedException {
+    final Options opts = withTimeout(options);
+
+    return await(new KuzzleFuture.Operation<String>() {
+      @Override
+      public void run(ResponseListener<String> listener) {
+        kuzzle.memoryStorage.set(key, value, opts, listener);
+      }
+    });
+  }
+
+  /**
+   * {@link MemoryStorage#del(String[], Options, ResponseListener)}
+   */
+  public long del(@NonNull final String[] keys, final Options options) throws KuzzleException, InterruptedException {
+    final Options opts = withTimeout(options);
+
+    return await(new KuzzleFuture.Operation<Long>() {
+      @Override
+      public void run(ResponseListener<Long> listener) {
+        kuzzle.memoryStorage.del(keys, opts, listener);
+      }
+    });
+  }
+
+  /**
+   * {@link MemoryStorage#exists(String[], Options, ResponseListener)}
+   */
+  public long exists(@NonNull final String[] keys, final Options options) throws KuzzleException, InterruptedException {
+    final Options opts = withTimeout(options);
+
+    return await(new KuzzleFuture.Operation<Long>() {
+      @Override
+      public void run(ResponseListener<Long> listener) {
+        kuzzle.memoryStorage.exists(keys, opts, listener);
+      }
+    });
+  }
+
+  /**
+   * {@link MemoryStorage#incr(String, Options, ResponseListener)}
+   */
+  public long incr(@NonNull final String key, final Options options) throws KuzzleException, InterruptedException {
+    final Options opts = withTimeout(options);
+
+    return await(new KuzzleFuture.Operation<Long>() {
+      @Override
+      public void run(ResponseListener<Long> listener) {
+        kuzzle.memoryStorage.incr(key, opts, listener);
+      }
+    });
+  }
+
+  /**
+   * @return maximum time to wait for a response, in milliseconds
+   */
+  public long getTimeout() {
+    return this.timeout;
+  }
+
+  /**
+   * Caps the request timeout to the facade timeout
+   *
+   * @param options - Request options, may be null
+   * @return copy of the options
+   */
+  private Options withTimeout(final Options options) {
+    Options opts;
+
+    try {
+      opts = options != null ? new Options(options) : new Options();
+    } catch (JSONException e) {
+      throw new RuntimeException(e);
+    }
+
+    if (opts.getRequestTimeout() == null || opts.getRequestTimeout() == 0 || opts.getRequestTimeout() > this.timeout) {
+      opts.setRequestTimeout(this.timeout);
+    }
+
+    return opts;
+  }
+}
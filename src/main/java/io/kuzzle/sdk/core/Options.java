@@ -6,9 +6,20 @@ import org.json.JSONArray;
 import org.json.JSONException;
 import org.json.JSONObject;
 
+import java.util.concurrent.Executor;
+import java.util.concurrent.ScheduledExecutorService;
+
+import io.kuzzle.sdk.codec.Codec;
 import io.kuzzle.sdk.enums.CollectionType;
+import io.kuzzle.sdk.enums.EventDelivery;
 import io.kuzzle.sdk.enums.Mode;
+import io.kuzzle.sdk.enums.Sharding;
+import io.kuzzle.sdk.metrics.KuzzleMetrics;
 import io.kuzzle.sdk.responses.SearchResult;
+import io.kuzzle.sdk.state.OfflineQueueJournal;
+import io.kuzzle.sdk.transport.ReconnectionPolicy;
+import io.kuzzle.sdk.transport.Transport;
+import io.kuzzle.sdk.util.RequestIdGenerator;
 
 public class Options {
   // Default values
@@ -25,6 +36,8 @@ public class Options {
   private Mode connect = Mode.AUTO;
   private Mode offlineMode = Mode.MANUAL;
   private int replayInterval = 10;
+  private int replayBatchSize = 10;
+  private int replayWindow = 50;
   private boolean queuable = true;
   private String defaultIndex = null;
   private boolean replaceIfExist = false;
@@ -38,6 +51,29 @@ public class Options {
   private SearchResult previous = null;
   private String scrollId = null;
   private int retryOnConflict = 0;
+  private Transport transport = null;
+  private Long requestTimeout = null;
+  private ScheduledExecutorService scheduler = null;
+  private int schedulerThreads = 2;
+  private OfflineQueueJournal offlineQueueJournal = null;
+  private Codec codec = null;
+  private boolean codecNegotiation = true;
+  private int requestWindow = 0;
+  private int maxRequestWindow = 500;
+  private RequestIdGenerator requestIdGenerator = null;
+  private int connectionPoolSize = 1;
+  private Sharding sharding = Sharding.ROUND_ROBIN;
+  private KuzzleMetrics metrics = null;
+  private long heartbeatInterval = 10000;
+  private long heartbeatTimeout = 25000;
+  private ReconnectionPolicy reconnectionPolicy = null;
+  private EventDelivery eventDelivery = EventDelivery.DROP;
+  private Executor eventExecutor = null;
+  private int eventBufferSize = 1000;
+  private Executor callbackExecutor = null;
+  private long slowListenerThreshold = 0;
+  private int collectionCacheSize = 0;
+  private int resubscribeConcurrency = 8;
 
   // MemoryStorage specific options
   private Long start = null;
@@ -82,6 +118,8 @@ public class Options {
     this.connect = originalOptions.connect;
     this.offlineMode = originalOptions.offlineMode;
     this.replayInterval = originalOptions.replayInterval;
+    this.replayBatchSize = originalOptions.replayBatchSize;
+    this.replayWindow = originalOptions.replayWindow;
     this.queuable = originalOptions.queuable;
     this.defaultIndex = originalOptions.defaultIndex;
     this.replaceIfExist = originalOptions.replaceIfExist;
@@ -92,6 +130,29 @@ public class Options {
     this.scroll = originalOptions.scroll;
     this.previous = originalOptions.previous;
     this.scrollId = originalOptions.scrollId;
+    this.transport = originalOptions.transport;
+    this.requestTimeout = originalOptions.requestTimeout;
+    this.scheduler = originalOptions.scheduler;
+    this.schedulerThreads = originalOptions.schedulerThreads;
+    this.offlineQueueJournal = originalOptions.offlineQueueJournal;
+    this.codec = originalOptions.codec;
+    this.codecNegotiation = originalOptions.codecNegotiation;
+    this.requestWindow = originalOptions.requestWindow;
+    this.maxRequestWindow = originalOptions.maxRequestWindow;
+    this.requestIdGenerator = originalOptions.requestIdGenerator;
+    this.connectionPoolSize = originalOptions.connectionPoolSize;
+    this.sharding = originalOptions.sharding;
+    this.metrics = originalOptions.metrics;
+    this.heartbeatInterval = originalOptions.heartbeatInterval;
+    this.heartbeatTimeout = originalOptions.heartbeatTimeout;
+    this.reconnectionPolicy = originalOptions.reconnectionPolicy;
+    this.eventDelivery = originalOptions.eventDelivery;
+    this.eventExecutor = originalOptions.eventExecutor;
+    this.eventBufferSize = originalOptions.eventBufferSize;
+    this.callbackExecutor = originalOptions.callbackExecutor;
+    this.slowListenerThreshold = originalOptions.slowListenerThreshold;
+    this.collectionCacheSize = originalOptions.collectionCacheSize;
+    this.resubscribeConcurrency = originalOptions.resubscribeConcurrency;
   }
 
   /**
@@ -338,6 +399,56 @@ public class Options {
     return this;
   }
 
+  /**
+   * replayBatchSize property getter
+   *
+   * @return replayBatchSize property value
+   */
+  public int getReplayBatchSize() {
+    return replayBatchSize;
+  }
+
+  /**
+   * replayBatchSize property setter.
+   * Maximum number of queued requests replayed every replayInterval
+   *
+   * @param replayBatchSize New replayBatchSize value
+   * @return this
+   */
+  public Options setReplayBatchSize(int replayBatchSize) {
+    if (replayBatchSize < 1) {
+      throw new IllegalArgumentException("Invalid value for the replayBatchSize option (strictly positive integer required)");
+    }
+
+    this.replayBatchSize = replayBatchSize;
+    return this;
+  }
+
+  /**
+   * replayWindow property getter
+   *
+   * @return replayWindow property value
+   */
+  public int getReplayWindow() {
+    return replayWindow;
+  }
+
+  /**
+   * replayWindow property setter.
+   * Maximum number of replayed requests waiting for a response
+   *
+   * @param replayWindow New replayWindow value
+   * @return this
+   */
+  public Options setReplayWindow(int replayWindow) {
+    if (replayWindow < 1) {
+      throw new IllegalArgumentException("Invalid value for the replayWindow option (strictly positive integer required)");
+    }
+
+    this.replayWindow = replayWindow;
+    return this;
+  }
+
   /**
    * autoResubscribe property getter
    *
@@ -603,6 +714,518 @@ public class Options {
     return this;
   }
 
+  /**
+   * transport property getter
+   * @return transport property value
+   */
+  public Transport getTransport() {
+    return transport;
+  }
+
+  /**
+   * transport property setter.
+   * If not set, Kuzzle connects using a WebSocket transport
+   * @param  transport New transport value
+   * @return this
+   */
+  public Options setTransport(Transport transport) {
+    this.transport = transport;
+    return this;
+  }
+
+  /**
+   * requestTimeout property getter
+   * @return requestTimeout property value
+   */
+  public Long getRequestTimeout() {
+    return requestTimeout;
+  }
+
+  /**
+   * requestTimeout property setter.
+   * Maximum time to wait for a response, in milliseconds (0 = no timeout).
+   * When used to instantiate Kuzzle, sets the default value for all requests,
+   * otherwise applies to that request only
+   * @param  requestTimeout New requestTimeout value
+   * @return this
+   */
+  public Options setRequestTimeout(Long requestTimeout) {
+    if (requestTimeout != null && requestTimeout < 0) {
+      throw new IllegalArgumentException("Invalid value for the requestTimeout option (positive or null integer allowed)");
+    }
+
+    this.requestTimeout = requestTimeout;
+    return this;
+  }
+
+  /**
+   * scheduler property getter
+   * @return scheduler property value
+   */
+  public ScheduledExecutorService getScheduler() {
+    return scheduler;
+  }
+
+  /**
+   * scheduler property setter.
+   * Executor running all the SDK background tasks. If not set, Kuzzle creates its own
+   * and shuts it down on disconnect. A provided scheduler is never shut down by Kuzzle
+   * @param  scheduler New scheduler value
+   * @return this
+   */
+  public Options setScheduler(ScheduledExecutorService scheduler) {
+    this.scheduler = scheduler;
+    return this;
+  }
+
+  /**
+   * schedulerThreads property getter
+   * @return schedulerThreads property value
+   */
+  public int getSchedulerThreads() {
+    return schedulerThreads;
+  }
+
+  /**
+   * schedulerThreads property setter.
+   * Maximum number of threads of the scheduler created by Kuzzle
+   * @param  schedulerThreads New schedulerThreads value
+   * @return this
+   */
+  public Options setSchedulerThreads(int schedulerThreads) {
+    if (schedulerThreads < 1) {
+      throw new IllegalArgumentException("Invalid value for the schedulerThreads option (strictly positive integer required)");
+    }
+
+    this.schedulerThreads = schedulerThreads;
+    return this;
+  }
+
+  /**
+   * offlineQueueJournal property getter
+   * @return offlineQueueJournal property value
+   */
+  public OfflineQueueJournal getOfflineQueueJournal() {
+    return offlineQueueJournal;
+  }
+
+  /**
+   * offlineQueueJournal property setter.
+   * Disk-backed journal of the offline queue: journaled requests are restored in the
+   * offline queue on construction, and removed from the journal once replayed
+   * @param  offlineQueueJournal New offlineQueueJournal value
+   * @return this
+   */
+  public Options setOfflineQueueJournal(OfflineQueueJournal offlineQueueJournal) {
+    this.offlineQueueJournal = offlineQueueJournal;
+    return this;
+  }
+
+  /**
+   * codec property getter
+   * @return codec property value
+   */
+  public Codec getCodec() {
+    return codec;
+  }
+
+  /**
+   * codec property setter.
+   * Encoding of the frames exchanged with Kuzzle. Defaults to JSON text frames
+   * @param  codec New codec value
+   * @return this
+   */
+  public Options setCodec(Codec codec) {
+    this.codec = codec;
+    return this;
+  }
+
+  /**
+   * codecNegotiation property getter
+   * @return codecNegotiation property value
+   */
+  public boolean isCodecNegotiation() {
+    return codecNegotiation;
+  }
+
+  /**
+   * codecNegotiation property setter.
+   * If true, requests are sent as JSON text frames until Kuzzle answers with a binary frame,
+   * acknowledging support of the binary codec. If false, the binary codec is used right away
+   * @param  codecNegotiation New codecNegotiation value
+   * @return this
+   */
+  public Options setCodecNegotiation(boolean codecNegotiation) {
+    this.codecNegotiation = codecNegotiation;
+    return this;
+  }
+
+  /**
+   * requestWindow property getter
+   * @return requestWindow property value
+   */
+  public int getRequestWindow() {
+    return requestWindow;
+  }
+
+  /**
+   * requestWindow property setter.
+   * Initial number of requests allowed to wait for a response. Further requests are
+   * held locally until responses come back. The window grows while responses are fast,
+   * and shrinks on latency spikes, timeouts and overload errors. 0 (default) disables the window
+   * @param  requestWindow New requestWindow value
+   * @return this
+   */
+  public Options setRequestWindow(int requestWindow) {
+    if (requestWindow < 0) {
+      throw new IllegalArgumentException("Invalid value for the requestWindow option (positive or null integer required)");
+    }
+
+    this.requestWindow = requestWindow;
+    return this;
+  }
+
+  /**
+   * maxRequestWindow property getter
+   * @return maxRequestWindow property value
+   */
+  public int getMaxRequestWindow() {
+    return maxRequestWindow;
+  }
+
+  /**
+   * maxRequestWindow property setter.
+   * Upper bound of the in-flight request window
+   * @param  maxRequestWindow New maxRequestWindow value
+   * @return this
+   */
+  public Options setMaxRequestWindow(int maxRequestWindow) {
+    if (maxRequestWindow < 1) {
+      throw new IllegalArgumentException("Invalid value for the maxRequestWindow option (strictly positive integer required)");
+    }
+
+    this.maxRequestWindow = maxRequestWindow;
+    return this;
+  }
+
+  /**
+   * requestIdGenerator property getter
+   * @return requestIdGenerator property value
+   */
+  public RequestIdGenerator getRequestIdGenerator() {
+    return requestIdGenerator;
+  }
+
+  /**
+   * requestIdGenerator property setter.
+   * Generates the identifiers of requests sent without one.
+   * Defaults to a random per-instance prefix followed by a counter
+   * @param  requestIdGenerator New requestIdGenerator value
+   * @return this
+   */
+  public Options setRequestIdGenerator(RequestIdGenerator requestIdGenerator) {
+    this.requestIdGenerator = requestIdGenerator;
+    return this;
+  }
+
+  /**
+   * connectionPoolSize property getter
+   * @return connectionPoolSize property value
+   */
+  public int getConnectionPoolSize() {
+    return connectionPoolSize;
+  }
+
+  /**
+   * connectionPoolSize property setter.
+   * Number of WebSocket connections opened to Kuzzle. Requests are spread over the
+   * connections according to the sharding option. Ignored if a transport is provided
+   * @param  connectionPoolSize New connectionPoolSize value
+   * @return this
+   */
+  public Options setConnectionPoolSize(int connectionPoolSize) {
+    if (connectionPoolSize < 1) {
+      throw new IllegalArgumentException("Invalid value for the connectionPoolSize option (strictly positive integer required)");
+    }
+
+    this.connectionPoolSize = connectionPoolSize;
+    return this;
+  }
+
+  /**
+   * sharding property getter
+   * @return sharding property value
+   */
+  public Sharding getSharding() {
+    return sharding;
+  }
+
+  /**
+   * sharding property setter.
+   * Spreads requests over the pooled connections in round-robin order (ROUND_ROBIN),
+   * or by index and collection (COLLECTION). Realtime requests are always routed by
+   * index and collection, so that subscriptions stick to their connection
+   * @param  sharding New sharding value
+   * @return this
+   */
+  public Options setSharding(@NonNull Sharding sharding) {
+    if (sharding == null) {
+      throw new IllegalArgumentException("Invalid value for the sharding option (non-null value required)");
+    }
+
+    this.sharding = sharding;
+    return this;
+  }
+
+  /**
+   * metrics property getter
+   * @return metrics property value
+   */
+  public KuzzleMetrics getMetrics() {
+    return metrics;
+  }
+
+  /**
+   * metrics property setter.
+   * Registry recording request latencies, traffic and gauges. Metrics are disabled if null
+   * @param  metrics New metrics value
+   * @return this
+   */
+  public Options setMetrics(KuzzleMetrics metrics) {
+    this.metrics = metrics;
+    return this;
+  }
+
+  /**
+   * heartbeatInterval property getter
+   * @return heartbeatInterval property value
+   */
+  public long getHeartbeatInterval() {
+    return heartbeatInterval;
+  }
+
+  /**
+   * heartbeatInterval property setter.
+   * Delay between heartbeats sent to Kuzzle, in milliseconds, to measure the round-trip
+   * time and detect half-open connections. 0 disables heartbeats
+   * @param  heartbeatInterval New heartbeatInterval value
+   * @return this
+   */
+  public Options setHeartbeatInterval(long heartbeatInterval) {
+    if (heartbeatInterval < 0) {
+      throw new IllegalArgumentException("Invalid value for the heartbeatInterval option (positive or null value required)");
+    }
+
+    this.heartbeatInterval = heartbeatInterval;
+    return this;
+  }
+
+  /**
+   * heartbeatTimeout property getter
+   * @return heartbeatTimeout property value
+   */
+  public long getHeartbeatTimeout() {
+    return heartbeatTimeout;
+  }
+
+  /**
+   * heartbeatTimeout property setter.
+   * If nothing is received from Kuzzle during this delay, in milliseconds, the connection
+   * is considered lost: the SDK switches to offline mode and reconnects
+   * @param  heartbeatTimeout New heartbeatTimeout value
+   * @return this
+   */
+  public Options setHeartbeatTimeout(long heartbeatTimeout) {
+    if (heartbeatTimeout <= 0) {
+      throw new IllegalArgumentException("Invalid value for the heartbeatTimeout option (strictly positive integer required)");
+    }
+
+    this.heartbeatTimeout = heartbeatTimeout;
+    return this;
+  }
+
+  /**
+   * reconnectionPolicy property getter
+   * @return reconnectionPolicy property value
+   */
+  public ReconnectionPolicy getReconnectionPolicy() {
+    return reconnectionPolicy;
+  }
+
+  /**
+   * reconnectionPolicy property setter.
+   * Delays between reconnection attempts, and staggering of the subscriptions renewal
+   * and queue replay once reconnected.
+   * If null, reconnections use an exponential backoff with full jitter, starting at
+   * reconnectionDelay milliseconds
+   * @param  reconnectionPolicy New reconnectionPolicy value
+   * @return this
+   */
+  public Options setReconnectionPolicy(ReconnectionPolicy reconnectionPolicy) {
+    this.reconnectionPolicy = reconnectionPolicy;
+    return this;
+  }
+
+  /**
+   * eventDelivery property getter
+   * @return eventDelivery property value
+   */
+  public EventDelivery getEventDelivery() {
+    return eventDelivery;
+  }
+
+  /**
+   * eventDelivery property setter.
+   * How global events emitted in quick succession are delivered: dropped, coalesced
+   * or all delivered. Can be changed per event with Kuzzle.setEventDelivery
+   * @param  eventDelivery New eventDelivery value
+   * @return this
+   */
+  public Options setEventDelivery(@NonNull EventDelivery eventDelivery) {
+    if (eventDelivery == null) {
+      throw new IllegalArgumentException("Invalid value for the eventDelivery option (null)");
+    }
+
+    this.eventDelivery = eventDelivery;
+    return this;
+  }
+
+  /**
+   * eventExecutor property getter
+   * @return eventExecutor property value
+   */
+  public Executor getEventExecutor() {
+    return eventExecutor;
+  }
+
+  /**
+   * eventExecutor property setter.
+   * Executor running the global event listeners, in emission order.
+   * If null, listeners run synchronously on the thread emitting the event
+   * @param  eventExecutor New eventExecutor value
+   * @return this
+   */
+  public Options setEventExecutor(Executor eventExecutor) {
+    this.eventExecutor = eventExecutor;
+    return this;
+  }
+
+  /**
+   * eventBufferSize property getter
+   * @return eventBufferSize property value
+   */
+  public int getEventBufferSize() {
+    return eventBufferSize;
+  }
+
+  /**
+   * eventBufferSize property setter.
+   * Maximum number of events waiting for the event executor. Beyond it, new events are dropped
+   * @param  eventBufferSize New eventBufferSize value
+   * @return this
+   */
+  public Options setEventBufferSize(int eventBufferSize) {
+    if (eventBufferSize < 1) {
+      throw new IllegalArgumentException("Invalid value for the eventBufferSize option (strictly positive integer required)");
+    }
+
+    this.eventBufferSize = eventBufferSize;
+    return this;
+  }
+
+  /**
+   * callbackExecutor property getter
+   * @return callbackExecutor property value
+   */
+  public Executor getCallbackExecutor() {
+    return callbackExecutor;
+  }
+
+  /**
+   * callbackExecutor property setter.
+   * Executor running the request callbacks and room notifications, instead of the thread
+   * receiving them from the network. Notifications of a same room are kept in order.
+   * If null, callbacks run on the receiving thread
+   * @param  callbackExecutor New callbackExecutor value
+   * @return this
+   */
+  public Options setCallbackExecutor(Executor callbackExecutor) {
+    this.callbackExecutor = callbackExecutor;
+    return this;
+  }
+
+  /**
+   * slowListenerThreshold property getter
+   * @return slowListenerThreshold property value
+   */
+  public long getSlowListenerThreshold() {
+    return slowListenerThreshold;
+  }
+
+  /**
+   * slowListenerThreshold property setter.
+   * Request callbacks and room notifications running longer than this threshold, in
+   * milliseconds, are reported with a slowListener event. 0 disables the detection
+   * @param  slowListenerThreshold New slowListenerThreshold value
+   * @return this
+   */
+  public Options setSlowListenerThreshold(long slowListenerThreshold) {
+    if (slowListenerThreshold < 0) {
+      throw new IllegalArgumentException("Invalid value for the slowListenerThreshold option (positive or null value required)");
+    }
+
+    this.slowListenerThreshold = slowListenerThreshold;
+    return this;
+  }
+
+  /**
+   * collectionCacheSize property getter
+   * @return collectionCacheSize property value
+   */
+  public int getCollectionCacheSize() {
+    return collectionCacheSize;
+  }
+
+  /**
+   * collectionCacheSize property setter.
+   * Maximum number of Collection objects cached by Kuzzle.collection. Once reached,
+   * the least recently used ones are evicted. 0 means unbounded
+   * @param  collectionCacheSize New collectionCacheSize value
+   * @return this
+   */
+  public Options setCollectionCacheSize(int collectionCacheSize) {
+    if (collectionCacheSize < 0) {
+      throw new IllegalArgumentException("Invalid value for the collectionCacheSize option (positive or null value required)");
+    }
+
+    this.collectionCacheSize = collectionCacheSize;
+    return this;
+  }
+
+  /**
+   * resubscribeConcurrency property getter
+   * @return resubscribeConcurrency property value
+   */
+  public int getResubscribeConcurrency() {
+    return resubscribeConcurrency;
+  }
+
+  /**
+   * resubscribeConcurrency property setter.
+   * Maximum number of subscriptions renewed at the same time after a connection,
+   * a reconnection or a login
+   * @param  resubscribeConcurrency New resubscribeConcurrency value
+   * @return this
+   */
+  public Options setResubscribeConcurrency(int resubscribeConcurrency) {
+    if (resubscribeConcurrency < 1) {
+      throw new IllegalArgumentException("Invalid value for the resubscribeConcurrency option (strictly positive integer required)");
+    }
+
+    this.resubscribeConcurrency = resubscribeConcurrency;
+    return this;
+  }
+
   /**
    * start property getter
    * @return start property value
@@ -0,0 +1,151 @@
+package io.kuzzle.sdk.core;
+
+import org.json.JSONObject;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+
+import io.kuzzle.sdk.listeners.ResponseListener;
+import io.kuzzle.sdk.state.States;
+
+/**
+ * Renews a set of subscriptions in batches of bounded size instead of all at once:
+ * a new renewal starts whenever a previous one settles.
+ * Rooms notified the most recently are renewed first, and the total duration is
+ * reported once every renewal settled
+ */
+class ResubscriptionPlanner implements ResponseListener<Room> {
+  interface Listener {
+    void done(ResubscriptionPlanner planner);
+  }
+
+  private final List<Room> rooms;
+  private final boolean dropped;
+  private final int concurrency;
+  private final Listener listener;
+  private long startedAt;
+  private int next = 0;
+  private int inFlight = 0;
+  private int settled = 0;
+  private int failed = 0;
+  private boolean aborted = false;
+
+  /**
+   * Constructor
+   *
+   * @param rooms - Rooms to renew
+   * @param dropped - true if the subscriptions were dropped along with the connection
+   * @param concurrency - Maximum number of renewals in progress
+   * @param listener - Told once every renewal settled
+   */
+  ResubscriptionPlanner(final List<Room> rooms, final boolean dropped, final int concurrency, final Listener listener) {
+    this.rooms = new ArrayList<>(rooms);
+    this.dropped = dropped;
+    this.concurrency = concurrency;
+    this.listener = listener;
+
+    Collections.sort(this.rooms, new Comparator<Room>() {
+      @Override
+      public int compare(Room a, Room b) {
+        long x = a.lastNotification, y = b.lastNotification;
+        return x < y ? 1 : (x == y ? 0 : -1);
+      }
+    });
+  }
+
+  void start() {
+    synchronized (this) {
+      this.startedAt = System.currentTimeMillis();
+    }
+
+    this.fill();
+  }
+
+  /**
+   * Stops starting renewals. Those in progress are left alone
+   */
+  synchronized void abort() {
+    this.aborted = true;
+  }
+
+  synchronized int getRoomCount() {
+    return this.rooms.size();
+  }
+
+  synchronized int getFailedCount() {
+    return this.failed;
+  }
+
+  synchronized long getDuration() {
+    return System.currentTimeMillis() - this.startedAt;
+  }
+
+  @Override
+  public void onSuccess(Room room) {
+    this.settle(false);
+  }
+
+  @Override
+  public void onError(JSONObject error) {
+    this.settle(true);
+  }
+
+  private void settle(final boolean error) {
+    synchronized (this) {
+      this.inFlight--;
+      this.settled++;
+
+      if (error) {
+        this.failed++;
+      }
+    }
+
+    this.fill();
+  }
+
+  private void fill() {
+    while (true) {
+      Room room;
+
+      synchronized (this) {
+        if (this.aborted || this.inFlight >= this.concurrency || this.next >= this.rooms.size()) {
+          break;
+        }
+
+        room = this.rooms.get(this.next++);
+        this.inFlight++;
+      }
+
+      // the remaining rooms are renewed by the next plan, once reconnected
+      if (room.kuzzle.state != States.CONNECTED) {
+        this.abort();
+        break;
+      }
+
+      // a room without a listener, or renewed a moment before
+      if (!room.resubscribe(this.dropped, this)) {
+        synchronized (this) {
+          this.inFlight--;
+          this.settled++;
+        }
+      }
+    }
+
+    boolean done;
+
+    synchronized (this) {
+      done = !this.aborted && this.settled == this.rooms.size();
+
+      // reports once only
+      if (done) {
+        this.aborted = true;
+      }
+    }
+
+    if (done) {
+      this.listener.done(this);
+    }
+  }
+}
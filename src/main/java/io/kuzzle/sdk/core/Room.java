@@ -7,14 +7,12 @@ import org.json.JSONObject;
 
 import java.util.ArrayList;
 import java.util.Iterator;
-import java.util.Timer;
-import java.util.TimerTask;
-import java.util.UUID;
-import java.util.concurrent.ExecutorService;
-import java.util.concurrent.Executors;
+import java.util.LinkedHashMap;
+import java.util.List;
 import java.util.concurrent.TimeUnit;
 
 import io.kuzzle.sdk.enums.Event;
+import io.kuzzle.sdk.enums.Overflow;
 import io.kuzzle.sdk.enums.Scope;
 import io.kuzzle.sdk.enums.State;
 import io.kuzzle.sdk.enums.Users;
@@ -24,10 +22,16 @@ import io.kuzzle.sdk.listeners.SubscribeListener;
 import io.kuzzle.sdk.listeners.OnQueryDoneListener;
 import io.kuzzle.sdk.responses.NotificationResponse;
 import io.kuzzle.sdk.state.States;
+import io.kuzzle.sdk.util.CanonicalJSON;
+import io.kuzzle.sdk.util.NotificationPublisher;
+import io.kuzzle.sdk.util.RequestIdGenerator;
+import io.kuzzle.sdk.util.SessionRequestIdGenerator;
 
 public class Room {
 
-  private String id = UUID.randomUUID().toString();
+  private static final RequestIdGenerator ROOM_IDS = new SessionRequestIdGenerator();
+
+  private String id = ROOM_IDS.next();
   protected String collection;
   protected Collection dataCollection;
   protected JSONObject filters = new JSONObject();
@@ -52,6 +56,31 @@ public class Room {
   private ArrayList<Runnable> queue = new ArrayList<>();
   private SubscribeListener doneListener;
 
+  // Server subscription shared with the rooms subscribing with identical parameters
+  SharedSubscription shared;
+  // Listener counted by Kuzzle for this room, while attached to the shared subscription
+  Object attachedListener;
+
+  // Used by the resubscription planner to renew the most active rooms first, and to
+  // be told once a renewal settles
+  volatile long lastNotification = 0;
+  private volatile ResponseListener<Room> renewalListener;
+
+  // Notifications waiting for the next conflated delivery, by document ID
+  protected long conflationInterval;
+  private final LinkedHashMap<String, Conflated> conflated = new LinkedHashMap<>();
+  private long unconflated = 0;
+  private boolean flushScheduled = false;
+
+  private static class Conflated {
+    JSONObject notification;
+    int count = 1;
+
+    Conflated(final JSONObject notification) {
+      this.notification = notification;
+    }
+  }
+
   /**
    * Constructor
    *
@@ -95,6 +124,7 @@ public class Room {
     this.scope = opts.getScope();
     this.state = opts.getState();
     this.users = opts.getUsers();
+    this.conflationInterval = opts.getConflationInterval();
   }
 
   /**
@@ -164,11 +194,20 @@ public class Room {
         Room.this.kuzzle.emitEvent(Event.tokenExpired);
       }
 
-      if (requestId != null && Room.this.kuzzle.getRequestHistory().containsKey(requestId)) {
-        if (Room.this.subscribeToSelf) {
-          listener.onSuccess(new NotificationResponse(kuzzle, (JSONObject) args));
-        }
-        Room.this.kuzzle.getRequestHistory().remove(requestId);
+      // the request stays in the history: a request may trigger several notifications, on several rooms
+      if (requestId != null && Room.this.kuzzle.getRequestHistory().contains(requestId) && !Room.this.subscribeToSelf) {
+        return;
+      }
+
+      // checked once filtered: another room of the listener may still need the notification
+      if (this.kuzzle.isDuplicateNotification(this.listener, (JSONObject) args)) {
+        return;
+      }
+
+      this.lastNotification = System.currentTimeMillis();
+
+      if (this.conflationInterval > 0) {
+        this.conflate((JSONObject) args);
       } else {
         listener.onSuccess(new NotificationResponse(kuzzle, (JSONObject) args));
       }
@@ -177,6 +216,91 @@ public class Room {
     }
   }
 
+  /**
+   * Holds a notification until the next conflated delivery, replacing the pending one
+   * about the same document, if any. The raw notification is kept: only delivered
+   * ones are turned into NotificationResponse objects
+   *
+   * @param notification - Raw notification
+   */
+  private void conflate(final JSONObject notification) {
+    JSONObject result = notification.optJSONObject("result");
+    String id = result != null ? result.optString("_id", null) : null;
+
+    synchronized (this.conflated) {
+      // notifications not about a document are delivered as they are, in order
+      String key = id != null ? "_id:" + id : "#" + (this.unconflated++);
+      Conflated pending = this.conflated.get(key);
+
+      if (pending == null) {
+        this.conflated.put(key, new Conflated(notification));
+      } else {
+        pending.notification = notification;
+        pending.count++;
+      }
+
+      if (this.flushScheduled) {
+        return;
+      }
+
+      this.flushScheduled = true;
+    }
+
+    this.scheduleFlush();
+  }
+
+  private void scheduleFlush() {
+    this.kuzzle.getScheduler().schedule(new Runnable() {
+      @Override
+      public void run() {
+        String channel = Room.this.channel;
+        EventListener flush = new EventListener() {
+          @Override
+          public void trigger(Object... args) {
+            Room.this.flush();
+          }
+        };
+
+        // delivered like the other notifications of this room, one at a time
+        if (channel != null) {
+          Room.this.kuzzle.notifyRoom(channel, flush, null);
+        } else {
+          flush.trigger();
+        }
+      }
+    }, this.conflationInterval, TimeUnit.MILLISECONDS);
+  }
+
+  /**
+   * Delivers the pending conflated notifications. The next delivery is scheduled once
+   * this one is done, so that a slow listener does not run several deliveries at once
+   */
+  private void flush() {
+    List<Conflated> batch;
+
+    synchronized (this.conflated) {
+      batch = new ArrayList<>(this.conflated.values());
+      this.conflated.clear();
+    }
+
+    try {
+      for (Conflated pending : batch) {
+        this.listener.onSuccess(new NotificationResponse(this.kuzzle, pending.notification, pending.count));
+      }
+    } finally {
+      boolean again;
+
+      synchronized (this.conflated) {
+        again = !this.conflated.isEmpty();
+        this.flushScheduled = again;
+      }
+
+      if (again) {
+        this.scheduleFlush();
+      }
+    }
+  }
+
   /**
    * {@link #renew(JSONObject, ResponseListener, SubscribeListener)}
    */
@@ -257,11 +381,14 @@ public class Room {
       options.setVolatile(this._volatile);
       this.kuzzle.addHeaders(subscribeQuery, this.headers);
 
-      new Thread(new Runnable() {
+      final String key = this.dataCollection.getIndex() + "/" + this.collection + "/"
+        + CanonicalJSON.stringify(subscribeQuery) + "/" + CanonicalJSON.stringify(this._volatile);
+
+      this.kuzzle.getScheduler().execute(new Runnable() {
         @Override
         public void run() {
           try {
-            Room.this.kuzzle.query(Room.this.dataCollection.makeQueryArgs("realtime", "subscribe"), subscribeQuery, options, new OnQueryDoneListener() {
+            Room.this.kuzzle.subscribe(key, Room.this, Room.this.dataCollection.makeQueryArgs("realtime", "subscribe"), subscribeQuery, options, new OnQueryDoneListener() {
               @Override
               public void onSuccess(JSONObject args) {
                 try {
@@ -280,14 +407,7 @@ public class Room {
                 }
 
                 Room.this.kuzzle.addSubscription(Room.this.roomId, Room.this.id, Room.this);
-
-                Room.this.kuzzle.addRoom(Room.this.channel,  new EventListener() {
-                  @Override
-                  public void trigger(final Object... args) {
-                    callAfterRenew(args[0]);
-                  }
-                });
-
+                Room.this.renewed(null);
                 Room.this.dequeue();
               }
 
@@ -298,13 +418,14 @@ public class Room {
                 if (subscribeResponseListener != null) {
                   subscribeResponseListener.done(arg, null);
                 }
+                Room.this.renewed(arg);
               }
             });
           } catch (JSONException e) {
             throw new RuntimeException(e);
           }
         }
-      }).start();
+      });
 
     } catch (JSONException e) {
       throw new RuntimeException(e);
@@ -312,6 +433,121 @@ public class Room {
     return this;
   }
 
+  /**
+   * Renews the subscription on behalf of the resubscription planner.
+   * After a connection loss, Kuzzle has already dropped the subscription: it is
+   * forgotten locally instead of sending a useless unsubscribe request
+   *
+   * @param dropped - true if the subscription was dropped along with the connection
+   * @param listener - Told once the renewal succeeds or fails
+   * @return false if no renewal was started
+   */
+  boolean resubscribe(final boolean dropped, final ResponseListener<Room> listener) {
+    if (this.listener == null) {
+      return false;
+    }
+
+    if (dropped) {
+      this.forget();
+      this.lastRenewal = 0;
+      // a subscription in progress was lost along with the connection
+      this.subscribing = false;
+    } else if (this.lastRenewal > 0 && (System.currentTimeMillis() - this.lastRenewal) <= this.renewalDelay) {
+      return false;
+    }
+
+    if (this.kuzzle.state != States.CONNECTED) {
+      return false;
+    }
+
+    this.renewalListener = listener;
+    this.renew(this.listener, this.doneListener);
+    return true;
+  }
+
+  /**
+   * Forgets the subscription locally, without telling Kuzzle
+   */
+  private void forget() {
+    if (this.roomId == null) {
+      return;
+    }
+
+    if (this.shared != null) {
+      this.kuzzle.releaseSubscription(this.shared, this);
+      this.shared = null;
+    } else {
+      this.kuzzle.removeRoom(this.channel);
+    }
+
+    this.kuzzle.deleteSubscription(this.roomId, this.id);
+    this.roomId = null;
+  }
+
+  /**
+   * Settles a renewal left to the connection of the subscription shard
+   */
+  void deferred() {
+    this.renewed(null);
+  }
+
+  private void renewed(final JSONObject error) {
+    ResponseListener<Room> listener = this.renewalListener;
+    this.renewalListener = null;
+
+    if (listener != null) {
+      if (error != null) {
+        listener.onError(error);
+      } else {
+        listener.onSuccess(this);
+      }
+    }
+  }
+
+  /**
+   * {@link #stream(JSONObject, int, Overflow, SubscribeListener)}
+   */
+  public NotificationPublisher<NotificationResponse> stream(final int bufferSize, @NonNull final Overflow overflow) {
+    return this.stream(null, bufferSize, overflow, null);
+  }
+
+  /**
+   * Renews the subscription, delivering notifications to a demand-driven stream instead
+   * of a listener. Notifications are buffered until the stream subscriber requests them,
+   * up to bufferSize notifications, the overflow strategy applying beyond.
+   * Cancelling the stream, or a buffer overflow failing it, unsubscribes this room, and a
+   * subscription error fails the stream
+   *
+   * @param filters  Subscription filters, using Kuzzle DSL
+   * @param bufferSize  Maximum number of buffered notifications
+   * @param overflow  What to do with notifications received while the buffer is full
+   * @param subscribeResponseListener  Subscription result listener
+   * @return notification stream
+   */
+  public NotificationPublisher<NotificationResponse> stream(final JSONObject filters, final int bufferSize, @NonNull final Overflow overflow, final SubscribeListener subscribeResponseListener) {
+    final NotificationPublisher<NotificationResponse> publisher = new NotificationPublisher<NotificationResponse>(bufferSize, overflow) {
+      @Override
+      protected void cancelled() {
+        Room.this.unsubscribe();
+      }
+    };
+    final SubscribeListener done = subscribeResponseListener != null ? subscribeResponseListener : new SubscribeListener();
+
+    done.onDone(new ResponseListener<Room>() {
+      @Override
+      public void onSuccess(Room room) {
+      }
+
+      @Override
+      public void onError(JSONObject error) {
+        publisher.onError(error);
+      }
+    });
+
+    this.renew(filters, publisher, done);
+    return publisher;
+  }
+
   /**
    * Unsubscribes from Kuzzle.
    * Stop listening immediately. If there is no listener left on that room,
@@ -333,6 +569,10 @@ public class Room {
       return this;
     }
 
+    synchronized (this.conflated) {
+      this.conflated.clear();
+    }
+
     if (this.roomId == null) {
       return this;
     }
@@ -341,16 +581,24 @@ public class Room {
       final JSONObject data = new JSONObject().put("body", new JSONObject().put("roomId", this.roomId));
       this.kuzzle.addHeaders(data, this.headers);
 
-      this.kuzzle.removeRoom(Room.this.channel);
+      boolean last = true;
+
+      if (this.shared != null) {
+        last = this.kuzzle.releaseSubscription(this.shared, this);
+        this.shared = null;
+      } else {
+        this.kuzzle.removeRoom(Room.this.channel);
+      }
+
       this.kuzzle.deleteSubscription(this.roomId, this.id);
 
-      if (this.kuzzle.getSubscriptions(this.roomId) == null) {
+      // the server subscription is dropped once no room uses it anymore
+      if (last && this.kuzzle.getSubscriptions(this.roomId) == null) {
         final String roomId = this.roomId;
         if (this.kuzzle.getPendingSubscriptions().isEmpty()) {
           this.kuzzle.query(this.dataCollection.makeQueryArgs("realtime", "unsubscribe"), data);
         } else {
-          final Timer timer = new Timer(UUID.randomUUID().toString());
-          unsubscribeTask(timer, roomId, data).run();
+          unsubscribeTask(roomId, data).run();
         }
       }
 
@@ -363,15 +611,15 @@ public class Room {
   }
 
   /**
-   * Unsubscribe task timer task.
+   * Unsubscribe task: sends the unsubscribe request once there is no pending
+   * subscription left, rescheduling itself on the Kuzzle scheduler otherwise
    *
-   * @param timer  the timer
    * @param roomId the room id
    * @param data   the data
-   * @return the timer task
+   * @return the unsubscribe task
    */
-  protected TimerTask unsubscribeTask(final Timer timer, final String roomId, final JSONObject data) {
-    return new TimerTask() {
+  protected Runnable unsubscribeTask(final String roomId, final JSONObject data) {
+    return new Runnable() {
       @Override
       public void run() {
         try {
@@ -380,7 +628,7 @@ public class Room {
               Room.this.kuzzle.query(Room.this.dataCollection.makeQueryArgs("realtime", "unsubscribe"), data);
             }
           } else {
-            timer.schedule(unsubscribeTask(timer, roomId, data), 100);
+            Room.this.kuzzle.getScheduler().schedule(this, 100, TimeUnit.MILLISECONDS);
           }
         } catch (JSONException e) {
           throw new RuntimeException(e);
@@ -534,23 +782,18 @@ public class Room {
    */
   protected void dequeue() {
     if (this.queue.size() > 0) {
-      ExecutorService threadPool = Executors.newSingleThreadExecutor();
+      final ArrayList<Runnable> pending = new ArrayList<>(this.queue);
+      this.queue.clear();
 
-      for(Runnable r: this.queue) {
-        threadPool.execute(r);
-      }
-
-      threadPool.shutdown();
-
-      try {
-        threadPool.awaitTermination(1, TimeUnit.SECONDS);
-      }
-      catch (InterruptedException e) {
-        // do nothing
-      }
-      finally {
-        this.queue.clear();
-      }
+      // Queued calls are replayed in order, on a single scheduler task
+      this.kuzzle.getScheduler().execute(new Runnable() {
+        @Override
+        public void run() {
+          for (Runnable r : pending) {
+            r.run();
+          }
+        }
+      });
     }
   }
 
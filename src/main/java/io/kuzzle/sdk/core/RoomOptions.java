@@ -13,6 +13,7 @@ public class RoomOptions {
   private Scope scope = Scope.ALL;
   private State state = State.DONE;
   private Users users = Users.NONE;
+  private long conflationInterval = 0;
 
   /**
    * subscribeToSelf property getter
@@ -111,4 +112,29 @@ public class RoomOptions {
     return this;
   }
 
+  /**
+   * conflationInterval property getter
+   * @return conflationInterval property value
+   */
+  public long getConflationInterval() {
+    return conflationInterval;
+  }
+
+  /**
+   * conflationInterval property setter.
+   * Document notifications are delivered at most once per interval, in milliseconds,
+   * for each document: only the latest one is delivered. 0 disables the conflation
+   * @param  conflationInterval New conflationInterval value
+   * @return this
+   */
+  public RoomOptions setConflationInterval(long conflationInterval) {
+    if (conflationInterval < 0) {
+      throw new IllegalArgumentException("Invalid value for the conflationInterval option (positive or null value required)");
+    }
+
+    this.conflationInterval = conflationInterval;
+
+    return this;
+  }
+
 }
@@ -0,0 +1,118 @@
+package io.kuzzle.sdk.core;
+
+import org.json.JSONException;
+import org.json.JSONObject;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import io.kuzzle.sdk.listeners.EventListener;
+import io.kuzzle.sdk.listeners.OnQueryDoneListener;
+
+/**
+ * Server subscription shared by the Room instances subscribing with identical parameters.
+ * A single subscribe request is sent for all of them, and the notifications received on
+ * its channel are fanned out to every attached room
+ */
+final class SharedSubscription implements EventListener {
+  final String key;
+  private final List<Room> rooms = new CopyOnWriteArrayList<>();
+  private List<OnQueryDoneListener> waiting = new ArrayList<>();
+  private JSONObject response;
+  private String channel;
+
+  SharedSubscription(final String key) {
+    this.key = key;
+  }
+
+  /**
+   * Attaches a room
+   *
+   * @param room - Attached room
+   * @param listener - Subscription listener of the room, kept until the server subscription is active
+   * @return subscribe response if the server subscription is already active, null otherwise
+   */
+  synchronized JSONObject join(final Room room, final OnQueryDoneListener listener) {
+    this.rooms.add(room);
+
+    if (this.response == null) {
+      this.waiting.add(listener);
+    }
+
+    return this.response;
+  }
+
+  /**
+   * Detaches a room
+   *
+   * @param room - Detached room
+   * @return true if no room is attached anymore
+   */
+  synchronized boolean leave(final Room room) {
+    this.rooms.remove(room);
+    return this.rooms.isEmpty();
+  }
+
+  /**
+   * @param response - Subscribe response
+   * @param channel - Notifications channel
+   * @return subscription listeners waiting for the response
+   */
+  synchronized List<OnQueryDoneListener> subscribed(final JSONObject response, final String channel) {
+    List<OnQueryDoneListener> listeners = this.waiting;
+
+    this.response = response;
+    this.channel = channel;
+    this.waiting = new ArrayList<>();
+    return listeners;
+  }
+
+  /**
+   * Detaches every room after a failed subscribe request
+   *
+   * @return subscription listeners waiting for the response
+   */
+  synchronized List<OnQueryDoneListener> failed() {
+    List<OnQueryDoneListener> listeners = this.waiting;
+
+    this.waiting = new ArrayList<>();
+    this.rooms.clear();
+    return listeners;
+  }
+
+  /**
+   * @return attached rooms
+   */
+  List<Room> getRooms() {
+    return new ArrayList<>(this.rooms);
+  }
+
+  synchronized boolean isSubscribed() {
+    return this.response != null;
+  }
+
+  synchronized String getChannel() {
+    return this.channel;
+  }
+
+  /**
+   * Fans a notification out to the attached rooms.
+   * Notification responses alter the notification: every room but the last gets its own copy
+   *
+   * @param args - Notification
+   */
+  @Override
+  public void trigger(final Object... args) {
+    Object[] attached = this.rooms.toArray();
+
+    try {
+      for (int i = 0; i < attached.length; i++) {
+        Object notification = i < attached.length - 1 ? new JSONObject(args[0].toString()) : args[0];
+        ((Room) attached[i]).callAfterRenew(notification);
+      }
+    } catch (JSONException e) {
+      throw new RuntimeException(e);
+    }
+  }
+}
@@ -11,5 +11,8 @@ public enum Event {
   tokenExpired,
   loginAttempt,
   offlineQueuePush,
-  offlineQueuePop
+  offlineQueuePop,
+  offlineQueueReplayed,
+  slowListener,
+  resubscribed
 }
@@ -0,0 +1,21 @@
+package io.kuzzle.sdk.enums;
+
+/**
+ * How global events emitted in quick succession are delivered to listeners
+ */
+public enum EventDelivery {
+  /**
+   * Events emitted less than 200ms after the previous one of the same type are dropped
+   */
+  DROP,
+  /**
+   * Events emitted less than 200ms after the previous one of the same type are merged:
+   * only the latest one is delivered, at the end of the 200ms window.
+   * The number of merged events is passed to listeners as an additional, last argument
+   */
+  COALESCE,
+  /**
+   * Every event is delivered
+   */
+  ALL
+}
@@ -0,0 +1,23 @@
+package io.kuzzle.sdk.enums;
+
+/**
+ * What a notification stream does with a notification received while its buffer is full
+ */
+public enum Overflow {
+  /**
+   * The oldest buffered notification is dropped to make room for the new one
+   */
+  DROP_OLDEST,
+  /**
+   * The new notification is dropped
+   */
+  DROP_NEWEST,
+  /**
+   * Buffered notifications are dropped: only the new one is kept
+   */
+  LATEST,
+  /**
+   * The stream fails with an overflow error, and buffered notifications are dropped
+   */
+  ERROR
+}
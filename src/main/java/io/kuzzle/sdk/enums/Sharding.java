@@ -0,0 +1,6 @@
+package io.kuzzle.sdk.enums;
+
+public enum Sharding {
+  ROUND_ROBIN,
+  COLLECTION
+}
@@ -0,0 +1,52 @@
+package io.kuzzle.sdk.exceptions;
+
+import org.json.JSONObject;
+
+/**
+ * Error returned by Kuzzle, thrown by blocking API calls
+ */
+public class KuzzleException extends Exception {
+  private static final long serialVersionUID = 1L;
+
+  private final int status;
+  private final JSONObject error;
+
+  /**
+   * Constructor
+   *
+   * @param error - Error, in the Kuzzle API format: { status, message, ... }
+   */
+  public KuzzleException(final JSONObject error) {
+    super(error != null ? error.optString("message", "Unknown error") : "Unknown error");
+    this.error = error != null ? error : new JSONObject();
+    this.status = this.error.optInt("status", 500);
+  }
+
+  /**
+   * @return error HTTP-like status
+   */
+  public int getStatus() {
+    return this.status;
+  }
+
+  /**
+   * @return raw error, as returned by Kuzzle
+   */
+  public JSONObject getError() {
+    return this.error;
+  }
+
+  /**
+   * Converts an error to the matching exception type
+   *
+   * @param error - Error, in the Kuzzle API format
+   * @return exception
+   */
+  public static KuzzleException of(final JSONObject error) {
+    if (error != null && error.optInt("status") == KuzzleTimeoutException.STATUS) {
+      return new KuzzleTimeoutException(error);
+    }
+
+    return new KuzzleException(error);
+  }
+}
@@ -0,0 +1,39 @@
+package io.kuzzle.sdk.exceptions;
+
+import org.json.JSONException;
+import org.json.JSONObject;
+
+/**
+ * No response received before the request timeout
+ */
+public class KuzzleTimeoutException extends KuzzleException {
+  private static final long serialVersionUID = 1L;
+
+  public static final int STATUS = 408;
+
+  /**
+   * Constructor
+   *
+   * @param error - Error, in the Kuzzle API format
+   */
+  public KuzzleTimeoutException(final JSONObject error) {
+    super(error);
+  }
+
+  /**
+   * Constructor
+   *
+   * @param message - Error message
+   */
+  public KuzzleTimeoutException(final String message) {
+    this(timeoutError(message));
+  }
+
+  private static JSONObject timeoutError(final String message) {
+    try {
+      return new JSONObject().put("status", STATUS).put("message", message);
+    } catch (JSONException e) {
+      throw new RuntimeException(e);
+    }
+  }
+}
@@ -0,0 +1,8 @@
+package io.kuzzle.sdk.metrics;
+
+/**
+ * Value sampled when a metrics snapshot is taken
+ */
+public interface Gauge {
+  long value();
+}
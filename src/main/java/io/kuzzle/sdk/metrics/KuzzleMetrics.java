@@ -0,0 +1,192 @@
+package io.kuzzle.sdk.metrics;
+
+import org.json.JSONException;
+import org.json.JSONObject;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Metrics registry of a Kuzzle instance:
+ * - request latency histograms, per API controller and action
+ * - counters of frames and bytes sent and received
+ * - counters of notifications received, per room channel
+ * - gauges sampled on snapshot, such as the number of requests waiting for a response
+ *
+ * Recording is lock-free. The SDK records nothing unless a registry is provided with
+ * the metrics option, so that disabled metrics cost a single null check.
+ */
+public class KuzzleMetrics {
+  private final ConcurrentHashMap<String, LatencyHistogram> latencies = new ConcurrentHashMap<>();
+  private final ConcurrentHashMap<String, AtomicLong> notifications = new ConcurrentHashMap<>();
+  private final ConcurrentHashMap<String, Gauge> gauges = new ConcurrentHashMap<>();
+  private final AtomicLong framesSent = new AtomicLong();
+  private final AtomicLong bytesSent = new AtomicLong();
+  private final AtomicLong framesReceived = new AtomicLong();
+  private final AtomicLong bytesReceived = new AtomicLong();
+  private final long createdAt = System.currentTimeMillis();
+
+  /**
+   * Records the latency of a request, from its emission to its response or timeout
+   *
+   * @param controller - API controller
+   * @param action - API action
+   * @param nanos - Latency, in nanoseconds
+   */
+  public void recordLatency(final String controller, final String action, final long nanos) {
+    getLatency(controller + ":" + action).record(nanos);
+  }
+
+  /**
+   * Records a frame sent to Kuzzle
+   *
+   * @param bytes - Frame size, in bytes
+   */
+  public void recordSent(final long bytes) {
+    this.framesSent.incrementAndGet();
+    this.bytesSent.addAndGet(bytes);
+  }
+
+  /**
+   * Records a frame received from Kuzzle
+   *
+   * @param bytes - Frame size, in bytes
+   */
+  public void recordReceived(final long bytes) {
+    this.framesReceived.incrementAndGet();
+    this.bytesReceived.addAndGet(bytes);
+  }
+
+  /**
+   * Records a notification received on a room
+   *
+   * @param channel - Room channel
+   */
+  public void recordNotification(final String channel) {
+    AtomicLong counter = this.notifications.get(channel);
+
+    if (counter == null) {
+      AtomicLong created = new AtomicLong();
+      counter = this.notifications.putIfAbsent(channel, created);
+
+      if (counter == null) {
+        counter = created;
+      }
+    }
+
+    counter.incrementAndGet();
+  }
+
+  /**
+   * Registers a gauge, replacing any gauge of the same name
+   *
+   * @param name - Gauge name
+   * @param gauge - Sampled value
+   * @return this
+   */
+  public KuzzleMetrics registerGauge(final String name, final Gauge gauge) {
+    this.gauges.put(name, gauge);
+    return this;
+  }
+
+  /**
+   * Latency histogram of an API route, created on first use
+   *
+   * @param route - "controller:action"
+   * @return latency histogram
+   */
+  public LatencyHistogram getLatency(final String route) {
+    LatencyHistogram histogram = this.latencies.get(route);
+
+    if (histogram == null) {
+      LatencyHistogram created = new LatencyHistogram();
+      histogram = this.latencies.putIfAbsent(route, created);
+
+      if (histogram == null) {
+        histogram = created;
+      }
+    }
+
+    return histogram;
+  }
+
+  /**
+   * Copies the current metrics in a JSON object:
+   * {
+   *   uptime: ms,
+   *   frames: { sent, received },
+   *   bytes: { sent, received },
+   *   gauges: { name: value },
+   *   latencies: { "controller:action": histogram },
+   *   notifications: { channel: count }
+   * }
+   * Values are read one by one: the snapshot is not atomic
+   *
+   * @return metrics snapshot
+   */
+  public JSONObject snapshot() {
+    try {
+      JSONObject gauges = new JSONObject();
+      for (Map.Entry<String, Gauge> gauge : this.gauges.entrySet()) {
+        gauges.put(gauge.getKey(), gauge.getValue().value());
+      }
+
+      JSONObject latencies = new JSONObject();
+      for (Map.Entry<String, LatencyHistogram> latency : this.latencies.entrySet()) {
+        latencies.put(latency.getKey(), latency.getValue().toJSON());
+      }
+
+      JSONObject notifications = new JSONObject();
+      for (Map.Entry<String, AtomicLong> counter : this.notifications.entrySet()) {
+        notifications.put(counter.getKey(), counter.getValue().get());
+      }
+
+      return new JSONObject()
+        .put("uptime", System.currentTimeMillis() - this.createdAt)
+        .put("frames", new JSONObject().put("sent", this.framesSent.get()).put("received", this.framesReceived.get()))
+        .put("bytes", new JSONObject().put("sent", this.bytesSent.get()).put("received", this.bytesReceived.get()))
+        .put("gauges", gauges)
+        .put("latencies", latencies)
+        .put("notifications", notifications);
+    } catch (JSONException e) {
+      throw new RuntimeException(e);
+    }
+  }
+
+  /**
+   * Forgets the notification counters of a room channel, once unsubscribed
+   *
+   * @param channel - Room channel
+   */
+  public void removeNotifications(final String channel) {
+    this.notifications.remove(channel);
+  }
+
+  /**
+   * Size of a text frame once encoded in UTF-8, without encoding it
+   *
+   * @param frame - Text frame
+   * @return frame size, in bytes
+   */
+  public static long utf8Length(final String frame) {
+    long length = 0;
+
+    for (int i = 0; i < frame.length(); i++) {
+      char c = frame.charAt(i);
+
+      if (c < 0x80) {
+        length++;
+      } else if (c < 0x800) {
+        length += 2;
+      } else if (Character.isHighSurrogate(c) && i + 1 < frame.length() && Character.isLowSurrogate(frame.charAt(i + 1))) {
+        length += 4;
+        i++;
+      } else {
+        length += 3;
+      }
+    }
+
+    return length;
+  }
+}
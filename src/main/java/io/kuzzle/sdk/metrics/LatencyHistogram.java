@@ -0,0 +1,116 @@
+package io.kuzzle.sdk.metrics;
+
+import org.json.JSONException;
+import org.json.JSONObject;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Lock-free latency histogram with fixed buckets.
+ * Recording a value costs a few atomic increments, and never allocates.
+ * Percentiles are estimated with the upper bound of the bucket holding them.
+ */
+public class LatencyHistogram {
+  /**
+   * Buckets upper bounds, in milliseconds. The last bucket holds every larger value
+   */
+  public static final long[] BOUNDS = {1, 2, 5, 10, 20, 50, 100, 200, 500, 1000, 2000, 5000, 10000, 30000};
+
+  private final AtomicLongArray buckets = new AtomicLongArray(BOUNDS.length + 1);
+  private final AtomicLong count = new AtomicLong();
+  private final AtomicLong sum = new AtomicLong();
+  private final AtomicLong max = new AtomicLong();
+
+  /**
+   * Records a latency
+   *
+   * @param nanos - Latency, in nanoseconds
+   */
+  public void record(long nanos) {
+    long micros = Math.max(0, nanos / 1000);
+    int bucket = 0;
+
+    while (bucket < BOUNDS.length && micros > BOUNDS[bucket] * 1000) {
+      bucket++;
+    }
+
+    this.buckets.incrementAndGet(bucket);
+    this.count.incrementAndGet();
+    this.sum.addAndGet(micros);
+
+    long current;
+    while (micros > (current = this.max.get()) && !this.max.compareAndSet(current, micros)) {
+      // retry
+    }
+  }
+
+  /**
+   * @return number of recorded latencies
+   */
+  public long getCount() {
+    return this.count.get();
+  }
+
+  /**
+   * Estimates a percentile
+   *
+   * @param percentile - Percentile, between 0 and 100
+   * @return upper bound of the bucket holding the percentile, in milliseconds,
+   * -1 if the percentile lies beyond the last bound, or 0 if no latency was recorded
+   */
+  public long getPercentile(double percentile) {
+    long[] counts = new long[this.buckets.length()];
+    long total = 0;
+
+    for (int i = 0; i < counts.length; i++) {
+      counts[i] = this.buckets.get(i);
+      total += counts[i];
+    }
+
+    if (total == 0) {
+      return 0;
+    }
+
+    long rank = (long) Math.ceil(total * percentile / 100);
+    long seen = 0;
+
+    for (int i = 0; i < BOUNDS.length; i++) {
+      seen += counts[i];
+
+      if (seen >= rank) {
+        return BOUNDS[i];
+      }
+    }
+
+    return -1;
+  }
+
+  /**
+   * Copies the histogram in a JSON object:
+   * { count, sumMicros, maxMicros, p50, p90, p99, buckets: { "<bound>": count, ..., "+Inf": count } }
+   *
+   * @return histogram snapshot
+   */
+  public JSONObject toJSON() {
+    try {
+      JSONObject buckets = new JSONObject();
+
+      for (int i = 0; i < BOUNDS.length; i++) {
+        buckets.put(String.valueOf(BOUNDS[i]), this.buckets.get(i));
+      }
+      buckets.put("+Inf", this.buckets.get(BOUNDS.length));
+
+      return new JSONObject()
+        .put("count", this.count.get())
+        .put("sumMicros", this.sum.get())
+        .put("maxMicros", this.max.get())
+        .put("p50", getPercentile(50))
+        .put("p90", getPercentile(90))
+        .put("p99", getPercentile(99))
+        .put("buckets", buckets);
+    } catch (JSONException e) {
+      throw new RuntimeException(e);
+    }
+  }
+}
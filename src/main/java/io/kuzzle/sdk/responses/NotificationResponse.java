@@ -23,6 +23,7 @@ public class NotificationResponse {
   private String requestId;
   private Document document;
   private JSONObject  result;
+  private int coalescedCount = 1;
 
   /**
    * Response notification representation
@@ -31,6 +32,18 @@ public class NotificationResponse {
    * @param  object Raw Kuzzle API notification
    */
   public NotificationResponse(final Kuzzle kuzzle, final JSONObject object) {
+    this(kuzzle, object, 1);
+  }
+
+  /**
+   * Response notification representation, standing for several conflated notifications
+   * @param  kuzzle Kuzzle instance to attach
+   * @param  object Latest raw Kuzzle API notification
+   * @param  coalescedCount Number of notifications received since the previous delivery
+   */
+  public NotificationResponse(final Kuzzle kuzzle, final JSONObject object, final int coalescedCount) {
+    this.coalescedCount = coalescedCount;
+
     try {
       this.status = object.getInt("status");
       this.index = object.getString("index");
@@ -139,4 +152,11 @@ public class NotificationResponse {
   public Users getUsers() {
     return users;
   }
+
+  /**
+   * @return Number of notifications this one stands for: more than 1 if older ones were conflated
+   */
+  public int getCoalescedCount() {
+    return coalescedCount;
+  }
 }
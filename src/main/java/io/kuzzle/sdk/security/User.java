@@ -8,12 +8,14 @@ import org.json.JSONObject;
 
 import java.util.Arrays;
 import java.util.ArrayList;
+import java.util.List;
 
 import io.kuzzle.sdk.core.Kuzzle;
 import io.kuzzle.sdk.core.Options;
 import io.kuzzle.sdk.security.Profile;
 import io.kuzzle.sdk.listeners.ResponseListener;
 import io.kuzzle.sdk.listeners.OnQueryDoneListener;
+import io.kuzzle.sdk.util.KuzzleFuture;
 
 /**
  * This class handles users management in Kuzzle
@@ -309,42 +311,30 @@ public class User extends AbstractSecurityDocument {
       throw new IllegalArgumentException("User.getProfiles: a valid ResponseListener object is required");
     }
 
-    final Profile[] profiles = new Profile[this.profileIds.size()];
-
     if (this.profileIds.size() == 0) {
-      listener.onSuccess(profiles);
+      listener.onSuccess(new Profile[0]);
       return;
     }
 
-    // using an array to allow these variables to be final
-    // while keeping the possibility to change their value
-    final int[] fetched = {0};
-    final boolean[] errored = {false};
-
-    for (int i = 0; i < this.profileIds.size(); i++) {
-      this.kuzzleSecurity.fetchProfile(this.profileIds.get(i), options, new ResponseListener<Profile>() {
-        @Override
-        public void onSuccess(Profile response) {
-          profiles[fetched[0]] = response;
-          fetched[0]++;
+    List<KuzzleFuture<Profile>> profiles = new ArrayList<>(this.profileIds.size());
 
-          if (fetched[0] == User.this.profileIds.size()) {
-            listener.onSuccess(profiles);
-          }
-        }
+    for (String profileId : this.profileIds) {
+      KuzzleFuture<Profile> profile = new KuzzleFuture<>();
+      this.kuzzleSecurity.fetchProfile(profileId, options, profile);
+      profiles.add(profile);
+    }
 
-        @Override
-        public void onError(JSONObject error) {
-          // prevents triggering the listener multiple times
-          if (errored[0]) {
-            return;
-          }
+    KuzzleFuture.allOf(profiles).whenComplete(new ResponseListener<List<Profile>>() {
+      @Override
+      public void onSuccess(List<Profile> response) {
+        listener.onSuccess(response.toArray(new Profile[response.size()]));
+      }
 
-          errored[0] = true;
-          listener.onError(error);
-        }
-      });
-    }
+      @Override
+      public void onError(JSONObject error) {
+        listener.onError(error);
+      }
+    });
   }
 
   /**
@@ -0,0 +1,464 @@
+package io.kuzzle.sdk.state;
+
+import org.json.JSONException;
+import org.json.JSONObject;
+
+import java.io.Closeable;
+import java.io.File;
+import java.io.FileFilter;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.Charset;
+import java.util.Date;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.zip.CRC32;
+
+import io.kuzzle.sdk.util.OfflineQueueLoader;
+import io.kuzzle.sdk.util.QueryObject;
+
+/**
+ * Disk-backed journal of the offline queue, letting queued requests survive a process death.
+ *
+ * Requests are appended to segment files, and acknowledged requests are recorded as
+ * tombstones. A segment file is deleted once all the requests of that segment and of the
+ * older ones are acknowledged, and live requests are rewritten to a fresh segment when
+ * tombstones pile up.
+ * On opening, segments are memory-mapped and read in a single pass: an incomplete or
+ * corrupted record, left by a crash in the middle of a write, is truncated.
+ *
+ * Only the query content, action and timestamp are journaled: callbacks and query options
+ * cannot be restored.
+ */
+public class OfflineQueueJournal implements OfflineQueueLoader, Closeable {
+  public static final long DEFAULT_SEGMENT_SIZE = 1024 * 1024;
+
+  private static final byte APPEND = 1;
+  private static final byte ACKNOWLEDGE = 2;
+  private static final int HEADER_SIZE = 5;
+  private static final int CHECKSUM_SIZE = 4;
+  private static final int COMPACTION_THRESHOLD = 1024;
+  private static final String SEGMENT_PREFIX = "segment-";
+  private static final String SEGMENT_SUFFIX = ".journal";
+  private static final Charset UTF8 = Charset.forName("UTF-8");
+
+  private static class Segment {
+    final long id;
+    final File file;
+    int live = 0;
+
+    Segment(long id, File file) {
+      this.id = id;
+      this.file = file;
+    }
+  }
+
+  private static class Entry {
+    final QueryObject query;
+    final Segment segment;
+
+    Entry(QueryObject query, Segment segment) {
+      this.query = query;
+      this.segment = segment;
+    }
+  }
+
+  private final File directory;
+  private final long segmentSize;
+  private final TreeMap<Long, Segment> segments = new TreeMap<>();
+  private final LinkedHashMap<String, Entry> index = new LinkedHashMap<>();
+  private Segment active;
+  private FileChannel channel;
+  private int tombstones = 0;
+  private boolean forceWrites = false;
+
+  /**
+   * {@link #OfflineQueueJournal(File, long)}
+   */
+  public OfflineQueueJournal(File directory) throws IOException {
+    this(directory, DEFAULT_SEGMENT_SIZE);
+  }
+
+  /**
+   * Opens a journal, restoring the requests it contains
+   *
+   * @param directory - Directory holding the journal segments
+   * @param segmentSize - Size above which a new segment is started, in bytes
+   * @throws IOException the journal cannot be read or created
+   */
+  public OfflineQueueJournal(File directory, long segmentSize) throws IOException {
+    if (segmentSize <= 0) {
+      throw new IllegalArgumentException("OfflineQueueJournal: segmentSize must be strictly positive");
+    }
+
+    if (!directory.isDirectory() && !directory.mkdirs()) {
+      throw new IOException("Unable to create the offline queue journal directory: " + directory);
+    }
+
+    this.directory = directory;
+    this.segmentSize = segmentSize;
+
+    File[] files = directory.listFiles(new FileFilter() {
+      @Override
+      public boolean accept(File file) {
+        return file.isFile() && file.getName().startsWith(SEGMENT_PREFIX) && file.getName().endsWith(SEGMENT_SUFFIX);
+      }
+    });
+
+    if (files != null) {
+      for (File file : files) {
+        String name = file.getName();
+
+        try {
+          long id = Long.parseLong(name.substring(SEGMENT_PREFIX.length(), name.length() - SEGMENT_SUFFIX.length()));
+          this.segments.put(id, new Segment(id, file));
+        } catch (NumberFormatException e) {
+          // not a segment of ours
+        }
+      }
+    }
+
+    for (Segment segment : this.segments.values()) {
+      recover(segment);
+    }
+
+    releaseSegments();
+    rollSegment();
+  }
+
+  /**
+   * Forces every write to the storage device before returning.
+   * Without it, journaled requests survive a process death but may be lost on a power failure
+   *
+   * @param forceWrites - New forceWrites value
+   * @return this
+   */
+  public synchronized OfflineQueueJournal setForceWrites(boolean forceWrites) {
+    this.forceWrites = forceWrites;
+    return this;
+  }
+
+  /**
+   * Journals a queued request
+   *
+   * @param query - Queued request
+   * @return false if a request with the same requestId is already journaled
+   * @throws IOException the request cannot be written
+   */
+  public synchronized boolean append(QueryObject query) throws IOException {
+    String requestId;
+    JSONObject record;
+
+    try {
+      requestId = query.getQuery().getString("requestId");
+
+      if (this.index.containsKey(requestId)) {
+        return false;
+      }
+
+      record = new JSONObject()
+        .put("query", query.getQuery())
+        .put("action", query.getAction())
+        .put("timestamp", query.getTimestamp() != null ? query.getTimestamp().getTime() : System.currentTimeMillis());
+    } catch (JSONException e) {
+      throw new RuntimeException(e);
+    }
+
+    Segment segment = write(APPEND, record.toString());
+    this.index.put(requestId, new Entry(query, segment));
+    segment.live++;
+
+    return true;
+  }
+
+  /**
+   * Removes an acknowledged request from the journal
+   *
+   * @param requestId - Acknowledged request unique ID
+   * @return false if no such request is journaled
+   * @throws IOException the acknowledgement cannot be written
+   */
+  public synchronized boolean acknowledge(String requestId) throws IOException {
+    Entry entry = this.index.get(requestId);
+
+    if (entry == null) {
+      return false;
+    }
+
+    write(ACKNOWLEDGE, requestId);
+    this.index.remove(requestId);
+    entry.segment.live--;
+    this.tombstones++;
+
+    releaseSegments();
+
+    if (this.tombstones > COMPACTION_THRESHOLD && this.tombstones > this.index.size()) {
+      compact();
+    }
+
+    return true;
+  }
+
+  /**
+   * @param requestId - Request unique ID
+   * @return true if the request is journaled and not acknowledged yet
+   */
+  public synchronized boolean contains(String requestId) {
+    return this.index.containsKey(requestId);
+  }
+
+  /**
+   * @return number of journaled requests not acknowledged yet
+   */
+  public synchronized int size() {
+    return this.index.size();
+  }
+
+  /**
+   * Returns the journaled requests not acknowledged yet, in their queuing order
+   *
+   * @return journaled requests
+   */
+  @Override
+  public synchronized KuzzleQueue<QueryObject> load() {
+    KuzzleQueue<QueryObject> queue = new KuzzleQueue<>();
+
+    for (Entry entry : this.index.values()) {
+      queue.addToQueue(entry.query);
+    }
+
+    return queue;
+  }
+
+  /**
+   * Acknowledges every journaled request, and deletes all the segments
+   *
+   * @throws IOException a new segment cannot be created
+   */
+  public synchronized void clear() throws IOException {
+    closeChannel();
+
+    for (Segment segment : this.segments.values()) {
+      segment.file.delete();
+    }
+
+    this.segments.clear();
+    this.index.clear();
+    this.tombstones = 0;
+    rollSegment();
+  }
+
+  /**
+   * Rewrites the requests not acknowledged yet to a new segment, and deletes the older ones
+   *
+   * @throws IOException the new segment cannot be written
+   */
+  public synchronized void compact() throws IOException {
+    rollSegment();
+
+    long firstCompacted = this.active.id;
+    LinkedHashMap<String, Entry> entries = new LinkedHashMap<>(this.index);
+
+    for (Map.Entry<String, Entry> e : entries.entrySet()) {
+      QueryObject query = e.getValue().query;
+      Segment segment;
+
+      try {
+        segment = write(APPEND, new JSONObject()
+          .put("query", query.getQuery())
+          .put("action", query.getAction())
+          .put("timestamp", query.getTimestamp().getTime())
+          .toString());
+      } catch (JSONException ex) {
+        throw new RuntimeException(ex);
+      }
+
+      this.index.put(e.getKey(), new Entry(query, segment));
+      segment.live++;
+    }
+
+    // The compacted segments must be durable before dropping the segments they replace
+    // (full segments are forced when rolled over)
+    this.channel.force(false);
+
+    Iterator<Segment> iterator = this.segments.headMap(firstCompacted).values().iterator();
+    while (iterator.hasNext()) {
+      iterator.next().file.delete();
+      iterator.remove();
+    }
+
+    this.tombstones = 0;
+
+    if (this.channel.size() >= this.segmentSize) {
+      rollSegment();
+    }
+  }
+
+  @Override
+  public synchronized void close() throws IOException {
+    closeChannel();
+  }
+
+  /**
+   * Appends a record to the active segment
+   *
+   * @return the segment the record was written to
+   */
+  private Segment write(byte type, String payload) throws IOException {
+    if (this.channel == null) {
+      throw new IOException("The offline queue journal is closed");
+    }
+
+    byte[] bytes = payload.getBytes(UTF8);
+    ByteBuffer buffer = ByteBuffer.allocate(HEADER_SIZE + bytes.length + CHECKSUM_SIZE);
+    CRC32 crc = new CRC32();
+
+    crc.update(type);
+    crc.update(bytes);
+    buffer.put(type).putInt(bytes.length).put(bytes).putInt((int) crc.getValue());
+    buffer.flip();
+
+    while (buffer.hasRemaining()) {
+      this.channel.write(buffer);
+    }
+
+    Segment segment = this.active;
+
+    if (this.forceWrites) {
+      this.channel.force(false);
+    }
+
+    if (type == APPEND && this.channel.size() >= this.segmentSize) {
+      rollSegment();
+    }
+
+    return segment;
+  }
+
+  /**
+   * Reads a segment, rebuilding the index, and truncates it after its last valid record
+   */
+  private void recover(Segment segment) throws IOException {
+    try (RandomAccessFile file = new RandomAccessFile(segment.file, "rw")) {
+      FileChannel ch = file.getChannel();
+      long length = ch.size();
+      long valid = 0;
+
+      if (length > 0) {
+        MappedByteBuffer buffer = ch.map(FileChannel.MapMode.READ_ONLY, 0, length);
+
+        while (buffer.remaining() >= HEADER_SIZE + CHECKSUM_SIZE) {
+          byte type = buffer.get();
+          int size = buffer.getInt();
+
+          if ((type != APPEND && type != ACKNOWLEDGE) || size < 0 || buffer.remaining() < size + CHECKSUM_SIZE) {
+            break;
+          }
+
+          byte[] bytes = new byte[size];
+          buffer.get(bytes);
+
+          CRC32 crc = new CRC32();
+          crc.update(type);
+          crc.update(bytes);
+
+          if (buffer.getInt() != (int) crc.getValue() || !replay(segment, type, new String(bytes, UTF8))) {
+            break;
+          }
+
+          valid = buffer.position();
+        }
+      }
+
+      if (valid < length) {
+        ch.truncate(valid);
+        ch.force(false);
+      }
+    }
+  }
+
+  private boolean replay(Segment segment, byte type, String payload) {
+    if (type == ACKNOWLEDGE) {
+      Entry entry = this.index.remove(payload);
+
+      if (entry != null) {
+        entry.segment.live--;
+      }
+      this.tombstones++;
+
+      return true;
+    }
+
+    try {
+      JSONObject record = new JSONObject(payload);
+      QueryObject query = new QueryObject();
+
+      query.setQuery(record.getJSONObject("query"));
+      query.setAction(record.optString("action", null));
+      query.setTimestamp(new Date(record.getLong("timestamp")));
+
+      Entry previous = this.index.get(query.getQuery().getString("requestId"));
+
+      // A request rewritten by an interrupted compaction keeps its original position
+      if (previous != null) {
+        previous.segment.live--;
+        this.tombstones++;
+      }
+
+      this.index.put(query.getQuery().getString("requestId"), new Entry(query, segment));
+      segment.live++;
+
+      return true;
+    } catch (JSONException e) {
+      return false;
+    }
+  }
+
+  /**
+   * Deletes the oldest segments, as long as all their requests are acknowledged.
+   * Segments are released in order, so that no tombstone is deleted before the request it acknowledges
+   */
+  private void releaseSegments() {
+    Iterator<Segment> iterator = this.segments.values().iterator();
+
+    while (iterator.hasNext()) {
+      Segment segment = iterator.next();
+
+      if (segment == this.active || segment.live > 0) {
+        break;
+      }
+
+      segment.file.delete();
+      iterator.remove();
+    }
+  }
+
+  private void rollSegment() throws IOException {
+    if (this.channel != null) {
+      this.channel.force(false);
+    }
+    closeChannel();
+
+    long id = this.segments.isEmpty() ? 0 : this.segments.lastKey() + 1;
+    Segment segment = new Segment(id, new File(this.directory, SEGMENT_PREFIX + id + SEGMENT_SUFFIX));
+
+    this.channel = new RandomAccessFile(segment.file, "rw").getChannel();
+    this.channel.position(this.channel.size());
+    this.segments.put(id, segment);
+    this.active = segment;
+
+    releaseSegments();
+  }
+
+  private void closeChannel() throws IOException {
+    if (this.channel != null) {
+      this.channel.close();
+      this.channel = null;
+    }
+  }
+}
@@ -0,0 +1,21 @@
+package io.kuzzle.sdk.transport;
+
+/**
+ * Transport listener notified of heartbeats, sent by a {@link HeartbeatTransport}
+ * or by the server
+ */
+public interface HeartbeatListener extends TransportListener {
+  /**
+   * Invoked when the server answers a heartbeat
+   *
+   * @param payload - Heartbeat payload
+   */
+  void onPong(byte[] payload);
+
+  /**
+   * Invoked when the server sends a heartbeat
+   *
+   * @param payload - Heartbeat payload
+   */
+  void onPing(byte[] payload);
+}
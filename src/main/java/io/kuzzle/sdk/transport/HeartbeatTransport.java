@@ -0,0 +1,14 @@
+package io.kuzzle.sdk.transport;
+
+/**
+ * Transport able to send heartbeats, such as WebSocket ping frames.
+ * Answers are reported to the listener if it implements {@link HeartbeatListener}.
+ */
+public interface HeartbeatTransport extends Transport {
+  /**
+   * Sends a heartbeat, which the server answers with the same payload
+   *
+   * @param payload - Heartbeat payload
+   */
+  void sendPing(byte[] payload);
+}
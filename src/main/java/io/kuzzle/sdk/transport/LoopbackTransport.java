@@ -0,0 +1,222 @@
+package io.kuzzle.sdk.transport;
+
+import org.json.JSONException;
+import org.json.JSONObject;
+
+import io.kuzzle.sdk.codec.Codec;
+
+/**
+ * In-process transport: requests never leave the JVM and are handed to a
+ * {@link Handler} standing in for a Kuzzle server.
+ * Frames are delivered synchronously on the calling thread, which allows measuring
+ * the SDK own overhead independently from any network cost.
+ * When created with a binary {@link Codec}, the stand-in server accepts binary requests
+ * and answers with binary frames.
+ * Heartbeats are answered right away, unless the connection is made half-open.
+ */
+public class LoopbackTransport implements HeartbeatTransport {
+  /**
+   * Server-side request handler
+   */
+  public interface Handler {
+    /**
+     * Invoked for each request sent through the transport.
+     * Responses and notifications are pushed back using {@link LoopbackTransport#reply(String)}
+     *
+     * @param payload - Serialized request, decoded to JSON if sent as a binary frame
+     * @param transport - Transport the request was sent through
+     */
+    void onRequest(String payload, LoopbackTransport transport);
+  }
+
+  /**
+   * Handler answering every request with an empty successful result
+   */
+  public static final Handler ECHO = new Handler() {
+    @Override
+    public void onRequest(String payload, LoopbackTransport transport) {
+      try {
+        JSONObject request = new JSONObject(payload);
+        JSONObject response = new JSONObject()
+          .put("requestId", request.getString("requestId"))
+          .put("room", request.getString("requestId"))
+          .put("status", 200)
+          .put("error", JSONObject.NULL)
+          .put("controller", request.optString("controller"))
+          .put("action", request.optString("action"))
+          .put("index", request.opt("index"))
+          .put("collection", request.opt("collection"))
+          .put("volatile", request.opt("volatile"))
+          .put("result", new JSONObject());
+
+        transport.reply(response.toString());
+      } catch (JSONException e) {
+        throw new RuntimeException(e);
+      }
+    }
+  };
+
+  private final Handler handler;
+  private final Codec codec;
+  private volatile TransportListener listener;
+  private volatile boolean open = false;
+  private volatile boolean halfOpen = false;
+
+  /**
+   * Constructor, using the {@link #ECHO} handler
+   */
+  public LoopbackTransport() {
+    this(ECHO);
+  }
+
+  /**
+   * Constructor
+   *
+   * @param handler - Server-side request handler
+   */
+  public LoopbackTransport(final Handler handler) {
+    this(handler, null);
+  }
+
+  /**
+   * Constructor
+   *
+   * @param handler - Server-side request handler
+   * @param codec - Binary codec supported by the stand-in server, or null for JSON text frames only
+   */
+  public LoopbackTransport(final Handler handler, final Codec codec) {
+    this.handler = handler != null ? handler : ECHO;
+    this.codec = codec != null && codec.isBinary() ? codec : null;
+  }
+
+  @Override
+  public void setListener(final TransportListener listener) {
+    this.listener = listener;
+  }
+
+  @Override
+  public void connect() {
+    this.open = true;
+    this.halfOpen = false;
+
+    if (this.listener != null) {
+      this.listener.onOpen();
+    }
+  }
+
+  @Override
+  public void send(final String payload) {
+    if (!this.open) {
+      throw new IllegalStateException("LoopbackTransport.send: not connected");
+    }
+
+    if (this.halfOpen) {
+      return;
+    }
+
+    this.handler.onRequest(payload, this);
+  }
+
+  @Override
+  public void send(final byte[] payload) {
+    if (!this.open) {
+      throw new IllegalStateException("LoopbackTransport.send: not connected");
+    }
+
+    if (this.codec == null) {
+      throw new IllegalStateException("LoopbackTransport.send: binary frames are not supported");
+    }
+
+    if (this.halfOpen) {
+      return;
+    }
+
+    this.handler.onRequest(this.codec.decode(payload).toString(), this);
+  }
+
+  @Override
+  public void sendPing(final byte[] payload) {
+    if (!this.open) {
+      throw new IllegalStateException("LoopbackTransport.sendPing: not connected");
+    }
+
+    if (!this.halfOpen && this.listener instanceof HeartbeatListener) {
+      ((HeartbeatListener) this.listener).onPong(payload);
+    }
+  }
+
+  @Override
+  public void close() {
+    this.open = false;
+  }
+
+  /**
+   * Pushes a frame to the client, as if it was sent by the server
+   *
+   * @param message - Raw frame content
+   */
+  public void receive(final String message) {
+    if (this.open && !this.halfOpen && this.listener != null) {
+      this.listener.onMessage(message);
+    }
+  }
+
+  /**
+   * Pushes a binary frame to the client, as if it was sent by the server
+   *
+   * @param message - Raw frame content
+   */
+  public void receive(final byte[] message) {
+    if (this.open && !this.halfOpen && this.listener != null) {
+      this.listener.onBinaryMessage(message);
+    }
+  }
+
+  /**
+   * Pushes a response or a notification to the client, as a binary frame if the
+   * stand-in server supports a binary codec, or as a JSON text frame otherwise
+   *
+   * @param message - Serialized JSON response
+   */
+  public void reply(final String message) {
+    if (this.codec == null) {
+      receive(message);
+      return;
+    }
+
+    try {
+      receive(this.codec.encode(new JSONObject(message)));
+    } catch (JSONException e) {
+      throw new RuntimeException(e);
+    }
+  }
+
+  /**
+   * Simulates a connection loss initiated by the remote end
+   */
+  public void dropConnection() {
+    if (this.open) {
+      this.open = false;
+
+      if (this.listener != null) {
+        this.listener.onClose();
+      }
+    }
+  }
+
+  /**
+   * Simulates a half-open connection, silently lost by the network: frames are still
+   * accepted, but nothing reaches the server and nothing comes back.
+   * The connection stays half-open until the next call to connect
+   */
+  public void setHalfOpen() {
+    this.halfOpen = true;
+  }
+
+  /**
+   * @return true if the transport is connected
+   */
+  public boolean isOpen() {
+    return this.open;
+  }
+}
@@ -0,0 +1,154 @@
+package io.kuzzle.sdk.transport;
+
+import java.util.Random;
+
+/**
+ * Delays between reconnection attempts, growing exponentially up to a maximum.
+ * With full jitter, each delay is picked at random between 0 and the exponential delay,
+ * so that clients losing their connection at the same time do not reconnect in lockstep.
+ *
+ * Once reconnected, subscriptions are renewed and queued requests are replayed after a
+ * random delay of at most resumeJitter milliseconds, spreading the load of a whole fleet
+ * of clients reconnecting to a restarted server.
+ */
+public class ReconnectionPolicy {
+  private final long initialDelay;
+  private final long maxDelay;
+  private final double multiplier;
+  private final boolean jitter;
+  private final long resumeJitter;
+  private final Random random;
+  private volatile long notBefore = 0;
+
+  /**
+   * Constructor: exponential backoff with full jitter, doubling the delay after each attempt
+   *
+   * @param initialDelay - Delay before the first reconnection attempt, in milliseconds
+   * @param maxDelay - Highest delay between two reconnection attempts, in milliseconds
+   */
+  public ReconnectionPolicy(final long initialDelay, final long maxDelay) {
+    this(initialDelay, maxDelay, 2, true, 0);
+  }
+
+  /**
+   * Constructor
+   *
+   * @param initialDelay - Delay before the first reconnection attempt, in milliseconds
+   * @param maxDelay - Highest delay between two reconnection attempts, in milliseconds
+   * @param multiplier - Delay growth after each failed attempt (1 = fixed delay)
+   * @param jitter - Picks each delay at random between 0 and the computed delay
+   * @param resumeJitter - Highest random delay before renewing subscriptions and replaying queued requests, in milliseconds
+   */
+  public ReconnectionPolicy(final long initialDelay, final long maxDelay, final double multiplier, final boolean jitter, final long resumeJitter) {
+    this(initialDelay, maxDelay, multiplier, jitter, resumeJitter, new Random());
+  }
+
+  /**
+   * Constructor
+   *
+   * @param initialDelay - Delay before the first reconnection attempt, in milliseconds
+   * @param maxDelay - Highest delay between two reconnection attempts, in milliseconds
+   * @param multiplier - Delay growth after each failed attempt (1 = fixed delay)
+   * @param jitter - Picks each delay at random between 0 and the computed delay
+   * @param resumeJitter - Highest random delay before renewing subscriptions and replaying queued requests, in milliseconds
+   * @param random - Random source of the jitter
+   */
+  public ReconnectionPolicy(final long initialDelay, final long maxDelay, final double multiplier, final boolean jitter, final long resumeJitter, final Random random) {
+    if (initialDelay < 0 || maxDelay < initialDelay) {
+      throw new IllegalArgumentException("ReconnectionPolicy: 0 <= initialDelay <= maxDelay required");
+    }
+
+    if (multiplier < 1) {
+      throw new IllegalArgumentException("ReconnectionPolicy: multiplier must be greater than or equal to 1");
+    }
+
+    if (resumeJitter < 0) {
+      throw new IllegalArgumentException("ReconnectionPolicy: resumeJitter must be positive or null");
+    }
+
+    if (random == null) {
+      throw new IllegalArgumentException("ReconnectionPolicy: random source required");
+    }
+
+    this.initialDelay = initialDelay;
+    this.maxDelay = maxDelay;
+    this.multiplier = multiplier;
+    this.jitter = jitter;
+    this.resumeJitter = resumeJitter;
+    this.random = random;
+  }
+
+  /**
+   * Fixed delay between reconnection attempts, without jitter
+   *
+   * @param delay - Delay between reconnection attempts, in milliseconds
+   * @return reconnection policy
+   */
+  public static ReconnectionPolicy fixed(final long delay) {
+    return new ReconnectionPolicy(delay, delay, 1, false, 0);
+  }
+
+  /**
+   * Delay before a reconnection attempt
+   *
+   * @param attempt - Number of failed attempts since the connection was lost
+   * @return delay, in milliseconds
+   */
+  public long getDelay(final int attempt) {
+    double ceiling = this.initialDelay * Math.pow(this.multiplier, Math.max(0, attempt));
+    long delay = (long) Math.min(this.maxDelay, ceiling);
+
+    if (this.jitter && delay > 0) {
+      delay = (long) (this.random.nextDouble() * (delay + 1));
+    }
+
+    return Math.max(delay, this.notBefore - System.currentTimeMillis());
+  }
+
+  /**
+   * Random delay before renewing subscriptions and replaying queued requests, once reconnected
+   *
+   * @return delay, in milliseconds
+   */
+  public long getResumeDelay() {
+    if (this.resumeJitter == 0) {
+      return 0;
+    }
+
+    return (long) (this.random.nextDouble() * (this.resumeJitter + 1));
+  }
+
+  /**
+   * Server load hint: no reconnection is attempted before the given delay elapses,
+   * whatever the backoff delay.
+   * To be used when the server reports being overloaded or restarting
+   *
+   * @param delay - Minimum delay before the next reconnection attempt, in milliseconds
+   * @return this
+   */
+  public ReconnectionPolicy hintServerLoad(final long delay) {
+    this.notBefore = System.currentTimeMillis() + Math.max(0, delay);
+    return this;
+  }
+
+  /**
+   * @return delay before the first reconnection attempt, in milliseconds
+   */
+  public long getInitialDelay() {
+    return this.initialDelay;
+  }
+
+  /**
+   * @return highest delay between two reconnection attempts, in milliseconds
+   */
+  public long getMaxDelay() {
+    return this.maxDelay;
+  }
+
+  /**
+   * @return highest random delay before renewing subscriptions and replaying queued requests, in milliseconds
+   */
+  public long getResumeJitter() {
+    return this.resumeJitter;
+  }
+}
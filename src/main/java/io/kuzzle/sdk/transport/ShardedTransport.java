@@ -0,0 +1,369 @@
+package io.kuzzle.sdk.transport;
+
+import java.util.ArrayDeque;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Pool of connections to the same Kuzzle server, spreading requests over several transports.
+ * Requests are either sent on a given shard, or on the next connected shard in round-robin order.
+ * Each shard connects and reconnects on its own:
+ * - the listener is notified of the connection when the first shard connects, and of the
+ *   disconnection when the last one is lost
+ * - frames sent on a disconnected shard are buffered until it reconnects, up to a limit
+ *   beyond which the oldest frames are dropped. Buffered requests answered or timed out
+ *   meanwhile are not sent
+ * - when a shard connects after others, the {@link ShardListener} is notified, so that
+ *   the subscriptions made on that shard can be renewed
+ */
+public class ShardedTransport implements Transport {
+  /**
+   * Callbacks invoked on connection events of a single shard
+   */
+  public interface ShardListener {
+    /**
+     * Invoked when a shard connects or reconnects while other shards are connected.
+     * Subscriptions made on that shard were lost by the server, or could not be made yet
+     *
+     * @param shard - Shard index
+     */
+    void onShardReconnected(int shard);
+
+    /**
+     * Invoked before sending a request buffered while its shard was disconnected
+     *
+     * @param requestId - Buffered request ID
+     * @return false to drop the request, if it was answered or timed out meanwhile
+     */
+    boolean isPending(String requestId);
+  }
+
+  private static class BufferedFrame {
+    final Object payload;
+    final String requestId;
+
+    BufferedFrame(final Object payload, final String requestId) {
+      this.payload = payload;
+      this.requestId = requestId;
+    }
+  }
+
+  private final Transport[] shards;
+  private final boolean[] open;
+  private final boolean[] dropped;
+  private final ArrayDeque<BufferedFrame>[] buffers;
+  private final int maxBufferedFrames;
+  private final AtomicInteger next = new AtomicInteger();
+  private int openCount = 0;
+  private volatile TransportListener listener;
+  private volatile ShardListener shardListener;
+
+  /**
+   * Constructor
+   *
+   * @param shards - Transports to the same Kuzzle server
+   * @param maxBufferedFrames - Maximum number of frames buffered per disconnected shard
+   */
+  @SuppressWarnings("unchecked")
+  public ShardedTransport(final List<? extends Transport> shards, final int maxBufferedFrames) {
+    if (shards == null || shards.isEmpty()) {
+      throw new IllegalArgumentException("ShardedTransport: at least one transport required");
+    }
+
+    if (maxBufferedFrames < 0) {
+      throw new IllegalArgumentException("ShardedTransport: maxBufferedFrames must be positive or null");
+    }
+
+    this.shards = shards.toArray(new Transport[shards.size()]);
+    this.open = new boolean[this.shards.length];
+    this.dropped = new boolean[this.shards.length];
+    this.buffers = new ArrayDeque[this.shards.length];
+    this.maxBufferedFrames = maxBufferedFrames;
+
+    for (int i = 0; i < this.shards.length; i++) {
+      this.buffers[i] = new ArrayDeque<>();
+      this.shards[i].setListener(new ShardTransportListener(i));
+    }
+  }
+
+  @Override
+  public void setListener(final TransportListener listener) {
+    this.listener = listener;
+  }
+
+  /**
+   * Sets the listener notified of single shard reconnections
+   *
+   * @param shardListener - Shard events listener
+   */
+  public void setShardListener(final ShardListener shardListener) {
+    this.shardListener = shardListener;
+  }
+
+  @Override
+  public void connect() {
+    for (Transport shard : this.shards) {
+      shard.connect();
+    }
+  }
+
+  @Override
+  public void send(final String payload) {
+    route(payload, -1, null);
+  }
+
+  @Override
+  public void send(final byte[] payload) {
+    route(payload, -1, null);
+  }
+
+  /**
+   * Sends a serialized request on a given shard
+   *
+   * @param payload - Serialized request
+   * @param shard - Shard index, or -1 to use the next connected shard
+   */
+  public void send(final String payload, final int shard) {
+    route(payload, shard, null);
+  }
+
+  /**
+   * Sends a serialized request on a given shard.
+   * If the shard is disconnected, the request is sent once it reconnects only if the
+   * {@link ShardListener} reports it as still pending
+   *
+   * @param payload - Serialized request
+   * @param shard - Shard index, or -1 to use the next connected shard
+   * @param requestId - Request ID
+   */
+  public void send(final String payload, final int shard, final String requestId) {
+    route(payload, shard, requestId);
+  }
+
+  /**
+   * Sends a request encoded by a binary codec on a given shard
+   *
+   * @param payload - Encoded request
+   * @param shard - Shard index, or -1 to use the next connected shard
+   */
+  public void send(final byte[] payload, final int shard) {
+    route(payload, shard, null);
+  }
+
+  /**
+   * Sends a request encoded by a binary codec on a given shard.
+   * If the shard is disconnected, the request is sent once it reconnects only if the
+   * {@link ShardListener} reports it as still pending
+   *
+   * @param payload - Encoded request
+   * @param shard - Shard index, or -1 to use the next connected shard
+   * @param requestId - Request ID
+   */
+  public void send(final byte[] payload, final int shard, final String requestId) {
+    route(payload, shard, requestId);
+  }
+
+  @Override
+  public void close() {
+    for (Transport shard : this.shards) {
+      shard.close();
+    }
+
+    synchronized (this) {
+      for (int i = 0; i < this.shards.length; i++) {
+        this.open[i] = false;
+        this.dropped[i] = false;
+        this.buffers[i].clear();
+      }
+
+      this.openCount = 0;
+    }
+  }
+
+  /**
+   * @return number of shards
+   */
+  public int getShardCount() {
+    return this.shards.length;
+  }
+
+  /**
+   * @param shard - Shard index
+   * @return true if the shard is connected
+   */
+  public synchronized boolean isOpen(final int shard) {
+    return this.open[shard];
+  }
+
+  /**
+   * @param shard - Shard index
+   * @return number of frames waiting for the shard to reconnect
+   */
+  public synchronized int getBufferedCount(final int shard) {
+    return this.buffers[shard].size();
+  }
+
+  /**
+   * Returns the shard owning a routing key: the same key is always routed to the same shard
+   *
+   * @param key - Routing key
+   * @return shard index
+   */
+  public int shardOf(final String key) {
+    return (key.hashCode() & 0x7fffffff) % this.shards.length;
+  }
+
+  private void route(final Object frame, final int shard, final String requestId) {
+    Transport target = null;
+
+    synchronized (this) {
+      if (shard >= 0) {
+        if (!this.open[shard]) {
+          if (this.maxBufferedFrames > 0) {
+            if (this.buffers[shard].size() >= this.maxBufferedFrames) {
+              this.buffers[shard].poll();
+            }
+            this.buffers[shard].add(new BufferedFrame(frame, requestId));
+          }
+          return;
+        }
+
+        target = this.shards[shard];
+      } else {
+        for (int i = 0; i < this.shards.length && target == null; i++) {
+          int candidate = (this.next.getAndIncrement() & 0x7fffffff) % this.shards.length;
+
+          if (this.open[candidate]) {
+            target = this.shards[candidate];
+          }
+        }
+
+        if (target == null) {
+          throw new IllegalStateException("ShardedTransport.send: not connected");
+        }
+      }
+    }
+
+    write(target, frame);
+  }
+
+  private static void write(final Transport target, final Object frame) {
+    if (frame instanceof String) {
+      target.send((String) frame);
+    } else {
+      target.send((byte[]) frame);
+    }
+  }
+
+  private class ShardTransportListener implements TransportListener {
+    private final int shard;
+
+    ShardTransportListener(final int shard) {
+      this.shard = shard;
+    }
+
+    @Override
+    public void onOpen() {
+      boolean first;
+      boolean reconnected;
+
+      // Buffered frames are sent before the shard is flagged as connected, to keep them in order
+      while (true) {
+        BufferedFrame frame;
+
+        synchronized (ShardedTransport.this) {
+          frame = buffers[this.shard].poll();
+
+          if (frame == null) {
+            if (open[this.shard]) {
+              return;
+            }
+
+            open[this.shard] = true;
+            first = ++openCount == 1;
+            reconnected = dropped[this.shard];
+            dropped[this.shard] = false;
+
+            if (first) {
+              // The listener renews the subscriptions it can: those of the shards still
+              // closed are renewed when they connect
+              for (int i = 0; i < shards.length; i++) {
+                dropped[i] = !open[i];
+              }
+            }
+            break;
+          }
+        }
+
+        ShardListener pending = shardListener;
+
+        if (frame.requestId == null || pending == null || pending.isPending(frame.requestId)) {
+          write(shards[this.shard], frame.payload);
+        }
+      }
+
+      if (first) {
+        if (listener != null) {
+          listener.onOpen();
+        }
+      } else if (reconnected && shardListener != null) {
+        shardListener.onShardReconnected(this.shard);
+      }
+    }
+
+    @Override
+    public void onMessage(final String message) {
+      if (listener != null) {
+        listener.onMessage(message);
+      }
+    }
+
+    @Override
+    public void onBinaryMessage(final byte[] message) {
+      if (listener != null) {
+        listener.onBinaryMessage(message);
+      }
+    }
+
+    @Override
+    public void onError(final Exception e) {
+      boolean connected;
+
+      synchronized (ShardedTransport.this) {
+        connected = openCount > 0;
+      }
+
+      // Errors of a single shard are recovered by its own reconnection
+      if (!connected && listener != null) {
+        listener.onError(e);
+      }
+    }
+
+    @Override
+    public void onClose() {
+      boolean last;
+
+      synchronized (ShardedTransport.this) {
+        if (!open[this.shard]) {
+          return;
+        }
+
+        open[this.shard] = false;
+        last = --openCount == 0;
+
+        if (last) {
+          // The listener renews the subscriptions once reconnected
+          for (int i = 0; i < shards.length; i++) {
+            buffers[i].clear();
+          }
+        } else {
+          dropped[this.shard] = true;
+        }
+      }
+
+      if (last && listener != null) {
+        listener.onClose();
+      }
+    }
+  }
+}
@@ -0,0 +1,40 @@
+package io.kuzzle.sdk.transport;
+
+/**
+ * Network layer used by a Kuzzle instance to exchange frames with a Kuzzle server.
+ * Implementations report connection events and incoming frames to the
+ * {@link TransportListener} provided by the Kuzzle instance.
+ */
+public interface Transport {
+  /**
+   * Sets the listener notified of connection events and incoming frames
+   *
+   * @param listener - Transport events listener
+   */
+  void setListener(TransportListener listener);
+
+  /**
+   * Opens the connection
+   */
+  void connect();
+
+  /**
+   * Sends a serialized request
+   *
+   * @param payload - Serialized request
+   */
+  void send(String payload);
+
+  /**
+   * Sends a request encoded by a binary codec
+   *
+   * @param payload - Encoded request
+   */
+  void send(byte[] payload);
+
+  /**
+   * Closes the connection.
+   * Does not notify the listener.
+   */
+  void close();
+}
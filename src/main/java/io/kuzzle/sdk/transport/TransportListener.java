@@ -0,0 +1,37 @@
+package io.kuzzle.sdk.transport;
+
+/**
+ * Callbacks invoked by a {@link Transport} implementation
+ */
+public interface TransportListener {
+  /**
+   * Invoked once the connection is established
+   */
+  void onOpen();
+
+  /**
+   * Invoked for each frame received from the server
+   *
+   * @param message - Raw frame content
+   */
+  void onMessage(String message);
+
+  /**
+   * Invoked for each binary frame received from the server
+   *
+   * @param message - Raw frame content
+   */
+  void onBinaryMessage(byte[] message);
+
+  /**
+   * Invoked when the connection fails
+   *
+   * @param e - Transport error
+   */
+  void onError(Exception e);
+
+  /**
+   * Invoked when the connection is closed by the remote end
+   */
+  void onClose();
+}
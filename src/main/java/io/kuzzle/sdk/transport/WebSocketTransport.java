@@ -0,0 +1,264 @@
+package io.kuzzle.sdk.transport;
+
+import android.support.annotation.NonNull;
+
+import java.net.URI;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+
+import tech.gusavila92.websocketclient.WebSocketClient;
+
+/**
+ * Default transport, using a WebSocket connection.
+ * Heartbeats are sent as WebSocket ping frames.
+ * When created with a {@link ReconnectionPolicy}, the transport reconnects by itself after
+ * a connection loss or a failed attempt, waiting for the delay given by the policy.
+ */
+public class WebSocketTransport implements HeartbeatTransport {
+  private final URI uri;
+  private final boolean autoReconnect;
+  private final long reconnectionDelay;
+  private final ReconnectionPolicy reconnectionPolicy;
+  private final ScheduledExecutorService scheduler;
+  private ScheduledFuture<?> reconnection;
+  private int attempts = 0;
+  private boolean closed = true;
+  private volatile WebSocketClient client;
+  private TransportListener listener;
+  private final Map<String, String> headers = new LinkedHashMap<>();
+
+  /**
+   * Constructor
+   *
+   * @param uri - Kuzzle server WebSocket URI
+   * @param autoReconnect - Automatically reconnect after a connection loss
+   * @param reconnectionDelay - Number of milliseconds between reconnection attempts
+   */
+  public WebSocketTransport(@NonNull final URI uri, final boolean autoReconnect, final long reconnectionDelay) {
+    if (uri == null) {
+      throw new IllegalArgumentException("WebSocketTransport: uri required");
+    }
+
+    this.uri = uri;
+    this.autoReconnect = autoReconnect;
+    this.reconnectionDelay = reconnectionDelay;
+    this.reconnectionPolicy = null;
+    this.scheduler = null;
+  }
+
+  /**
+   * Constructor
+   *
+   * @param uri - Kuzzle server WebSocket URI
+   * @param reconnectionPolicy - Delays between reconnection attempts, or null to never reconnect
+   * @param scheduler - Executor running the reconnection attempts
+   */
+  public WebSocketTransport(@NonNull final URI uri, final ReconnectionPolicy reconnectionPolicy, final ScheduledExecutorService scheduler) {
+    if (uri == null) {
+      throw new IllegalArgumentException("WebSocketTransport: uri required");
+    }
+
+    if (reconnectionPolicy != null && scheduler == null) {
+      throw new IllegalArgumentException("WebSocketTransport: a scheduler is required to reconnect");
+    }
+
+    this.uri = uri;
+    this.autoReconnect = false;
+    this.reconnectionDelay = 0;
+    this.reconnectionPolicy = reconnectionPolicy;
+    this.scheduler = scheduler;
+  }
+
+  /**
+   * Adds a header to the WebSocket handshake request
+   *
+   * @param name - Header name
+   * @param value - Header value
+   * @return this
+   */
+  public WebSocketTransport addHeader(final String name, final String value) {
+    this.headers.put(name, value);
+    return this;
+  }
+
+  @Override
+  public void setListener(final TransportListener listener) {
+    this.listener = listener;
+  }
+
+  @Override
+  public void connect() {
+    synchronized (this) {
+      cancelReconnection();
+      this.closed = false;
+      this.attempts = 0;
+    }
+
+    open();
+  }
+
+  private void open() {
+    this.client = createClient();
+
+    for (Map.Entry<String, String> header : this.headers.entrySet()) {
+      this.client.addHeader(header.getKey(), header.getValue());
+    }
+
+    if (this.autoReconnect) {
+      this.client.enableAutomaticReconnection(this.reconnectionDelay);
+    }
+
+    this.client.connect();
+  }
+
+  @Override
+  public void send(final String payload) {
+    if (this.client == null) {
+      throw new IllegalStateException("WebSocketTransport.send: not connected");
+    }
+
+    this.client.send(payload);
+  }
+
+  @Override
+  public void send(final byte[] payload) {
+    if (this.client == null) {
+      throw new IllegalStateException("WebSocketTransport.send: not connected");
+    }
+
+    this.client.send(payload);
+  }
+
+  @Override
+  public void sendPing(final byte[] payload) {
+    if (this.client == null) {
+      throw new IllegalStateException("WebSocketTransport.sendPing: not connected");
+    }
+
+    this.client.sendPing(payload);
+  }
+
+  @Override
+  public void close() {
+    synchronized (this) {
+      cancelReconnection();
+      this.closed = true;
+    }
+
+    if (this.client != null) {
+      this.client.close();
+      this.client = null;
+    }
+  }
+
+  /**
+   * Schedules a reconnection attempt, unless one is already pending or the transport was closed
+   */
+  private synchronized void scheduleReconnection() {
+    if (this.reconnectionPolicy == null || this.closed || this.reconnection != null) {
+      return;
+    }
+
+    this.reconnection = this.scheduler.schedule(new Runnable() {
+      @Override
+      public void run() {
+        synchronized (WebSocketTransport.this) {
+          if (closed) {
+            return;
+          }
+
+          reconnection = null;
+        }
+
+        open();
+      }
+    }, this.reconnectionPolicy.getDelay(this.attempts++), TimeUnit.MILLISECONDS);
+  }
+
+  private void cancelReconnection() {
+    if (this.reconnection != null) {
+      this.reconnection.cancel(false);
+      this.reconnection = null;
+    }
+  }
+
+  private synchronized void connected() {
+    this.attempts = 0;
+  }
+
+  /**
+   * @return number of failed reconnection attempts since the connection was lost
+   */
+  public synchronized int getReconnectionAttempts() {
+    return this.attempts;
+  }
+
+  /**
+   * Creates the underlying WebSocket client, forwarding its events to the transport listener.
+   * Events of a client replaced by a new connection are ignored
+   *
+   * @return created WebSocket client
+   */
+  protected WebSocketClient createClient() {
+    return new WebSocketClient(this.uri) {
+      @Override
+      public void onOpen() {
+        if (isCurrent()) {
+          connected();
+          listener.onOpen();
+        }
+      }
+
+      @Override
+      public void onTextReceived(String message) {
+        if (isCurrent()) {
+          listener.onMessage(message);
+        }
+      }
+
+      @Override
+      public void onBinaryReceived(byte[] data) {
+        if (isCurrent()) {
+          listener.onBinaryMessage(data);
+        }
+      }
+
+      @Override
+      public void onPingReceived(byte[] data) {
+        if (isCurrent() && listener instanceof HeartbeatListener) {
+          ((HeartbeatListener) listener).onPing(data);
+        }
+      }
+
+      @Override
+      public void onPongReceived(byte[] data) {
+        if (isCurrent() && listener instanceof HeartbeatListener) {
+          ((HeartbeatListener) listener).onPong(data);
+        }
+      }
+
+      @Override
+      public void onException(Exception e) {
+        if (isCurrent()) {
+          listener.onError(e);
+          scheduleReconnection();
+        }
+      }
+
+      @Override
+      public void onCloseReceived() {
+        if (isCurrent()) {
+          listener.onClose();
+          scheduleReconnection();
+        }
+      }
+
+      private boolean isCurrent() {
+        return listener != null && client == this;
+      }
+    };
+  }
+}
@@ -0,0 +1,47 @@
+package io.kuzzle.sdk.util;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Executors running response callbacks and room notifications, for the callbackExecutor option
+ */
+public final class CallbackExecutors {
+  private static final long KEEP_ALIVE = 30000;
+
+  private CallbackExecutors() {
+  }
+
+  /**
+   * Thread pool with a bounded queue of callbacks.
+   * Once the queue is full, callbacks run on the thread receiving the responses: nothing is
+   * lost, and the connection is slowed down until the application catches up
+   *
+   * @param threads - Number of threads
+   * @param queueSize - Maximum number of callbacks waiting for a thread
+   * @return callback executor
+   */
+  public static Executor boundedPool(final int threads, final int queueSize) {
+    if (threads < 1 || queueSize < 1) {
+      throw new IllegalArgumentException("CallbackExecutors.boundedPool: threads and queueSize must be strictly positive");
+    }
+
+    final AtomicInteger count = new AtomicInteger();
+    ThreadPoolExecutor executor = new ThreadPoolExecutor(threads, threads, KEEP_ALIVE, TimeUnit.MILLISECONDS,
+      new ArrayBlockingQueue<Runnable>(queueSize), new ThreadFactory() {
+        @Override
+        public Thread newThread(Runnable r) {
+          Thread thread = new Thread(r, "kuzzle-callback-" + count.incrementAndGet());
+          thread.setDaemon(true);
+          return thread;
+        }
+      }, new ThreadPoolExecutor.CallerRunsPolicy());
+
+    executor.allowCoreThreadTimeOut(true);
+    return executor;
+  }
+}
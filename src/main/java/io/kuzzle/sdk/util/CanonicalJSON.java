@@ -0,0 +1,84 @@
+package io.kuzzle.sdk.util;
+
+import org.json.JSONArray;
+import org.json.JSONException;
+import org.json.JSONObject;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+
+/**
+ * Canonical serialization of JSON values: object keys are sorted, so that objects holding
+ * the same members serialize identically whatever their insertion order.
+ * Array elements keep their order.
+ */
+public final class CanonicalJSON {
+  private CanonicalJSON() {
+  }
+
+  /**
+   * @param value - JSON value: object, array, string, number, boolean or null
+   * @return canonical serialization
+   */
+  public static String stringify(final Object value) {
+    StringBuilder builder = new StringBuilder();
+
+    try {
+      append(builder, value);
+    } catch (JSONException e) {
+      throw new RuntimeException(e);
+    }
+
+    return builder.toString();
+  }
+
+  private static void append(final StringBuilder builder, final Object value) throws JSONException {
+    if (value == null || value == JSONObject.NULL) {
+      builder.append("null");
+    } else if (value instanceof JSONObject) {
+      JSONObject object = (JSONObject) value;
+      List<String> keys = new ArrayList<>(object.length());
+
+      Iterator<?> iterator = object.keys();
+
+      while (iterator != null && iterator.hasNext()) {
+        keys.add((String) iterator.next());
+      }
+
+      Collections.sort(keys);
+      builder.append('{');
+
+      for (int i = 0; i < keys.size(); i++) {
+        if (i > 0) {
+          builder.append(',');
+        }
+
+        builder.append(JSONObject.quote(keys.get(i))).append(':');
+        append(builder, object.get(keys.get(i)));
+      }
+
+      builder.append('}');
+    } else if (value instanceof JSONArray) {
+      JSONArray array = (JSONArray) value;
+      builder.append('[');
+
+      for (int i = 0; i < array.length(); i++) {
+        if (i > 0) {
+          builder.append(',');
+        }
+
+        append(builder, array.get(i));
+      }
+
+      builder.append(']');
+    } else if (value instanceof Number) {
+      builder.append(JSONObject.numberToString((Number) value));
+    } else if (value instanceof Boolean) {
+      builder.append(value.toString());
+    } else {
+      builder.append(JSONObject.quote(value.toString()));
+    }
+  }
+}
@@ -0,0 +1,214 @@
+package io.kuzzle.sdk.util;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Cache of objects identified by an index and a collection name, such as Collection instances.
+ * Lookups of cached objects neither lock nor allocate. An object is created at most once
+ * per index and collection, under a lock held by the index entries only.
+ *
+ * The cache can be bounded: once full, the least recently used objects are evicted,
+ * by batches of a tenth of the maximum size to amortize the cost of finding them.
+ *
+ * @param <V> - Cached objects type
+ */
+public class CollectionCache<V> {
+  /**
+   * Creates the objects missing from the cache
+   *
+   * @param <V> - Cached objects type
+   */
+  public interface Factory<V> {
+    /**
+     * @param index - Index name
+     * @param collection - Collection name
+     * @return created object
+     */
+    V create(String index, String collection);
+  }
+
+  private static final class Entry<V> {
+    final String index;
+    final String collection;
+    final V value;
+    volatile long lastAccess;
+
+    Entry(final String index, final String collection, final V value, final long lastAccess) {
+      this.index = index;
+      this.collection = collection;
+      this.value = value;
+      this.lastAccess = lastAccess;
+    }
+  }
+
+  private static final Comparator<Entry<?>> LEAST_RECENTLY_USED = new Comparator<Entry<?>>() {
+    @Override
+    public int compare(final Entry<?> a, final Entry<?> b) {
+      return a.lastAccess < b.lastAccess ? -1 : (a.lastAccess == b.lastAccess ? 0 : 1);
+    }
+  };
+
+  private final ConcurrentHashMap<String, ConcurrentHashMap<String, Entry<V>>> indexes = new ConcurrentHashMap<>();
+  private final AtomicInteger size = new AtomicInteger();
+  private final int maxSize;
+  private final Factory<V> factory;
+
+  /**
+   * Constructor
+   *
+   * @param maxSize - Maximum number of cached objects (0 = unbounded)
+   * @param factory - Creates the objects missing from the cache
+   */
+  public CollectionCache(final int maxSize, final Factory<V> factory) {
+    if (maxSize < 0) {
+      throw new IllegalArgumentException("CollectionCache: maxSize must be positive or null");
+    }
+
+    if (factory == null) {
+      throw new IllegalArgumentException("CollectionCache: factory required");
+    }
+
+    this.maxSize = maxSize;
+    this.factory = factory;
+  }
+
+  /**
+   * Gets a cached object, creating it if needed
+   *
+   * @param index - Index name
+   * @param collection - Collection name
+   * @return cached object
+   */
+  public V get(final String index, final String collection) {
+    ConcurrentHashMap<String, Entry<V>> collections = this.indexes.get(index);
+
+    if (collections != null) {
+      Entry<V> entry = collections.get(collection);
+
+      if (entry != null) {
+        if (this.maxSize > 0) {
+          entry.lastAccess = System.nanoTime();
+        }
+
+        return entry.value;
+      }
+    }
+
+    return create(index, collection);
+  }
+
+  private V create(final String index, final String collection) {
+    Entry<V> created;
+
+    while (true) {
+      ConcurrentHashMap<String, Entry<V>> collections = this.indexes.get(index);
+
+      if (collections == null) {
+        ConcurrentHashMap<String, Entry<V>> empty = new ConcurrentHashMap<>();
+        collections = this.indexes.putIfAbsent(index, empty);
+
+        if (collections == null) {
+          collections = empty;
+        }
+      }
+
+      synchronized (collections) {
+        // the index entries may have been dropped by an eviction in the meantime
+        if (this.indexes.get(index) != collections) {
+          continue;
+        }
+
+        Entry<V> entry = collections.get(collection);
+
+        if (entry != null) {
+          return entry.value;
+        }
+
+        created = new Entry<>(index, collection, this.factory.create(index, collection), System.nanoTime());
+        collections.put(collection, created);
+        break;
+      }
+    }
+
+    if (this.size.incrementAndGet() > this.maxSize && this.maxSize > 0) {
+      evict();
+    }
+
+    return created.value;
+  }
+
+  /**
+   * Evicts the least recently used objects, down to 90% of the maximum size
+   */
+  private synchronized void evict() {
+    int excess = this.size.get() - this.maxSize;
+
+    if (excess <= 0) {
+      return;
+    }
+
+    List<Entry<V>> entries = new ArrayList<>(this.size.get());
+
+    for (ConcurrentHashMap<String, Entry<V>> collections : this.indexes.values()) {
+      entries.addAll(collections.values());
+    }
+
+    Collections.sort(entries, LEAST_RECENTLY_USED);
+
+    int count = Math.min(entries.size(), excess + this.maxSize / 10);
+
+    for (int i = 0; i < count; i++) {
+      Entry<V> entry = entries.get(i);
+      ConcurrentHashMap<String, Entry<V>> collections = this.indexes.get(entry.index);
+
+      if (collections == null) {
+        continue;
+      }
+
+      synchronized (collections) {
+        if (collections.remove(entry.collection, entry)) {
+          this.size.decrementAndGet();
+        }
+
+        if (collections.isEmpty()) {
+          this.indexes.remove(entry.index, collections);
+        }
+      }
+    }
+  }
+
+  /**
+   * Removes every cached object
+   */
+  public void clear() {
+    for (Map.Entry<String, ConcurrentHashMap<String, Entry<V>>> index : this.indexes.entrySet()) {
+      ConcurrentHashMap<String, Entry<V>> collections = index.getValue();
+
+      synchronized (collections) {
+        this.size.addAndGet(-collections.size());
+        collections.clear();
+        this.indexes.remove(index.getKey(), collections);
+      }
+    }
+  }
+
+  /**
+   * @return number of cached objects
+   */
+  public int size() {
+    return this.size.get();
+  }
+
+  /**
+   * @return maximum number of cached objects (0 = unbounded)
+   */
+  public int getMaxSize() {
+    return this.maxSize;
+  }
+}
@@ -0,0 +1,119 @@
+package io.kuzzle.sdk.util;
+
+/**
+ * AIMD (additive increase, multiplicative decrease) limit on the number of requests
+ * waiting for a response.
+ * The limit grows by about one request per window of fast acknowledgements, and is cut
+ * by the backoff ratio when a request is rejected for overload, times out, or takes far
+ * longer than the smoothed round-trip time. The limit is cut at most once per round trip,
+ * so that a burst of late responses is handled as a single congestion signal.
+ */
+public class ConcurrencyLimiter {
+  private static final double RTT_SMOOTHING = 0.125;
+  // round-trip time variations below this delay, in milliseconds, are jitter, not latency spikes
+  private static final long MIN_SPIKE_DELAY = 10;
+
+  private final int minLimit;
+  private final int maxLimit;
+  private final double backoffRatio;
+  private final double latencyTolerance;
+  private double limit;
+  private int inFlight = 0;
+  private double smoothedRtt = -1;
+  private long lastDecrease = 0;
+
+  /**
+   * Constructor
+   *
+   * @param initialLimit - Initial number of requests allowed to wait for a response
+   * @param minLimit - Lowest limit
+   * @param maxLimit - Highest limit
+   * @param backoffRatio - Ratio applied to the limit on congestion, between 0 and 1
+   * @param latencyTolerance - A round-trip time larger than the smoothed one times this tolerance is a latency spike
+   */
+  public ConcurrencyLimiter(int initialLimit, int minLimit, int maxLimit, double backoffRatio, double latencyTolerance) {
+    if (minLimit < 1 || maxLimit < minLimit || initialLimit < minLimit || initialLimit > maxLimit) {
+      throw new IllegalArgumentException("ConcurrencyLimiter: 1 <= minLimit <= initialLimit <= maxLimit required");
+    }
+
+    if (backoffRatio <= 0 || backoffRatio >= 1 || latencyTolerance <= 1) {
+      throw new IllegalArgumentException("ConcurrencyLimiter: 0 < backoffRatio < 1 and latencyTolerance > 1 required");
+    }
+
+    this.limit = initialLimit;
+    this.minLimit = minLimit;
+    this.maxLimit = maxLimit;
+    this.backoffRatio = backoffRatio;
+    this.latencyTolerance = latencyTolerance;
+  }
+
+  /**
+   * Reserves a slot for a new request
+   *
+   * @return false if the limit is reached
+   */
+  public synchronized boolean tryAcquire() {
+    if (this.inFlight >= (int) this.limit) {
+      return false;
+    }
+
+    this.inFlight++;
+    return true;
+  }
+
+  /**
+   * Releases the slot of an acknowledged request, and adapts the limit
+   *
+   * @param rtt - Request round-trip time, in milliseconds
+   * @param overloaded - True if the request was rejected for overload or timed out
+   * @param now - Current time, in milliseconds
+   */
+  public synchronized void release(long rtt, boolean overloaded, long now) {
+    this.inFlight = Math.max(0, this.inFlight - 1);
+
+    boolean spike = this.smoothedRtt >= 0
+      && rtt > this.smoothedRtt * this.latencyTolerance
+      && rtt - this.smoothedRtt > MIN_SPIKE_DELAY;
+
+    if (!overloaded) {
+      this.smoothedRtt = this.smoothedRtt < 0 ? rtt : this.smoothedRtt + RTT_SMOOTHING * (rtt - this.smoothedRtt);
+    }
+
+    if (overloaded || spike) {
+      if (now - this.lastDecrease >= Math.max(1, this.smoothedRtt)) {
+        this.limit = Math.max(this.minLimit, this.limit * this.backoffRatio);
+        this.lastDecrease = now;
+      }
+    } else if ((int) this.limit < this.maxLimit) {
+      this.limit = Math.min(this.maxLimit, this.limit + 1 / this.limit);
+    }
+  }
+
+  /**
+   * Releases every slot, without adapting the limit
+   */
+  public synchronized void reset() {
+    this.inFlight = 0;
+  }
+
+  /**
+   * @return current number of requests allowed to wait for a response
+   */
+  public synchronized int getLimit() {
+    return (int) this.limit;
+  }
+
+  /**
+   * @return number of requests waiting for a response
+   */
+  public synchronized int getInFlight() {
+    return this.inFlight;
+  }
+
+  /**
+   * @return number of requests that can be sent right away
+   */
+  public synchronized int getAvailable() {
+    return Math.max(0, (int) this.limit - this.inFlight);
+  }
+}
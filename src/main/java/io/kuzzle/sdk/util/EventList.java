@@ -1,8 +1,146 @@
 package io.kuzzle.sdk.util;
 
-import java.util.HashMap;
+import java.util.AbstractMap;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+
 import io.kuzzle.sdk.listeners.EventListener;
 
-public class EventList extends HashMap<EventListener, Event> {
+/**
+ * Listeners of a Kuzzle global event, in insertion order.
+ * The list is copy-on-write: listeners are added and removed rarely, while events are
+ * dispatched to a snapshot array without locking nor allocating.
+ * It also holds the throttling state of the event.
+ */
+public class EventList extends AbstractMap<EventListener, Event> {
+  private static final Event[] EMPTY = new Event[0];
+
+  private volatile Map<EventListener, Event> listeners = Collections.emptyMap();
+  private volatile Event[] snapshot = EMPTY;
   public long lastEmitted = 0;
+  private boolean coalescing = false;
+  private Object[] coalesced;
+  private int coalescedCount = 0;
+
+  /**
+   * @return listeners, in insertion order. The returned array must not be modified
+   */
+  public Event[] getListeners() {
+    return this.snapshot;
+  }
+
+  @Override
+  public synchronized Event put(final EventListener listener, final Event event) {
+    Map<EventListener, Event> copy = new LinkedHashMap<>(this.listeners);
+    Event previous = copy.put(listener, event);
+    update(copy);
+    return previous;
+  }
+
+  @Override
+  public synchronized Event remove(final Object listener) {
+    if (!this.listeners.containsKey(listener)) {
+      return null;
+    }
+
+    Map<EventListener, Event> copy = new LinkedHashMap<>(this.listeners);
+    Event previous = copy.remove(listener);
+    update(copy);
+    return previous;
+  }
+
+  @Override
+  public synchronized void clear() {
+    update(Collections.<EventListener, Event>emptyMap());
+  }
+
+  @Override
+  public Event get(final Object listener) {
+    return this.listeners.get(listener);
+  }
+
+  @Override
+  public boolean containsKey(final Object listener) {
+    return this.listeners.containsKey(listener);
+  }
+
+  @Override
+  public int size() {
+    return this.snapshot.length;
+  }
+
+  @Override
+  public Set<Entry<EventListener, Event>> entrySet() {
+    return Collections.unmodifiableMap(this.listeners).entrySet();
+  }
+
+  private void update(final Map<EventListener, Event> copy) {
+    this.listeners = copy;
+    this.snapshot = copy.values().toArray(new Event[copy.size()]);
+  }
+
+  /**
+   * Checks whether the event can be emitted, and starts a new throttling window if so
+   *
+   * @param now - Current time, in milliseconds
+   * @param window - Throttling window, in milliseconds
+   * @return true if the previous event was emitted before the throttling window
+   */
+  public synchronized boolean acquire(final long now, final long window) {
+    if (this.coalescing || this.lastEmitted >= now - window) {
+      return false;
+    }
+
+    this.lastEmitted = now;
+    return true;
+  }
+
+  /**
+   * Keeps the payload of an event emitted during the throttling window, replacing
+   * any payload kept before
+   *
+   * @param args - Event payload
+   * @return true if no payload was kept yet: the caller must schedule its emission
+   */
+  public synchronized boolean coalesce(final Object[] args) {
+    boolean first = !this.coalescing;
+
+    this.coalescing = true;
+    this.coalesced = args;
+    this.coalescedCount++;
+    return first;
+  }
+
+  /**
+   * Takes the payload kept during the throttling window, and starts a new one
+   *
+   * @param now - Current time, in milliseconds
+   * @return latest payload kept, followed by the number of events merged into it
+   */
+  public synchronized Object[] takeCoalesced(final long now) {
+    Object[] args = withCount(this.coalesced, this.coalescedCount);
+
+    this.coalescing = false;
+    this.coalesced = null;
+    this.coalescedCount = 0;
+    this.lastEmitted = now;
+    return args;
+  }
+
+  /**
+   * Appends to an event payload the number of events it stands for
+   *
+   * @param args - Event payload
+   * @param count - Number of events
+   * @return new payload
+   */
+  public static Object[] withCount(final Object[] args, final int count) {
+    Object[] counted = new Object[args.length + 1];
+
+    System.arraycopy(args, 0, counted, 0, args.length);
+    counted[args.length] = count;
+    return counted;
+  }
 }
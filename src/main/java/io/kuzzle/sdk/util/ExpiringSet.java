@@ -0,0 +1,162 @@
+package io.kuzzle.sdk.util;
+
+import java.util.AbstractSet;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Set whose entries expire after a fixed time to live.
+ * Entries are stored in a ring of time buckets: insertions, lookups and removals are O(1),
+ * and expired entries are evicted a whole bucket at a time when the ring rotates,
+ * which costs O(1) amortized per inserted entry.
+ * An entry lives between ttl and ttl + (ttl / buckets) milliseconds.
+ * Iterating and sizing may include expired entries not evicted yet.
+ *
+ * @param <K> the entry type
+ */
+public class ExpiringSet<K> extends AbstractSet<K> {
+  private static class Bucket<K> {
+    long epoch = -1;
+    ArrayList<K> keys = new ArrayList<>();
+  }
+
+  private final long bucketDuration;
+  private final Bucket<K>[] ring;
+  private final ConcurrentHashMap<K, Long> index = new ConcurrentHashMap<>();
+  private long lastEpoch = -1;
+
+  /**
+   * Constructor
+   *
+   * @param ttl - Entries time to live, in milliseconds
+   * @param buckets - Number of time buckets covering the time to live
+   */
+  @SuppressWarnings("unchecked")
+  public ExpiringSet(long ttl, int buckets) {
+    if (ttl <= 0 || buckets <= 0) {
+      throw new IllegalArgumentException("ExpiringSet: ttl and buckets must be strictly positive");
+    }
+
+    this.bucketDuration = Math.max(1, (ttl + buckets - 1) / buckets);
+    this.ring = new Bucket[buckets + 1];
+
+    for (int i = 0; i < this.ring.length; i++) {
+      this.ring[i] = new Bucket<>();
+    }
+  }
+
+  /**
+   * {@link #add(Object, long)}
+   */
+  @Override
+  public boolean add(K key) {
+    return add(key, System.currentTimeMillis());
+  }
+
+  /**
+   * Adds an entry, or refreshes its time to live if already present
+   *
+   * @param key - Entry to add
+   * @param now - Current time, in milliseconds
+   * @return true if the entry was not already present
+   */
+  public synchronized boolean add(K key, long now) {
+    long epoch = now / this.bucketDuration;
+
+    rotate(epoch);
+    this.ring[(int) (epoch % this.ring.length)].keys.add(key);
+    Long previous = this.index.put(key, epoch);
+
+    return previous == null || !isAlive(previous, now);
+  }
+
+  /**
+   * {@link #contains(Object, long)}
+   */
+  @Override
+  public boolean contains(Object key) {
+    return contains(key, System.currentTimeMillis());
+  }
+
+  /**
+   * Checks if an unexpired entry is present
+   *
+   * @param key - Entry to look for
+   * @param now - Current time, in milliseconds
+   * @return true if the entry is present
+   */
+  public boolean contains(Object key, long now) {
+    Long epoch = this.index.get(key);
+    return epoch != null && isAlive(epoch, now);
+  }
+
+  /**
+   * {@link #remove(Object, long)}
+   */
+  @Override
+  public boolean remove(Object key) {
+    return remove(key, System.currentTimeMillis());
+  }
+
+  /**
+   * Removes an entry
+   *
+   * @param key - Entry to remove
+   * @param now - Current time, in milliseconds
+   * @return true if an unexpired entry was removed
+   */
+  public boolean remove(Object key, long now) {
+    Long epoch = this.index.remove(key);
+    return epoch != null && isAlive(epoch, now);
+  }
+
+  @Override
+  public Iterator<K> iterator() {
+    return this.index.keySet().iterator();
+  }
+
+  @Override
+  public int size() {
+    return this.index.size();
+  }
+
+  @Override
+  public synchronized void clear() {
+    for (Bucket<K> bucket : this.ring) {
+      bucket.keys.clear();
+      bucket.epoch = -1;
+    }
+    this.index.clear();
+  }
+
+  private boolean isAlive(long epoch, long now) {
+    return now / this.bucketDuration - epoch < this.ring.length - 1;
+  }
+
+  /**
+   * Evicts the entries of every bucket reused between the last rotation and the provided epoch
+   */
+  private void rotate(long epoch) {
+    if (epoch <= this.lastEpoch) {
+      return;
+    }
+
+    long from = Math.max(this.lastEpoch + 1, epoch - this.ring.length + 1);
+
+    for (long e = from; e <= epoch; e++) {
+      Bucket<K> bucket = this.ring[(int) (e % this.ring.length)];
+
+      if (bucket.epoch != e) {
+        for (K key : bucket.keys) {
+          // the entry may have been refreshed since: only evict it if it still belongs to that bucket
+          this.index.remove(key, bucket.epoch);
+        }
+        bucket.keys.clear();
+        bucket.epoch = e;
+      }
+    }
+
+    this.lastEpoch = epoch;
+  }
+}
@@ -0,0 +1,413 @@
+package io.kuzzle.sdk.util;
+
+import org.json.JSONException;
+import org.json.JSONObject;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import io.kuzzle.sdk.exceptions.KuzzleException;
+import io.kuzzle.sdk.exceptions.KuzzleTimeoutException;
+import io.kuzzle.sdk.listeners.ResponseListener;
+
+/**
+ * Result of an asynchronous SDK call, which may be composed with other ones.
+ * A future is a {@link ResponseListener}: it can be passed to any SDK method taking a
+ * callback, and completes with the first response it gets.
+ *
+ * Callbacks and composition functions run on the thread completing the future, or on the
+ * calling thread if the future is already completed: no thread is ever created.
+ *
+ * <pre>
+ * KuzzleFuture&lt;Document&gt; document = new KuzzleFuture&lt;&gt;();
+ * collection.fetchDocument("id", document);
+ * </pre>
+ *
+ * @param <T> - Result type
+ */
+public class KuzzleFuture<T> implements ResponseListener<T> {
+  /**
+   * Function transforming the result of a future
+   *
+   * @param <A> - Argument type
+   * @param <R> - Result type
+   */
+  public interface Function<A, R> {
+    R apply(A value) throws Exception;
+  }
+
+  /**
+   * Asynchronous SDK call, reporting its result to a listener
+   *
+   * @param <T> - Result type
+   */
+  public interface Operation<T> {
+    void run(ResponseListener<T> listener) throws JSONException;
+  }
+
+  private boolean done = false;
+  private boolean failed = false;
+  private T result;
+  private JSONObject error;
+  private List<ResponseListener<? super T>> callbacks;
+
+  /**
+   * Runs an asynchronous SDK call, and returns the future of its result
+   *
+   * <pre>
+   * KuzzleFuture.of(new KuzzleFuture.Operation&lt;Document&gt;() {
+   *   public void run(ResponseListener&lt;Document&gt; listener) {
+   *     collection.fetchDocument("id", listener);
+   *   }
+   * });
+   * </pre>
+   *
+   * @param operation - Asynchronous call
+   * @param <T> - Result type
+   * @return future result
+   */
+  public static <T> KuzzleFuture<T> of(final Operation<T> operation) {
+    KuzzleFuture<T> future = new KuzzleFuture<>();
+
+    try {
+      operation.run(future);
+    } catch (JSONException e) {
+      throw new RuntimeException(e);
+    }
+
+    return future;
+  }
+
+  /**
+   * @param result - Result
+   * @param <T> - Result type
+   * @return future already completed with a result
+   */
+  public static <T> KuzzleFuture<T> completed(final T result) {
+    KuzzleFuture<T> future = new KuzzleFuture<>();
+    future.onSuccess(result);
+    return future;
+  }
+
+  /**
+   * @param error - Error
+   * @param <T> - Result type
+   * @return future already completed with an error
+   */
+  public static <T> KuzzleFuture<T> failed(final JSONObject error) {
+    KuzzleFuture<T> future = new KuzzleFuture<>();
+    future.onError(error);
+    return future;
+  }
+
+  /**
+   * Waits for every future to succeed.
+   * Fails with the first error, without waiting for the other futures
+   *
+   * @param futures - Futures to wait for
+   * @param <T> - Result type
+   * @return future of the results, in the order of the futures
+   */
+  public static <T> KuzzleFuture<List<T>> allOf(final List<? extends KuzzleFuture<? extends T>> futures) {
+    final KuzzleFuture<List<T>> all = new KuzzleFuture<>();
+    final int size = futures.size();
+
+    if (size == 0) {
+      all.onSuccess(new ArrayList<T>());
+      return all;
+    }
+
+    final Object[] results = new Object[size];
+    final AtomicInteger remaining = new AtomicInteger(size);
+
+    for (int i = 0; i < size; i++) {
+      final int index = i;
+
+      futures.get(i).whenComplete(new ResponseListener<T>() {
+        @Override
+        @SuppressWarnings("unchecked")
+        public void onSuccess(T response) {
+          results[index] = response;
+
+          if (remaining.decrementAndGet() == 0) {
+            all.onSuccess((List<T>) Arrays.asList(results));
+          }
+        }
+
+        @Override
+        public void onError(JSONObject error) {
+          all.onError(error);
+        }
+      });
+    }
+
+    return all;
+  }
+
+  /**
+   * Waits for the first future to succeed.
+   * Fails with the last error if every future fails
+   *
+   * @param futures - Futures to wait for
+   * @param <T> - Result type
+   * @return future of the first result
+   */
+  public static <T> KuzzleFuture<T> anyOf(final List<? extends KuzzleFuture<? extends T>> futures) {
+    final KuzzleFuture<T> any = new KuzzleFuture<>();
+    final AtomicInteger remaining = new AtomicInteger(futures.size());
+
+    if (futures.isEmpty()) {
+      any.onError(errorOf(new IllegalArgumentException("KuzzleFuture.anyOf: no future to wait for")));
+      return any;
+    }
+
+    for (KuzzleFuture<? extends T> future : futures) {
+      future.whenComplete(new ResponseListener<T>() {
+        @Override
+        public void onSuccess(T response) {
+          any.onSuccess(response);
+        }
+
+        @Override
+        public void onError(JSONObject error) {
+          if (remaining.decrementAndGet() == 0) {
+            any.onError(error);
+          }
+        }
+      });
+    }
+
+    return any;
+  }
+
+  /**
+   * Completes the future with a result, unless already completed
+   *
+   * @param response - Result
+   */
+  @Override
+  public void onSuccess(final T response) {
+    List<ResponseListener<? super T>> listeners;
+
+    synchronized (this) {
+      if (this.done) {
+        return;
+      }
+
+      this.done = true;
+      this.result = response;
+      listeners = this.callbacks;
+      this.callbacks = null;
+      this.notifyAll();
+    }
+
+    if (listeners != null) {
+      for (ResponseListener<? super T> listener : listeners) {
+        listener.onSuccess(response);
+      }
+    }
+  }
+
+  /**
+   * Completes the future with an error, unless already completed
+   *
+   * @param error - Error
+   */
+  @Override
+  public void onError(final JSONObject error) {
+    List<ResponseListener<? super T>> listeners;
+
+    synchronized (this) {
+      if (this.done) {
+        return;
+      }
+
+      this.done = true;
+      this.failed = true;
+      this.error = error;
+      listeners = this.callbacks;
+      this.callbacks = null;
+      this.notifyAll();
+    }
+
+    if (listeners != null) {
+      for (ResponseListener<? super T> listener : listeners) {
+        listener.onError(error);
+      }
+    }
+  }
+
+  /**
+   * Registers a listener invoked once the future is completed, right away if it already is
+   *
+   * @param listener - Completion listener
+   * @return this
+   */
+  public KuzzleFuture<T> whenComplete(final ResponseListener<? super T> listener) {
+    synchronized (this) {
+      if (!this.done) {
+        if (this.callbacks == null) {
+          this.callbacks = new ArrayList<>(1);
+        }
+
+        this.callbacks.add(listener);
+        return this;
+      }
+    }
+
+    if (this.failed) {
+      listener.onError(this.error);
+    } else {
+      listener.onSuccess(this.result);
+    }
+
+    return this;
+  }
+
+  /**
+   * Transforms the result of this future.
+   * An exception thrown by the function fails the returned future
+   *
+   * @param fn - Transformation
+   * @param <U> - Transformed result type
+   * @return future of the transformed result
+   */
+  public <U> KuzzleFuture<U> thenApply(final Function<? super T, ? extends U> fn) {
+    final KuzzleFuture<U> next = new KuzzleFuture<>();
+
+    whenComplete(new ResponseListener<T>() {
+      @Override
+      public void onSuccess(T response) {
+        U value;
+
+        try {
+          value = fn.apply(response);
+        } catch (Exception e) {
+          next.onError(errorOf(e));
+          return;
+        }
+
+        next.onSuccess(value);
+      }
+
+      @Override
+      public void onError(JSONObject error) {
+        next.onError(error);
+      }
+    });
+
+    return next;
+  }
+
+  /**
+   * Chains an asynchronous call using the result of this future
+   *
+   * @param fn - Function starting the next call
+   * @param <U> - Next call result type
+   * @return future of the next call result
+   */
+  public <U> KuzzleFuture<U> thenCompose(final Function<? super T, ? extends KuzzleFuture<U>> fn) {
+    final KuzzleFuture<U> next = new KuzzleFuture<>();
+
+    whenComplete(new ResponseListener<T>() {
+      @Override
+      public void onSuccess(T response) {
+        KuzzleFuture<U> composed;
+
+        try {
+          composed = fn.apply(response);
+        } catch (Exception e) {
+          next.onError(errorOf(e));
+          return;
+        }
+
+        composed.whenComplete(next);
+      }
+
+      @Override
+      public void onError(JSONObject error) {
+        next.onError(error);
+      }
+    });
+
+    return next;
+  }
+
+  /**
+   * Blocks the calling thread until the future is completed.
+   * Must not be called from the thread completing the future, such as a response callback,
+   * which would wait until the timeout
+   *
+   * @param timeout - Maximum time to wait (must be positive)
+   * @param unit - Timeout unit
+   * @return result
+   * @throws KuzzleTimeoutException if the future is not completed within the timeout
+   * @throws KuzzleException if the future is completed with an error
+   * @throws InterruptedException if the calling thread is interrupted while waiting
+   */
+  public T get(final long timeout, final TimeUnit unit) throws KuzzleException, InterruptedException {
+    if (timeout <= 0) {
+      throw new IllegalArgumentException("KuzzleFuture.get: timeout must be positive");
+    }
+
+    synchronized (this) {
+      long deadline = System.nanoTime() + unit.toNanos(timeout);
+
+      while (!this.done) {
+        long remaining = deadline - System.nanoTime();
+
+        if (remaining <= 0) {
+          throw new KuzzleTimeoutException("Request timed out: no response received within " + unit.toMillis(timeout) + "ms");
+        }
+
+        TimeUnit.NANOSECONDS.timedWait(this, remaining);
+      }
+
+      if (this.failed) {
+        throw KuzzleException.of(this.error);
+      }
+
+      return this.result;
+    }
+  }
+
+  /**
+   * @return true if the future is completed, either with a result or an error
+   */
+  public synchronized boolean isDone() {
+    return this.done;
+  }
+
+  /**
+   * @return result, or null if not completed or failed
+   */
+  public synchronized T getResult() {
+    return this.result;
+  }
+
+  /**
+   * @return error, or null if not completed or succeeded
+   */
+  public synchronized JSONObject getError() {
+    return this.error;
+  }
+
+  /**
+   * Converts an exception to an error, in the Kuzzle API error format
+   *
+   * @param e - Exception
+   * @return error
+   */
+  protected static JSONObject errorOf(final Exception e) {
+    try {
+      return new JSONObject()
+        .put("status", 500)
+        .put("message", e.getMessage() != null ? e.getMessage() : e.toString());
+    } catch (JSONException ee) {
+      throw new RuntimeException(ee);
+    }
+  }
+}
@@ -0,0 +1,463 @@
+package io.kuzzle.sdk.util;
+
+import org.json.JSONException;
+import org.json.JSONObject;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import io.kuzzle.sdk.enums.Overflow;
+import io.kuzzle.sdk.listeners.ResponseListener;
+
+/**
+ * Publisher-style stream of notifications, with demand-driven delivery.
+ * A publisher is a {@link ResponseListener}: it can be passed to Room.renew or
+ * Collection.subscribe, and buffers the notifications it receives until its
+ * subscriber requests them.
+ *
+ * The buffer is bounded: once full, incoming notifications are handled according to
+ * the overflow strategy, so that a slow subscriber never makes notifications pile up.
+ * Notifications are delivered in order, one at a time, on the thread receiving them or
+ * on the thread requesting them.
+ *
+ * A publisher accepts a single subscriber.
+ *
+ * @param <T> - Notification type
+ */
+public class NotificationPublisher<T> implements ResponseListener<T> {
+  /**
+   * Consumer of a notification stream
+   *
+   * @param <T> - Notification type
+   */
+  public interface Subscriber<T> {
+    /**
+     * Invoked once, before any other method
+     *
+     * @param subscription - Subscription, used to request notifications or to cancel the stream
+     */
+    void onSubscribe(Subscription subscription);
+
+    void onNext(T notification);
+
+    /**
+     * Terminal error: no other method is invoked afterwards
+     *
+     * @param error - Error, in the Kuzzle API format
+     */
+    void onError(JSONObject error);
+
+    /**
+     * End of the stream: no other method is invoked afterwards
+     */
+    void onComplete();
+  }
+
+  /**
+   * Link between a publisher and its subscriber
+   */
+  public interface Subscription {
+    /**
+     * Requests more notifications
+     *
+     * @param n - Number of notifications (Long.MAX_VALUE = unbounded)
+     */
+    void request(long n);
+
+    /**
+     * Stops the stream, dropping buffered notifications
+     */
+    void cancel();
+  }
+
+  private final int bufferSize;
+  private final Overflow overflow;
+  private final ArrayDeque<T> buffer;
+  private final AtomicInteger wip = new AtomicInteger();
+  private final AtomicLong dropped = new AtomicLong();
+  private Subscriber<? super T> subscriber;
+  private long demand = 0;
+  private boolean cancelled = false;
+  private boolean terminated = false;
+  private boolean terminalDelivered = false;
+  private boolean released = false;
+  private JSONObject error;
+
+  private final Subscription subscription = new Subscription() {
+    @Override
+    public void request(final long n) {
+      if (n <= 0) {
+        terminate(errorOf(400, "NotificationPublisher: requested notifications must be positive"), true);
+        return;
+      }
+
+      synchronized (NotificationPublisher.this) {
+        demand = demand + n < 0 ? Long.MAX_VALUE : demand + n;
+      }
+
+      drain();
+    }
+
+    @Override
+    public void cancel() {
+      synchronized (NotificationPublisher.this) {
+        if (cancelled) {
+          return;
+        }
+
+        cancelled = true;
+        buffer.clear();
+      }
+
+      release();
+    }
+  };
+
+  /**
+   * Constructor
+   *
+   * @param bufferSize - Maximum number of notifications buffered until requested
+   * @param overflow - What to do with notifications received while the buffer is full
+   */
+  public NotificationPublisher(final int bufferSize, final Overflow overflow) {
+    if (bufferSize <= 0) {
+      throw new IllegalArgumentException("NotificationPublisher: bufferSize must be positive");
+    }
+
+    if (overflow == null) {
+      throw new IllegalArgumentException("NotificationPublisher: overflow strategy required");
+    }
+
+    this.bufferSize = bufferSize;
+    this.overflow = overflow;
+    this.buffer = new ArrayDeque<>(Math.min(bufferSize, 16));
+  }
+
+  /**
+   * Attaches the subscriber of this stream.
+   * Any other subscriber is refused with an error
+   *
+   * @param subscriber - Stream consumer
+   */
+  public void subscribe(final Subscriber<? super T> subscriber) {
+    if (subscriber == null) {
+      throw new IllegalArgumentException("NotificationPublisher.subscribe: subscriber required");
+    }
+
+    boolean accepted;
+
+    synchronized (this) {
+      accepted = this.subscriber == null;
+
+      if (accepted) {
+        this.subscriber = subscriber;
+      }
+    }
+
+    if (!accepted) {
+      subscriber.onSubscribe(new Subscription() {
+        @Override
+        public void request(long n) {
+        }
+
+        @Override
+        public void cancel() {
+        }
+      });
+      subscriber.onError(errorOf(409, "NotificationPublisher.subscribe: this stream already has a subscriber"));
+      return;
+    }
+
+    subscriber.onSubscribe(this.subscription);
+    drain();
+  }
+
+  /**
+   * Receives a notification, buffering it until requested
+   *
+   * @param notification - Notification
+   */
+  @Override
+  public void onSuccess(final T notification) {
+    if (notification == null) {
+      return;
+    }
+
+    boolean overflowed = false;
+
+    synchronized (this) {
+      if (this.cancelled || this.terminated) {
+        return;
+      }
+
+      if (this.buffer.size() >= this.bufferSize) {
+        this.dropped.incrementAndGet();
+
+        switch (this.overflow) {
+          case DROP_OLDEST:
+            this.buffer.poll();
+            break;
+          case DROP_NEWEST:
+            return;
+          case LATEST:
+            this.dropped.addAndGet(this.buffer.size() - 1);
+            this.buffer.clear();
+            break;
+          case ERROR:
+            this.dropped.addAndGet(this.buffer.size());
+            this.buffer.clear();
+            this.terminated = true;
+            this.error = errorOf(503, "NotificationPublisher: buffer overflow (" + this.bufferSize + " notifications)");
+            overflowed = true;
+            break;
+        }
+      }
+
+      if (!this.terminated) {
+        this.buffer.add(notification);
+      }
+    }
+
+    // no more notifications are delivered: the source is released
+    if (overflowed) {
+      release();
+    }
+
+    drain();
+  }
+
+  /**
+   * Ends the stream with an error, once buffered notifications are delivered
+   *
+   * @param error - Error
+   */
+  @Override
+  public void onError(final JSONObject error) {
+    terminate(error != null ? error : errorOf(500, "NotificationPublisher: unknown error"), false);
+  }
+
+  /**
+   * Ends the stream, once buffered notifications are delivered
+   */
+  public void complete() {
+    terminate(null, false);
+  }
+
+  /**
+   * @return number of notifications dropped because of a full buffer
+   */
+  public long getDroppedCount() {
+    return this.dropped.get();
+  }
+
+  /**
+   * @return number of notifications waiting to be requested
+   */
+  public synchronized int getBufferedCount() {
+    return this.buffer.size();
+  }
+
+  /**
+   * Groups notifications in batches, for bulk processing.
+   * A batch is emitted once it holds maxCount notifications, or maxDelay milliseconds after
+   * its first notification. The returned stream uses the buffer size and overflow strategy
+   * of this one, applied to batches; cancelling it cancels this stream
+   *
+   * @param maxCount - Maximum number of notifications per batch
+   * @param maxDelay - Maximum delay before emitting an incomplete batch, in milliseconds (0 = count-based only)
+   * @param scheduler - Scheduler of the batch delays, required if maxDelay is not null
+   * @return stream of batches
+   */
+  public NotificationPublisher<List<T>> batch(final int maxCount, final long maxDelay, final ScheduledExecutorService scheduler) {
+    if (maxCount <= 0) {
+      throw new IllegalArgumentException("NotificationPublisher.batch: maxCount must be positive");
+    }
+
+    if (maxDelay < 0 || (maxDelay > 0 && scheduler == null)) {
+      throw new IllegalArgumentException("NotificationPublisher.batch: maxDelay must be positive or null, with a scheduler if positive");
+    }
+
+    final Subscription[] upstream = new Subscription[1];
+    final NotificationPublisher<List<T>> batches = new NotificationPublisher<List<T>>(this.bufferSize, this.overflow) {
+      @Override
+      protected void cancelled() {
+        upstream[0].cancel();
+      }
+    };
+
+    subscribe(new Subscriber<T>() {
+      private List<T> current = new ArrayList<>(maxCount);
+      private ScheduledFuture<?> timer;
+      private int generation = 0;
+
+      @Override
+      public void onSubscribe(Subscription subscription) {
+        upstream[0] = subscription;
+        subscription.request(Long.MAX_VALUE);
+      }
+
+      @Override
+      public synchronized void onNext(T notification) {
+        this.current.add(notification);
+
+        if (this.current.size() >= maxCount) {
+          flush();
+        } else if (this.current.size() == 1 && maxDelay > 0) {
+          final int batch = this.generation;
+
+          this.timer = scheduler.schedule(new Runnable() {
+            @Override
+            public void run() {
+              flushOnDelay(batch);
+            }
+          }, maxDelay, TimeUnit.MILLISECONDS);
+        }
+      }
+
+      @Override
+      public synchronized void onError(JSONObject error) {
+        flush();
+        batches.onError(error);
+      }
+
+      @Override
+      public synchronized void onComplete() {
+        flush();
+        batches.complete();
+      }
+
+      private synchronized void flushOnDelay(final int batch) {
+        if (batch == this.generation) {
+          flush();
+        }
+      }
+
+      // batches are emitted under this subscriber lock, to keep them in order
+      private void flush() {
+        if (this.timer != null) {
+          this.timer.cancel(false);
+          this.timer = null;
+        }
+
+        this.generation++;
+
+        if (this.current.isEmpty()) {
+          return;
+        }
+
+        List<T> full = this.current;
+        this.current = new ArrayList<>(maxCount);
+        batches.onSuccess(full);
+      }
+    });
+
+    return batches;
+  }
+
+  /**
+   * Invoked once when the subscriber cancels the stream, or when the stream fails on a
+   * buffer overflow, to release its source
+   */
+  protected void cancelled() {
+  }
+
+  private void release() {
+    synchronized (this) {
+      if (this.released) {
+        return;
+      }
+
+      this.released = true;
+    }
+
+    cancelled();
+  }
+
+  private void terminate(final JSONObject error, final boolean immediate) {
+    synchronized (this) {
+      if (this.cancelled || this.terminated) {
+        return;
+      }
+
+      this.terminated = true;
+      this.error = error;
+
+      if (immediate) {
+        this.buffer.clear();
+      }
+    }
+
+    drain();
+  }
+
+  /**
+   * Delivers requested notifications and terminal signals.
+   * Only one thread drains at a time, the other ones leaving their work to it
+   */
+  private void drain() {
+    if (this.wip.getAndIncrement() != 0) {
+      return;
+    }
+
+    int missed = 1;
+
+    do {
+      while (true) {
+        Subscriber<? super T> s;
+        T notification = null;
+        boolean terminal = false;
+        JSONObject err = null;
+
+        synchronized (this) {
+          s = this.subscriber;
+
+          if (s == null || this.cancelled || this.terminalDelivered) {
+            break;
+          }
+
+          if (!this.buffer.isEmpty() && this.demand > 0) {
+            notification = this.buffer.poll();
+
+            if (this.demand != Long.MAX_VALUE) {
+              this.demand--;
+            }
+          } else if (this.buffer.isEmpty() && this.terminated) {
+            this.terminalDelivered = true;
+            terminal = true;
+            err = this.error;
+          } else {
+            break;
+          }
+        }
+
+        if (terminal) {
+          if (err != null) {
+            s.onError(err);
+          } else {
+            s.onComplete();
+          }
+
+          break;
+        }
+
+        s.onNext(notification);
+      }
+
+      missed = this.wip.addAndGet(-missed);
+    } while (missed != 0);
+  }
+
+  private static JSONObject errorOf(final int status, final String message) {
+    try {
+      return new JSONObject().put("status", status).put("message", message);
+    } catch (JSONException e) {
+      throw new RuntimeException(e);
+    }
+  }
+}
@@ -0,0 +1,114 @@
+package io.kuzzle.sdk.util;
+
+import org.json.JSONException;
+import org.json.JSONObject;
+
+import java.util.Iterator;
+
+/**
+ * Global headers and volatile data added to every request, merged once.
+ * The volatile data, including the SDK version, is shared by all requests without
+ * per-query volatile data, along with its serialized form: it must not be modified, and
+ * requests handed to the application get a copy.
+ * An envelope is immutable: a new one must be built when headers or volatile data change.
+ */
+public class RequestEnvelope {
+  private final String[] headerKeys;
+  private final Object[] headerValues;
+  private final JSONObject _volatile;
+  private final String serializedVolatile;
+  private final String sdkVersion;
+
+  /**
+   * Constructor
+   *
+   * @param headers - Global headers, may be null
+   * @param _volatile - Global volatile data, may be null
+   * @param sdkVersion - SDK version, added to the volatile data
+   */
+  public RequestEnvelope(final JSONObject headers, final JSONObject _volatile, final String sdkVersion) {
+    try {
+      int length = headers != null ? headers.length() : 0;
+      this.headerKeys = new String[length];
+      this.headerValues = new Object[length];
+
+      if (headers != null) {
+        int i = 0;
+        for (Iterator ite = headers.keys(); ite.hasNext(); i++) {
+          this.headerKeys[i] = (String) ite.next();
+          this.headerValues[i] = headers.get(this.headerKeys[i]);
+        }
+      }
+
+      this.sdkVersion = sdkVersion;
+      this._volatile = merge(_volatile, null);
+      this.serializedVolatile = this._volatile.toString();
+    } catch (JSONException e) {
+      throw new RuntimeException(e);
+    }
+  }
+
+  /**
+   * Returns the volatile data of a request
+   *
+   * @param queryVolatile - Volatile data of the request, overriding the global ones. May be null
+   * @return the shared global volatile data if queryVolatile is empty, a merged copy otherwise
+   */
+  public JSONObject getVolatile(final JSONObject queryVolatile) {
+    if (queryVolatile == null || queryVolatile.length() == 0) {
+      return this._volatile;
+    }
+
+    try {
+      return merge(this._volatile, queryVolatile);
+    } catch (JSONException e) {
+      throw new RuntimeException(e);
+    }
+  }
+
+  /**
+   * Copies the global headers to a request, without overwriting its own values
+   *
+   * @param query - Request to update
+   */
+  public void addHeaders(final JSONObject query) {
+    try {
+      for (int i = 0; i < this.headerKeys.length; i++) {
+        if (query.isNull(this.headerKeys[i])) {
+          query.put(this.headerKeys[i], this.headerValues[i]);
+        }
+      }
+    } catch (JSONException e) {
+      throw new RuntimeException(e);
+    }
+  }
+
+  /**
+   * @param value - Request value
+   * @return the serialized form of the value if it is the shared volatile data, null otherwise
+   */
+  public String getSerialized(final Object value) {
+    return value == this._volatile ? this.serializedVolatile : null;
+  }
+
+  private JSONObject merge(final JSONObject base, final JSONObject overrides) throws JSONException {
+    JSONObject merged = new JSONObject();
+
+    if (base != null) {
+      for (Iterator ite = base.keys(); ite.hasNext(); ) {
+        String key = (String) ite.next();
+        merged.put(key, base.get(key));
+      }
+    }
+
+    if (overrides != null) {
+      for (Iterator ite = overrides.keys(); ite.hasNext(); ) {
+        String key = (String) ite.next();
+        merged.put(key, overrides.get(key));
+      }
+    }
+
+    merged.put("sdkVersion", this.sdkVersion);
+    return merged;
+  }
+}
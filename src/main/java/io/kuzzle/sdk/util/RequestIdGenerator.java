@@ -0,0 +1,11 @@
+package io.kuzzle.sdk.util;
+
+/**
+ * Generates the identifiers of the requests sent to Kuzzle.
+ * Identifiers must be unique for the lifetime of the SDK instance, including across
+ * reconnections, and must not collide with requests restored from an offline queue journal.
+ * Implementations must be thread-safe.
+ */
+public interface RequestIdGenerator {
+  String next();
+}
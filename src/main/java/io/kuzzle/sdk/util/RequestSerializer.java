@@ -0,0 +1,151 @@
+package io.kuzzle.sdk.util;
+
+import org.json.JSONArray;
+import org.json.JSONException;
+import org.json.JSONObject;
+
+import java.util.Iterator;
+
+/**
+ * Serializes requests into a reusable buffer.
+ * Values are written straight to the buffer instead of being serialized separately
+ * and concatenated, and the pre-serialized form of the request envelope is copied as is.
+ * Only uses the JSON API common to Android and to the reference org.json implementation.
+ * Subclasses of JSONObject and JSONArray may customize their serialization: they are
+ * serialized with their own toString method.
+ * Not thread-safe.
+ */
+public class RequestSerializer {
+  private static final int MAX_RETAINED_CAPACITY = 64 * 1024;
+  private static final char[] HEX = "0123456789abcdef".toCharArray();
+
+  private StringBuilder buffer = new StringBuilder(1024);
+
+  /**
+   * Serializes a request
+   *
+   * @param request - Request to serialize
+   * @param envelope - Envelope whose pre-serialized values are reused, may be null
+   * @return the request JSON string
+   */
+  public String serialize(final JSONObject request, final RequestEnvelope envelope) {
+    if (request.getClass() != JSONObject.class) {
+      return request.toString();
+    }
+
+    this.buffer.setLength(0);
+
+    try {
+      writeObject(request, envelope);
+    } catch (JSONException e) {
+      throw new RuntimeException(e);
+    }
+
+    String serialized = this.buffer.toString();
+
+    // do not retain the buffer of an exceptionally large request
+    if (this.buffer.capacity() > MAX_RETAINED_CAPACITY) {
+      this.buffer = new StringBuilder(1024);
+    }
+
+    return serialized;
+  }
+
+  private void writeObject(final JSONObject object, final RequestEnvelope envelope) throws JSONException {
+    boolean first = true;
+    this.buffer.append('{');
+
+    for (Iterator ite = object.keys(); ite.hasNext(); ) {
+      String key = (String) ite.next();
+
+      if (!first) {
+        this.buffer.append(',');
+      }
+      first = false;
+
+      writeString(key);
+      this.buffer.append(':');
+      writeValue(object.get(key), envelope);
+    }
+
+    this.buffer.append('}');
+  }
+
+  private void writeValue(final Object value, final RequestEnvelope envelope) throws JSONException {
+    String serialized = envelope != null ? envelope.getSerialized(value) : null;
+
+    if (serialized != null) {
+      this.buffer.append(serialized);
+    } else if (value == null || value == JSONObject.NULL) {
+      this.buffer.append("null");
+    } else if (value instanceof String) {
+      writeString((String) value);
+    } else if (value.getClass() == JSONObject.class) {
+      writeObject((JSONObject) value, envelope);
+    } else if (value.getClass() == JSONArray.class) {
+      JSONArray array = (JSONArray) value;
+      this.buffer.append('[');
+
+      for (int i = 0; i < array.length(); i++) {
+        if (i > 0) {
+          this.buffer.append(',');
+        }
+        writeValue(array.get(i), envelope);
+      }
+
+      this.buffer.append(']');
+    } else if (value instanceof Boolean) {
+      this.buffer.append(((Boolean) value).booleanValue());
+    } else if (value instanceof Integer || value instanceof Long || value instanceof Short || value instanceof Byte) {
+      this.buffer.append(((Number) value).longValue());
+    } else if (value instanceof Number) {
+      this.buffer.append(JSONObject.numberToString((Number) value));
+    } else if (value instanceof JSONObject || value instanceof JSONArray) {
+      this.buffer.append(value.toString());
+    } else {
+      writeString(value.toString());
+    }
+  }
+
+  private void writeString(final String string) {
+    this.buffer.append('"');
+
+    for (int i = 0; i < string.length(); i++) {
+      char c = string.charAt(i);
+
+      switch (c) {
+        case '"':
+        case '\\':
+          this.buffer.append('\\').append(c);
+          break;
+        case '\b':
+          this.buffer.append("\\b");
+          break;
+        case '\f':
+          this.buffer.append("\\f");
+          break;
+        case '\n':
+          this.buffer.append("\\n");
+          break;
+        case '\r':
+          this.buffer.append("\\r");
+          break;
+        case '\t':
+          this.buffer.append("\\t");
+          break;
+        default:
+          if (c < 0x20 || c == '\u2028' || c == '\u2029') {
+            this.buffer.append("\\u")
+              .append(HEX[(c >> 12) & 0xf])
+              .append(HEX[(c >> 8) & 0xf])
+              .append(HEX[(c >> 4) & 0xf])
+              .append(HEX[c & 0xf]);
+          } else {
+            this.buffer.append(c);
+          }
+      }
+    }
+
+    this.buffer.append('"');
+  }
+}
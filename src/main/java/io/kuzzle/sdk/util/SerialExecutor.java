@@ -0,0 +1,163 @@
+package io.kuzzle.sdk.util;
+
+import java.util.ArrayDeque;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+
+/**
+ * Runs tasks one at a time, in submission order, on a delegate executor.
+ * Used to keep the notifications of a room in order while running them on a thread pool.
+ */
+public class SerialExecutor implements Executor {
+  private final Executor delegate;
+  private final ArrayDeque<Runnable> tasks = new ArrayDeque<>();
+  private boolean running = false;
+  // thread running the tasks, and whether the delegate ran a hand-off on that same thread
+  private Thread drainer;
+  private boolean reentered = false;
+  private final Runnable drainTask = new Runnable() {
+    @Override
+    public void run() {
+      drain();
+    }
+  };
+
+  /**
+   * Constructor
+   *
+   * @param delegate - Executor running the tasks
+   */
+  public SerialExecutor(final Executor delegate) {
+    if (delegate == null) {
+      throw new IllegalArgumentException("SerialExecutor: delegate executor required");
+    }
+
+    this.delegate = delegate;
+  }
+
+  @Override
+  public void execute(final Runnable task) {
+    synchronized (this.tasks) {
+      this.tasks.add(task);
+
+      if (this.running) {
+        return;
+      }
+
+      this.running = true;
+    }
+
+    schedule();
+  }
+
+  private void schedule() {
+    try {
+      this.delegate.execute(this.drainTask);
+    } catch (RuntimeException e) {
+      synchronized (this.tasks) {
+        this.running = false;
+      }
+      throw e;
+    }
+  }
+
+  /**
+   * Runs the pending tasks, handing the following ones back to the delegate executor after
+   * each task, so that a busy room does not hold a pool thread for ever.
+   * A delegate running the hand-off on the same thread (such as a saturated pool with a
+   * caller-runs policy) or rejecting it does not nest calls: the tasks run in a loop instead
+   */
+  private void drain() {
+    Thread current = Thread.currentThread();
+
+    synchronized (this.tasks) {
+      if (this.drainer == current) {
+        this.reentered = true;
+        return;
+      }
+
+      this.drainer = current;
+    }
+
+    boolean done = false;
+
+    try {
+      while (!done) {
+        Runnable task;
+
+        synchronized (this.tasks) {
+          task = this.tasks.poll();
+
+          if (task == null) {
+            this.running = false;
+            return;
+          }
+        }
+
+        boolean failed = true;
+
+        try {
+          task.run();
+          failed = false;
+        } finally {
+          if (failed) {
+            // the error goes up to the delegate: the following tasks run on a new hand-off
+            synchronized (this.tasks) {
+              this.drainer = null;
+            }
+
+            if (!handOff()) {
+              // rejected: the next submitted task hands them off again
+              synchronized (this.tasks) {
+                this.running = false;
+              }
+            }
+          }
+        }
+
+        done = handOff();
+      }
+    } finally {
+      synchronized (this.tasks) {
+        if (this.drainer == current) {
+          this.drainer = null;
+        }
+      }
+    }
+  }
+
+  /**
+   * Hands the pending tasks back to the delegate executor
+   *
+   * @return false if the tasks must keep running on the current thread
+   */
+  private boolean handOff() {
+    synchronized (this.tasks) {
+      if (this.tasks.isEmpty()) {
+        this.running = false;
+        return true;
+      }
+
+      this.reentered = false;
+    }
+
+    try {
+      this.delegate.execute(this.drainTask);
+    } catch (RejectedExecutionException e) {
+      return false;
+    }
+
+    synchronized (this.tasks) {
+      return !this.reentered;
+    }
+  }
+
+  /**
+   * @return number of tasks waiting to run
+   */
+  public int getPendingCount() {
+    synchronized (this.tasks) {
+      return this.tasks.size();
+    }
+  }
+}
@@ -0,0 +1,55 @@
+package io.kuzzle.sdk.util;
+
+import java.security.SecureRandom;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Default request identifier generator: a random prefix drawn once per instance,
+ * followed by an atomic counter.
+ * The 64 bits prefix keeps identifiers unique across SDK instances and application
+ * restarts, and the counter keeps them unique within an instance, reconnections included.
+ * Both parts are encoded in URL-safe base 64: identifiers are 13 to 23 characters long,
+ * against 36 for a UUID, and cost a single atomic increment to generate.
+ */
+public class SessionRequestIdGenerator implements RequestIdGenerator {
+  private static final char[] ALPHABET = "0123456789ABCDEFGHIJKLMNOPQRSTUVWXYZabcdefghijklmnopqrstuvwxyz-_".toCharArray();
+  private static final int PREFIX_LENGTH = 11;
+  private static final int MAX_COUNTER_LENGTH = 11;
+
+  private final char[] prefix = new char[PREFIX_LENGTH + 1];
+  private final AtomicLong counter = new AtomicLong();
+
+  public SessionRequestIdGenerator() {
+    this(new SecureRandom().nextLong());
+  }
+
+  /**
+   * Constructor
+   *
+   * @param seed - Random prefix of the identifiers
+   */
+  public SessionRequestIdGenerator(long seed) {
+    for (int i = PREFIX_LENGTH - 1; i >= 0; i--) {
+      this.prefix[i] = ALPHABET[(int) (seed & 63)];
+      seed >>>= 6;
+    }
+
+    this.prefix[PREFIX_LENGTH] = '.';
+  }
+
+  @Override
+  public String next() {
+    long n = this.counter.getAndIncrement();
+    char[] id = new char[this.prefix.length + MAX_COUNTER_LENGTH];
+    int position = id.length;
+
+    do {
+      id[--position] = ALPHABET[(int) (n & 63)];
+      n >>>= 6;
+    } while (n != 0);
+
+    int start = position - this.prefix.length;
+    System.arraycopy(this.prefix, 0, id, start, this.prefix.length);
+    return new String(id, start, id.length - start);
+  }
+}
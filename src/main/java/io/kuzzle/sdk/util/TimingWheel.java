@@ -0,0 +1,185 @@
+package io.kuzzle.sdk.util;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Hashed timing wheel tracking keyed deadlines.
+ * Scheduling and cancelling a deadline are O(1), and expired keys are evicted
+ * in O(1) each while the wheel advances, one slot per elapsed tick.
+ *
+ * @param <K> the deadline key type
+ */
+public class TimingWheel<K> {
+  private static class Node<K> {
+    K key;
+    long deadlineTick;
+    Node<K> prev;
+    Node<K> next;
+  }
+
+  private final long tickDuration;
+  private final Node<K>[] wheel;
+  private final int mask;
+  private final Map<K, Node<K>> index = new HashMap<>();
+  private long currentTick = -1;
+
+  /**
+   * Constructor
+   *
+   * @param tickDuration - Duration of a tick, in milliseconds
+   * @param ticksPerWheel - Number of slots in the wheel, rounded up to a power of 2
+   */
+  @SuppressWarnings("unchecked")
+  public TimingWheel(long tickDuration, int ticksPerWheel) {
+    if (tickDuration <= 0) {
+      throw new IllegalArgumentException("TimingWheel: tickDuration must be strictly positive");
+    }
+
+    if (ticksPerWheel <= 0 || ticksPerWheel > 1 << 30) {
+      throw new IllegalArgumentException("TimingWheel: ticksPerWheel must be between 1 and 2^30");
+    }
+
+    int size = 1;
+    while (size < ticksPerWheel) {
+      size <<= 1;
+    }
+
+    this.tickDuration = tickDuration;
+    this.mask = size - 1;
+    this.wheel = new Node[size];
+
+    for (int i = 0; i < size; i++) {
+      Node<K> head = new Node<>();
+      head.prev = head.next = head;
+      this.wheel[i] = head;
+    }
+  }
+
+  /**
+   * Schedules a deadline. Replaces any deadline already registered with the same key
+   *
+   * @param key - Deadline key
+   * @param delay - Delay before expiration, in milliseconds
+   * @param now - Current time, in milliseconds
+   */
+  public synchronized void schedule(K key, long delay, long now) {
+    init(now);
+    remove(key);
+
+    Node<K> node = new Node<>();
+    node.key = key;
+    node.deadlineTick = Math.max(this.currentTick + 1, (now + Math.max(0, delay) + this.tickDuration - 1) / this.tickDuration);
+
+    Node<K> head = this.wheel[(int) (node.deadlineTick & this.mask)];
+    node.prev = head.prev;
+    node.next = head;
+    head.prev.next = node;
+    head.prev = node;
+
+    this.index.put(key, node);
+  }
+
+  /**
+   * Cancels a deadline
+   *
+   * @param key - Deadline key
+   * @return true if a deadline was registered for that key
+   */
+  public synchronized boolean cancel(K key) {
+    return remove(key);
+  }
+
+  /**
+   * Advances the wheel up to the provided time, and evicts expired deadlines
+   *
+   * @param now - Current time, in milliseconds
+   * @return expired keys, in no particular order
+   */
+  public synchronized List<K> advance(long now) {
+    List<K> expired = new ArrayList<>();
+    long target = now / this.tickDuration;
+
+    init(now);
+
+    if (target - this.currentTick > this.wheel.length) {
+      // A whole rotation (or more) elapsed: visit every slot once
+      for (Node<K> head : this.wheel) {
+        expireSlot(head, target, expired);
+      }
+      this.currentTick = target;
+    } else {
+      while (this.currentTick < target) {
+        this.currentTick++;
+        expireSlot(this.wheel[(int) (this.currentTick & this.mask)], this.currentTick, expired);
+      }
+    }
+
+    return expired;
+  }
+
+  /**
+   * @return number of pending deadlines
+   */
+  public synchronized int size() {
+    return this.index.size();
+  }
+
+  /**
+   * @return true if no deadline is pending
+   */
+  public synchronized boolean isEmpty() {
+    return this.index.isEmpty();
+  }
+
+  /**
+   * Removes all pending deadlines
+   */
+  public synchronized void clear() {
+    for (Node<K> head : this.wheel) {
+      head.prev = head.next = head;
+    }
+    this.index.clear();
+  }
+
+  private void init(long now) {
+    if (this.currentTick < 0) {
+      this.currentTick = now / this.tickDuration;
+    }
+  }
+
+  private boolean remove(K key) {
+    Node<K> node = this.index.remove(key);
+
+    if (node == null) {
+      return false;
+    }
+
+    unlink(node);
+    return true;
+  }
+
+  private void expireSlot(Node<K> head, long tick, List<K> expired) {
+    Node<K> node = head.next;
+
+    while (node != head) {
+      Node<K> next = node.next;
+
+      if (node.deadlineTick <= tick) {
+        unlink(node);
+        this.index.remove(node.key);
+        expired.add(node.key);
+      }
+
+      node = next;
+    }
+  }
+
+  private void unlink(Node<K> node) {
+    node.prev.next = node.next;
+    node.next.prev = node.prev;
+    node.prev = node.next = null;
+  }
+}
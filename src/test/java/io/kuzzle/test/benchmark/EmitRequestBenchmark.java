@@ -0,0 +1,68 @@
+package io.kuzzle.test.benchmark;
+
+import org.json.JSONException;
+import org.json.JSONObject;
+
+import java.net.URISyntaxException;
+
+import io.kuzzle.sdk.core.Kuzzle;
+import io.kuzzle.sdk.core.Options;
+import io.kuzzle.sdk.enums.Mode;
+import io.kuzzle.sdk.listeners.OnQueryDoneListener;
+import io.kuzzle.sdk.transport.LoopbackTransport;
+
+/**
+ * Measures the per-request cost of Kuzzle.query while the request history fills up.
+ * Requests are sent through a loopback transport answering every request, so the
+ * numbers only reflect the SDK own overhead.
+ *
+ * Run with: java -cp <test classpath> io.kuzzle.test.benchmark.EmitRequestBenchmark [batches] [batchSize]
+ */
+public class EmitRequestBenchmark {
+  public static void main(String[] args) throws URISyntaxException, JSONException {
+    int batches = args.length > 0 ? Integer.parseInt(args[0]) : 30;
+    int batchSize = args.length > 1 ? Integer.parseInt(args[1]) : 10000;
+
+    Options options = new Options();
+    options.setConnect(Mode.MANUAL);
+    options.setTransport(new LoopbackTransport());
+    options.setRequestTimeout(0L);
+
+    Kuzzle kuzzle = new Kuzzle("localhost", options);
+    kuzzle.connect();
+
+    Kuzzle.QueryArgs queryArgs = new Kuzzle.QueryArgs();
+    queryArgs.controller = "realtime";
+    queryArgs.action = "publish";
+    queryArgs.index = "index";
+    queryArgs.collection = "collection";
+
+    OnQueryDoneListener listener = new OnQueryDoneListener() {
+      @Override
+      public void onSuccess(JSONObject response) {
+      }
+
+      @Override
+      public void onError(JSONObject error) {
+      }
+    };
+
+    System.out.println("batch\trequests sent\tns/request\trequests/s");
+
+    long sent = 0;
+    for (int b = 0; b < batches; b++) {
+      long start = System.nanoTime();
+
+      for (int i = 0; i < batchSize; i++) {
+        kuzzle.query(queryArgs, new JSONObject().put("body", new JSONObject().put("foo", i)), listener);
+      }
+
+      long elapsed = System.nanoTime() - start;
+      sent += batchSize;
+
+      System.out.println(b + "\t" + sent + "\t" + (elapsed / batchSize) + "\t" + (batchSize * 1000000000L / Math.max(1, elapsed)));
+    }
+
+    kuzzle.disconnect();
+  }
+}
@@ -0,0 +1,135 @@
+package io.kuzzle.test.benchmark;
+
+import org.json.JSONException;
+import org.json.JSONObject;
+
+import java.lang.management.ManagementFactory;
+import java.net.URISyntaxException;
+import java.util.concurrent.CountDownLatch;
+
+import io.kuzzle.sdk.core.Kuzzle;
+import io.kuzzle.sdk.core.Options;
+import io.kuzzle.sdk.core.Room;
+import io.kuzzle.sdk.enums.Mode;
+import io.kuzzle.sdk.listeners.ResponseListener;
+import io.kuzzle.sdk.responses.NotificationResponse;
+import io.kuzzle.sdk.transport.LoopbackTransport;
+
+/**
+ * Measures the cost of routing realtime notifications to a room listener, from the
+ * frame received by the transport to the NotificationResponse delivered to the listener.
+ * When the JVM supports it, the bytes allocated per notification are reported too.
+ *
+ * Run with: java -cp <test classpath> io.kuzzle.test.benchmark.NotificationRoutingBenchmark [batches] [batchSize]
+ */
+public class NotificationRoutingBenchmark {
+  public static void main(String[] args) throws URISyntaxException, JSONException, InterruptedException {
+    int batches = args.length > 0 ? Integer.parseInt(args[0]) : 20;
+    int batchSize = args.length > 1 ? Integer.parseInt(args[1]) : 50000;
+
+    // Answers subscriptions with a fixed channel, and every other request with an empty result
+    LoopbackTransport transport = new LoopbackTransport(new LoopbackTransport.Handler() {
+      @Override
+      public void onRequest(String payload, LoopbackTransport transport) {
+        try {
+          JSONObject request = new JSONObject(payload);
+          JSONObject result = "subscribe".equals(request.optString("action"))
+            ? new JSONObject().put("channel", "channel").put("roomId", "roomId")
+            : new JSONObject();
+
+          transport.receive(new JSONObject()
+            .put("requestId", request.getString("requestId"))
+            .put("room", request.getString("requestId"))
+            .put("status", 200)
+            .put("error", JSONObject.NULL)
+            .put("result", result)
+            .toString());
+        } catch (JSONException e) {
+          throw new RuntimeException(e);
+        }
+      }
+    });
+
+    Options options = new Options();
+    options.setConnect(Mode.MANUAL);
+    options.setTransport(transport);
+
+    Kuzzle kuzzle = new Kuzzle("localhost", options);
+    kuzzle.connect();
+
+    final CountDownLatch subscribed = new CountDownLatch(1);
+    final long[] received = {0};
+
+    kuzzle.collection("collection", "index").subscribe(new JSONObject(), new ResponseListener<NotificationResponse>() {
+      @Override
+      public void onSuccess(NotificationResponse response) {
+        received[0]++;
+      }
+
+      @Override
+      public void onError(JSONObject error) {
+      }
+    }).onDone(new ResponseListener<Room>() {
+      @Override
+      public void onSuccess(Room response) {
+        subscribed.countDown();
+      }
+
+      @Override
+      public void onError(JSONObject error) {
+        System.err.println("Subscription failed: " + error);
+        System.exit(1);
+      }
+    });
+
+    subscribed.await();
+
+    String notification = new JSONObject()
+      .put("status", 200)
+      .put("error", JSONObject.NULL)
+      .put("index", "index")
+      .put("collection", "collection")
+      .put("controller", "document")
+      .put("action", "create")
+      .put("state", "done")
+      .put("scope", "in")
+      .put("volatile", new JSONObject().put("sdkVersion", "3"))
+      .put("requestId", "someone-else")
+      .put("room", "channel")
+      .put("type", "document")
+      .put("timestamp", System.currentTimeMillis())
+      .put("result", new JSONObject()
+        .put("_id", "documentId")
+        .put("_source", new JSONObject().put("foo", "bar").put("count", 42).put("tags", new org.json.JSONArray().put("a").put("b")))
+        .put("_meta", new JSONObject().put("author", "-1").put("createdAt", 1234567890)))
+      .toString();
+
+    java.lang.management.ThreadMXBean threads = ManagementFactory.getThreadMXBean();
+    com.sun.management.ThreadMXBean allocations = threads instanceof com.sun.management.ThreadMXBean
+      ? (com.sun.management.ThreadMXBean) threads
+      : null;
+    long threadId = Thread.currentThread().getId();
+
+    System.out.println("batch\tns/notification\tbytes/notification\tnotifications/s");
+
+    for (int b = 0; b < batches; b++) {
+      long allocatedBefore = allocations != null ? allocations.getThreadAllocatedBytes(threadId) : 0;
+      long start = System.nanoTime();
+
+      for (int i = 0; i < batchSize; i++) {
+        transport.receive(notification);
+      }
+
+      long elapsed = System.nanoTime() - start;
+      long allocated = allocations != null ? allocations.getThreadAllocatedBytes(threadId) - allocatedBefore : -1;
+
+      System.out.println(b + "\t" + (elapsed / batchSize) + "\t" + (allocated < 0 ? "n/a" : String.valueOf(allocated / batchSize)) + "\t" + (batchSize * 1000000000L / Math.max(1, elapsed)));
+    }
+
+    if (received[0] != (long) batches * batchSize) {
+      System.err.println("Expected " + ((long) batches * batchSize) + " notifications, got " + received[0]);
+    }
+
+    kuzzle.disconnect();
+  }
+}
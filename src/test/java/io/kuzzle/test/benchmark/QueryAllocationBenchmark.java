@@ -0,0 +1,86 @@
+package io.kuzzle.test.benchmark;
+
+import org.json.JSONException;
+import org.json.JSONObject;
+
+import java.lang.management.ManagementFactory;
+import java.net.URISyntaxException;
+
+import io.kuzzle.sdk.core.Kuzzle;
+import io.kuzzle.sdk.core.Options;
+import io.kuzzle.sdk.enums.Mode;
+import io.kuzzle.sdk.metrics.KuzzleMetrics;
+import io.kuzzle.sdk.transport.LoopbackTransport;
+
+/**
+ * Measures the bytes allocated and the time spent per Kuzzle.query call, from the query
+ * arguments to the frame handed to the transport, with global headers, volatile data and
+ * an authentication token set.
+ * Responses are not simulated, so the numbers only reflect the request path.
+ * Pass "metrics" as third argument to measure the cost of enabled metrics.
+ *
+ * Run with: java -cp <test classpath> io.kuzzle.test.benchmark.QueryAllocationBenchmark [batches] [batchSize] [metrics]
+ */
+public class QueryAllocationBenchmark {
+  public static void main(String[] args) throws URISyntaxException, JSONException {
+    int batches = args.length > 0 ? Integer.parseInt(args[0]) : 20;
+    int batchSize = args.length > 1 ? Integer.parseInt(args[1]) : 50000;
+    boolean metrics = args.length > 2 && "metrics".equals(args[2]);
+
+    final long[] bytesSent = {0};
+
+    // Swallows the requests
+    LoopbackTransport transport = new LoopbackTransport(new LoopbackTransport.Handler() {
+      @Override
+      public void onRequest(String payload, LoopbackTransport transport) {
+        bytesSent[0] += payload.length();
+      }
+    });
+
+    Options options = new Options();
+    options.setConnect(Mode.MANUAL);
+    options.setTransport(transport);
+    options.setRequestTimeout(0L);
+    options.setRequestWindow(0);
+    options.setHeaders(new JSONObject().put("refresh", "wait_for").put("client", "benchmark"));
+    options.setVolatile(new JSONObject().put("device", "phone-42").put("appVersion", "1.2.3").put("locale", "fr_FR"));
+    options.setMetrics(metrics ? new KuzzleMetrics() : null);
+
+    Kuzzle kuzzle = new Kuzzle("localhost", options);
+    kuzzle.connect();
+    kuzzle.setJwtToken("eyJhbGciOiJIUzI1NiIsInR5cCI6IkpXVCJ9.eyJfaWQiOiJiZW5jaG1hcmsifQ.signature");
+
+    Kuzzle.QueryArgs queryArgs = new Kuzzle.QueryArgs();
+    queryArgs.controller = "realtime";
+    queryArgs.action = "publish";
+    queryArgs.index = "index";
+    queryArgs.collection = "collection";
+
+    java.lang.management.ThreadMXBean threads = ManagementFactory.getThreadMXBean();
+    com.sun.management.ThreadMXBean allocations = threads instanceof com.sun.management.ThreadMXBean
+      ? (com.sun.management.ThreadMXBean) threads
+      : null;
+    long threadId = Thread.currentThread().getId();
+
+    System.out.println("batch\tns/request\tbytes/request\trequests/s");
+
+    for (int b = 0; b < batches; b++) {
+      long allocatedBefore = allocations != null ? allocations.getThreadAllocatedBytes(threadId) : 0;
+      long start = System.nanoTime();
+
+      for (int i = 0; i < batchSize; i++) {
+        kuzzle.query(queryArgs, new JSONObject()
+          .put("requestId", "request")
+          .put("body", new JSONObject().put("message", "hello").put("count", i)));
+      }
+
+      long elapsed = System.nanoTime() - start;
+      long allocated = allocations != null ? allocations.getThreadAllocatedBytes(threadId) - allocatedBefore : -1;
+
+      System.out.println(b + "\t" + (elapsed / batchSize) + "\t" + (allocated < 0 ? "n/a" : String.valueOf(allocated / batchSize)) + "\t" + (batchSize * 1000000000L / Math.max(1, elapsed)));
+    }
+
+    System.out.println("average frame size: " + (bytesSent[0] / ((long) batches * batchSize)) + " chars");
+    kuzzle.disconnect();
+  }
+}
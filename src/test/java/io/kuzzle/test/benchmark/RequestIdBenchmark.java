@@ -0,0 +1,87 @@
+package io.kuzzle.test.benchmark;
+
+import java.lang.management.ManagementFactory;
+import java.util.UUID;
+
+import io.kuzzle.sdk.util.RequestIdGenerator;
+import io.kuzzle.sdk.util.SessionRequestIdGenerator;
+
+/**
+ * Compares the cost and the size of request identifiers generated with UUID.randomUUID
+ * and with the default SDK request identifier generator, with 1 and 4 threads.
+ * When the JVM supports it, the bytes allocated per identifier are reported too.
+ *
+ * Run with: java -cp <test classpath> io.kuzzle.test.benchmark.RequestIdBenchmark [batches] [batchSize]
+ */
+public class RequestIdBenchmark {
+  private static final RequestIdGenerator UUIDS = new RequestIdGenerator() {
+    @Override
+    public String next() {
+      return UUID.randomUUID().toString();
+    }
+  };
+
+  public static void main(String[] args) throws InterruptedException {
+    int batches = args.length > 0 ? Integer.parseInt(args[0]) : 10;
+    int batchSize = args.length > 1 ? Integer.parseInt(args[1]) : 200000;
+
+    System.out.println("generator\tthreads\tns/id\tbytes/id\tchars/id");
+
+    for (int b = 0; b < batches; b++) {
+      boolean report = b == batches - 1;
+      run("uuid", UUIDS, 1, batchSize, report);
+      run("session", new SessionRequestIdGenerator(), 1, batchSize, report);
+      run("uuid", UUIDS, 4, batchSize, report);
+      run("session", new SessionRequestIdGenerator(), 4, batchSize, report);
+    }
+  }
+
+  private static void run(String name, final RequestIdGenerator generator, int threadCount, final int batchSize, boolean report) throws InterruptedException {
+    java.lang.management.ThreadMXBean threads = ManagementFactory.getThreadMXBean();
+    final com.sun.management.ThreadMXBean allocations = threads instanceof com.sun.management.ThreadMXBean
+      ? (com.sun.management.ThreadMXBean) threads
+      : null;
+    final long[] allocated = new long[threadCount];
+    final long[] chars = new long[threadCount];
+    Thread[] workers = new Thread[threadCount];
+
+    for (int t = 0; t < threadCount; t++) {
+      final int index = t;
+      workers[t] = new Thread(new Runnable() {
+        @Override
+        public void run() {
+          long threadId = Thread.currentThread().getId();
+          long before = allocations != null ? allocations.getThreadAllocatedBytes(threadId) : 0;
+
+          for (int i = 0; i < batchSize; i++) {
+            chars[index] += generator.next().length();
+          }
+
+          allocated[index] = allocations != null ? allocations.getThreadAllocatedBytes(threadId) - before : -1;
+        }
+      });
+    }
+
+    long start = System.nanoTime();
+    for (Thread worker : workers) {
+      worker.start();
+    }
+    for (Thread worker : workers) {
+      worker.join();
+    }
+    long elapsed = System.nanoTime() - start;
+
+    if (report) {
+      long ids = (long) threadCount * batchSize;
+      long bytes = 0;
+      long length = 0;
+
+      for (int t = 0; t < threadCount; t++) {
+        bytes += allocated[t];
+        length += chars[t];
+      }
+
+      System.out.println(name + "\t" + threadCount + "\t" + (elapsed / ids) + "\t" + (bytes < 0 ? "n/a" : String.valueOf(bytes / ids)) + "\t" + (length / ids));
+    }
+  }
+}
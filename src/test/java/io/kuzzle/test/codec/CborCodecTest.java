@@ -0,0 +1,172 @@
+package io.kuzzle.test.codec;
+
+import org.json.JSONArray;
+import org.json.JSONException;
+import org.json.JSONObject;
+import org.junit.Test;
+
+import io.kuzzle.sdk.codec.CborCodec;
+import io.kuzzle.sdk.codec.Codec;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+public class CborCodecTest {
+  private Codec codec = new CborCodec();
+
+  private static byte[] bytes(int... values) {
+    byte[] result = new byte[values.length];
+
+    for (int i = 0; i < values.length; i++) {
+      result[i] = (byte) values[i];
+    }
+
+    return result;
+  }
+
+  @Test
+  public void shouldEncodeWithTheSmallestRepresentation() throws JSONException {
+    // {"a": 1, "b": [2, 3]}, RFC 7049 appendix A
+    JSONObject object = new JSONObject().put("a", 1).put("b", new JSONArray().put(2).put(3));
+    byte[] encoded = codec.encode(object);
+
+    assertEquals(9, encoded.length);
+    assertEquals(0xa2, encoded[0] & 0xff);
+
+    assertArrayEquals(bytes(0xa1, 0x61, 0x78, 0x19, 0x03, 0xe8), codec.encode(new JSONObject().put("x", 1000)));
+    assertArrayEquals(bytes(0xa1, 0x61, 0x78, 0x38, 0x63), codec.encode(new JSONObject().put("x", -100)));
+    assertArrayEquals(bytes(0xa1, 0x61, 0x78, 0xfa, 0x3f, 0xc0, 0x00, 0x00), codec.encode(new JSONObject().put("x", 1.5)));
+    assertArrayEquals(bytes(0xa1, 0x61, 0x78, 0xf6), codec.encode(new JSONObject().put("x", JSONObject.NULL)));
+  }
+
+  @Test
+  public void shouldRoundTripJsonTrees() throws JSONException {
+    JSONObject object = new JSONObject()
+      .put("requestId", "1f2e3d4c")
+      .put("controller", "document")
+      .put("volatile", new JSONObject().put("sdkVersion", "3.0.10"))
+      .put("body", new JSONObject()
+        .put("temperature", 21.37)
+        .put("count", 4294967296L)
+        .put("negative", -42)
+        .put("flag", true)
+        .put("empty", new JSONObject())
+        .put("tags", new JSONArray().put("é").put("東京").put(false))
+        .put("nothing", JSONObject.NULL));
+
+    JSONObject decoded = codec.decode(codec.encode(object));
+
+    assertEquals(object.toString(), decoded.toString());
+    assertTrue(codec.encode(object).length < object.toString().length());
+  }
+
+  @Test
+  public void shouldDecodeIndefiniteLengthItems() throws JSONException {
+    // {_ "a": [_ 1, 2], "b": (_ "x", "y")}, with a tagged half-float
+    JSONObject decoded = codec.decode(bytes(
+      0xbf,
+      0x61, 0x61, 0x9f, 0x01, 0x02, 0xff,
+      0x61, 0x62, 0x7f, 0x61, 0x78, 0x61, 0x79, 0xff,
+      0x61, 0x63, 0xc1, 0xf9, 0x3c, 0x00,
+      0xff));
+
+    assertEquals(2, decoded.getJSONArray("a").getInt(1));
+    assertEquals("xy", decoded.getString("b"));
+    assertEquals(1.0, decoded.getDouble("c"), 0);
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void shouldRejectTruncatedFrames() {
+    codec.decode(bytes(0xa1, 0x61, 0x78, 0x19, 0x03));
+  }
+
+  @Test
+  public void shouldRejectTruncatedItems() {
+    assertMalformed(bytes(0xa1, 0x61));
+    assertMalformed(bytes(0xa1, 0x61, 0x78, 0xfb, 0x3f, 0xf8));
+    assertMalformed(bytes(0xa1, 0x61, 0x78, 0x7f, 0x61));
+  }
+
+  @Test
+  public void shouldRejectLengthsExceedingTheFrame() {
+    // text, array and map of 2^32 items, with nothing following
+    assertMalformed(bytes(0xa1, 0x61, 0x78, 0x7a, 0xff, 0xff, 0xff, 0xff));
+    assertMalformed(bytes(0xa1, 0x61, 0x78, 0x9a, 0xff, 0xff, 0xff, 0xff));
+    assertMalformed(bytes(0xba, 0xff, 0xff, 0xff, 0xff));
+    // lengths beyond Long.MAX_VALUE
+    assertMalformed(bytes(0xa1, 0x61, 0x78, 0x7b, 0xff, 0xff, 0xff, 0xff, 0xff, 0xff, 0xff, 0xff));
+    assertMalformed(bytes(0xa1, 0x61, 0x78, 0x9b, 0x80, 0, 0, 0, 0, 0, 0, 0, 0x01));
+  }
+
+  @Test
+  public void shouldRejectDeeplyNestedItems() {
+    int levels = CborCodec.MAX_DEPTH * 10;
+    byte[] frame = new byte[levels + 4];
+
+    frame[0] = (byte) 0xa1;
+    frame[1] = 0x61;
+    frame[2] = 0x78;
+    for (int i = 0; i < levels; i++) {
+      frame[3 + i] = (byte) 0x81;
+    }
+    frame[levels + 3] = 0x01;
+
+    assertMalformed(frame);
+  }
+
+  @Test
+  public void shouldDecodeNestedItemsUpToTheDepthLimit() throws JSONException {
+    int levels = CborCodec.MAX_DEPTH - 1;
+    byte[] frame = new byte[levels + 3];
+
+    frame[0] = (byte) 0xa1;
+    frame[1] = 0x61;
+    frame[2] = 0x78;
+    for (int i = 0; i < levels - 1; i++) {
+      frame[3 + i] = (byte) 0x81;
+    }
+    frame[levels + 2] = 0x01;
+
+    Object value = codec.decode(frame).get("x");
+    for (int i = 0; i < levels - 1; i++) {
+      value = ((JSONArray) value).get(0);
+    }
+    assertEquals(1, value);
+  }
+
+  @Test
+  public void shouldDecodeIntegersBeyondTheLongRangeAsDoubles() throws JSONException {
+    JSONObject decoded = codec.decode(bytes(
+      0xa2,
+      0x61, 0x61, 0x1b, 0xff, 0xff, 0xff, 0xff, 0xff, 0xff, 0xff, 0xff,
+      0x61, 0x62, 0x3b, 0x80, 0, 0, 0, 0, 0, 0, 0));
+
+    assertEquals(1.8446744073709552E19, decoded.get("a"));
+    assertEquals(-9.223372036854775809E18, decoded.get("b"));
+
+    // the long range bounds stay exact
+    decoded = codec.decode(bytes(
+      0xa2,
+      0x61, 0x61, 0x1b, 0x7f, 0xff, 0xff, 0xff, 0xff, 0xff, 0xff, 0xff,
+      0x61, 0x62, 0x3b, 0x7f, 0xff, 0xff, 0xff, 0xff, 0xff, 0xff, 0xff));
+
+    assertEquals(Long.MAX_VALUE, decoded.get("a"));
+    assertEquals(Long.MIN_VALUE, decoded.get("b"));
+  }
+
+  private void assertMalformed(byte[] frame) {
+    try {
+      codec.decode(frame);
+      fail("Malformed frame decoded");
+    } catch (IllegalArgumentException e) {
+      assertTrue(e.getMessage().startsWith("Malformed CBOR frame"));
+    }
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void shouldRejectNonMapFrames() {
+    codec.decode(bytes(0x82, 0x01, 0x02));
+  }
+}
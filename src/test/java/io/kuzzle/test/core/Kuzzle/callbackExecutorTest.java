@@ -0,0 +1,190 @@
+package io.kuzzle.test.core.Kuzzle;
+
+import org.json.JSONException;
+import org.json.JSONObject;
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.ArgumentCaptor;
+
+import java.net.URISyntaxException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import io.kuzzle.sdk.core.Kuzzle;
+import io.kuzzle.sdk.core.Options;
+import io.kuzzle.sdk.enums.Event;
+import io.kuzzle.sdk.listeners.EventListener;
+import io.kuzzle.sdk.listeners.OnQueryDoneListener;
+import io.kuzzle.sdk.listeners.ResponseListener;
+import io.kuzzle.sdk.responses.NotificationResponse;
+import io.kuzzle.sdk.transport.LoopbackTransport;
+import io.kuzzle.test.testUtils.LoopbackHelper;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.Matchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.timeout;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+public class callbackExecutorTest {
+  private final List<Runnable> tasks = new ArrayList<>();
+  private LoopbackTransport transport;
+  private Options options;
+  private Kuzzle.QueryArgs args;
+
+  @Before
+  public void setUp() {
+    // Answers subscriptions with a fixed channel, and every other request with an empty result
+    transport = new LoopbackTransport(new LoopbackTransport.Handler() {
+      @Override
+      public void onRequest(String payload, LoopbackTransport transport) {
+        try {
+          JSONObject request = new JSONObject(payload);
+          JSONObject result = "subscribe".equals(request.getString("action"))
+            ? new JSONObject().put("channel", "channel").put("roomId", "roomId")
+            : new JSONObject();
+
+          LoopbackHelper.reply(transport, request, result);
+        } catch (JSONException e) {
+          throw new RuntimeException(e);
+        }
+      }
+    });
+
+    options = LoopbackHelper.makeOptions(transport);
+    options.setHeartbeatInterval(0);
+
+    args = new Kuzzle.QueryArgs();
+    args.controller = "foo";
+    args.action = "bar";
+  }
+
+  private String notification(int index) throws JSONException {
+    return new JSONObject()
+      .put("room", "channel")
+      .put("status", 200)
+      .put("type", "document")
+      .put("index", "index")
+      .put("collection", "collection")
+      .put("controller", "document")
+      .put("action", "create")
+      .put("state", "done")
+      .put("scope", "in")
+      .put("volatile", new JSONObject())
+      .put("result", new JSONObject().put("_id", "doc-" + index).put("_source", new JSONObject()))
+      .toString();
+  }
+
+  @Test
+  public void shouldRunResponseCallbacksOnTheCallbackExecutor() throws URISyntaxException, JSONException {
+    options.setCallbackExecutor(new Executor() {
+      @Override
+      public void execute(Runnable command) {
+        tasks.add(command);
+      }
+    });
+    Kuzzle kuzzle = LoopbackHelper.connect(options);
+    OnQueryDoneListener listener = mock(OnQueryDoneListener.class);
+
+    kuzzle.query(args, new JSONObject(), listener);
+    verify(listener, never()).onSuccess(any(JSONObject.class));
+    assertEquals(1, tasks.size());
+
+    tasks.remove(0).run();
+    verify(listener, times(1)).onSuccess(any(JSONObject.class));
+  }
+
+  @Test
+  public void shouldKeepTheNotificationsOfARoomInOrder() throws Exception {
+    ExecutorService pool = Executors.newFixedThreadPool(4);
+    options.setCallbackExecutor(pool);
+    Kuzzle kuzzle = LoopbackHelper.connect(options);
+    final List<String> received = Collections.synchronizedList(new ArrayList<String>());
+
+    kuzzle.collection("collection", "index").subscribe(new JSONObject(), new ResponseListener<NotificationResponse>() {
+      @Override
+      public void onSuccess(NotificationResponse response) {
+        received.add(response.getDocument().getId());
+      }
+
+      @Override
+      public void onError(JSONObject error) {
+      }
+    });
+    Thread.sleep(200);
+
+    for (int i = 0; i < 100; i++) {
+      transport.receive(notification(i));
+    }
+
+    for (int i = 0; i < 100 && received.size() < 100; i++) {
+      Thread.sleep(10);
+    }
+
+    pool.shutdown();
+    assertTrue(pool.awaitTermination(1, TimeUnit.SECONDS));
+    assertEquals(100, received.size());
+
+    for (int i = 0; i < 100; i++) {
+      assertEquals("doc-" + i, received.get(i));
+    }
+  }
+
+  @Test
+  public void shouldReportSlowListeners() throws URISyntaxException, JSONException {
+    options.setSlowListenerThreshold(20);
+    Kuzzle kuzzle = LoopbackHelper.connect(options);
+    EventListener slowListener = mock(EventListener.class);
+    kuzzle.addListener(Event.slowListener, slowListener);
+
+    kuzzle.query(args, new JSONObject(), new OnQueryDoneListener() {
+      @Override
+      public void onSuccess(JSONObject response) {
+        try {
+          Thread.sleep(30);
+        } catch (InterruptedException e) {
+          throw new RuntimeException(e);
+        }
+      }
+
+      @Override
+      public void onError(JSONObject error) {
+      }
+    });
+
+    ArgumentCaptor<Object> captor = ArgumentCaptor.forClass(Object.class);
+    verify(slowListener, timeout(1000)).trigger(captor.capture());
+
+    JSONObject report = (JSONObject) captor.getValue();
+    assertEquals("response", report.getString("type"));
+    assertEquals("foo:bar", report.getString("source"));
+    assertTrue(report.getLong("duration") >= 20);
+  }
+
+  @Test
+  public void shouldNotReportFastListeners() throws URISyntaxException, JSONException {
+    options.setSlowListenerThreshold(1000);
+    Kuzzle kuzzle = LoopbackHelper.connect(options);
+    EventListener slowListener = mock(EventListener.class);
+    kuzzle.addListener(Event.slowListener, slowListener);
+    OnQueryDoneListener listener = mock(OnQueryDoneListener.class);
+
+    kuzzle.query(args, new JSONObject(), listener);
+
+    verify(listener, times(1)).onSuccess(any(JSONObject.class));
+    verify(slowListener, never()).trigger(any());
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void shouldRejectANegativeThreshold() {
+    options.setSlowListenerThreshold(-1);
+  }
+}
@@ -17,7 +17,7 @@ import io.kuzzle.sdk.enums.Mode;
 import io.kuzzle.sdk.listeners.ResponseListener;
 import io.kuzzle.sdk.listeners.OnQueryDoneListener;
 import io.kuzzle.test.testUtils.KuzzleExtend;
-import tech.gusavila92.websocketclient.WebSocketClient;
+import io.kuzzle.sdk.transport.Transport;
 
 import static org.junit.Assert.assertEquals;
 import static org.mockito.Matchers.any;
@@ -38,7 +38,7 @@ public class checkTokenTest {
     options.setDefaultIndex("testIndex");
 
     kuzzle = new KuzzleExtend("localhost", options, null);
-    kuzzle.setSocket(mock(WebSocketClient.class));
+    kuzzle.setTransport(mock(Transport.class));
 
     listener = new ResponseListener<Object>() {
       @Override
@@ -0,0 +1,102 @@
+package io.kuzzle.test.core.Kuzzle;
+
+import org.json.JSONException;
+import org.json.JSONObject;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.net.URISyntaxException;
+
+import io.kuzzle.sdk.codec.CborCodec;
+import io.kuzzle.sdk.core.Kuzzle;
+import io.kuzzle.sdk.core.Options;
+import io.kuzzle.sdk.listeners.OnQueryDoneListener;
+import io.kuzzle.sdk.transport.LoopbackTransport;
+import io.kuzzle.test.testUtils.LoopbackHelper;
+
+import static org.mockito.Matchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.spy;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+public class codecTest {
+  private Kuzzle.QueryArgs args;
+  private Options options;
+
+  @Before
+  public void setUp() {
+    args = new Kuzzle.QueryArgs();
+    args.controller = "foo";
+    args.action = "bar";
+
+    options = LoopbackHelper.makeOptions(null);
+    options.setCodec(new CborCodec());
+  }
+
+  @Test
+  public void shouldSwitchToBinaryFramesOnceNegotiated() throws URISyntaxException, JSONException {
+    LoopbackTransport transport = spy(new LoopbackTransport(LoopbackTransport.ECHO, new CborCodec()));
+    Kuzzle kuzzle = LoopbackHelper.connect(options.setTransport(transport));
+    OnQueryDoneListener listener = mock(OnQueryDoneListener.class);
+
+    kuzzle.query(args, new JSONObject(), listener);
+    kuzzle.query(args, new JSONObject(), listener);
+    kuzzle.query(args, new JSONObject(), listener);
+
+    verify(transport, times(1)).send(any(String.class));
+    verify(transport, times(2)).send(any(byte[].class));
+    verify(listener, times(3)).onSuccess(any(JSONObject.class));
+  }
+
+  @Test
+  public void shouldKeepJsonFramesWithAJsonOnlyServer() throws URISyntaxException, JSONException {
+    LoopbackTransport transport = spy(new LoopbackTransport());
+    Kuzzle kuzzle = LoopbackHelper.connect(options.setTransport(transport));
+    OnQueryDoneListener listener = mock(OnQueryDoneListener.class);
+
+    kuzzle.query(args, new JSONObject(), listener);
+    kuzzle.query(args, new JSONObject(), listener);
+
+    verify(transport, times(2)).send(any(String.class));
+    verify(transport, never()).send(any(byte[].class));
+    verify(listener, times(2)).onSuccess(any(JSONObject.class));
+  }
+
+  @Test
+  public void shouldUseBinaryFramesRightAwayWithoutNegotiation() throws URISyntaxException, JSONException {
+    options.setCodecNegotiation(false);
+    LoopbackTransport transport = spy(new LoopbackTransport(LoopbackTransport.ECHO, new CborCodec()));
+    Kuzzle kuzzle = LoopbackHelper.connect(options.setTransport(transport));
+    OnQueryDoneListener listener = mock(OnQueryDoneListener.class);
+
+    kuzzle.query(args, new JSONObject(), listener);
+
+    verify(transport, never()).send(any(String.class));
+    verify(listener).onSuccess(any(JSONObject.class));
+  }
+
+  @Test
+  public void shouldDecodeJsonBinaryFramesWithoutCodec() throws URISyntaxException, JSONException {
+    options.setCodec(null);
+    LoopbackTransport transport = new LoopbackTransport(new LoopbackTransport.Handler() {
+      @Override
+      public void onRequest(String payload, LoopbackTransport transport) {
+        try {
+          String requestId = new JSONObject(payload).getString("requestId");
+          transport.receive(new JSONObject().put("requestId", requestId).put("room", requestId).put("result", new JSONObject())
+            .toString().getBytes("UTF-8"));
+        } catch (Exception e) {
+          throw new RuntimeException(e);
+        }
+      }
+    });
+    Kuzzle kuzzle = LoopbackHelper.connect(options.setTransport(transport));
+    OnQueryDoneListener listener = mock(OnQueryDoneListener.class);
+
+    kuzzle.query(args, new JSONObject(), listener);
+
+    verify(listener).onSuccess(any(JSONObject.class));
+  }
+}
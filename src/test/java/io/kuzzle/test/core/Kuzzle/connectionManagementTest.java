@@ -26,7 +26,7 @@ import io.kuzzle.sdk.responses.TokenValidity;
 import io.kuzzle.sdk.state.States;
 import io.kuzzle.sdk.util.QueryObject;
 import io.kuzzle.test.testUtils.KuzzleExtend;
-import tech.gusavila92.websocketclient.WebSocketClient;
+import io.kuzzle.sdk.transport.Transport;
 
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertNotNull;
@@ -43,7 +43,7 @@ import static org.mockito.Mockito.verify;
 
 public class connectionManagementTest {
   private KuzzleExtend kuzzle;
-  private WebSocketClient s;
+  private Transport s;
   private ResponseListener listener;
 
   @Before
@@ -52,7 +52,7 @@ public class connectionManagementTest {
     options.setConnect(Mode.MANUAL);
     options.setDefaultIndex("testIndex");
 
-    s = mock(WebSocketClient.class);
+    s = mock(Transport.class);
     listener = new ResponseListener<Object>() {
       @Override
       public void onSuccess(Object object) {
@@ -65,7 +65,7 @@ public class connectionManagementTest {
       }
     };
     kuzzle = new KuzzleExtend("localhost", options, listener);
-    kuzzle.setSocket(s);
+    kuzzle.setTransport(s);
   }
 
   @Test
@@ -85,7 +85,7 @@ public class connectionManagementTest {
     o.setQuery(query);
 
     kuzzle = new KuzzleExtend("localhost", options, null);
-    kuzzle.setSocket(s);
+    kuzzle.setTransport(s);
 
     final EventListener listener = mock(EventListener.class);
 
@@ -114,7 +114,7 @@ public class connectionManagementTest {
     options.setAutoReconnect(true);
     options.setOfflineMode(Mode.AUTO);
     KuzzleExtend extended = new KuzzleExtend("localhost", options, null);
-    extended.setSocket(s);
+    extended.setTransport(s);
     extended.setState(States.INITIALIZING);
     final Kuzzle kuzzleSpy = spy(extended);
 
@@ -154,7 +154,7 @@ public class connectionManagementTest {
     }).when(s).connect();
 
     kuzzle = new KuzzleExtend("localhost", options, null);
-    kuzzle.setSocket(s);
+    kuzzle.setTransport(s);
     kuzzle = spy(kuzzle);
 
     kuzzle.connect();
@@ -207,9 +207,9 @@ public class connectionManagementTest {
   @Test
   public void testDisconnect() {
     kuzzle.setState(States.CONNECTED);
-    assertNotNull(kuzzle.getSocket());
+    assertNotNull(kuzzle.getTransport());
     kuzzle.disconnect();
-    assertNull(kuzzle.getSocket());
+    assertNull(kuzzle.getTransport());
   }
 
   @Test(expected = RuntimeException.class)
@@ -17,7 +17,7 @@ import io.kuzzle.sdk.util.QueryObject;
 import io.kuzzle.sdk.util.QueueFilter;
 import io.kuzzle.test.testUtils.KuzzleExtend;
 import io.kuzzle.test.testUtils.QueryArgsHelper;
-import tech.gusavila92.websocketclient.WebSocketClient;
+import io.kuzzle.sdk.transport.Transport;
 
 import static org.junit.Assert.*;
 import static org.mockito.Matchers.*;
@@ -30,7 +30,7 @@ import static org.hamcrest.core.IsInstanceOf.instanceOf;
 
 public class constructorTest {
   private KuzzleExtend kuzzle;
-  private WebSocketClient s;
+  private Transport s;
   private ResponseListener listener;
 
   @Before
@@ -40,9 +40,9 @@ public class constructorTest {
     options.setPort(12345);
     options.setDefaultIndex("testIndex");
 
-    s = mock(WebSocketClient.class);
+    s = mock(Transport.class);
     kuzzle = new KuzzleExtend("localhost", options, null);
-    kuzzle.setSocket(s);
+    kuzzle.setTransport(s);
 
     listener = new ResponseListener<Object>() {
       @Override
@@ -122,7 +122,7 @@ public class constructorTest {
     options.setQueuable(false);
     options.setConnect(Mode.MANUAL);
     KuzzleExtend extended = new KuzzleExtend("localhost", options, null);
-    extended.setSocket(s);
+    extended.setTransport(s);
     extended.setState(States.CONNECTED);
 
 
@@ -149,7 +149,7 @@ public class constructorTest {
     options.setQueuable(false);
     options.setConnect(Mode.MANUAL);
     KuzzleExtend extended = new KuzzleExtend("localhost", options, null);
-    extended.setSocket(s);
+    extended.setTransport(s);
     extended.setState(States.CONNECTED);
     extended.query(QueryArgsHelper.makeQueryArgs("controller", "action"), jsonObj, options);
     verify(s).send(eq(jsonObj.toString()));
@@ -245,7 +245,8 @@ public class constructorTest {
   public void exposeVolatileGetterSetter() {
     JSONObject _volatile = new JSONObject();
     assertThat(kuzzle.setVolatile(_volatile), instanceOf(KuzzleExtend.class));
-    assertEquals(_volatile, kuzzle.getVolatile());
+    // a copy is returned
+    assertEquals(_volatile.toString(), kuzzle.getVolatile().toString());
   }
 
   @Test
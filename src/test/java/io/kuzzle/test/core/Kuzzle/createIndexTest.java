@@ -6,7 +6,7 @@ import io.kuzzle.sdk.enums.Mode;
 import io.kuzzle.sdk.listeners.OnQueryDoneListener;
 import io.kuzzle.sdk.listeners.ResponseListener;
 import io.kuzzle.test.testUtils.KuzzleExtend;
-import tech.gusavila92.websocketclient.WebSocketClient;
+import io.kuzzle.sdk.transport.Transport;
 
 import org.json.JSONException;
 import org.json.JSONObject;
@@ -33,7 +33,7 @@ public class createIndexTest {
     options.setConnect(Mode.MANUAL);
 
     kuzzle = new KuzzleExtend("localhost", options, null);
-    kuzzle.setSocket(mock(WebSocketClient.class));
+    kuzzle.setTransport(mock(Transport.class));
 
     listener = new ResponseListener<Object>() {
       @Override
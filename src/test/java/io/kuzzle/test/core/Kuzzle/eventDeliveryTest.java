@@ -0,0 +1,252 @@
+package io.kuzzle.test.core.Kuzzle;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import java.net.URISyntaxException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.Executor;
+
+import io.kuzzle.sdk.core.Options;
+import io.kuzzle.sdk.enums.Event;
+import io.kuzzle.sdk.enums.EventDelivery;
+import io.kuzzle.sdk.enums.Mode;
+import io.kuzzle.sdk.listeners.EventListener;
+import io.kuzzle.test.testUtils.KuzzleExtend;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+public class eventDeliveryTest {
+  private final List<Object> delivered = Collections.synchronizedList(new ArrayList<>());
+  private final List<Runnable> tasks = new ArrayList<>();
+  private Options options;
+  private EventListener recorder;
+
+  @Before
+  public void setUp() {
+    options = new Options();
+    options.setConnect(Mode.MANUAL);
+
+    recorder = new EventListener() {
+      @Override
+      public void trigger(Object... args) {
+        delivered.add(args[0]);
+      }
+    };
+  }
+
+  private KuzzleExtend create() throws URISyntaxException {
+    KuzzleExtend kuzzle = new KuzzleExtend("localhost", options, null);
+    kuzzle.addListener(Event.offlineQueuePush, recorder);
+    return kuzzle;
+  }
+
+  /**
+   * Executor holding tasks until the test runs them
+   */
+  private Executor manualExecutor() {
+    return new Executor() {
+      @Override
+      public void execute(Runnable command) {
+        tasks.add(command);
+      }
+    };
+  }
+
+  private void runTasks() {
+    while (!tasks.isEmpty()) {
+      tasks.remove(0).run();
+    }
+  }
+
+  @Test
+  public void shouldDropEventsByDefault() throws URISyntaxException {
+    KuzzleExtend kuzzle = create();
+
+    for (int i = 0; i < 5; i++) {
+      kuzzle.emitEvent(Event.offlineQueuePush, i);
+    }
+
+    assertEquals(Collections.<Object>singletonList(0), delivered);
+    assertEquals(4, kuzzle.getDroppedEventCount());
+  }
+
+  @Test
+  public void shouldDeliverEveryEvent() throws URISyntaxException {
+    options.setEventDelivery(EventDelivery.ALL);
+    KuzzleExtend kuzzle = create();
+
+    for (int i = 0; i < 5; i++) {
+      kuzzle.emitEvent(Event.offlineQueuePush, i);
+    }
+
+    assertEquals(5, delivered.size());
+    assertEquals(0, kuzzle.getDroppedEventCount());
+  }
+
+  @Test
+  public void shouldCoalesceEventsToTheLatestOne() throws URISyntaxException, InterruptedException {
+    KuzzleExtend kuzzle = create();
+    kuzzle.setEventDelivery(Event.offlineQueuePush, EventDelivery.COALESCE);
+
+    for (int i = 0; i < 5; i++) {
+      kuzzle.emitEvent(Event.offlineQueuePush, i);
+    }
+    assertEquals(Collections.<Object>singletonList(0), delivered);
+
+    for (int i = 0; i < 100 && delivered.size() < 2; i++) {
+      Thread.sleep(10);
+    }
+
+    assertEquals(2, delivered.size());
+    assertEquals(4, delivered.get(1));
+    assertEquals(3, kuzzle.getDroppedEventCount());
+  }
+
+  @Test
+  public void shouldCountTheEventsMergedPerWindow() throws URISyntaxException, InterruptedException {
+    final List<Object[]> payloads = Collections.synchronizedList(new ArrayList<Object[]>());
+    KuzzleExtend kuzzle = create();
+    kuzzle.setEventDelivery(Event.offlineQueuePush, EventDelivery.COALESCE);
+    kuzzle.addListener(Event.offlineQueuePush, new EventListener() {
+      @Override
+      public void trigger(Object... args) {
+        payloads.add(args);
+      }
+    });
+
+    for (int i = 0; i < 5; i++) {
+      kuzzle.emitEvent(Event.offlineQueuePush, i);
+    }
+
+    for (int i = 0; i < 100 && payloads.size() < 2; i++) {
+      Thread.sleep(10);
+    }
+
+    // the next window starts over
+    kuzzle.emitEvent(Event.offlineQueuePush, 5);
+    kuzzle.emitEvent(Event.offlineQueuePush, 6);
+
+    for (int i = 0; i < 100 && payloads.size() < 3; i++) {
+      Thread.sleep(10);
+    }
+
+    assertEquals(3, payloads.size());
+    assertArrayEquals(new Object[]{0, 1}, payloads.get(0));
+    assertArrayEquals(new Object[]{4, 4}, payloads.get(1));
+    assertArrayEquals(new Object[]{6, 2}, payloads.get(2));
+  }
+
+  @Test
+  public void shouldOverrideTheDeliveryModePerEvent() throws URISyntaxException {
+    KuzzleExtend kuzzle = create();
+    EventListener connected = mock(EventListener.class);
+    kuzzle.addListener(Event.connected, connected);
+    kuzzle.setEventDelivery(Event.offlineQueuePush, EventDelivery.ALL);
+
+    assertEquals(EventDelivery.ALL, kuzzle.getEventDelivery(Event.offlineQueuePush));
+    assertEquals(EventDelivery.DROP, kuzzle.getEventDelivery(Event.connected));
+
+    kuzzle.emitEvent(Event.offlineQueuePush, 0);
+    kuzzle.emitEvent(Event.offlineQueuePush, 1);
+    kuzzle.emitEvent(Event.connected);
+    kuzzle.emitEvent(Event.connected);
+
+    assertEquals(2, delivered.size());
+    verify(connected, times(1)).trigger();
+  }
+
+  @Test
+  public void shouldDeliverInOrderOnTheEventExecutor() throws URISyntaxException {
+    options.setEventDelivery(EventDelivery.ALL);
+    options.setEventExecutor(manualExecutor());
+    KuzzleExtend kuzzle = create();
+
+    for (int i = 0; i < 5; i++) {
+      kuzzle.emitEvent(Event.offlineQueuePush, i);
+    }
+
+    assertEquals(0, delivered.size());
+    assertEquals(1, tasks.size());
+
+    runTasks();
+    assertEquals(Arrays.<Object>asList(0, 1, 2, 3, 4), delivered);
+  }
+
+  @Test
+  public void shouldBoundTheEventBuffer() throws URISyntaxException {
+    options.setEventDelivery(EventDelivery.ALL);
+    options.setEventExecutor(manualExecutor());
+    options.setEventBufferSize(3);
+    KuzzleExtend kuzzle = create();
+
+    for (int i = 0; i < 5; i++) {
+      kuzzle.emitEvent(Event.offlineQueuePush, i);
+    }
+
+    runTasks();
+    assertEquals(Arrays.<Object>asList(0, 1, 2), delivered);
+    assertEquals(2, kuzzle.getDroppedEventCount());
+
+    kuzzle.emitEvent(Event.offlineQueuePush, 5);
+    runTasks();
+    assertEquals(4, delivered.size());
+  }
+
+  @Test
+  public void shouldDispatchToASnapshotOfTheListeners() throws URISyntaxException {
+    options.setEventDelivery(EventDelivery.ALL);
+    final KuzzleExtend kuzzle = create();
+    final EventListener removed = mock(EventListener.class);
+
+    // a listener removing another one during the dispatch
+    kuzzle.addListener(Event.connected, new EventListener() {
+      @Override
+      public void trigger(Object... args) {
+        kuzzle.removeListener(Event.connected, removed);
+      }
+    });
+    kuzzle.addListener(Event.connected, removed);
+
+    kuzzle.emitEvent(Event.connected);
+    verify(removed, times(1)).trigger();
+
+    kuzzle.emitEvent(Event.connected);
+    verify(removed, times(1)).trigger();
+  }
+
+  @Test
+  public void shouldRunListenersInInsertionOrder() throws URISyntaxException {
+    options.setEventDelivery(EventDelivery.ALL);
+    KuzzleExtend kuzzle = create();
+    final List<Integer> order = new ArrayList<>();
+
+    for (int i = 0; i < 20; i++) {
+      final int index = i;
+      kuzzle.addListener(Event.connected, new EventListener() {
+        @Override
+        public void trigger(Object... args) {
+          order.add(index);
+        }
+      });
+    }
+
+    kuzzle.emitEvent(Event.connected);
+
+    for (int i = 0; i < 20; i++) {
+      assertEquals(i, (int) order.get(i));
+    }
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void shouldRejectAnEmptyEventBuffer() {
+    options.setEventBufferSize(0);
+  }
+}
@@ -13,7 +13,7 @@ import io.kuzzle.sdk.listeners.EventListener;
 import io.kuzzle.sdk.listeners.ResponseListener;
 import io.kuzzle.sdk.util.EventList;
 import io.kuzzle.test.testUtils.KuzzleExtend;
-import tech.gusavila92.websocketclient.WebSocketClient;
+import io.kuzzle.sdk.transport.Transport;
 
 import static org.hamcrest.core.IsInstanceOf.instanceOf;
 import static org.junit.Assert.assertEquals;
@@ -22,7 +22,7 @@ import static org.mockito.Mockito.mock;
 
 public class eventSystemTest {
   private KuzzleExtend kuzzle;
-  private WebSocketClient s;
+  private Transport s;
   private ResponseListener listener;
 
   @Before
@@ -31,9 +31,9 @@ public class eventSystemTest {
     options.setConnect(Mode.MANUAL);
     options.setDefaultIndex("testIndex");
 
-    s = mock(WebSocketClient.class);
+    s = mock(Transport.class);
     kuzzle = new KuzzleExtend("localhost", options, null);
-    kuzzle.setSocket(s);
+    kuzzle.setTransport(s);
 
     listener = new ResponseListener<Object>() {
       @Override
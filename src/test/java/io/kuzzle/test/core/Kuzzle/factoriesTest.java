@@ -6,18 +6,21 @@ import org.junit.Test;
 
 import java.net.URISyntaxException;
 
+import io.kuzzle.sdk.core.Collection;
 import io.kuzzle.sdk.core.Options;
 import io.kuzzle.sdk.enums.Mode;
 import io.kuzzle.sdk.listeners.ResponseListener;
 import io.kuzzle.test.testUtils.KuzzleExtend;
-import tech.gusavila92.websocketclient.WebSocketClient;
+import io.kuzzle.sdk.transport.Transport;
 
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
 import static org.mockito.Mockito.mock;
 
 public class factoriesTest {
   private KuzzleExtend kuzzle;
-  private WebSocketClient s;
+  private Transport s;
   private ResponseListener listener;
 
   @Before
@@ -26,9 +29,9 @@ public class factoriesTest {
     options.setConnect(Mode.MANUAL);
     options.setDefaultIndex("testIndex");
 
-    s = mock(WebSocketClient.class);
+    s = mock(Transport.class);
     kuzzle = new KuzzleExtend("localhost", options, null);
-    kuzzle.setSocket(s);
+    kuzzle.setTransport(s);
 
     listener = new ResponseListener<Object>() {
       @Override
@@ -49,6 +52,23 @@ public class factoriesTest {
     assertEquals(kuzzle.collection("test2").getCollection(), "test2");
   }
 
+  @Test
+  public void testDataCollectionFactoryCache() {
+    Collection foo = kuzzle.collection("foo", "index");
+    Collection bar = kuzzle.collection("bar", "index");
+
+    assertSame(foo, kuzzle.collection("foo", "index"));
+    assertSame(bar, kuzzle.collection("bar", "index"));
+    assertSame(foo, kuzzle.collection("foo", "index"));
+    assertNotSame(foo, kuzzle.collection("foo", "other"));
+    assertEquals("testIndex", kuzzle.collection("foo").getIndex());
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void testIllegalCollection() {
+    kuzzle.collection(null, "index");
+  }
+
   @Test(expected = IllegalArgumentException.class)
   public void testIllegalDefaultIndex() {
     kuzzle.setSuperDefaultIndex(null);
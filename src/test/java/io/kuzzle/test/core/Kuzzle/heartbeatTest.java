@@ -0,0 +1,106 @@
+package io.kuzzle.test.core.Kuzzle;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import java.net.URISyntaxException;
+
+import io.kuzzle.sdk.core.Kuzzle;
+import io.kuzzle.sdk.core.Options;
+import io.kuzzle.sdk.enums.Event;
+import io.kuzzle.sdk.listeners.EventListener;
+import io.kuzzle.sdk.state.States;
+import io.kuzzle.sdk.transport.LoopbackTransport;
+import io.kuzzle.test.testUtils.LoopbackHelper;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.Matchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.timeout;
+import static org.mockito.Mockito.verify;
+
+public class heartbeatTest {
+  private LoopbackTransport transport;
+  private Options options;
+
+  @Before
+  public void setUp() {
+    transport = new LoopbackTransport();
+
+    options = LoopbackHelper.makeOptions(transport);
+    options.setHeartbeatInterval(20);
+    options.setHeartbeatTimeout(100);
+  }
+
+  @Test
+  public void shouldMeasureTheRoundTripTime() throws URISyntaxException, InterruptedException {
+    Kuzzle kuzzle = LoopbackHelper.connect(options);
+    assertEquals(-1, kuzzle.getRoundTripTime(), 0);
+
+    for (int i = 0; i < 100 && kuzzle.getRoundTripTime() < 0; i++) {
+      Thread.sleep(10);
+    }
+
+    assertTrue(kuzzle.getRoundTripTime() >= 0);
+    kuzzle.disconnect();
+  }
+
+  @Test
+  public void shouldReconnectAHalfOpenConnection() throws URISyntaxException {
+    Kuzzle kuzzle = LoopbackHelper.connect(options);
+    EventListener disconnected = mock(EventListener.class);
+    EventListener reconnected = mock(EventListener.class);
+    kuzzle.addListener(Event.disconnected, disconnected);
+    kuzzle.addListener(Event.reconnected, reconnected);
+
+    transport.setHalfOpen();
+
+    verify(disconnected, timeout(1000)).trigger();
+    verify(reconnected, timeout(1000)).trigger();
+    assertEquals(States.CONNECTED, kuzzle.getState());
+    kuzzle.disconnect();
+  }
+
+  @Test
+  public void shouldDisconnectWithoutAutoReconnect() throws URISyntaxException, InterruptedException {
+    options.setAutoReconnect(false);
+    Kuzzle kuzzle = LoopbackHelper.connect(options);
+    EventListener disconnected = mock(EventListener.class);
+    kuzzle.addListener(Event.disconnected, disconnected);
+
+    transport.setHalfOpen();
+
+    verify(disconnected, timeout(1000)).trigger();
+    Thread.sleep(50);
+    assertEquals(States.DISCONNECTED, kuzzle.getState());
+    assertFalse(transport.isOpen());
+  }
+
+  @Test
+  public void shouldNotSendHeartbeatsIfDisabled() throws URISyntaxException, InterruptedException {
+    options.setHeartbeatInterval(0);
+    Kuzzle kuzzle = LoopbackHelper.connect(options);
+    EventListener disconnected = mock(EventListener.class);
+    kuzzle.addListener(Event.disconnected, disconnected);
+
+    transport.setHalfOpen();
+    Thread.sleep(200);
+
+    assertEquals(-1, kuzzle.getRoundTripTime(), 0);
+    assertEquals(States.CONNECTED, kuzzle.getState());
+    verify(disconnected, never()).trigger(any());
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void shouldRejectANegativeInterval() {
+    options.setHeartbeatInterval(-1);
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void shouldRejectANullTimeout() {
+    options.setHeartbeatTimeout(0);
+  }
+}
@@ -12,7 +12,7 @@ import io.kuzzle.sdk.core.Options;
 import io.kuzzle.sdk.enums.Mode;
 import io.kuzzle.sdk.listeners.ResponseListener;
 import io.kuzzle.test.testUtils.KuzzleExtend;
-import tech.gusavila92.websocketclient.WebSocketClient;
+import io.kuzzle.sdk.transport.Transport;
 
 import static org.mockito.Matchers.eq;
 import static org.mockito.Mockito.mock;
@@ -22,7 +22,7 @@ public class kuzzleWebViewTest {
 
   private KuzzleExtend kuzzle;
   private KuzzleExtend.KuzzleWebViewClient webViewClient;
-  private WebSocketClient s;
+  private Transport s;
   private ResponseListener listener;
 
   @Before
@@ -31,9 +31,9 @@ public class kuzzleWebViewTest {
     options.setConnect(Mode.MANUAL);
     options.setDefaultIndex("testIndex");
 
-    s = mock(WebSocketClient.class);
+    s = mock(Transport.class);
     kuzzle = new KuzzleExtend("localhost", options, null);
-    kuzzle.setSocket(s);
+    kuzzle.setTransport(s);
     webViewClient = kuzzle.getKuzzleWebViewClient();
 
     listener = new ResponseListener<Object>() {
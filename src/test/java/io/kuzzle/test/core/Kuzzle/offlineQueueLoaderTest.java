@@ -19,10 +19,11 @@ import io.kuzzle.sdk.state.States;
 import io.kuzzle.sdk.util.OfflineQueueLoader;
 import io.kuzzle.sdk.util.QueryObject;
 import io.kuzzle.test.testUtils.KuzzleExtend;
-import tech.gusavila92.websocketclient.WebSocketClient;
+import io.kuzzle.sdk.transport.Transport;
 
 import static org.junit.Assert.assertEquals;
 import static org.mockito.Matchers.any;
+import static org.mockito.Matchers.anyLong;
 import static org.mockito.Matchers.eq;
 import static org.mockito.Mockito.doAnswer;
 import static org.mockito.Mockito.mock;
@@ -33,15 +34,15 @@ import static org.mockito.Mockito.verify;
 public class offlineQueueLoaderTest {
 
   private KuzzleExtend kuzzleExtend;
-  private WebSocketClient s;
+  private Transport s;
 
   @Before
   public void setUp() throws URISyntaxException {
     Options options = new Options();
     options.setConnect(Mode.MANUAL);
-    s = mock(WebSocketClient.class);
+    s = mock(Transport.class);
     KuzzleExtend extended = new KuzzleExtend("localhost", options, null);
-    extended.setSocket(s);
+    extended.setTransport(s);
     kuzzleExtend = extended;
   }
 
@@ -80,7 +81,7 @@ public class offlineQueueLoaderTest {
     kuzzleExtend.replayQueue();
     ArgumentCaptor argument = ArgumentCaptor.forClass(JSONObject.class);
     Thread.sleep(1000);
-    verify(kuzzleExtend, times(2)).emitRequest((JSONObject) argument.capture(), any(OnQueryDoneListener.class));
+    verify(kuzzleExtend, times(2)).emitRequest((JSONObject) argument.capture(), anyLong(), any(OnQueryDoneListener.class));
     assertEquals(((JSONObject) argument.getAllValues().get(0)).getString("action"), "bar");
     assertEquals(((JSONObject) argument.getAllValues().get(1)).getString("action"), "foo");
   }
@@ -223,7 +224,7 @@ public class offlineQueueLoaderTest {
     kuzzleExtend.replayQueue();
     ArgumentCaptor argument = ArgumentCaptor.forClass(JSONObject.class);
     Thread.sleep(1000);
-    verify(kuzzleExtend, times(1)).emitRequest((JSONObject) argument.capture(), any(OnQueryDoneListener.class));
+    verify(kuzzleExtend, times(1)).emitRequest((JSONObject) argument.capture(), anyLong(), any(OnQueryDoneListener.class));
     assertEquals(((JSONObject) argument.getAllValues().get(0)).getString("action"), "bar");
   }
 
@@ -0,0 +1,141 @@
+package io.kuzzle.test.core.Kuzzle;
+
+import org.json.JSONObject;
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.ArgumentCaptor;
+
+import java.net.URISyntaxException;
+import java.util.ArrayList;
+import java.util.List;
+
+import io.kuzzle.sdk.core.Kuzzle;
+import io.kuzzle.sdk.core.Options;
+import io.kuzzle.sdk.enums.Event;
+import io.kuzzle.sdk.enums.Mode;
+import io.kuzzle.sdk.listeners.EventListener;
+import io.kuzzle.sdk.listeners.OnQueryDoneListener;
+import io.kuzzle.sdk.state.States;
+import io.kuzzle.sdk.transport.LoopbackTransport;
+import io.kuzzle.test.testUtils.KuzzleExtend;
+
+import static org.junit.Assert.assertEquals;
+import static org.mockito.Matchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.timeout;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+public class offlineQueueReplayTest {
+  private final List<String> pending = new ArrayList<>();
+  private LoopbackTransport transport;
+  private KuzzleExtend kuzzle;
+
+  @Before
+  public void setUp() throws URISyntaxException {
+    // Server stand-in holding responses until the test releases them
+    transport = new LoopbackTransport(new LoopbackTransport.Handler() {
+      @Override
+      public void onRequest(String payload, LoopbackTransport transport) {
+        synchronized (pending) {
+          pending.add(payload);
+        }
+      }
+    });
+
+    Options options = new Options();
+    options.setConnect(Mode.MANUAL);
+    options.setTransport(transport);
+    options.setReplayInterval(0);
+    options.setReplayBatchSize(2);
+    options.setReplayWindow(5);
+
+    kuzzle = new KuzzleExtend("localhost", options, null);
+    kuzzle.connect();
+  }
+
+  private void queueRequests(int count, OnQueryDoneListener listener) {
+    kuzzle.setState(States.OFFLINE);
+    kuzzle.startQueuing();
+
+    for (int i = 0; i < count; i++) {
+      Kuzzle.QueryArgs args = new Kuzzle.QueryArgs();
+      args.controller = "foo";
+      args.action = "bar" + i;
+      kuzzle.query(args, new JSONObject(), new Options().setQueuable(true), listener);
+    }
+
+    kuzzle.setState(States.CONNECTED);
+  }
+
+  private int sentCount() throws InterruptedException {
+    // lets scheduled replay ticks run
+    Thread.sleep(100);
+
+    synchronized (pending) {
+      return pending.size();
+    }
+  }
+
+  private void respond(int count) {
+    List<String> payloads = new ArrayList<>();
+
+    synchronized (pending) {
+      payloads.addAll(pending.subList(0, count));
+      pending.subList(0, count).clear();
+    }
+
+    for (String payload : payloads) {
+      LoopbackTransport.ECHO.onRequest(payload, transport);
+    }
+  }
+
+  @Test
+  public void shouldKeepTheReplayWindowFull() throws InterruptedException {
+    OnQueryDoneListener listener = mock(OnQueryDoneListener.class);
+    queueRequests(12, listener);
+
+    kuzzle.replayQueue();
+    assertEquals(5, sentCount());
+
+    respond(2);
+    assertEquals(5, sentCount());
+    verify(listener, times(2)).onSuccess(any(JSONObject.class));
+
+    respond(5);
+    assertEquals(5, sentCount());
+
+    respond(5);
+    assertEquals(0, sentCount());
+    verify(listener, times(12)).onSuccess(any(JSONObject.class));
+    assertEquals(0, kuzzle.getOfflineQueue().size());
+  }
+
+  @Test
+  public void shouldReportTheReplayThroughput() throws Exception {
+    EventListener replayed = mock(EventListener.class);
+    kuzzle.addListener(Event.offlineQueueReplayed, replayed);
+    queueRequests(3, null);
+
+    kuzzle.replayQueue();
+    assertEquals(3, sentCount());
+    respond(3);
+
+    ArgumentCaptor<Object> argument = ArgumentCaptor.forClass(Object.class);
+    verify(replayed, timeout(1000)).trigger(argument.capture());
+    assertEquals(3, ((JSONObject) argument.getValue()).getInt("count"));
+  }
+
+  @Test
+  public void shouldPopQueuedRequestsInBatches() throws InterruptedException {
+    EventListener popped = mock(EventListener.class);
+    kuzzle.addListener(Event.offlineQueuePop, popped);
+    queueRequests(4, null);
+
+    kuzzle.replayQueue();
+
+    ArgumentCaptor<Object> argument = ArgumentCaptor.forClass(Object.class);
+    verify(popped).trigger(argument.capture(), argument.capture());
+    assertEquals(2, argument.getAllValues().size());
+  }
+}
@@ -7,19 +7,27 @@ import org.junit.Test;
 import org.mockito.ArgumentCaptor;
 
 import java.net.URISyntaxException;
+import java.util.Iterator;
 
+import io.kuzzle.sdk.core.Collection;
 import io.kuzzle.sdk.core.Kuzzle;
 import io.kuzzle.sdk.core.Options;
 import io.kuzzle.sdk.enums.Mode;
 import io.kuzzle.sdk.listeners.OnQueryDoneListener;
 import io.kuzzle.sdk.state.States;
+import io.kuzzle.sdk.util.QueryObject;
 import io.kuzzle.sdk.util.QueueFilter;
+import io.kuzzle.sdk.util.RequestEnvelope;
+import io.kuzzle.sdk.util.RequestIdGenerator;
 import io.kuzzle.test.testUtils.KuzzleExtend;
-import tech.gusavila92.websocketclient.WebSocketClient;
+import io.kuzzle.sdk.transport.Transport;
 
 import static junit.framework.Assert.assertNotNull;
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertSame;
 import static org.mockito.Matchers.any;
+import static org.mockito.Matchers.anyLong;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.spy;
@@ -28,7 +36,7 @@ import static org.mockito.Mockito.verify;
 
 public class queryTest {
   private KuzzleExtend kuzzle;
-  private WebSocketClient socket = mock(WebSocketClient.class);
+  private Transport socket = mock(Transport.class);
   private Kuzzle.QueryArgs args;
 
   @Before
@@ -38,7 +46,7 @@ public class queryTest {
 
     kuzzle = new KuzzleExtend("localhost", options, null);
     kuzzle.setState(States.CONNECTED);
-    kuzzle.setSocket(socket);
+    kuzzle.setTransport(socket);
 
     args = new Kuzzle.QueryArgs();
     args.controller = "foo";
@@ -186,6 +194,91 @@ public class queryTest {
     assertEquals(_volatile.getString("sdkVersion"), kuzzle.getSdkVersion());
   }
 
+  @Test
+  public void shouldRebuildTheEnvelopeWhenGlobalDataChange() throws JSONException {
+    kuzzle.setVolatile(new JSONObject().put("foo", "foo"));
+    kuzzle.setHeaders(new JSONObject().put("bar", "bar"));
+    kuzzle.query(args, new JSONObject());
+
+    kuzzle.setVolatile(new JSONObject().put("foo", "qux"));
+    kuzzle.setHeaders(new JSONObject().put("baz", "baz"));
+    kuzzle.query(args, new JSONObject());
+
+    ArgumentCaptor<String> argument = ArgumentCaptor.forClass(String.class);
+    verify(socket, times(2)).send(argument.capture());
+
+    JSONObject first = new JSONObject(argument.getAllValues().get(0));
+    JSONObject second = new JSONObject(argument.getAllValues().get(1));
+    assertEquals("foo", first.getJSONObject("volatile").getString("foo"));
+    assertEquals("qux", second.getJSONObject("volatile").getString("foo"));
+    assertEquals("bar", second.getString("bar"));
+    assertEquals("baz", second.getString("baz"));
+  }
+
+  @Test
+  public void shouldReturnCopiesOfTheGlobalData() throws JSONException {
+    kuzzle.setVolatile(new JSONObject().put("foo", "foo"));
+    kuzzle.setHeaders(new JSONObject().put("bar", "bar"));
+    RequestEnvelope envelope = kuzzle.getEnvelope();
+
+    kuzzle.getVolatile().put("foo", "qux");
+    kuzzle.getHeaders().put("bar", "qux");
+    new Collection(kuzzle, "collection", "index");
+    kuzzle.query(args, new JSONObject());
+
+    // reading the global data keeps the cached envelope
+    assertSame(envelope, kuzzle.getEnvelope());
+
+    ArgumentCaptor<String> argument = ArgumentCaptor.forClass(String.class);
+    verify(socket).send(argument.capture());
+
+    JSONObject request = new JSONObject(argument.getValue());
+    assertEquals("foo", request.getJSONObject("volatile").getString("foo"));
+    assertEquals("bar", request.getString("bar"));
+  }
+
+  @Test
+  public void shouldNotShareVolatileDataBetweenQueuedRequests() throws JSONException {
+    kuzzle.setState(States.CONNECTING);
+    kuzzle.query(args, new JSONObject());
+    kuzzle.query(args, new JSONObject());
+
+    Iterator<QueryObject> queued = kuzzle.getOfflineQueue().iterator();
+    queued.next().getQuery().getJSONObject("volatile").put("foo", "bar");
+    assertFalse(queued.next().getQuery().getJSONObject("volatile").has("foo"));
+
+    // requests sent afterwards are left alone too
+    kuzzle.setState(States.CONNECTED);
+    kuzzle.query(args, new JSONObject());
+
+    ArgumentCaptor<String> argument = ArgumentCaptor.forClass(String.class);
+    verify(socket).send(argument.capture());
+    assertFalse(new JSONObject(argument.getValue()).getJSONObject("volatile").has("foo"));
+  }
+
+  @Test
+  public void shouldUseTheRequestIdGenerator() throws URISyntaxException, JSONException {
+    Options options = new Options();
+    options.setConnect(Mode.MANUAL);
+    options.setRequestIdGenerator(new RequestIdGenerator() {
+      @Override
+      public String next() {
+        return "foo";
+      }
+    });
+
+    kuzzle = new KuzzleExtend("localhost", options, null);
+    kuzzle.setState(States.CONNECTED);
+    kuzzle.setTransport(socket);
+    kuzzle.query(args, new JSONObject());
+    kuzzle.query(args, new JSONObject().put("requestId", "bar"));
+
+    ArgumentCaptor<String> argument = ArgumentCaptor.forClass(String.class);
+    verify(socket, times(2)).send(argument.capture());
+    assertEquals("foo", new JSONObject(argument.getAllValues().get(0)).getString("requestId"));
+    assertEquals("bar", new JSONObject(argument.getAllValues().get(1)).getString("requestId"));
+  }
+
   @Test
   public void shouldAddRefresh() throws JSONException {
     String optionsRefresh = "foo";
@@ -220,7 +313,7 @@ public class queryTest {
     kuzzle.setState(States.CONNECTED);
     KuzzleExtend kuzzleSpy = spy(kuzzle);
     kuzzleSpy.query(args, new JSONObject(), opts, mock(OnQueryDoneListener.class));
-    verify(kuzzleSpy).emitRequest(any(JSONObject.class), any(OnQueryDoneListener.class));
+    verify(kuzzleSpy).emitRequest(any(JSONObject.class), anyLong(), any(OnQueryDoneListener.class));
     assertEquals(kuzzleSpy.getOfflineQueue().size(), 0);
   }
 
@@ -232,7 +325,7 @@ public class queryTest {
 
     KuzzleExtend kuzzleSpy = spy(kuzzle);
     kuzzleSpy.query(args, new JSONObject(), opts, mock(OnQueryDoneListener.class));
-    verify(kuzzleSpy, never()).emitRequest(any(JSONObject.class), any(OnQueryDoneListener.class));
+    verify(kuzzleSpy, never()).emitRequest(any(JSONObject.class), anyLong(), any(OnQueryDoneListener.class));
     assertEquals(kuzzleSpy.getOfflineQueue().size(), 1);
   }
 
@@ -252,7 +345,7 @@ public class queryTest {
 
     KuzzleExtend kuzzleSpy = spy(kuzzle);
     kuzzleSpy.query(args, new JSONObject(), opts, mock(OnQueryDoneListener.class));
-    verify(kuzzleSpy, never()).emitRequest(any(JSONObject.class), any(OnQueryDoneListener.class));
+    verify(kuzzleSpy, never()).emitRequest(any(JSONObject.class), anyLong(), any(OnQueryDoneListener.class));
     verify(filter).filter(any(JSONObject.class));
     assertEquals(kuzzleSpy.getOfflineQueue().size(), 0);
   }
@@ -265,7 +358,7 @@ public class queryTest {
 
     KuzzleExtend kuzzleSpy = spy(kuzzle);
     kuzzleSpy.query(args, new JSONObject(), opts, listener);
-    verify(kuzzleSpy, never()).emitRequest(any(JSONObject.class), any(OnQueryDoneListener.class));
+    verify(kuzzleSpy, never()).emitRequest(any(JSONObject.class), anyLong(), any(OnQueryDoneListener.class));
     verify(listener).onError(any(JSONObject.class));
   }
 
@@ -278,7 +371,7 @@ public class queryTest {
 
     KuzzleExtend kuzzleSpy = spy(kuzzle);
     kuzzleSpy.query(args, new JSONObject(), opts, listener);
-    verify(kuzzleSpy, never()).emitRequest(any(JSONObject.class), any(OnQueryDoneListener.class));
+    verify(kuzzleSpy, never()).emitRequest(any(JSONObject.class), anyLong(), any(OnQueryDoneListener.class));
     verify(listener).onError(any(JSONObject.class));
   }
 }
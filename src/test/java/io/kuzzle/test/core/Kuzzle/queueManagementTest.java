@@ -18,7 +18,7 @@ import io.kuzzle.sdk.state.States;
 import io.kuzzle.sdk.util.QueryObject;
 import io.kuzzle.test.testUtils.KuzzleExtend;
 import io.kuzzle.test.testUtils.QueryArgsHelper;
-import tech.gusavila92.websocketclient.WebSocketClient;
+import io.kuzzle.sdk.transport.Transport;
 
 import static org.junit.Assert.assertEquals;
 import static org.mockito.Matchers.any;
@@ -31,7 +31,7 @@ import static org.mockito.Mockito.verify;
 
 public class queueManagementTest {
   private KuzzleExtend kuzzle;
-  private WebSocketClient s;
+  private Transport s;
   private ResponseListener listener;
 
   @Before
@@ -40,9 +40,9 @@ public class queueManagementTest {
     options.setConnect(Mode.MANUAL);
     options.setDefaultIndex("testIndex");
 
-    s = mock(WebSocketClient.class);
+    s = mock(Transport.class);
     kuzzle = new KuzzleExtend("localhost", options, null);
-    kuzzle.setSocket(s);
+    kuzzle.setTransport(s);
 
     listener = new ResponseListener<Object>() {
       @Override
@@ -90,13 +90,12 @@ public class queueManagementTest {
     options.setConnect(Mode.MANUAL);
     options.setQueuable(false);
     KuzzleExtend extended = new KuzzleExtend("localhost", options, null);
-    extended.setSocket(s);
+    extended.setTransport(s);
     extended.setState(States.CONNECTED);
 
     doAnswer(new Answer() {
       @Override
       public Object answer(InvocationOnMock invocation) throws Throwable {
-        s.onCloseReceived();
         return s;
       }
     }).when(s).close();
@@ -118,7 +117,6 @@ public class queueManagementTest {
     doAnswer(new Answer() {
       @Override
       public Object answer(InvocationOnMock invocation) throws Throwable {
-        s.onCloseReceived();
         return s;
       }
     }).when(s).close();
@@ -146,12 +144,11 @@ public class queueManagementTest {
     options.setConnect(Mode.MANUAL);
     options.setOfflineMode(Mode.AUTO);
     kuzzle = new KuzzleExtend("localhost", options, null);
-    kuzzle.setSocket(s);
+    kuzzle.setTransport(s);
 
     doAnswer(new Answer() {
       @Override
       public Object answer(InvocationOnMock invocation) throws Throwable {
-        s.onCloseReceived();
         return s;
       }
     }).when(s).close();
@@ -175,12 +172,11 @@ public class queueManagementTest {
     options.setConnect(Mode.MANUAL);
     options.setOfflineMode(Mode.AUTO);
     kuzzle = new KuzzleExtend("localhost", options, null);
-    kuzzle.setSocket(s);
+    kuzzle.setTransport(s);
 
     doAnswer(new Answer() {
       @Override
       public Object answer(InvocationOnMock invocation) throws Throwable {
-        s.onCloseReceived();
         return s;
       }
     }).when(s).close();
@@ -197,7 +193,6 @@ public class queueManagementTest {
     doAnswer(new Answer() {
       @Override
       public Object answer(InvocationOnMock invocation) throws Throwable {
-        s.onOpen();
         return s;
       }
     }).when(s).connect();
@@ -0,0 +1,125 @@
+package io.kuzzle.test.core.Kuzzle;
+
+import org.json.JSONObject;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.net.URISyntaxException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import io.kuzzle.sdk.core.Kuzzle;
+import io.kuzzle.sdk.core.Options;
+import io.kuzzle.sdk.enums.Event;
+import io.kuzzle.sdk.enums.Mode;
+import io.kuzzle.sdk.listeners.EventListener;
+import io.kuzzle.sdk.state.States;
+import io.kuzzle.sdk.transport.LoopbackTransport;
+import io.kuzzle.sdk.transport.ReconnectionPolicy;
+import io.kuzzle.sdk.transport.TransportListener;
+
+import static org.junit.Assert.assertEquals;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+public class reconnectionTest {
+  private final List<String> received = new ArrayList<>();
+  private TransportListener listener;
+  private LoopbackTransport transport;
+  private Options options;
+
+  @Before
+  public void setUp() {
+    transport = new LoopbackTransport(new LoopbackTransport.Handler() {
+      @Override
+      public void onRequest(String payload, LoopbackTransport transport) {
+        synchronized (received) {
+          received.add(payload);
+        }
+        LoopbackTransport.ECHO.onRequest(payload, transport);
+      }
+    }) {
+      @Override
+      public void setListener(TransportListener transportListener) {
+        super.setListener(transportListener);
+        listener = transportListener;
+      }
+    };
+
+    options = new Options();
+    options.setConnect(Mode.MANUAL);
+    options.setTransport(transport);
+    options.setAutoQueue(true);
+    options.setAutoReplay(true);
+    options.setHeartbeatInterval(0);
+  }
+
+  private int receivedCount() {
+    synchronized (received) {
+      return received.size();
+    }
+  }
+
+  private Kuzzle queueRequestWhileOffline() throws URISyntaxException {
+    Kuzzle kuzzle = new Kuzzle("localhost", options);
+    kuzzle.connect();
+    transport.dropConnection();
+    assertEquals(States.OFFLINE, kuzzle.getState());
+
+    Kuzzle.QueryArgs args = new Kuzzle.QueryArgs();
+    args.controller = "foo";
+    args.action = "bar";
+    kuzzle.query(args, new JSONObject());
+    return kuzzle;
+  }
+
+  @Test
+  public void shouldStaggerTheReplayOnceReconnected() throws URISyntaxException, InterruptedException {
+    options.setReconnectionPolicy(new ReconnectionPolicy(0, 0, 1, false, 400, new Random() {
+      @Override
+      public double nextDouble() {
+        return 0.5;
+      }
+    }));
+    Kuzzle kuzzle = queueRequestWhileOffline();
+    EventListener reconnected = mock(EventListener.class);
+    kuzzle.addListener(Event.reconnected, reconnected);
+
+    transport.connect();
+    verify(reconnected, times(1)).trigger();
+    assertEquals(0, receivedCount());
+
+    for (int i = 0; i < 100 && receivedCount() == 0; i++) {
+      Thread.sleep(10);
+    }
+    assertEquals(1, receivedCount());
+  }
+
+  @Test
+  public void shouldReplayRightAwayWithoutResumeJitter() throws URISyntaxException {
+    queueRequestWhileOffline();
+
+    transport.connect();
+    assertEquals(1, receivedCount());
+  }
+
+  @Test
+  public void shouldStayOfflineOnFailedReconnectionAttempts() throws URISyntaxException {
+    Kuzzle kuzzle = queueRequestWhileOffline();
+    EventListener reconnected = mock(EventListener.class);
+    EventListener connected = mock(EventListener.class);
+    kuzzle.addListener(Event.reconnected, reconnected);
+    kuzzle.addListener(Event.connected, connected);
+
+    listener.onError(new IOException("connection refused"));
+    assertEquals(States.OFFLINE, kuzzle.getState());
+
+    transport.connect();
+    verify(reconnected, times(1)).trigger();
+    verify(connected, times(0)).trigger();
+    assertEquals(1, receivedCount());
+  }
+}
@@ -0,0 +1,79 @@
+package io.kuzzle.test.core.Kuzzle;
+
+import org.json.JSONException;
+import org.json.JSONObject;
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.ArgumentCaptor;
+
+import java.net.URISyntaxException;
+
+import io.kuzzle.sdk.core.Kuzzle;
+import io.kuzzle.sdk.core.Options;
+import io.kuzzle.sdk.enums.Mode;
+import io.kuzzle.sdk.listeners.OnQueryDoneListener;
+import io.kuzzle.sdk.transport.LoopbackTransport;
+
+import static org.junit.Assert.assertEquals;
+import static org.mockito.Matchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.timeout;
+import static org.mockito.Mockito.verify;
+
+public class requestTimeoutTest {
+  private Kuzzle kuzzle;
+  private Kuzzle.QueryArgs args;
+  private OnQueryDoneListener listener;
+
+  @Before
+  public void setUp() throws URISyntaxException {
+    // Server stand-in never answering
+    LoopbackTransport transport = new LoopbackTransport(new LoopbackTransport.Handler() {
+      @Override
+      public void onRequest(String payload, LoopbackTransport transport) {
+      }
+    });
+
+    Options options = new Options();
+    options.setConnect(Mode.MANUAL);
+    options.setTransport(transport);
+    options.setRequestTimeout(100L);
+
+    kuzzle = new Kuzzle("localhost", options);
+    kuzzle.connect();
+
+    args = new Kuzzle.QueryArgs();
+    args.controller = "foo";
+    args.action = "bar";
+    listener = mock(OnQueryDoneListener.class);
+  }
+
+  @Test
+  public void shouldUseTheDefaultTimeout() throws URISyntaxException {
+    Options options = new Options();
+    options.setConnect(Mode.MANUAL);
+
+    assertEquals(Kuzzle.DEFAULT_REQUEST_TIMEOUT, new Kuzzle("localhost", options).getRequestTimeout());
+    assertEquals(100, kuzzle.getRequestTimeout());
+  }
+
+  @Test
+  public void shouldFailExpiredRequests() throws JSONException {
+    ArgumentCaptor<JSONObject> argument = ArgumentCaptor.forClass(JSONObject.class);
+
+    kuzzle.query(args, new JSONObject(), listener);
+
+    verify(listener, timeout(2000)).onError(argument.capture());
+    verify(listener, never()).onSuccess(any(JSONObject.class));
+    assertEquals(408, argument.getValue().getInt("status"));
+  }
+
+  @Test
+  public void shouldApplyPerRequestTimeouts() throws JSONException, InterruptedException {
+    kuzzle.query(args, new JSONObject(), new Options().setRequestTimeout(0L), listener);
+
+    Thread.sleep(400);
+    verify(listener, never()).onError(any(JSONObject.class));
+  }
+}
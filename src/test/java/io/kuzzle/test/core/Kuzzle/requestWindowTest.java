@@ -0,0 +1,146 @@
+package io.kuzzle.test.core.Kuzzle;
+
+import org.json.JSONException;
+import org.json.JSONObject;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.net.URISyntaxException;
+import java.util.ArrayList;
+import java.util.List;
+
+import io.kuzzle.sdk.core.Kuzzle;
+import io.kuzzle.sdk.core.Options;
+import io.kuzzle.sdk.listeners.OnQueryDoneListener;
+import io.kuzzle.sdk.transport.LoopbackTransport;
+import io.kuzzle.test.testUtils.LoopbackHelper;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.mockito.Matchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+public class requestWindowTest {
+  private final List<String> pending = new ArrayList<>();
+  private LoopbackTransport transport;
+  private Options options;
+  private Kuzzle.QueryArgs args;
+
+  @Before
+  public void setUp() {
+    // Server stand-in holding responses until the test releases them
+    transport = new LoopbackTransport(new LoopbackTransport.Handler() {
+      @Override
+      public void onRequest(String payload, LoopbackTransport transport) {
+        pending.add(payload);
+      }
+    });
+
+    options = LoopbackHelper.makeOptions(transport);
+    options.setRequestWindow(3);
+    options.setMaxRequestWindow(4);
+
+    args = new Kuzzle.QueryArgs();
+    args.controller = "foo";
+    args.action = "bar";
+  }
+
+  private void respond(int count, int status) throws JSONException {
+    for (int i = 0; i < count; i++) {
+      String requestId = new JSONObject(pending.remove(0)).getString("requestId");
+      JSONObject response = new JSONObject().put("requestId", requestId).put("room", requestId).put("status", status);
+
+      if (status == 200) {
+        response.put("error", JSONObject.NULL).put("result", new JSONObject());
+      } else {
+        response.put("error", new JSONObject().put("status", status).put("message", "Too many requests"));
+      }
+
+      transport.receive(response.toString());
+    }
+  }
+
+  @Test
+  public void shouldHoldRequestsExceedingTheWindow() throws URISyntaxException, JSONException {
+    Kuzzle kuzzle = LoopbackHelper.connect(options);
+    OnQueryDoneListener listener = mock(OnQueryDoneListener.class);
+
+    for (int i = 0; i < 10; i++) {
+      kuzzle.query(args, new JSONObject().put("body", new JSONObject().put("index", i)), listener);
+    }
+
+    assertEquals(3, pending.size());
+    assertEquals(7, kuzzle.getPendingRequestsCount());
+    assertEquals(0, kuzzle.getRequestWindow().getAvailable());
+
+    respond(1, 200);
+    assertEquals(3, pending.size());
+    assertEquals(6, kuzzle.getPendingRequestsCount());
+    assertEquals(1, new JSONObject(pending.get(2)).getJSONObject("body").getInt("index") - 2);
+
+    while (!pending.isEmpty()) {
+      respond(1, 200);
+    }
+
+    verify(listener, times(10)).onSuccess(any(JSONObject.class));
+    assertEquals(0, kuzzle.getPendingRequestsCount());
+    assertEquals(4, kuzzle.getRequestWindow().getLimit());
+  }
+
+  @Test
+  public void shouldShrinkTheWindowOnTooManyRequestsErrors() throws URISyntaxException, JSONException {
+    Kuzzle kuzzle = LoopbackHelper.connect(options);
+    OnQueryDoneListener listener = mock(OnQueryDoneListener.class);
+
+    for (int i = 0; i < 5; i++) {
+      kuzzle.query(args, new JSONObject(), listener);
+    }
+
+    respond(1, 429);
+    verify(listener).onError(any(JSONObject.class));
+    assertEquals(1, kuzzle.getRequestWindow().getLimit());
+    assertEquals(2, pending.size());
+  }
+
+  @Test
+  public void shouldDiscardHeldRequestsOnDisconnect() throws URISyntaxException, JSONException {
+    Kuzzle kuzzle = LoopbackHelper.connect(options);
+    OnQueryDoneListener listener = mock(OnQueryDoneListener.class);
+
+    for (int i = 0; i < 5; i++) {
+      kuzzle.query(args, new JSONObject(), listener);
+    }
+
+    kuzzle.disconnect();
+    verify(listener, times(2)).onError(any(JSONObject.class));
+    assertEquals(0, kuzzle.getPendingRequestsCount());
+  }
+
+  @Test
+  public void shouldSendRequestsRightAwayByDefault() throws URISyntaxException, JSONException {
+    Kuzzle kuzzle = LoopbackHelper.connect(LoopbackHelper.makeOptions(transport));
+
+    for (int i = 0; i < 50; i++) {
+      kuzzle.query(args, new JSONObject(), mock(OnQueryDoneListener.class));
+    }
+
+    assertNull(kuzzle.getRequestWindow());
+    assertEquals(50, pending.size());
+    assertEquals(0, kuzzle.getPendingRequestsCount());
+  }
+
+  @Test
+  public void shouldBeDisabledWithAnEmptyWindow() throws URISyntaxException, JSONException {
+    options.setRequestWindow(0);
+    Kuzzle kuzzle = LoopbackHelper.connect(options);
+
+    for (int i = 0; i < 10; i++) {
+      kuzzle.query(args, new JSONObject(), mock(OnQueryDoneListener.class));
+    }
+
+    assertNull(kuzzle.getRequestWindow());
+    assertEquals(10, pending.size());
+  }
+}
@@ -0,0 +1,259 @@
+package io.kuzzle.test.core.Kuzzle;
+
+import org.json.JSONException;
+import org.json.JSONObject;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.net.URISyntaxException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+
+import io.kuzzle.sdk.core.Collection;
+import io.kuzzle.sdk.core.Kuzzle;
+import io.kuzzle.sdk.core.Options;
+import io.kuzzle.sdk.core.Room;
+import io.kuzzle.sdk.enums.Event;
+import io.kuzzle.sdk.enums.Mode;
+import io.kuzzle.sdk.listeners.EventListener;
+import io.kuzzle.sdk.listeners.ResponseListener;
+import io.kuzzle.sdk.responses.NotificationResponse;
+import io.kuzzle.sdk.transport.LoopbackTransport;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertTrue;
+
+public class resubscriptionTest {
+  private final List<String> actions = Collections.synchronizedList(new ArrayList<String>());
+  private final List<JSONObject> held = new ArrayList<>();
+  private final List<JSONObject> resubscribed = Collections.synchronizedList(new ArrayList<JSONObject>());
+  private volatile boolean hold = false;
+  private final ScheduledExecutorService scheduler = Executors.newScheduledThreadPool(2);
+  private LoopbackTransport transport;
+  private Options options;
+  private Kuzzle kuzzle;
+  private Collection collection;
+
+  private final ResponseListener<NotificationResponse> listener = new ResponseListener<NotificationResponse>() {
+    @Override
+    public void onSuccess(NotificationResponse response) {
+    }
+
+    @Override
+    public void onError(JSONObject error) {
+    }
+  };
+
+  @Before
+  public void setUp() {
+    // Server stand-in: subscription responses are held back on demand
+    transport = new LoopbackTransport(new LoopbackTransport.Handler() {
+      @Override
+      public void onRequest(String payload, LoopbackTransport transport) {
+        try {
+          JSONObject request = new JSONObject(payload);
+          String action = request.getString("action");
+          JSONObject result = new JSONObject();
+
+          actions.add(action);
+
+          if (action.equals("subscribe")) {
+            String roomId = request.getJSONObject("body").getJSONObject("equals").getString("name");
+            result.put("roomId", roomId).put("channel", roomId + "-all");
+          }
+
+          JSONObject response = new JSONObject()
+            .put("requestId", request.getString("requestId"))
+            .put("status", 200)
+            .put("error", JSONObject.NULL)
+            .put("result", result);
+
+          if (hold && action.equals("subscribe")) {
+            synchronized (held) {
+              held.add(response);
+            }
+          } else {
+            transport.reply(response.toString());
+          }
+        } catch (JSONException e) {
+          throw new RuntimeException(e);
+        }
+      }
+    });
+
+    options = new Options();
+    options.setConnect(Mode.MANUAL);
+    options.setTransport(transport);
+    options.setHeartbeatInterval(0);
+    options.setScheduler(scheduler);
+    // held responses would otherwise shrink the adaptive request window
+    options.setRequestWindow(0);
+  }
+
+  @After
+  public void tearDown() {
+    if (kuzzle != null) {
+      kuzzle.disconnect();
+    }
+
+    scheduler.shutdownNow();
+  }
+
+  private void connect(final int concurrency) throws URISyntaxException {
+    options.setResubscribeConcurrency(concurrency);
+    kuzzle = new Kuzzle("localhost", options);
+    kuzzle.connect();
+    kuzzle.addListener(Event.resubscribed, new EventListener() {
+      @Override
+      public void trigger(Object... args) {
+        resubscribed.add((JSONObject) args[0]);
+      }
+    });
+    collection = new Collection(kuzzle, "collection", "index");
+  }
+
+  private List<Room> subscribe(final String... names) throws JSONException, InterruptedException {
+    List<Room> rooms = new ArrayList<>();
+
+    for (String name : names) {
+      Room room = new Room(collection);
+      room.renew(new JSONObject().put("equals", new JSONObject().put("name", name)), listener, null);
+      rooms.add(room);
+    }
+
+    for (Room room : rooms) {
+      for (int i = 0; i < 200 && room.getRoomId() == null; i++) {
+        Thread.sleep(10);
+      }
+      assertNotNull(room.getRoomId());
+    }
+
+    return rooms;
+  }
+
+  private void reconnect() {
+    transport.dropConnection();
+    hold = true;
+    actions.clear();
+    transport.connect();
+  }
+
+  private int awaitHeld(final int count) throws InterruptedException {
+    for (int i = 0; i < 500; i++) {
+      synchronized (held) {
+        if (held.size() >= count) {
+          return held.size();
+        }
+      }
+      Thread.sleep(10);
+    }
+
+    synchronized (held) {
+      return held.size();
+    }
+  }
+
+  private void release() {
+    JSONObject response;
+
+    synchronized (held) {
+      response = held.remove(0);
+    }
+
+    transport.reply(response.toString());
+  }
+
+  @Test
+  public void shouldLimitConcurrentRenewals() throws URISyntaxException, JSONException, InterruptedException {
+    connect(2);
+    subscribe("a", "b", "c", "d", "e");
+
+    reconnect();
+    assertEquals(2, awaitHeld(2));
+    Thread.sleep(50);
+    assertEquals(2, awaitHeld(2));
+
+    for (int released = 0; released < 5; released++) {
+      assertEquals(Math.min(2, 5 - released), awaitHeld(Math.min(2, 5 - released)));
+      release();
+    }
+
+    for (int i = 0; i < 200 && resubscribed.isEmpty(); i++) {
+      Thread.sleep(10);
+    }
+
+    assertEquals(1, resubscribed.size());
+    assertEquals(5, resubscribed.get(0).getInt("rooms"));
+    assertEquals(0, resubscribed.get(0).getInt("failed"));
+    assertEquals(resubscribed.get(0).getLong("duration"), kuzzle.getResubscriptionLatency());
+  }
+
+  @Test
+  public void shouldNotUnsubscribeAfterAConnectionLoss() throws URISyntaxException, JSONException, InterruptedException {
+    connect(8);
+    List<Room> rooms = subscribe("a", "b");
+
+    hold = false;
+    transport.dropConnection();
+    actions.clear();
+    transport.connect();
+
+    for (Room room : rooms) {
+      for (int i = 0; i < 200 && room.getRoomId() == null; i++) {
+        Thread.sleep(10);
+      }
+      assertNotNull(room.getRoomId());
+    }
+
+    assertEquals(2, Collections.frequency(actions, "subscribe"));
+    assertFalse(actions.contains("unsubscribe"));
+  }
+
+  @Test
+  public void shouldRenewRecentlyNotifiedRoomsFirst() throws URISyntaxException, JSONException, InterruptedException {
+    connect(1);
+    subscribe("a", "b", "c");
+
+    transport.receive(new JSONObject()
+      .put("room", "b-all")
+      .put("type", "document")
+      .put("status", 200)
+      .put("index", "index")
+      .put("collection", "collection")
+      .put("controller", "document")
+      .put("action", "create")
+      .put("scope", "in")
+      .put("state", "done")
+      .put("requestId", "foo")
+      .put("result", new JSONObject().put("_id", "bar").put("_source", new JSONObject()))
+      .toString());
+
+    reconnect();
+    assertEquals(1, awaitHeld(1));
+
+    synchronized (held) {
+      assertEquals("b", held.get(0).getJSONObject("result").getString("roomId"));
+    }
+  }
+
+  @Test
+  public void shouldNotReportWithoutRooms() throws URISyntaxException, InterruptedException {
+    connect(8);
+    reconnect();
+    Thread.sleep(50);
+
+    assertTrue(resubscribed.isEmpty());
+    assertEquals(-1, kuzzle.getResubscriptionLatency());
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void shouldRejectInvalidConcurrency() {
+    options.setResubscribeConcurrency(0);
+  }
+}
@@ -0,0 +1,83 @@
+package io.kuzzle.test.core.Kuzzle;
+
+import org.json.JSONObject;
+import org.junit.Test;
+
+import java.net.URISyntaxException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+
+import io.kuzzle.sdk.core.Kuzzle;
+import io.kuzzle.sdk.core.Options;
+import io.kuzzle.sdk.enums.Mode;
+import io.kuzzle.sdk.listeners.OnQueryDoneListener;
+import io.kuzzle.sdk.transport.LoopbackTransport;
+import io.kuzzle.test.testUtils.KuzzleExtend;
+
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.Matchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.timeout;
+import static org.mockito.Mockito.verify;
+
+public class schedulerTest {
+  private LoopbackTransport silentTransport() {
+    return new LoopbackTransport(new LoopbackTransport.Handler() {
+      @Override
+      public void onRequest(String payload, LoopbackTransport transport) {
+      }
+    });
+  }
+
+  @Test
+  public void shouldShareAndReleaseItsOwnScheduler() throws URISyntaxException {
+    Options options = new Options();
+    options.setConnect(Mode.MANUAL);
+    options.setTransport(silentTransport());
+
+    KuzzleExtend kuzzle = new KuzzleExtend("localhost", options, null);
+    kuzzle.connect();
+
+    ScheduledExecutorService scheduler = kuzzle.getScheduler();
+    assertSame(scheduler, kuzzle.getScheduler());
+
+    kuzzle.disconnect();
+    assertTrue(scheduler.isShutdown());
+    assertNotSame(scheduler, kuzzle.getScheduler());
+  }
+
+  @Test
+  public void shouldRunBackgroundTasksOnTheProvidedScheduler() throws URISyntaxException {
+    ScheduledThreadPoolExecutor scheduler = new ScheduledThreadPoolExecutor(1);
+    Options options = new Options();
+    options.setConnect(Mode.MANUAL);
+    options.setTransport(silentTransport());
+    options.setRequestTimeout(50L);
+    options.setScheduler(scheduler);
+
+    Kuzzle kuzzle = new Kuzzle("localhost", options);
+    kuzzle.connect();
+
+    Kuzzle.QueryArgs args = new Kuzzle.QueryArgs();
+    args.controller = "foo";
+    args.action = "bar";
+    OnQueryDoneListener listener = mock(OnQueryDoneListener.class);
+    kuzzle.query(args, new JSONObject(), listener);
+
+    // request deadlines are reaped by a periodic task running on the provided scheduler
+    verify(listener, timeout(1000)).onError(any(JSONObject.class));
+    assertTrue(scheduler.getTaskCount() > 0);
+
+    kuzzle.disconnect();
+    assertFalse(scheduler.isShutdown());
+    scheduler.shutdownNow();
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void shouldRejectInvalidThreadCounts() {
+    new Options().setSchedulerThreads(0);
+  }
+}
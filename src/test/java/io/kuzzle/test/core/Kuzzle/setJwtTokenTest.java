@@ -12,7 +12,7 @@ import io.kuzzle.sdk.core.Options;
 import io.kuzzle.sdk.enums.Event;
 import io.kuzzle.sdk.enums.Mode;
 import io.kuzzle.test.testUtils.KuzzleExtend;
-import tech.gusavila92.websocketclient.WebSocketClient;
+import io.kuzzle.sdk.transport.Transport;
 
 import static junit.framework.Assert.assertFalse;
 import static junit.framework.Assert.assertNull;
@@ -28,7 +28,7 @@ import static org.mockito.Mockito.verify;
 
 public class setJwtTokenTest {
   private KuzzleExtend kuzzle;
-  private WebSocketClient s;
+  private Transport s;
 
   @Before
   public void setUp() throws URISyntaxException {
@@ -36,9 +36,9 @@ public class setJwtTokenTest {
     options.setConnect(Mode.MANUAL);
     options.setDefaultIndex("testIndex");
 
-    s = mock(WebSocketClient.class);
+    s = mock(Transport.class);
     kuzzle = new KuzzleExtend("localhost", options, null);
-    kuzzle.setSocket(s);
+    kuzzle.setTransport(s);
 
     kuzzle = spy(kuzzle);
     doNothing().when(kuzzle).renewSubscriptions();
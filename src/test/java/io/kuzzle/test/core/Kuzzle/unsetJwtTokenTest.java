@@ -15,7 +15,7 @@ import io.kuzzle.sdk.listeners.ResponseListener;
 import io.kuzzle.test.testUtils.KuzzleDataCollectionExtend;
 import io.kuzzle.test.testUtils.KuzzleExtend;
 import io.kuzzle.test.testUtils.RoomExtend;
-import tech.gusavila92.websocketclient.WebSocketClient;
+import io.kuzzle.sdk.transport.Transport;
 
 import static org.junit.Assert.assertEquals;
 import static org.mockito.Matchers.any;
@@ -26,7 +26,7 @@ import static org.mockito.Mockito.verify;
 
 public class unsetJwtTokenTest {
   private KuzzleExtend kuzzle;
-  private WebSocketClient s;
+  private Transport s;
   private ConcurrentHashMap<String, Room> chp = new ConcurrentHashMap<>();
   private Room room;
 
@@ -37,10 +37,10 @@ public class unsetJwtTokenTest {
     options.setConnect(Mode.MANUAL);
     options.setDefaultIndex("testIndex");
 
-    s = mock(WebSocketClient.class);
+    s = mock(Transport.class);
     kuzzle = new KuzzleExtend("localhost", options, null);
     kuzzle.getSubscriptions().put("1", chp);
-    kuzzle.setSocket(s);
+    kuzzle.setTransport(s);
 
     kuzzle = spy(kuzzle);
     doNothing().when(kuzzle).emitEvent(any(Event.class), any(JSONObject.class));
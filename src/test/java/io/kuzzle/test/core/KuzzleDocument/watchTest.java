@@ -0,0 +1,203 @@
+package io.kuzzle.test.core.KuzzleDocument;
+
+import org.json.JSONException;
+import org.json.JSONObject;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.net.URISyntaxException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+
+import io.kuzzle.sdk.core.Collection;
+import io.kuzzle.sdk.core.Document;
+import io.kuzzle.sdk.core.Kuzzle;
+import io.kuzzle.sdk.core.Options;
+import io.kuzzle.sdk.enums.Mode;
+import io.kuzzle.sdk.listeners.ResponseListener;
+import io.kuzzle.sdk.responses.NotificationResponse;
+import io.kuzzle.sdk.transport.LoopbackTransport;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+
+public class watchTest {
+  private Kuzzle kuzzle;
+  private LoopbackTransport transport;
+  private Collection collection;
+  private final List<JSONObject> requests = Collections.synchronizedList(new ArrayList<JSONObject>());
+
+  private static class Recorder implements ResponseListener<NotificationResponse> {
+    final List<String> received = Collections.synchronizedList(new ArrayList<String>());
+
+    @Override
+    public void onSuccess(NotificationResponse response) {
+      this.received.add(response.getDocument().getId());
+    }
+
+    @Override
+    public void onError(JSONObject error) {
+    }
+  }
+
+  @Before
+  public void setUp() throws URISyntaxException {
+    // Server stand-in: one room and channel per subscribe request
+    transport = new LoopbackTransport(new LoopbackTransport.Handler() {
+      @Override
+      public void onRequest(String payload, LoopbackTransport transport) {
+        try {
+          JSONObject request = new JSONObject(payload);
+          JSONObject result = new JSONObject();
+
+          requests.add(request);
+
+          if (request.getString("action").equals("subscribe")) {
+            result.put("roomId", "room" + requests.size()).put("channel", "channel" + requests.size());
+          }
+
+          transport.reply(new JSONObject()
+            .put("requestId", request.getString("requestId"))
+            .put("status", 200)
+            .put("error", JSONObject.NULL)
+            .put("result", result)
+            .toString());
+        } catch (JSONException e) {
+          throw new RuntimeException(e);
+        }
+      }
+    });
+
+    Options options = new Options();
+    options.setConnect(Mode.MANUAL);
+    options.setTransport(transport);
+
+    kuzzle = new Kuzzle("localhost", options);
+    kuzzle.connect();
+    collection = kuzzle.collection("collection", "index");
+  }
+
+  @After
+  public void tearDown() {
+    kuzzle.disconnect();
+  }
+
+  private List<JSONObject> requests(final String action) throws JSONException {
+    List<JSONObject> matching = new ArrayList<>();
+
+    synchronized (this.requests) {
+      for (JSONObject request : this.requests) {
+        if (request.getString("action").equals(action)) {
+          matching.add(request);
+        }
+      }
+    }
+
+    return matching;
+  }
+
+  private void awaitSubscribed(final String... ids) throws InterruptedException {
+    for (int i = 0; i < 200 && !collection.getDocumentWatcher().getSubscribedIds().equals(new HashSet<>(Arrays.asList(ids))); i++) {
+      Thread.sleep(10);
+    }
+  }
+
+  private void notify(final String channel, final String id) throws JSONException {
+    transport.receive(new JSONObject()
+      .put("room", channel)
+      .put("type", "document")
+      .put("status", 200)
+      .put("index", "index")
+      .put("collection", "collection")
+      .put("controller", "document")
+      .put("action", "update")
+      .put("scope", "in")
+      .put("state", "done")
+      .put("requestId", "foreign-" + id)
+      .put("result", new JSONObject().put("_id", id).put("_source", new JSONObject()))
+      .toString());
+  }
+
+  @Test
+  public void shouldWatchDocumentsWithASingleSubscription() throws JSONException, InterruptedException {
+    Recorder foo = new Recorder();
+    Recorder bar = new Recorder();
+
+    new Document(collection, "foo").watch(foo);
+    new Document(collection, "bar").watch(bar);
+    new Document(collection, "baz").watch(bar);
+
+    awaitSubscribed("foo", "bar", "baz");
+
+    List<JSONObject> subscriptions = requests("subscribe");
+    assertEquals(1, subscriptions.size());
+    assertEquals(3, subscriptions.get(0).getJSONObject("body").getJSONObject("ids").getJSONArray("values").length());
+
+    notify("channel1", "foo");
+    notify("channel1", "baz");
+    notify("channel1", "qux");
+
+    assertEquals(Collections.singletonList("foo"), foo.received);
+    assertEquals(Collections.singletonList("baz"), bar.received);
+  }
+
+  @Test
+  public void shouldReplaceTheSubscriptionOnChanges() throws JSONException, InterruptedException {
+    Recorder listener = new Recorder();
+    Document foo = new Document(collection, "foo");
+
+    foo.watch(listener);
+    awaitSubscribed("foo");
+
+    new Document(collection, "bar").watch(listener);
+    awaitSubscribed("foo", "bar");
+
+    for (int i = 0; i < 100 && requests("unsubscribe").isEmpty(); i++) {
+      Thread.sleep(10);
+    }
+
+    assertEquals(2, requests("subscribe").size());
+    assertEquals(1, requests("unsubscribe").size());
+
+    foo.unwatch(listener);
+    collection.getDocumentWatcher().unwatch("bar");
+    awaitSubscribed();
+
+    for (int i = 0; i < 100 && requests("unsubscribe").size() < 2; i++) {
+      Thread.sleep(10);
+    }
+
+    assertEquals(2, requests("subscribe").size());
+    assertEquals(2, requests("unsubscribe").size());
+  }
+
+  @Test
+  public void shouldShareTheWatcherAmongCollectionObjects() throws JSONException, InterruptedException {
+    Recorder foo = new Recorder();
+    Recorder bar = new Recorder();
+    // such as a collection evicted from the cache, and the one replacing it
+    Collection other = new Collection(kuzzle, "collection", "index");
+
+    new Document(collection, "foo").watch(foo);
+    new Document(other, "bar").watch(bar);
+    awaitSubscribed("foo", "bar");
+
+    assertSame(collection.getDocumentWatcher(), other.getDocumentWatcher());
+    assertEquals(1, requests("subscribe").size());
+
+    notify("channel1", "foo");
+    notify("channel1", "bar");
+
+    assertEquals(Collections.singletonList("foo"), foo.received);
+    assertEquals(Collections.singletonList("bar"), bar.received);
+  }
+
+  @Test(expected = IllegalStateException.class)
+  public void shouldRequireADocumentId() throws JSONException {
+    new Document(collection).watch(new Recorder());
+  }
+}
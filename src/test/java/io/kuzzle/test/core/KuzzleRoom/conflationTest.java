@@ -0,0 +1,225 @@
+package io.kuzzle.test.core.KuzzleRoom;
+
+import org.json.JSONException;
+import org.json.JSONObject;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.net.URISyntaxException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import io.kuzzle.sdk.core.Collection;
+import io.kuzzle.sdk.core.Kuzzle;
+import io.kuzzle.sdk.core.Options;
+import io.kuzzle.sdk.core.Room;
+import io.kuzzle.sdk.core.RoomOptions;
+import io.kuzzle.sdk.enums.Mode;
+import io.kuzzle.sdk.enums.Users;
+import io.kuzzle.sdk.listeners.ResponseListener;
+import io.kuzzle.sdk.responses.NotificationResponse;
+import io.kuzzle.sdk.transport.LoopbackTransport;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+public class conflationTest {
+  private Kuzzle kuzzle;
+  private LoopbackTransport transport;
+  private Collection collection;
+  private int sequence = 0;
+
+  private static class Recorder implements ResponseListener<NotificationResponse> {
+    final List<NotificationResponse> received = Collections.synchronizedList(new ArrayList<NotificationResponse>());
+
+    @Override
+    public void onSuccess(NotificationResponse response) {
+      this.received.add(response);
+    }
+
+    @Override
+    public void onError(JSONObject error) {
+    }
+
+    void await(final int count) throws InterruptedException {
+      for (int i = 0; i < 200 && this.received.size() < count; i++) {
+        Thread.sleep(10);
+      }
+    }
+  }
+
+  @Before
+  public void setUp() throws URISyntaxException {
+    transport = new LoopbackTransport(new LoopbackTransport.Handler() {
+      @Override
+      public void onRequest(String payload, LoopbackTransport transport) {
+        try {
+          JSONObject request = new JSONObject(payload);
+          JSONObject result = new JSONObject();
+
+          if (request.getString("action").equals("subscribe")) {
+            result.put("roomId", "room").put("channel", "channel");
+          }
+
+          transport.reply(new JSONObject()
+            .put("requestId", request.getString("requestId"))
+            .put("status", 200)
+            .put("error", JSONObject.NULL)
+            .put("result", result)
+            .toString());
+        } catch (JSONException e) {
+          throw new RuntimeException(e);
+        }
+      }
+    });
+
+    Options options = new Options();
+    options.setConnect(Mode.MANUAL);
+    options.setTransport(transport);
+    options.setHeartbeatInterval(0);
+
+    kuzzle = new Kuzzle("localhost", options);
+    kuzzle.connect();
+    collection = new Collection(kuzzle, "collection", "index");
+  }
+
+  @After
+  public void tearDown() {
+    kuzzle.disconnect();
+  }
+
+  private Room subscribe(final RoomOptions options, final Recorder recorder) throws InterruptedException {
+    Room room = new Room(collection, options).renew(recorder);
+
+    for (int i = 0; i < 200 && room.getRoomId() == null; i++) {
+      Thread.sleep(10);
+    }
+    assertNotNull(room.getRoomId());
+
+    return room;
+  }
+
+  private void notifyDocument(final String id, final int value) throws JSONException {
+    transport.receive(new JSONObject()
+      .put("room", "channel")
+      .put("type", "document")
+      .put("status", 200)
+      .put("index", "index")
+      .put("collection", "collection")
+      .put("controller", "document")
+      .put("action", "update")
+      .put("scope", "in")
+      .put("state", "done")
+      .put("requestId", "foreign-" + (sequence++))
+      .put("result", new JSONObject().put("_id", id).put("_source", new JSONObject().put("value", value)))
+      .toString());
+  }
+
+  private static int value(final NotificationResponse notification) throws JSONException {
+    return notification.getDocument().getContent().getJSONObject("_source").getInt("value");
+  }
+
+  private void notifyUser() throws JSONException {
+    transport.receive(new JSONObject()
+      .put("room", "channel")
+      .put("type", "user")
+      .put("status", 200)
+      .put("index", "index")
+      .put("collection", "collection")
+      .put("controller", "realtime")
+      .put("action", "subscribe")
+      .put("user", "in")
+      .put("requestId", "foreign-" + (sequence++))
+      .put("result", new JSONObject().put("count", 2))
+      .toString());
+  }
+
+  @Test
+  public void shouldDeliverTheLatestNotificationOfEachDocument() throws JSONException, InterruptedException {
+    Recorder recorder = new Recorder();
+    subscribe(new RoomOptions().setConflationInterval(100), recorder);
+
+    for (int i = 0; i < 5; i++) {
+      notifyDocument("foo", i);
+    }
+    notifyDocument("bar", 0);
+    notifyDocument("bar", 1);
+
+    assertTrue(recorder.received.isEmpty());
+    recorder.await(2);
+    Thread.sleep(150);
+
+    assertEquals(2, recorder.received.size());
+    assertEquals("foo", recorder.received.get(0).getDocument().getId());
+    assertEquals(4, value(recorder.received.get(0)));
+    assertEquals(5, recorder.received.get(0).getCoalescedCount());
+    assertEquals("bar", recorder.received.get(1).getDocument().getId());
+    assertEquals(1, value(recorder.received.get(1)));
+    assertEquals(2, recorder.received.get(1).getCoalescedCount());
+  }
+
+  @Test
+  public void shouldDeliverOncePerInterval() throws JSONException, InterruptedException {
+    Recorder recorder = new Recorder();
+    subscribe(new RoomOptions().setConflationInterval(50), recorder);
+
+    notifyDocument("foo", 0);
+    recorder.await(1);
+    notifyDocument("foo", 1);
+    notifyDocument("foo", 2);
+    recorder.await(2);
+
+    assertEquals(2, recorder.received.size());
+    assertEquals(1, recorder.received.get(0).getCoalescedCount());
+    assertEquals(2, recorder.received.get(1).getCoalescedCount());
+    assertEquals(2, value(recorder.received.get(1)));
+  }
+
+  @Test
+  public void shouldNotConflateUserNotifications() throws JSONException, InterruptedException {
+    Recorder recorder = new Recorder();
+    subscribe(new RoomOptions().setConflationInterval(50).setUsers(Users.ALL), recorder);
+
+    notifyUser();
+    notifyUser();
+    recorder.await(2);
+
+    assertEquals(2, recorder.received.size());
+    assertNull(recorder.received.get(0).getDocument());
+    assertEquals(1, recorder.received.get(0).getCoalescedCount());
+    assertEquals(1, recorder.received.get(1).getCoalescedCount());
+  }
+
+  @Test
+  public void shouldDeliverEveryNotificationWithoutConflation() throws JSONException, InterruptedException {
+    Recorder recorder = new Recorder();
+    subscribe(null, recorder);
+
+    notifyDocument("foo", 0);
+    notifyDocument("foo", 1);
+
+    assertEquals(2, recorder.received.size());
+    assertEquals(1, recorder.received.get(1).getCoalescedCount());
+  }
+
+  @Test
+  public void shouldDropPendingNotificationsOnUnsubscribe() throws JSONException, InterruptedException {
+    Recorder recorder = new Recorder();
+    Room room = subscribe(new RoomOptions().setConflationInterval(50), recorder);
+
+    notifyDocument("foo", 0);
+    room.unsubscribe();
+    Thread.sleep(150);
+
+    assertTrue(recorder.received.isEmpty());
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void shouldRejectNegativeIntervals() {
+    new RoomOptions().setConflationInterval(-1);
+  }
+}
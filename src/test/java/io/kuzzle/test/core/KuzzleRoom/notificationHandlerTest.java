@@ -8,7 +8,6 @@ import org.mockito.invocation.InvocationOnMock;
 import org.mockito.stubbing.Answer;
 
 import java.net.URISyntaxException;
-import java.util.Date;
 
 import io.kuzzle.sdk.core.Collection;
 import io.kuzzle.sdk.core.Kuzzle;
@@ -22,7 +21,7 @@ import io.kuzzle.sdk.listeners.OnQueryDoneListener;
 import io.kuzzle.sdk.state.States;
 import io.kuzzle.test.testUtils.KuzzleExtend;
 import io.kuzzle.test.testUtils.RoomExtend;
-import tech.gusavila92.websocketclient.WebSocketClient;
+import io.kuzzle.sdk.transport.Transport;
 
 import static org.mockito.Matchers.any;
 import static org.mockito.Mockito.atLeastOnce;
@@ -83,13 +82,13 @@ public class notificationHandlerTest {
     Options opts = new Options();
     opts.setConnect(Mode.MANUAL);
     KuzzleExtend extended = new KuzzleExtend("localhost", opts, null);
-    WebSocketClient s = mock(WebSocketClient.class);
-    extended.setSocket(s);
+    Transport s = mock(Transport.class);
+    extended.setTransport(s);
     extended.setState(States.CONNECTED);
     extended = spy(extended);
     RoomExtend renew = new RoomExtend(new Collection(extended, "test", "index"), options);
     renew.setListener(listener);
-    extended.getRequestHistory().put("42", new Date());
+    extended.getRequestHistory().add("42");
     renew.callAfterRenew(mockNotif);
     verify(listener, atLeastOnce()).onSuccess(any(JSONObject.class));
   }
@@ -99,8 +98,8 @@ public class notificationHandlerTest {
     Options opts = new Options();
     opts.setConnect(Mode.MANUAL);
     KuzzleExtend extended = new KuzzleExtend("localhost", opts, null);
-    WebSocketClient s = mock(WebSocketClient.class);
-    extended.setSocket(s);
+    Transport s = mock(Transport.class);
+    extended.setTransport(s);
     extended.setState(States.CONNECTED);
     extended = spy(extended);
     room = new RoomExtend(new Collection(extended, "collection", "index"));
@@ -146,15 +145,15 @@ public class notificationHandlerTest {
     Options opts = new Options();
     opts.setConnect(Mode.MANUAL);
     KuzzleExtend extended = new KuzzleExtend("localhost", opts, null);
-    WebSocketClient s = mock(WebSocketClient.class);
-    extended.setSocket(s);
+    Transport s = mock(Transport.class);
+    extended.setTransport(s);
     extended.setState(States.CONNECTED);
     extended = spy(extended);
     RoomExtend renew = new RoomExtend(new Collection(extended, "test", "index"), options);
     mockNotif = spy(mockNotif);
     doThrow(JSONException.class).when(mockNotif).isNull(any(String.class));
     renew.setListener(listener);
-    extended.getRequestHistory().put("42", new Date());
+    extended.getRequestHistory().add("42");
     mockNotif.put("error", mock(JSONObject.class));
     renew.callAfterRenew(mockNotif);
     // should trigger listener.onError
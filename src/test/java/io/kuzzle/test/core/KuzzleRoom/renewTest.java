@@ -23,7 +23,7 @@ import io.kuzzle.sdk.responses.NotificationResponse;
 import io.kuzzle.sdk.state.States;
 import io.kuzzle.test.testUtils.KuzzleExtend;
 import io.kuzzle.test.testUtils.RoomExtend;
-import tech.gusavila92.websocketclient.WebSocketClient;
+import io.kuzzle.sdk.transport.Transport;
 
 import static org.junit.Assert.assertEquals;
 import static org.mockito.Matchers.any;
@@ -73,10 +73,10 @@ public class renewTest {
   public void testRenew() throws JSONException, URISyntaxException {
     Options options = new Options();
     options.setConnect(Mode.MANUAL);
-    WebSocketClient s = mock(WebSocketClient.class);
+    Transport s = mock(Transport.class);
     KuzzleExtend kuzzle = new KuzzleExtend("localhost", options, null);
     kuzzle.setState(States.CONNECTED);
-    kuzzle.setSocket(s);
+    kuzzle.setTransport(s);
 
     final Kuzzle kuzzleSpy = spy(kuzzle);
     Room testRoom = new Room(new Collection(kuzzleSpy, "collection", "index"));
@@ -108,7 +108,7 @@ public class renewTest {
     options.setConnect(Mode.MANUAL);
     KuzzleExtend kuzzle = new KuzzleExtend("localhost", options, null);
     kuzzle.setState(States.CONNECTED);
-    kuzzle.setSocket(mock(WebSocketClient.class));
+    kuzzle.setTransport(mock(Transport.class));
 
     final Kuzzle kuzzleSpy = spy(kuzzle);
     RoomExtend testRoom = new RoomExtend(new Collection(kuzzleSpy, "collection", "index"));
@@ -136,7 +136,7 @@ public class renewTest {
     Options opts = new Options();
     opts.setConnect(Mode.MANUAL);
     KuzzleExtend extended = new KuzzleExtend("localhost", opts, null);
-    extended.setSocket(mock(WebSocketClient.class));
+    extended.setTransport(mock(Transport.class));
     extended.setState(States.CONNECTED);
     extended = spy(extended);
     room = new RoomExtend(new Collection(extended, "test", "index"));
@@ -0,0 +1,250 @@
+package io.kuzzle.test.core.KuzzleRoom;
+
+import org.json.JSONException;
+import org.json.JSONObject;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.net.URISyntaxException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import io.kuzzle.sdk.core.Collection;
+import io.kuzzle.sdk.core.Kuzzle;
+import io.kuzzle.sdk.core.Options;
+import io.kuzzle.sdk.core.Room;
+import io.kuzzle.sdk.core.RoomOptions;
+import io.kuzzle.sdk.enums.Mode;
+import io.kuzzle.sdk.listeners.ResponseListener;
+import io.kuzzle.sdk.responses.NotificationResponse;
+import io.kuzzle.sdk.transport.LoopbackTransport;
+import io.kuzzle.sdk.util.CanonicalJSON;
+
+import static org.junit.Assert.assertEquals;
+
+public class sharedSubscriptionTest {
+  private Kuzzle kuzzle;
+  private LoopbackTransport transport;
+  private Collection collection;
+  private final List<String> actions = Collections.synchronizedList(new ArrayList<String>());
+  private final List<String> requestIds = Collections.synchronizedList(new ArrayList<String>());
+
+  private static class Recorder implements ResponseListener<NotificationResponse> {
+    final List<NotificationResponse> received = Collections.synchronizedList(new ArrayList<NotificationResponse>());
+
+    @Override
+    public void onSuccess(NotificationResponse response) {
+      this.received.add(response);
+    }
+
+    @Override
+    public void onError(JSONObject error) {
+    }
+  }
+
+  @Before
+  public void setUp() throws URISyntaxException {
+    // Server stand-in: the room ID derives from the filters, as in Kuzzle
+    transport = new LoopbackTransport(new LoopbackTransport.Handler() {
+      @Override
+      public void onRequest(String payload, LoopbackTransport transport) {
+        try {
+          JSONObject request = new JSONObject(payload);
+          String action = request.getString("action");
+          JSONObject result = new JSONObject();
+
+          actions.add(action);
+          requestIds.add(request.getString("requestId"));
+
+          if (action.equals("subscribe")) {
+            String roomId = Integer.toHexString(CanonicalJSON.stringify(request.getJSONObject("body")).hashCode());
+            result.put("roomId", roomId).put("channel", roomId + "-" + request.getString("scope"));
+          }
+
+          transport.reply(new JSONObject()
+            .put("requestId", request.getString("requestId"))
+            .put("status", 200)
+            .put("error", JSONObject.NULL)
+            .put("result", result)
+            .toString());
+        } catch (JSONException e) {
+          throw new RuntimeException(e);
+        }
+      }
+    });
+
+    Options options = new Options();
+    options.setConnect(Mode.MANUAL);
+    options.setTransport(transport);
+
+    kuzzle = new Kuzzle("localhost", options);
+    kuzzle.connect();
+    collection = new Collection(kuzzle, "collection", "index");
+  }
+
+  @After
+  public void tearDown() {
+    kuzzle.disconnect();
+  }
+
+  private static JSONObject filters(final String field, final String value) throws JSONException {
+    return new JSONObject().put("equals", new JSONObject().put(field, value));
+  }
+
+  private void notify(final Room room, final String requestId, final String id) throws JSONException {
+    transport.receive(new JSONObject()
+      .put("room", room.getRoomId() + "-all")
+      .put("type", "document")
+      .put("status", 200)
+      .put("index", "index")
+      .put("collection", "collection")
+      .put("controller", "document")
+      .put("action", "create")
+      .put("scope", "in")
+      .put("state", "done")
+      .put("requestId", requestId)
+      .put("result", new JSONObject().put("_id", id).put("_source", new JSONObject()))
+      .toString());
+  }
+
+  private void awaitActive(final Room... rooms) throws InterruptedException {
+    for (int i = 0; i < 200; i++) {
+      boolean active = true;
+
+      for (Room room : rooms) {
+        active &= room.getRoomId() != null;
+      }
+
+      if (active) {
+        return;
+      }
+
+      Thread.sleep(10);
+    }
+  }
+
+  private int count(final String action) {
+    synchronized (this.actions) {
+      return Collections.frequency(this.actions, action);
+    }
+  }
+
+  @Test
+  public void shouldShareIdenticalSubscriptions() throws JSONException, InterruptedException {
+    Recorder first = new Recorder();
+    Recorder second = new Recorder();
+    Room room1 = new Room(collection).renew(new JSONObject().put("equals", new JSONObject().put("foo", "bar")).put("not", false), first, null);
+    Room room2 = new Room(collection).renew(new JSONObject().put("not", false).put("equals", new JSONObject().put("foo", "bar")), second, null);
+
+    awaitActive(room1, room2);
+    assertEquals(1, count("subscribe"));
+    assertEquals(1, kuzzle.getSharedSubscriptionCount());
+    assertEquals(room1.getRoomId(), room2.getRoomId());
+
+    notify(room1, "foreign", "doc");
+    assertEquals(1, first.received.size());
+    assertEquals(1, second.received.size());
+  }
+
+  @Test
+  public void shouldUnsubscribeWithTheLastRoom() throws JSONException, InterruptedException {
+    Recorder first = new Recorder();
+    Recorder second = new Recorder();
+    Room room1 = new Room(collection).renew(filters("foo", "bar"), first, null);
+    Room room2 = new Room(collection).renew(filters("foo", "bar"), second, null);
+
+    awaitActive(room1, room2);
+    String roomId = room1.getRoomId();
+
+    room1.unsubscribe();
+    Thread.sleep(200);
+    assertEquals(0, count("unsubscribe"));
+
+    // the remaining room still gets notifications
+    transport.receive(new JSONObject()
+      .put("room", roomId + "-all")
+      .put("type", "document")
+      .put("status", 200)
+      .put("index", "index")
+      .put("collection", "collection")
+      .put("controller", "document")
+      .put("action", "create")
+      .put("scope", "in")
+      .put("state", "done")
+      .put("requestId", "foreign")
+      .put("result", new JSONObject().put("_id", "doc").put("_source", new JSONObject()))
+      .toString());
+    assertEquals(0, first.received.size());
+    assertEquals(1, second.received.size());
+
+    room2.unsubscribe();
+
+    for (int i = 0; i < 100 && count("unsubscribe") == 0; i++) {
+      Thread.sleep(10);
+    }
+
+    assertEquals(1, count("unsubscribe"));
+    assertEquals(0, kuzzle.getSharedSubscriptionCount());
+  }
+
+  @Test
+  public void shouldNotShareDifferentSubscriptions() throws JSONException, InterruptedException {
+    Room room1 = new Room(collection).renew(filters("foo", "bar"), new Recorder(), null);
+    Room room2 = new Room(collection).renew(filters("foo", "baz"), new Recorder(), null);
+
+    awaitActive(room1, room2);
+    assertEquals(2, count("subscribe"));
+    assertEquals(2, kuzzle.getSharedSubscriptionCount());
+  }
+
+  @Test
+  public void shouldDeduplicateNotificationsOfOverlappingRooms() throws JSONException, InterruptedException {
+    Recorder shared = new Recorder();
+    Recorder other = new Recorder();
+    Room room1 = new Room(collection).renew(filters("foo", "bar"), shared, null);
+    Room room2 = new Room(collection).renew(filters("qux", "baz"), shared, null);
+    Room room3 = new Room(collection).renew(filters("foo", "baz"), other, null);
+
+    awaitActive(room1, room2, room3);
+
+    notify(room1, "foreign", "doc");
+    notify(room2, "foreign", "doc");
+    notify(room3, "foreign", "doc");
+    assertEquals(1, shared.received.size());
+    assertEquals(1, other.received.size());
+
+    notify(room2, "foreign", "other-doc");
+    assertEquals(2, shared.received.size());
+  }
+
+  @Test
+  public void shouldNotDeduplicateNotificationsOfSingleRoomListeners() throws JSONException, InterruptedException {
+    Recorder recorder = new Recorder();
+    Room room = new Room(collection).renew(filters("foo", "bar"), recorder, null);
+
+    awaitActive(room);
+
+    // a single request may notify the same document twice, such as an m* action listing it twice
+    notify(room, "foreign", "doc");
+    notify(room, "foreign", "doc");
+    assertEquals(2, recorder.received.size());
+  }
+
+  @Test
+  public void shouldDeliverOwnNotificationsFilteredByAnotherRoom() throws JSONException, InterruptedException {
+    Recorder shared = new Recorder();
+    Room self = new Room(collection, new RoomOptions().setSubscribeToSelf(true)).renew(filters("foo", "bar"), shared, null);
+    Room others = new Room(collection, new RoomOptions().setSubscribeToSelf(false)).renew(filters("qux", "baz"), shared, null);
+
+    awaitActive(self, others);
+    String ownRequestId = requestIds.get(0);
+
+    notify(others, ownRequestId, "doc");
+    assertEquals(0, shared.received.size());
+
+    notify(self, ownRequestId, "doc");
+    assertEquals(1, shared.received.size());
+  }
+}
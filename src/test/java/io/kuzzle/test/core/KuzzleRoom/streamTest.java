@@ -0,0 +1,128 @@
+package io.kuzzle.test.core.KuzzleRoom;
+
+import org.json.JSONException;
+import org.json.JSONObject;
+import org.junit.Before;
+import org.junit.Test;
+
+import io.kuzzle.sdk.core.Collection;
+import io.kuzzle.sdk.core.Kuzzle;
+import io.kuzzle.sdk.core.Room;
+import io.kuzzle.sdk.enums.Overflow;
+import io.kuzzle.sdk.listeners.SubscribeListener;
+import io.kuzzle.sdk.responses.NotificationResponse;
+import io.kuzzle.sdk.util.NotificationPublisher;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.spy;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+public class streamTest {
+  private Room room;
+
+  @Before
+  public void setUp() {
+    Kuzzle k = mock(Kuzzle.class);
+    when(k.getHeaders()).thenReturn(new JSONObject());
+    room = spy(new Room(new Collection(k, "test", "index")));
+  }
+
+  @Test
+  public void shouldUseTheStreamAsListener() {
+    NotificationPublisher<NotificationResponse> stream = room.stream(10, Overflow.DROP_OLDEST);
+
+    assertSame(stream, room.getListener());
+  }
+
+  @Test
+  public void shouldUnsubscribeOnCancel() {
+    NotificationPublisher<NotificationResponse> stream = room.stream(10, Overflow.DROP_OLDEST);
+    final NotificationPublisher.Subscription[] subscription = new NotificationPublisher.Subscription[1];
+
+    stream.subscribe(new NotificationPublisher.Subscriber<NotificationResponse>() {
+      @Override
+      public void onSubscribe(NotificationPublisher.Subscription s) {
+        subscription[0] = s;
+      }
+
+      @Override
+      public void onNext(NotificationResponse notification) {
+      }
+
+      @Override
+      public void onError(JSONObject error) {
+      }
+
+      @Override
+      public void onComplete() {
+      }
+    });
+
+    subscription[0].cancel();
+    verify(room).unsubscribe();
+  }
+
+  @Test
+  public void shouldUnsubscribeOnOverflow() throws JSONException {
+    NotificationPublisher<NotificationResponse> stream = room.stream(1, Overflow.ERROR);
+    final JSONObject[] received = new JSONObject[1];
+
+    stream.subscribe(new NotificationPublisher.Subscriber<NotificationResponse>() {
+      @Override
+      public void onSubscribe(NotificationPublisher.Subscription s) {
+      }
+
+      @Override
+      public void onNext(NotificationResponse notification) {
+      }
+
+      @Override
+      public void onError(JSONObject error) {
+        received[0] = error;
+      }
+
+      @Override
+      public void onComplete() {
+      }
+    });
+
+    stream.onSuccess(mock(NotificationResponse.class));
+    stream.onSuccess(mock(NotificationResponse.class));
+
+    assertEquals(503, received[0].getInt("status"));
+    verify(room).unsubscribe();
+  }
+
+  @Test
+  public void shouldFailTheStreamOnSubscriptionError() throws JSONException {
+    SubscribeListener subscribeListener = new SubscribeListener();
+    NotificationPublisher<NotificationResponse> stream = room.stream(null, 10, Overflow.DROP_OLDEST, subscribeListener);
+    final JSONObject[] received = new JSONObject[1];
+
+    subscribeListener.done(new JSONObject().put("status", 403).put("message", "forbidden"), null);
+
+    stream.subscribe(new NotificationPublisher.Subscriber<NotificationResponse>() {
+      @Override
+      public void onSubscribe(NotificationPublisher.Subscription s) {
+      }
+
+      @Override
+      public void onNext(NotificationResponse notification) {
+      }
+
+      @Override
+      public void onError(JSONObject error) {
+        received[0] = error;
+      }
+
+      @Override
+      public void onComplete() {
+      }
+    });
+
+    assertEquals(403, received[0].getInt("status"));
+  }
+}
@@ -9,7 +9,6 @@ import org.mockito.invocation.InvocationOnMock;
 import org.mockito.stubbing.Answer;
 
 import java.net.URISyntaxException;
-import java.util.Timer;
 
 import io.kuzzle.sdk.core.Kuzzle;
 import io.kuzzle.sdk.core.Collection;
@@ -21,7 +20,7 @@ import io.kuzzle.sdk.listeners.OnQueryDoneListener;
 import io.kuzzle.sdk.state.States;
 import io.kuzzle.test.testUtils.KuzzleExtend;
 import io.kuzzle.test.testUtils.RoomExtend;
-import tech.gusavila92.websocketclient.WebSocketClient;
+import io.kuzzle.sdk.transport.Transport;
 
 import static org.junit.Assert.assertEquals;
 import static org.mockito.Matchers.any;
@@ -64,11 +63,11 @@ public class unsubscribeTest {
   public void testUnsubscribe() throws JSONException, URISyntaxException {
     Options opts = new Options();
     opts.setConnect(Mode.MANUAL);
-    WebSocketClient s = mock(WebSocketClient.class);
+    Transport s = mock(Transport.class);
 
     KuzzleExtend kuzzle = new KuzzleExtend("localhost", opts, null);
     kuzzle.setState(States.CONNECTED);
-    kuzzle.setSocket(s);
+    kuzzle.setTransport(s);
 
     kuzzle = spy(kuzzle);
     room = new RoomExtend(new Collection(kuzzle, "test", "index"));
@@ -86,7 +85,7 @@ public class unsubscribeTest {
     Options opts = new Options();
     opts.setConnect(Mode.MANUAL);
     KuzzleExtend extended = new KuzzleExtend("localhost", opts, null);
-    extended.setSocket(mock(WebSocketClient.class));
+    extended.setTransport(mock(Transport.class));
     extended.setState(States.CONNECTED);
     extended = spy(extended);
     room = new RoomExtend(new Collection(extended, "test", "index"));
@@ -119,11 +118,11 @@ public class unsubscribeTest {
   public void testUnsubscribeWithPendingSubscriptions() throws URISyntaxException, JSONException {
     Options opts = new Options();
     opts.setConnect(Mode.MANUAL);
-    WebSocketClient s = mock(WebSocketClient.class);
+    Transport s = mock(Transport.class);
 
     KuzzleExtend kuzzle = new KuzzleExtend("localhost", opts, null);
     kuzzle.setState(States.CONNECTED);
-    kuzzle.setSocket(s);
+    kuzzle.setTransport(s);
 
     kuzzle = spy(kuzzle);
     kuzzle.getPendingSubscriptions().put("42", mock(Room.class));
@@ -141,7 +140,7 @@ public class unsubscribeTest {
     Options opts = new Options();
     opts.setConnect(Mode.MANUAL);
     KuzzleExtend extended = new KuzzleExtend("localhost", opts, null);
-    extended.setSocket(mock(WebSocketClient.class));
+    extended.setTransport(mock(Transport.class));
     extended.setState(States.CONNECTED);
     extended = spy(extended);
     doThrow(JSONException.class).when(extended).removeRoom(any(String.class));
@@ -155,13 +154,13 @@ public class unsubscribeTest {
     Options opts = new Options();
     opts.setConnect(Mode.MANUAL);
     KuzzleExtend extended = new KuzzleExtend("localhost", opts, null);
-    extended.setSocket(mock(WebSocketClient.class));
+    extended.setTransport(mock(Transport.class));
     extended.setState(States.CONNECTED);
     extended = spy(extended);
 
     room = new RoomExtend(new Collection(extended, "test", "index"));
     room.setRoomId("foobar");
-    room.unsubscribeTask(new Timer(), room.getRoomId(), new JSONObject()).run();
+    room.unsubscribeTask(room.getRoomId(), new JSONObject()).run();
     verify(extended).query(any(Kuzzle.QueryArgs.class), any(JSONObject.class), any(Options.class), any(OnQueryDoneListener.class));
   }
 
@@ -170,13 +169,13 @@ public class unsubscribeTest {
     Options opts = new Options();
     opts.setConnect(Mode.MANUAL);
     KuzzleExtend extended = new KuzzleExtend("localhost", opts, null);
-    extended.setSocket(mock(WebSocketClient.class));
+    extended.setTransport(mock(Transport.class));
     extended.setState(States.CONNECTED);
     extended = spy(extended);
     doThrow(JSONException.class).when(extended).getPendingSubscriptions();
     room = new RoomExtend(new Collection(extended, "test", "index"));
     room.setRoomId("foobar");
-    room.unsubscribeTask(new Timer(), room.getRoomId(), new JSONObject()).run();
+    room.unsubscribeTask(room.getRoomId(), new JSONObject()).run();
   }
 
 }
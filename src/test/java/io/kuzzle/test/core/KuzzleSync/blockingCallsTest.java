@@ -0,0 +1,148 @@
+package io.kuzzle.test.core.KuzzleSync;
+
+import org.json.JSONException;
+import org.json.JSONObject;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.net.URISyntaxException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import io.kuzzle.sdk.core.KuzzleSync;
+import io.kuzzle.sdk.core.Options;
+import io.kuzzle.sdk.enums.Mode;
+import io.kuzzle.sdk.exceptions.KuzzleException;
+import io.kuzzle.sdk.exceptions.KuzzleTimeoutException;
+import io.kuzzle.sdk.transport.LoopbackTransport;
+import io.kuzzle.test.testUtils.KuzzleExtend;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+public class blockingCallsTest {
+  private KuzzleExtend kuzzle;
+  private KuzzleSync sync;
+  private ExecutorService server;
+  private volatile Thread responder;
+
+  @Before
+  public void setUp() throws URISyntaxException {
+    server = Executors.newSingleThreadExecutor();
+
+    // Server stand-in answering from its own thread:
+    // ms:get returns "bar", ms:incr returns 42, document:get fails, ms:exists never answers
+    LoopbackTransport transport = new LoopbackTransport(new LoopbackTransport.Handler() {
+      @Override
+      public void onRequest(final String payload, final LoopbackTransport transport) {
+        server.execute(new Runnable() {
+          @Override
+          public void run() {
+            try {
+              responder = Thread.currentThread();
+              Thread.sleep(20);
+
+              JSONObject request = new JSONObject(payload);
+              String route = request.getString("controller") + ":" + request.getString("action");
+              JSONObject response = new JSONObject()
+                .put("requestId", request.getString("requestId"))
+                .put("status", 200)
+                .put("error", JSONObject.NULL);
+
+              if (route.equals("ms:get")) {
+                response.put("result", "bar");
+              } else if (route.equals("ms:incr")) {
+                response.put("result", 42);
+              } else if (route.equals("document:get")) {
+                response.put("status", 404).put("error", new JSONObject().put("status", 404).put("message", "Not found"));
+              } else {
+                return;
+              }
+
+              transport.reply(response.toString());
+            } catch (JSONException | InterruptedException e) {
+              throw new RuntimeException(e);
+            }
+          }
+        });
+      }
+    });
+
+    Options options = new Options();
+    options.setConnect(Mode.MANUAL);
+    options.setTransport(transport);
+
+    kuzzle = new KuzzleExtend("localhost", options, null);
+    kuzzle.connect();
+    sync = new KuzzleSync(kuzzle, 200);
+  }
+
+  @After
+  public void tearDown() {
+    server.shutdownNow();
+    kuzzle.disconnect();
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void shouldRequireATimeout() {
+    new KuzzleSync(kuzzle, 0);
+  }
+
+  @Test
+  public void shouldReturnTypedResults() throws KuzzleException, InterruptedException {
+    assertEquals("bar", sync.get("foo", null));
+    assertEquals(42, sync.incr("foo", null));
+    assertNotEquals(Thread.currentThread(), responder);
+  }
+
+  @Test
+  public void shouldThrowKuzzleErrors() throws InterruptedException {
+    try {
+      sync.fetchDocument(kuzzle.collection("collection", "index"), "foo", null);
+      fail("KuzzleException expected");
+    } catch (KuzzleException e) {
+      assertEquals(404, e.getStatus());
+      assertEquals("Not found", e.getMessage());
+    }
+  }
+
+  @Test
+  public void shouldTimeOutAndDiscardTheRequest() throws KuzzleException, InterruptedException {
+    long start = System.currentTimeMillis();
+
+    try {
+      sync.exists(new String[]{"foo"}, null);
+      fail("KuzzleTimeoutException expected");
+    } catch (KuzzleTimeoutException e) {
+      assertEquals(408, e.getStatus());
+    }
+
+    assertTrue(System.currentTimeMillis() - start >= 200);
+
+    // the request deadline was capped to the blocking call timeout
+    for (int i = 0; i < 100 && !kuzzle.getCurrentQueries().isEmpty(); i++) {
+      Thread.sleep(10);
+    }
+
+    assertTrue(kuzzle.getCurrentQueries().isEmpty());
+  }
+
+  @Test
+  public void shouldKeepShorterRequestTimeouts() throws KuzzleException, InterruptedException {
+    KuzzleSync patient = new KuzzleSync(kuzzle, 5000);
+    long start = System.currentTimeMillis();
+
+    try {
+      patient.exists(new String[]{"foo"}, new Options().setRequestTimeout(50L));
+      fail("KuzzleTimeoutException expected");
+    } catch (KuzzleTimeoutException e) {
+      assertEquals(408, e.getStatus());
+    }
+
+    // well below the blocking call timeout: the 50ms request timeout won, reaper tick included
+    assertTrue(System.currentTimeMillis() - start < 1000);
+  }
+}
@@ -18,7 +18,7 @@ import io.kuzzle.sdk.listeners.OnQueryDoneListener;
 import io.kuzzle.sdk.state.States;
 import io.kuzzle.sdk.util.QueryObject;
 import io.kuzzle.test.testUtils.KuzzleExtend;
-import tech.gusavila92.websocketclient.WebSocketClient;
+import io.kuzzle.sdk.transport.Transport;
 
 import static org.junit.Assert.assertEquals;
 import static org.mockito.Matchers.any;
@@ -33,7 +33,7 @@ public class KuzzleListenerTest {
   private Kuzzle kuzzle;
   private KuzzleExtend kuzzleExtend;
   private Kuzzle kuzzleSpy;
-  private WebSocketClient s = mock(WebSocketClient.class);
+  private Transport s = mock(Transport.class);
   private io.kuzzle.sdk.util.Event event;
   private io.kuzzle.sdk.util.Event eventSpy;
 
@@ -42,7 +42,7 @@ public class KuzzleListenerTest {
     Options options = new Options();
     options.setConnect(Mode.MANUAL);
     KuzzleExtend extended = new KuzzleExtend("localhost", options, null);
-    extended.setSocket(s);
+    extended.setTransport(s);
     kuzzle = extended;
     kuzzleExtend = extended;
   }
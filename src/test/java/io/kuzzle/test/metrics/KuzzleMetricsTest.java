@@ -0,0 +1,182 @@
+package io.kuzzle.test.metrics;
+
+import org.json.JSONException;
+import org.json.JSONObject;
+import org.junit.Test;
+
+import java.net.URISyntaxException;
+
+import io.kuzzle.sdk.core.Kuzzle;
+import io.kuzzle.sdk.core.Options;
+import io.kuzzle.sdk.enums.Mode;
+import io.kuzzle.sdk.listeners.OnQueryDoneListener;
+import io.kuzzle.sdk.listeners.ResponseListener;
+import io.kuzzle.sdk.metrics.Gauge;
+import io.kuzzle.sdk.metrics.KuzzleMetrics;
+import io.kuzzle.sdk.metrics.LatencyHistogram;
+import io.kuzzle.sdk.transport.LoopbackTransport;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.Mockito.mock;
+
+public class KuzzleMetricsTest {
+  private static final long MS = 1000000;
+
+  @Test
+  public void shouldCountLatenciesInFixedBuckets() throws JSONException {
+    LatencyHistogram histogram = new LatencyHistogram();
+
+    for (int i = 0; i < 90; i++) {
+      histogram.record(MS / 2);
+    }
+    for (int i = 0; i < 9; i++) {
+      histogram.record(30 * MS);
+    }
+    histogram.record(60000 * MS);
+
+    assertEquals(100, histogram.getCount());
+    assertEquals(1, histogram.getPercentile(50));
+    assertEquals(1, histogram.getPercentile(90));
+    assertEquals(50, histogram.getPercentile(99));
+    assertEquals(-1, histogram.getPercentile(100));
+
+    JSONObject json = histogram.toJSON();
+    assertEquals(90, json.getJSONObject("buckets").getLong("1"));
+    assertEquals(9, json.getJSONObject("buckets").getLong("50"));
+    assertEquals(1, json.getJSONObject("buckets").getLong("+Inf"));
+    assertEquals(60000000, json.getLong("maxMicros"));
+  }
+
+  @Test
+  public void shouldNotEstimatePercentilesWithoutLatencies() throws JSONException {
+    LatencyHistogram histogram = new LatencyHistogram();
+
+    assertEquals(0, histogram.getPercentile(50));
+    assertEquals(0, histogram.getPercentile(100));
+    assertEquals(0, histogram.toJSON().getLong("p99"));
+  }
+
+  @Test
+  public void shouldRecordConcurrently() throws InterruptedException {
+    final LatencyHistogram histogram = new LatencyHistogram();
+    Thread[] threads = new Thread[4];
+
+    for (int t = 0; t < threads.length; t++) {
+      threads[t] = new Thread(new Runnable() {
+        @Override
+        public void run() {
+          for (int i = 0; i < 10000; i++) {
+            histogram.record(i * 1000L);
+          }
+        }
+      });
+      threads[t].start();
+    }
+
+    for (Thread thread : threads) {
+      thread.join();
+    }
+
+    assertEquals(40000, histogram.getCount());
+  }
+
+  @Test
+  public void shouldComputeUtf8Lengths() {
+    assertEquals(3, KuzzleMetrics.utf8Length("foo"));
+    assertEquals(2, KuzzleMetrics.utf8Length("é"));
+    assertEquals(3, KuzzleMetrics.utf8Length("€"));
+    assertEquals(4, KuzzleMetrics.utf8Length(new String(Character.toChars(0x1F600))));
+  }
+
+  @Test
+  public void shouldRecordTheSdkActivity() throws URISyntaxException, JSONException, InterruptedException {
+    // Answers subscriptions with a fixed channel, and every other request with an empty result
+    LoopbackTransport transport = new LoopbackTransport(new LoopbackTransport.Handler() {
+      @Override
+      public void onRequest(String payload, LoopbackTransport transport) {
+        try {
+          JSONObject request = new JSONObject(payload);
+          JSONObject result = "subscribe".equals(request.getString("action"))
+            ? new JSONObject().put("channel", "channel").put("roomId", "roomId")
+            : new JSONObject();
+
+          transport.reply(new JSONObject()
+            .put("requestId", request.getString("requestId"))
+            .put("room", request.getString("requestId"))
+            .put("status", 200)
+            .put("error", JSONObject.NULL)
+            .put("result", result)
+            .toString());
+        } catch (JSONException e) {
+          throw new RuntimeException(e);
+        }
+      }
+    });
+    KuzzleMetrics metrics = new KuzzleMetrics();
+    metrics.registerGauge("custom", new Gauge() {
+      @Override
+      public long value() {
+        return 42;
+      }
+    });
+
+    Options options = new Options();
+    options.setConnect(Mode.MANUAL);
+    options.setTransport(transport);
+    options.setMetrics(metrics);
+
+    Kuzzle kuzzle = new Kuzzle("localhost", options);
+    kuzzle.connect();
+
+    Kuzzle.QueryArgs args = new Kuzzle.QueryArgs();
+    args.controller = "foo";
+    args.action = "bar";
+
+    for (int i = 0; i < 5; i++) {
+      kuzzle.query(args, new JSONObject(), mock(OnQueryDoneListener.class));
+    }
+
+    kuzzle.collection("collection", "index").subscribe(new JSONObject(), mock(ResponseListener.class));
+    for (int i = 0; i < 50 && kuzzle.getMetrics().getLatency("realtime:subscribe").getCount() == 0; i++) {
+      Thread.sleep(10);
+    }
+
+    String notification = new JSONObject()
+      .put("room", "channel")
+      .put("status", 200)
+      .put("type", "document")
+      .put("index", "index")
+      .put("collection", "collection")
+      .put("controller", "document")
+      .put("action", "create")
+      .put("state", "done")
+      .put("scope", "in")
+      .put("volatile", new JSONObject())
+      .put("result", new JSONObject().put("_id", "foo").put("_source", new JSONObject()))
+      .toString();
+    transport.receive(notification);
+    transport.receive(notification);
+
+    JSONObject snapshot = metrics.snapshot();
+    assertEquals(5, snapshot.getJSONObject("latencies").getJSONObject("foo:bar").getLong("count"));
+    assertEquals(1, snapshot.getJSONObject("latencies").getJSONObject("realtime:subscribe").getLong("count"));
+    assertEquals(6, snapshot.getJSONObject("frames").getLong("sent"));
+    assertEquals(8, snapshot.getJSONObject("frames").getLong("received"));
+    assertTrue(snapshot.getJSONObject("bytes").getLong("sent") > 0);
+    assertEquals(2, snapshot.getJSONObject("notifications").getLong("channel"));
+    assertEquals(0, snapshot.getJSONObject("gauges").getLong("currentQueries"));
+    assertEquals(1, snapshot.getJSONObject("gauges").getLong("activeRooms"));
+    assertEquals(42, snapshot.getJSONObject("gauges").getLong("custom"));
+  }
+
+  @Test
+  public void shouldBeDisabledByDefault() throws URISyntaxException {
+    Options options = new Options();
+    options.setConnect(Mode.MANUAL);
+    options.setTransport(new LoopbackTransport());
+
+    assertNull(new Kuzzle("localhost", options).getMetrics());
+  }
+}
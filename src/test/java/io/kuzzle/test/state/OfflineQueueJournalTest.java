@@ -0,0 +1,180 @@
+package io.kuzzle.test.state;
+
+import org.json.JSONException;
+import org.json.JSONObject;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.net.URISyntaxException;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+
+import io.kuzzle.sdk.core.Kuzzle;
+import io.kuzzle.sdk.core.Options;
+import io.kuzzle.sdk.enums.Mode;
+import io.kuzzle.sdk.state.OfflineQueueJournal;
+import io.kuzzle.sdk.state.States;
+import io.kuzzle.sdk.transport.LoopbackTransport;
+import io.kuzzle.sdk.util.QueryObject;
+import io.kuzzle.test.testUtils.KuzzleExtend;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class OfflineQueueJournalTest {
+  @Rule
+  public TemporaryFolder folder = new TemporaryFolder();
+
+  private File directory;
+  private OfflineQueueJournal journal;
+
+  @Before
+  public void setUp() throws IOException {
+    directory = folder.newFolder("journal");
+    journal = new OfflineQueueJournal(directory, 512);
+  }
+
+  @After
+  public void tearDown() throws IOException {
+    journal.close();
+  }
+
+  private QueryObject query(String requestId) throws JSONException {
+    QueryObject query = new QueryObject();
+    query.setQuery(new JSONObject().put("requestId", requestId).put("controller", "foo").put("action", "bar"));
+    query.setAction("bar");
+    query.setTimestamp(new Date());
+    return query;
+  }
+
+  private List<String> requestIds(OfflineQueueJournal journal) throws JSONException {
+    List<String> ids = new ArrayList<>();
+
+    for (QueryObject query : journal.load()) {
+      ids.add(query.getQuery().getString("requestId"));
+    }
+
+    return ids;
+  }
+
+  private OfflineQueueJournal reopen() throws IOException {
+    journal.close();
+    journal = new OfflineQueueJournal(directory, 512);
+    return journal;
+  }
+
+  @Test
+  public void shouldRestoreRequestsInOrder() throws Exception {
+    for (int i = 0; i < 50; i++) {
+      assertTrue(journal.append(query("req" + i)));
+    }
+    journal.acknowledge("req0");
+    journal.acknowledge("req42");
+
+    reopen();
+    assertEquals(48, journal.size());
+    List<String> ids = requestIds(journal);
+    assertEquals("req1", ids.get(0));
+    assertEquals("req49", ids.get(47));
+    assertFalse(journal.contains("req42"));
+  }
+
+  @Test
+  public void shouldRejectDuplicateRequestIds() throws Exception {
+    assertTrue(journal.append(query("foo")));
+    assertFalse(journal.append(query("foo")));
+    assertEquals(1, journal.size());
+    assertFalse(journal.acknowledge("bar"));
+  }
+
+  @Test
+  public void shouldTruncateAnIncompleteRecord() throws Exception {
+    journal.append(query("foo"));
+    journal.append(query("bar"));
+    journal.close();
+
+    File segment = directory.listFiles()[0];
+    try (RandomAccessFile file = new RandomAccessFile(segment, "rw")) {
+      // simulates a crash in the middle of the second write
+      file.setLength(file.length() - 3);
+    }
+
+    reopen();
+    assertEquals(1, journal.size());
+    assertTrue(journal.contains("foo"));
+
+    journal.append(query("baz"));
+    reopen();
+    assertEquals(2, journal.size());
+  }
+
+  @Test
+  public void shouldDeleteAcknowledgedSegments() throws Exception {
+    for (int i = 0; i < 50; i++) {
+      journal.append(query("req" + i));
+    }
+    assertTrue(directory.listFiles().length > 2);
+
+    for (int i = 0; i < 50; i++) {
+      journal.acknowledge("req" + i);
+    }
+    assertEquals(1, directory.listFiles().length);
+
+    reopen();
+    assertEquals(0, journal.size());
+  }
+
+  @Test
+  public void shouldCompactLiveRequests() throws Exception {
+    for (int i = 0; i < 50; i++) {
+      journal.append(query("req" + i));
+    }
+    for (int i = 1; i < 50; i += 2) {
+      journal.acknowledge("req" + i);
+    }
+
+    journal.compact();
+    assertEquals(25, journal.size());
+
+    reopen();
+    List<String> ids = requestIds(journal);
+    assertEquals(25, ids.size());
+    assertEquals("req0", ids.get(0));
+    assertEquals("req48", ids.get(24));
+  }
+
+  @Test
+  public void shouldReplayJournaledRequestsAfterARestart() throws Exception {
+    Options options = new Options();
+    options.setConnect(Mode.MANUAL);
+    options.setOfflineQueueJournal(journal);
+    options.setTransport(new LoopbackTransport());
+
+    KuzzleExtend kuzzle = new KuzzleExtend("localhost", options, null);
+    kuzzle.setState(States.OFFLINE);
+    kuzzle.startQueuing();
+    Kuzzle.QueryArgs args = new Kuzzle.QueryArgs();
+    args.controller = "foo";
+    args.action = "bar";
+    kuzzle.query(args, new JSONObject(), new Options().setQueuable(true));
+    assertEquals(1, journal.size());
+
+    // process restart
+    options.setOfflineQueueJournal(reopen());
+    kuzzle = new KuzzleExtend("localhost", options, null);
+    assertEquals(1, kuzzle.getOfflineQueue().size());
+
+    kuzzle.connect();
+    Thread.sleep(100);
+    assertEquals(0, kuzzle.getOfflineQueue().size());
+    assertEquals(0, journal.size());
+  }
+}
@@ -7,9 +7,10 @@ import org.json.JSONException;
 import org.json.JSONObject;
 
 import java.net.URISyntaxException;
-import java.util.Date;
 import java.util.Map;
+import java.util.Set;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ScheduledExecutorService;
 
 import io.kuzzle.sdk.core.Kuzzle;
 import io.kuzzle.sdk.core.Options;
@@ -19,12 +20,13 @@ import io.kuzzle.sdk.listeners.ResponseListener;
 import io.kuzzle.sdk.listeners.OnQueryDoneListener;
 import io.kuzzle.sdk.state.States;
 import io.kuzzle.sdk.util.EventList;
-import tech.gusavila92.websocketclient.WebSocketClient;
+import io.kuzzle.sdk.util.RequestEnvelope;
+import io.kuzzle.sdk.transport.Transport;
 
 import static org.mockito.Mockito.spy;
 
 public class KuzzleExtend extends Kuzzle {
-  protected WebSocketClient savedSocket = null;
+  protected Transport savedTransport = null;
 
   public ResponseListener loginCallback;
 
@@ -46,8 +48,8 @@ public class KuzzleExtend extends Kuzzle {
     this.state = newState;
   }
 
-  public void setSocket(WebSocketClient s) {
-    this.socket = this.savedSocket = s;
+  public void setTransport(Transport t) {
+    this.transport = this.savedTransport = t;
   }
 
   public void setListener(ResponseListener listener) {
@@ -59,9 +61,13 @@ public class KuzzleExtend extends Kuzzle {
     return super.deleteSubscription(roomId, id);
   }
 
+  public RequestEnvelope getEnvelope() {
+    return super.getEnvelope();
+  }
+
 
-  protected WebSocketClient createSocket() throws URISyntaxException {
-    return this.savedSocket != null ? this.savedSocket : super.createSocket();
+  protected Transport createTransport() throws URISyntaxException {
+    return this.savedTransport != null ? this.savedTransport : super.createTransport();
   }
 
   /**
@@ -83,11 +89,11 @@ public class KuzzleExtend extends Kuzzle {
   }
 
   /**
-   * Gets the internal socket instance from the kuzzle object
+   * Gets the internal transport instance from the kuzzle object
    * @return
    */
-  public WebSocketClient getSocket() {
-    return this.socket;
+  public Transport getTransport() {
+    return this.transport;
   }
 
   public void isValid() {
@@ -98,14 +104,26 @@ public class KuzzleExtend extends Kuzzle {
     super.emitRequest(request, listener);
   }
 
+  public void emitRequest(final JSONObject request, long timeout, final OnQueryDoneListener listener) throws JSONException {
+    super.emitRequest(request, timeout, listener);
+  }
+
   public Kuzzle deletePendingSubscription(final String id) {
     return super.deletePendingSubscription(id);
   }
 
-  public Map<String, Date> getRequestHistory() {
+  public Set<String> getRequestHistory() {
     return super.getRequestHistory();
   }
 
+  public ScheduledExecutorService getScheduler() {
+    return super.getScheduler();
+  }
+
+  public Map<String, OnQueryDoneListener> getCurrentQueries() {
+    return this.currentQueries;
+  }
+
   public Map<String, Room> getPendingSubscriptions() {
     return super.getPendingSubscriptions();
   }
@@ -0,0 +1,55 @@
+package io.kuzzle.test.testUtils;
+
+import org.json.JSONException;
+import org.json.JSONObject;
+
+import java.net.URISyntaxException;
+
+import io.kuzzle.sdk.core.Kuzzle;
+import io.kuzzle.sdk.core.Options;
+import io.kuzzle.sdk.enums.Mode;
+import io.kuzzle.sdk.transport.LoopbackTransport;
+import io.kuzzle.sdk.transport.Transport;
+
+/**
+ * Kuzzle instances talking to an in-process server stand-in
+ */
+public class LoopbackHelper {
+  /**
+   * @param transport - Transport to use, usually a LoopbackTransport
+   * @return options of an instance connecting on demand through the given transport
+   */
+  public static Options makeOptions(final Transport transport) {
+    Options options = new Options();
+    options.setConnect(Mode.MANUAL);
+    options.setTransport(transport);
+    return options;
+  }
+
+  /**
+   * @param options - Instance options
+   * @return connected instance
+   */
+  public static Kuzzle connect(final Options options) throws URISyntaxException {
+    Kuzzle kuzzle = new Kuzzle("localhost", options);
+    kuzzle.connect();
+    return kuzzle;
+  }
+
+  /**
+   * Answers a request successfully
+   *
+   * @param transport - Transport receiving the response
+   * @param request - Answered request
+   * @param result - Response result
+   */
+  public static void reply(final LoopbackTransport transport, final JSONObject request, final JSONObject result) throws JSONException {
+    transport.reply(new JSONObject()
+      .put("requestId", request.getString("requestId"))
+      .put("room", request.getString("requestId"))
+      .put("status", 200)
+      .put("error", JSONObject.NULL)
+      .put("result", result)
+      .toString());
+  }
+}
@@ -2,8 +2,6 @@ package io.kuzzle.test.testUtils;
 
 import org.json.JSONObject;
 
-import java.util.Timer;
-import java.util.TimerTask;
 
 import io.kuzzle.sdk.core.Collection;
 import io.kuzzle.sdk.core.Room;
@@ -50,8 +48,8 @@ public class RoomExtend extends Room {
     return super.unsubscribe();
   }
 
-  public TimerTask  unsubscribeTask(final Timer timer, final String roomId, final JSONObject data) {
-    return super.unsubscribeTask(timer, roomId, data);
+  public Runnable unsubscribeTask(final String roomId, final JSONObject data) {
+    return super.unsubscribeTask(roomId, data);
   }
 
   public Room makeHeadersNull() {
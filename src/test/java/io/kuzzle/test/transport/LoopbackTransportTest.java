@@ -0,0 +1,118 @@
+package io.kuzzle.test.transport;
+
+import org.json.JSONException;
+import org.json.JSONObject;
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.ArgumentCaptor;
+
+import java.net.URISyntaxException;
+
+import io.kuzzle.sdk.core.Kuzzle;
+import io.kuzzle.sdk.core.Options;
+import io.kuzzle.sdk.enums.Event;
+import io.kuzzle.sdk.enums.Mode;
+import io.kuzzle.sdk.listeners.EventListener;
+import io.kuzzle.sdk.listeners.OnQueryDoneListener;
+import io.kuzzle.sdk.state.States;
+import io.kuzzle.sdk.transport.LoopbackTransport;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.Matchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+
+public class LoopbackTransportTest {
+  private LoopbackTransport transport;
+  private Kuzzle kuzzle;
+  private Kuzzle.QueryArgs args;
+
+  @Before
+  public void setUp() throws URISyntaxException {
+    transport = new LoopbackTransport();
+
+    Options options = new Options();
+    options.setConnect(Mode.MANUAL);
+    options.setTransport(transport);
+
+    kuzzle = new Kuzzle("localhost", options);
+
+    args = new Kuzzle.QueryArgs();
+    args.controller = "foo";
+    args.action = "bar";
+  }
+
+  @Test
+  public void shouldConnectThroughTheProvidedTransport() throws URISyntaxException {
+    kuzzle.connect();
+    assertTrue(transport.isOpen());
+    assertEquals(States.CONNECTED, kuzzle.getState());
+  }
+
+  @Test
+  public void shouldRouteResponsesToTheQueryListener() throws URISyntaxException, JSONException {
+    OnQueryDoneListener listener = mock(OnQueryDoneListener.class);
+    ArgumentCaptor<JSONObject> argument = ArgumentCaptor.forClass(JSONObject.class);
+
+    kuzzle.connect();
+    kuzzle.query(args, new JSONObject().put("requestId", "foobar"), listener);
+
+    verify(listener).onSuccess(argument.capture());
+    verify(listener, never()).onError(any(JSONObject.class));
+    assertEquals("foobar", argument.getValue().getString("requestId"));
+    assertEquals("bar", argument.getValue().getString("action"));
+  }
+
+  @Test
+  public void shouldUseACustomHandler() throws URISyntaxException, JSONException {
+    transport = new LoopbackTransport(new LoopbackTransport.Handler() {
+      @Override
+      public void onRequest(String payload, LoopbackTransport t) {
+        try {
+          String requestId = new JSONObject(payload).getString("requestId");
+          t.receive(new JSONObject()
+            .put("requestId", requestId)
+            .put("room", requestId)
+            .put("action", "bar")
+            .put("error", new JSONObject().put("message", "foo"))
+            .toString());
+        } catch (JSONException e) {
+          throw new RuntimeException(e);
+        }
+      }
+    });
+
+    Options options = new Options();
+    options.setConnect(Mode.MANUAL);
+    options.setTransport(transport);
+    kuzzle = new Kuzzle("localhost", options);
+
+    OnQueryDoneListener listener = mock(OnQueryDoneListener.class);
+    kuzzle.connect();
+    kuzzle.query(args, new JSONObject(), listener);
+
+    verify(listener).onError(any(JSONObject.class));
+    verify(listener, never()).onSuccess(any(JSONObject.class));
+  }
+
+  @Test
+  public void shouldNotifyConnectionLoss() throws URISyntaxException {
+    EventListener listener = mock(EventListener.class);
+
+    kuzzle.addListener(Event.disconnected, listener);
+    kuzzle.connect();
+    transport.dropConnection();
+
+    assertFalse(transport.isOpen());
+    assertEquals(States.OFFLINE, kuzzle.getState());
+    verify(listener).trigger();
+  }
+
+  @Test(expected = IllegalStateException.class)
+  public void shouldThrowIfNotConnected() {
+    transport.send("{}");
+  }
+}
@@ -0,0 +1,94 @@
+package io.kuzzle.test.transport;
+
+import org.junit.Test;
+
+import java.util.Random;
+
+import io.kuzzle.sdk.transport.ReconnectionPolicy;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+public class ReconnectionPolicyTest {
+  /**
+   * Random source always returning the same value
+   */
+  private static Random fixedRandom(final double value) {
+    return new Random() {
+      @Override
+      public double nextDouble() {
+        return value;
+      }
+    };
+  }
+
+  @Test
+  public void shouldGrowExponentiallyUpToTheMaximum() {
+    ReconnectionPolicy policy = new ReconnectionPolicy(100, 1000, 2, false, 0);
+
+    assertEquals(100, policy.getDelay(0));
+    assertEquals(200, policy.getDelay(1));
+    assertEquals(800, policy.getDelay(3));
+    assertEquals(1000, policy.getDelay(4));
+    assertEquals(1000, policy.getDelay(1000));
+  }
+
+  @Test
+  public void shouldPickDelaysWithFullJitter() {
+    ReconnectionPolicy policy = new ReconnectionPolicy(100, 1000);
+    long min = Long.MAX_VALUE;
+    long max = 0;
+
+    for (int i = 0; i < 1000; i++) {
+      long delay = policy.getDelay(2);
+      min = Math.min(min, delay);
+      max = Math.max(max, delay);
+    }
+
+    assertTrue(min >= 0 && min < 100);
+    assertTrue(max > 300 && max <= 400);
+    assertEquals(0, new ReconnectionPolicy(100, 1000, 2, true, 0, fixedRandom(0)).getDelay(5));
+  }
+
+  @Test
+  public void shouldUseAFixedDelay() {
+    ReconnectionPolicy policy = ReconnectionPolicy.fixed(500);
+
+    assertEquals(500, policy.getDelay(0));
+    assertEquals(500, policy.getDelay(10));
+    assertEquals(0, policy.getResumeDelay());
+  }
+
+  @Test
+  public void shouldHonorServerLoadHints() {
+    ReconnectionPolicy policy = new ReconnectionPolicy(100, 1000, 2, true, 0, fixedRandom(0));
+
+    policy.hintServerLoad(5000);
+    long delay = policy.getDelay(0);
+    assertTrue(delay > 4900 && delay <= 5000);
+
+    policy.hintServerLoad(0);
+    assertEquals(0, policy.getDelay(0));
+  }
+
+  @Test
+  public void shouldStaggerTheResume() {
+    assertEquals(500, new ReconnectionPolicy(100, 1000, 2, true, 1000, fixedRandom(0.5)).getResumeDelay());
+    assertEquals(0, new ReconnectionPolicy(100, 1000).getResumeDelay());
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void shouldRejectAMaxDelayLowerThanTheInitialOne() {
+    new ReconnectionPolicy(1000, 100);
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void shouldRejectAShrinkingMultiplier() {
+    new ReconnectionPolicy(100, 1000, 0.5, true, 0);
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void shouldRejectANegativeResumeJitter() {
+    new ReconnectionPolicy(100, 1000, 2, true, -1);
+  }
+}
@@ -0,0 +1,395 @@
+package io.kuzzle.test.transport;
+
+import org.json.JSONException;
+import org.json.JSONObject;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.net.URISyntaxException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import io.kuzzle.sdk.core.Kuzzle;
+import io.kuzzle.sdk.core.Options;
+import io.kuzzle.sdk.core.Room;
+import io.kuzzle.sdk.enums.Event;
+import io.kuzzle.sdk.enums.Sharding;
+import io.kuzzle.sdk.listeners.EventListener;
+import io.kuzzle.sdk.listeners.OnQueryDoneListener;
+import io.kuzzle.sdk.listeners.ResponseListener;
+import io.kuzzle.sdk.state.States;
+import io.kuzzle.sdk.transport.LoopbackTransport;
+import io.kuzzle.sdk.transport.ShardedTransport;
+import io.kuzzle.sdk.transport.TransportListener;
+import io.kuzzle.test.testUtils.LoopbackHelper;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.Matchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+public class ShardedTransportTest {
+  private final List<List<JSONObject>> received = new ArrayList<>();
+  private final List<LoopbackTransport> shards = new ArrayList<>();
+  private final Set<Integer> heldBack = Collections.synchronizedSet(new HashSet<Integer>());
+  private ShardedTransport transport;
+  private Kuzzle.QueryArgs args;
+
+  @Before
+  public void setUp() {
+    for (int i = 0; i < 3; i++) {
+      final int index = i;
+      final List<JSONObject> requests = Collections.synchronizedList(new ArrayList<JSONObject>());
+      received.add(requests);
+
+      // Answers subscriptions with a channel, and every other request with an empty result
+      shards.add(new LoopbackTransport(new LoopbackTransport.Handler() {
+        @Override
+        public void onRequest(String payload, LoopbackTransport transport) {
+          try {
+            JSONObject request = new JSONObject(payload);
+            requests.add(request);
+
+            JSONObject result = "subscribe".equals(request.getString("action"))
+              ? new JSONObject().put("channel", "channel-" + request.getString("collection")).put("roomId", "room-" + request.getString("collection"))
+              : new JSONObject();
+
+            LoopbackHelper.reply(transport, request, result);
+          } catch (JSONException e) {
+            throw new RuntimeException(e);
+          }
+        }
+      }) {
+        // Shards held back do not connect
+        @Override
+        public void connect() {
+          if (!heldBack.contains(index)) {
+            super.connect();
+          }
+        }
+      });
+    }
+
+    transport = new ShardedTransport(shards, 10);
+
+    args = new Kuzzle.QueryArgs();
+    args.controller = "document";
+    args.action = "get";
+    args.index = "index";
+    args.collection = "collection";
+  }
+
+  private Kuzzle connect(Sharding sharding) throws URISyntaxException {
+    return LoopbackHelper.connect(LoopbackHelper.makeOptions(transport).setSharding(sharding));
+  }
+
+  private int count(int shard, String action) throws JSONException {
+    int count = 0;
+
+    synchronized (received.get(shard)) {
+      for (JSONObject request : received.get(shard)) {
+        if (action.equals(request.getString("action"))) {
+          count++;
+        }
+      }
+    }
+
+    return count;
+  }
+
+  private void awaitCount(int shard, String action, int expected) throws JSONException, InterruptedException {
+    for (int i = 0; i < 100 && count(shard, action) < expected; i++) {
+      Thread.sleep(10);
+    }
+    assertEquals(expected, count(shard, action));
+  }
+
+  @Test
+  public void shouldSpreadRequestsInRoundRobinOrder() throws URISyntaxException, JSONException {
+    Kuzzle kuzzle = connect(Sharding.ROUND_ROBIN);
+
+    for (int i = 0; i < 30; i++) {
+      kuzzle.query(args, new JSONObject());
+    }
+
+    for (int i = 0; i < 3; i++) {
+      assertEquals(10, count(i, "get"));
+    }
+  }
+
+  @Test
+  public void shouldRouteByCollection() throws URISyntaxException, JSONException {
+    Kuzzle kuzzle = connect(Sharding.COLLECTION);
+    int shard = transport.shardOf("index/collection");
+
+    for (int i = 0; i < 30; i++) {
+      kuzzle.query(args, new JSONObject());
+    }
+
+    assertEquals(30, count(shard, "get"));
+  }
+
+  @Test
+  public void shouldRerouteRequestsOfADisconnectedShard() throws URISyntaxException, JSONException {
+    Kuzzle kuzzle = connect(Sharding.ROUND_ROBIN);
+    shards.get(1).dropConnection();
+
+    for (int i = 0; i < 30; i++) {
+      kuzzle.query(args, new JSONObject());
+    }
+
+    assertEquals(States.CONNECTED, kuzzle.getState());
+    assertEquals(15, count(0, "get"));
+    assertEquals(0, count(1, "get"));
+    assertEquals(15, count(2, "get"));
+  }
+
+  @Test
+  public void shouldStickSubscriptionsToTheirShard() throws Exception {
+    Kuzzle kuzzle = connect(Sharding.ROUND_ROBIN);
+    int shard = transport.shardOf("index/collection");
+
+    kuzzle.collection("collection", "index").subscribe(new JSONObject(), mock(ResponseListener.class));
+    awaitCount(shard, "subscribe", 1);
+
+    // the shard reconnects alone: its subscriptions are renewed on it, once buffered frames are sent
+    Thread.sleep(600);
+    shards.get(shard).dropConnection();
+    kuzzle.query(realtimeArgs("count"), new JSONObject());
+    assertEquals(1, transport.getBufferedCount(shard));
+
+    shards.get(shard).connect();
+    assertEquals(1, count(shard, "count"));
+    awaitCount(shard, "subscribe", 2);
+
+    for (int i = 0; i < 3; i++) {
+      if (i != shard) {
+        assertEquals(0, count(i, "subscribe"));
+        assertEquals(0, count(i, "count"));
+      }
+    }
+  }
+
+  @Test
+  public void shouldLeaveSubscriptionsOfADisconnectedShardToTheirRenewal() throws Exception {
+    Kuzzle kuzzle = connect(Sharding.ROUND_ROBIN);
+    int shard = transport.shardOf("index/collection");
+
+    shards.get(shard).dropConnection();
+    Room room = new Room(kuzzle.collection("collection", "index")).renew(mock(ResponseListener.class));
+    Thread.sleep(50);
+
+    assertEquals(0, transport.getBufferedCount(shard));
+    assertEquals(0, kuzzle.getSharedSubscriptionCount());
+
+    // sent once, by the renewal of the shard subscriptions
+    shards.get(shard).connect();
+    awaitCount(shard, "subscribe", 1);
+
+    for (int i = 0; i < 100 && room.getRoomId() == null; i++) {
+      Thread.sleep(10);
+    }
+    assertEquals("room-collection", room.getRoomId());
+    Thread.sleep(50);
+    assertEquals(1, count(shard, "subscribe"));
+  }
+
+  @Test
+  public void shouldRenewSubscriptionsOfAShardConnectingAfterTheOthers() throws Exception {
+    int shard = transport.shardOf("index/collection");
+    heldBack.add(shard);
+    Kuzzle kuzzle = connect(Sharding.ROUND_ROBIN);
+
+    Room room = new Room(kuzzle.collection("collection", "index")).renew(mock(ResponseListener.class));
+    Thread.sleep(50);
+    assertEquals(0, count(shard, "subscribe"));
+
+    heldBack.remove(shard);
+    shards.get(shard).connect();
+    awaitCount(shard, "subscribe", 1);
+
+    for (int i = 0; i < 100 && room.getRoomId() == null; i++) {
+      Thread.sleep(10);
+    }
+    assertEquals("room-collection", room.getRoomId());
+  }
+
+  @Test
+  public void shouldRenewSubscriptionsOfShardsReconnectingAfterAnOutage() throws Exception {
+    Kuzzle kuzzle = connect(Sharding.ROUND_ROBIN);
+    int shard = transport.shardOf("index/collection");
+
+    kuzzle.collection("collection", "index").subscribe(new JSONObject(), mock(ResponseListener.class));
+    awaitCount(shard, "subscribe", 1);
+
+    Thread.sleep(600);
+    for (LoopbackTransport t : shards) {
+      t.dropConnection();
+    }
+    assertEquals(States.OFFLINE, kuzzle.getState());
+
+    // the pool reconnects through another shard first
+    shards.get((shard + 1) % 3).connect();
+    assertEquals(States.CONNECTED, kuzzle.getState());
+    Thread.sleep(50);
+    assertEquals(1, count(shard, "subscribe"));
+
+    shards.get(shard).connect();
+    awaitCount(shard, "subscribe", 2);
+  }
+
+  @Test
+  public void shouldNotStallResubscriptionsOnADisconnectedShard() throws Exception {
+    int down = 0, up = 1;
+    String deferred = null;
+    List<String> collections = new ArrayList<>();
+
+    for (int i = 0; deferred == null || collections.size() < 4; i++) {
+      int shard = transport.shardOf("index/c" + i);
+
+      if (shard == down && deferred == null) {
+        deferred = "c" + i;
+      } else if (shard == up && collections.size() < 4) {
+        collections.add("c" + i);
+      }
+    }
+
+    Kuzzle kuzzle = LoopbackHelper.connect(LoopbackHelper.makeOptions(transport)
+      .setSharding(Sharding.ROUND_ROBIN)
+      .setResubscribeConcurrency(1));
+    final List<JSONObject> resubscribed = Collections.synchronizedList(new ArrayList<JSONObject>());
+    kuzzle.addListener(Event.resubscribed, new EventListener() {
+      @Override
+      public void trigger(Object... args) {
+        resubscribed.add((JSONObject) args[0]);
+      }
+    });
+
+    new Room(kuzzle.collection(deferred, "index")).renew(mock(ResponseListener.class));
+    List<Room> rooms = new ArrayList<>();
+    for (String collection : collections) {
+      rooms.add(new Room(kuzzle.collection(collection, "index")).renew(mock(ResponseListener.class)));
+    }
+    awaitCount(down, "subscribe", 1);
+    awaitCount(up, "subscribe", 4);
+
+    // the room of the disconnected shard, notified last, is renewed first
+    shards.get(down).receive(new JSONObject()
+      .put("room", "channel-" + deferred)
+      .put("type", "document")
+      .put("status", 200)
+      .put("index", "index")
+      .put("collection", deferred)
+      .put("controller", "document")
+      .put("action", "create")
+      .put("scope", "in")
+      .put("state", "done")
+      .put("requestId", "foo")
+      .put("result", new JSONObject().put("_id", "bar").put("_source", new JSONObject()))
+      .toString());
+
+    for (LoopbackTransport shard : shards) {
+      shard.dropConnection();
+    }
+    shards.get(up).connect();
+    awaitCount(up, "subscribe", 8);
+
+    for (int i = 0; i < 100 && resubscribed.isEmpty(); i++) {
+      Thread.sleep(10);
+    }
+    assertEquals(1, resubscribed.size());
+    assertEquals(5, resubscribed.get(0).getInt("rooms"));
+    assertEquals(1, count(down, "subscribe"));
+
+    for (Room room : rooms) {
+      for (int i = 0; i < 100 && room.getRoomId() == null; i++) {
+        Thread.sleep(10);
+      }
+      assertNotNull(room.getRoomId());
+    }
+  }
+
+  @Test
+  public void shouldNotSendBufferedRequestsSettledMeanwhile() throws Exception {
+    Kuzzle kuzzle = connect(Sharding.ROUND_ROBIN);
+    int shard = transport.shardOf("index/collection");
+    final CountDownLatch timedOut = new CountDownLatch(1);
+
+    shards.get(shard).dropConnection();
+    kuzzle.query(realtimeArgs("count"), new JSONObject(), new Options().setRequestTimeout(50L), new OnQueryDoneListener() {
+      @Override
+      public void onSuccess(JSONObject response) {
+      }
+
+      @Override
+      public void onError(JSONObject error) {
+        timedOut.countDown();
+      }
+    });
+    kuzzle.query(realtimeArgs("list"), new JSONObject(), mock(OnQueryDoneListener.class));
+    assertEquals(2, transport.getBufferedCount(shard));
+    assertTrue(timedOut.await(1, TimeUnit.SECONDS));
+
+    shards.get(shard).connect();
+    assertEquals(0, count(shard, "count"));
+    assertEquals(1, count(shard, "list"));
+  }
+
+  @Test
+  public void shouldReportTheConnectionStateOfThePool() throws URISyntaxException {
+    Kuzzle kuzzle = connect(Sharding.ROUND_ROBIN);
+    EventListener disconnected = mock(EventListener.class);
+    kuzzle.addListener(Event.disconnected, disconnected);
+
+    shards.get(0).dropConnection();
+    shards.get(1).dropConnection();
+    assertEquals(States.CONNECTED, kuzzle.getState());
+    verify(disconnected, never()).trigger(any());
+
+    shards.get(2).dropConnection();
+    assertEquals(States.OFFLINE, kuzzle.getState());
+    verify(disconnected, times(1)).trigger();
+  }
+
+  @Test
+  public void shouldBoundTheBufferOfADisconnectedShard() {
+    TransportListener listener = mock(TransportListener.class);
+    transport.setListener(listener);
+    transport.connect();
+    verify(listener, times(1)).onOpen();
+
+    shards.get(0).dropConnection();
+    for (int i = 0; i < 15; i++) {
+      transport.send("{}", 0);
+    }
+
+    assertFalse(transport.isOpen(0));
+    assertTrue(transport.isOpen(1));
+    assertEquals(10, transport.getBufferedCount(0));
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void shouldRequireTransports() {
+    new ShardedTransport(Arrays.<LoopbackTransport>asList(), 10);
+  }
+
+  private Kuzzle.QueryArgs realtimeArgs(String action) {
+    Kuzzle.QueryArgs realtime = new Kuzzle.QueryArgs();
+    realtime.controller = "realtime";
+    realtime.action = action;
+    realtime.index = "index";
+    realtime.collection = "collection";
+    return realtime;
+  }
+}
@@ -0,0 +1,124 @@
+package io.kuzzle.test.util;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import io.kuzzle.sdk.util.CollectionCache;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
+
+public class CollectionCacheTest {
+  private final AtomicInteger created = new AtomicInteger();
+
+  private final CollectionCache.Factory<String> factory = new CollectionCache.Factory<String>() {
+    @Override
+    public String create(String index, String collection) {
+      created.incrementAndGet();
+      return new String(index + "/" + collection);
+    }
+  };
+
+  @Test
+  public void shouldCacheEachCollectionOfAnIndex() {
+    CollectionCache<String> cache = new CollectionCache<>(0, factory);
+
+    String foo = cache.get("index", "foo");
+    String bar = cache.get("index", "bar");
+
+    for (int i = 0; i < 10; i++) {
+      assertSame(foo, cache.get("index", "foo"));
+      assertSame(bar, cache.get("index", "bar"));
+    }
+
+    assertEquals("index/foo", foo);
+    assertEquals("other/foo", cache.get("other", "foo"));
+    assertEquals(3, created.get());
+    assertEquals(3, cache.size());
+  }
+
+  @Test
+  public void shouldEvictTheLeastRecentlyUsedEntries() throws InterruptedException {
+    CollectionCache<String> cache = new CollectionCache<>(10, factory);
+    String kept = cache.get("index", "kept");
+
+    for (int i = 0; i < 9; i++) {
+      cache.get("index", "collection" + i);
+      Thread.sleep(1);
+      cache.get("index", "kept");
+    }
+    assertEquals(10, cache.size());
+
+    // a tenth of the cache is evicted at once, in addition to the exceeding entry
+    cache.get("other", "new");
+    assertEquals(9, cache.size());
+    assertSame(kept, cache.get("index", "kept"));
+    assertEquals(11, created.get());
+
+    cache.get("index", "collection0");
+    assertEquals(12, created.get());
+  }
+
+  @Test
+  public void shouldCreateEachEntryOnceUnderContention() throws InterruptedException {
+    final CollectionCache<String> cache = new CollectionCache<>(0, factory);
+    final CountDownLatch start = new CountDownLatch(1);
+    final List<String> results = new ArrayList<>();
+    List<Thread> threads = new ArrayList<>();
+
+    for (int i = 0; i < 8; i++) {
+      Thread thread = new Thread(new Runnable() {
+        @Override
+        public void run() {
+          try {
+            start.await();
+          } catch (InterruptedException e) {
+            return;
+          }
+
+          String value = null;
+          for (int j = 0; j < 1000; j++) {
+            value = cache.get("index", "collection" + (j % 10));
+          }
+
+          synchronized (results) {
+            results.add(value);
+          }
+        }
+      });
+      thread.start();
+      threads.add(thread);
+    }
+
+    start.countDown();
+    for (Thread thread : threads) {
+      thread.join();
+    }
+
+    assertEquals(10, created.get());
+    for (String value : results) {
+      assertSame(results.get(0), value);
+    }
+  }
+
+  @Test
+  public void shouldClearTheCache() {
+    CollectionCache<String> cache = new CollectionCache<>(0, factory);
+    String foo = cache.get("index", "foo");
+
+    cache.clear();
+    assertEquals(0, cache.size());
+    assertNotSame(foo, cache.get("index", "foo"));
+    assertEquals(1, cache.size());
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void shouldRejectANegativeSize() {
+    new CollectionCache<>(-1, factory);
+  }
+}
@@ -0,0 +1,105 @@
+package io.kuzzle.test.util;
+
+import org.junit.Test;
+
+import io.kuzzle.sdk.util.ConcurrencyLimiter;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class ConcurrencyLimiterTest {
+  @Test
+  public void shouldLimitRequestsInFlight() {
+    ConcurrencyLimiter limiter = new ConcurrencyLimiter(2, 1, 10, 0.5, 2);
+
+    assertTrue(limiter.tryAcquire());
+    assertTrue(limiter.tryAcquire());
+    assertFalse(limiter.tryAcquire());
+    assertEquals(0, limiter.getAvailable());
+
+    limiter.release(10, false, 0);
+    assertEquals(1, limiter.getInFlight());
+    assertTrue(limiter.tryAcquire());
+  }
+
+  @Test
+  public void shouldGrowAdditivelyOnFastResponses() {
+    ConcurrencyLimiter limiter = new ConcurrencyLimiter(4, 1, 6, 0.5, 2);
+
+    // about one more slot per window of fast responses
+    for (int i = 0; i < 4; i++) {
+      limiter.tryAcquire();
+      limiter.release(10, false, i);
+    }
+    assertEquals(4, limiter.getLimit());
+
+    limiter.tryAcquire();
+    limiter.release(10, false, 5);
+    assertEquals(5, limiter.getLimit());
+
+    for (int i = 0; i < 100; i++) {
+      limiter.tryAcquire();
+      limiter.release(10, false, 10 + i);
+    }
+    assertEquals(6, limiter.getLimit());
+  }
+
+  @Test
+  public void shouldShrinkOnOverloadOncePerRoundTrip() {
+    ConcurrencyLimiter limiter = new ConcurrencyLimiter(16, 2, 32, 0.5, 2);
+
+    limiter.tryAcquire();
+    limiter.release(100, false, 1000);
+
+    limiter.tryAcquire();
+    limiter.release(100, true, 2000);
+    assertEquals(8, limiter.getLimit());
+
+    // same round trip: a single congestion signal
+    limiter.tryAcquire();
+    limiter.release(100, true, 2050);
+    assertEquals(8, limiter.getLimit());
+
+    limiter.tryAcquire();
+    limiter.release(100, true, 2200);
+    assertEquals(4, limiter.getLimit());
+
+    for (int i = 0; i < 10; i++) {
+      limiter.tryAcquire();
+      limiter.release(100, true, 3000 + i * 1000);
+    }
+    assertEquals(2, limiter.getLimit());
+  }
+
+  @Test
+  public void shouldShrinkOnLatencySpikes() {
+    ConcurrencyLimiter limiter = new ConcurrencyLimiter(16, 1, 32, 0.5, 2);
+
+    for (int i = 0; i < 10; i++) {
+      limiter.tryAcquire();
+      limiter.release(50, false, 1000 + i);
+    }
+    int limit = limiter.getLimit();
+
+    limiter.tryAcquire();
+    limiter.release(500, false, 5000);
+    assertEquals(limit / 2, limiter.getLimit());
+  }
+
+  @Test
+  public void shouldIgnoreLatencyJitter() {
+    ConcurrencyLimiter limiter = new ConcurrencyLimiter(16, 1, 32, 0.5, 2);
+
+    limiter.tryAcquire();
+    limiter.release(0, false, 1000);
+    limiter.tryAcquire();
+    limiter.release(5, false, 2000);
+    assertEquals(16, limiter.getLimit());
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void shouldRejectInvalidBounds() {
+    new ConcurrencyLimiter(10, 1, 5, 0.5, 2);
+  }
+}
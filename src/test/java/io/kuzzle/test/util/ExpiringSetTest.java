@@ -0,0 +1,81 @@
+package io.kuzzle.test.util;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import io.kuzzle.sdk.util.ExpiringSet;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class ExpiringSetTest {
+  private ExpiringSet<String> set;
+
+  @Before
+  public void setUp() {
+    // 1s ttl, 10 buckets of 100ms
+    set = new ExpiringSet<>(1000, 10);
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void shouldRejectInvalidTTL() {
+    new ExpiringSet<String>(0, 10);
+  }
+
+  @Test
+  public void shouldExpireEntries() {
+    set.add("foo", 10000);
+
+    assertTrue(set.contains("foo", 10000));
+    assertTrue(set.contains("foo", 10999));
+    assertFalse(set.contains("foo", 11100));
+  }
+
+  @Test
+  public void shouldEvictExpiredEntriesWhenRotating() {
+    set.add("foo", 10000);
+    set.add("bar", 10500);
+    set.add("baz", 11200);
+
+    assertEquals(2, set.size());
+    assertFalse(set.contains("foo", 11200));
+    assertTrue(set.contains("bar", 11200));
+  }
+
+  @Test
+  public void shouldRemoveEntries() {
+    set.add("foo", 10000);
+
+    assertTrue(set.remove("foo", 10000));
+    assertFalse(set.remove("foo", 10000));
+    assertFalse(set.contains("foo", 10000));
+  }
+
+  @Test
+  public void shouldNotReportExpiredEntriesAsRemoved() {
+    set.add("foo", 10000);
+    assertFalse(set.remove("foo", 12000));
+  }
+
+  @Test
+  public void shouldRefreshEntries() {
+    assertTrue(set.add("foo", 10000));
+    assertFalse(set.add("foo", 10800));
+
+    // the previous bucket is recycled, but the refreshed entry survives
+    set.add("bar", 11100);
+    assertTrue(set.contains("foo", 11100));
+    assertTrue(set.contains("foo", 11700));
+  }
+
+  @Test
+  public void shouldClearEntries() {
+    set.add("foo", 10000);
+    set.add("bar", 10000);
+    set.clear();
+
+    assertTrue(set.isEmpty());
+    assertFalse(set.contains("foo", 10000));
+  }
+}
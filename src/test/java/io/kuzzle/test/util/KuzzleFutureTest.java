@@ -0,0 +1,252 @@
+package io.kuzzle.test.util;
+
+import org.json.JSONException;
+import org.json.JSONObject;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import io.kuzzle.sdk.listeners.ResponseListener;
+import io.kuzzle.sdk.util.KuzzleFuture;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+public class KuzzleFutureTest {
+  private static class Recorder<T> implements ResponseListener<T> {
+    final List<T> results = new ArrayList<>();
+    final List<JSONObject> errors = new ArrayList<>();
+
+    @Override
+    public void onSuccess(T response) {
+      this.results.add(response);
+    }
+
+    @Override
+    public void onError(JSONObject error) {
+      this.errors.add(error);
+    }
+  }
+
+  private static JSONObject error(final String message) throws JSONException {
+    return new JSONObject().put("status", 400).put("message", message);
+  }
+
+  @Test
+  public void shouldCompleteOnce() throws JSONException {
+    KuzzleFuture<String> future = new KuzzleFuture<>();
+    Recorder<String> recorder = new Recorder<>();
+
+    future.whenComplete(recorder);
+    assertFalse(future.isDone());
+
+    future.onSuccess("foo");
+    future.onSuccess("bar");
+    future.onError(error("baz"));
+
+    assertTrue(future.isDone());
+    assertEquals("foo", future.getResult());
+    assertNull(future.getError());
+    assertEquals(Collections.singletonList("foo"), recorder.results);
+    assertTrue(recorder.errors.isEmpty());
+  }
+
+  @Test
+  public void shouldNotifyListenersRegisteredAfterCompletion() throws JSONException {
+    JSONObject error = error("foo");
+    Recorder<String> recorder = new Recorder<>();
+
+    KuzzleFuture.<String>failed(error).whenComplete(recorder);
+    KuzzleFuture.completed("bar").whenComplete(recorder);
+
+    assertEquals(Collections.singletonList(error), recorder.errors);
+    assertEquals(Collections.singletonList("bar"), recorder.results);
+  }
+
+  @Test
+  public void shouldReportNullErrorsAsErrors() {
+    Recorder<String> recorder = new Recorder<>();
+
+    KuzzleFuture.<String>failed(null).whenComplete(recorder);
+
+    assertEquals(1, recorder.errors.size());
+    assertTrue(recorder.results.isEmpty());
+  }
+
+  @Test
+  public void shouldTransformResults() throws JSONException {
+    KuzzleFuture<String> future = new KuzzleFuture<>();
+    Recorder<Integer> recorder = new Recorder<>();
+
+    future.thenApply(new KuzzleFuture.Function<String, Integer>() {
+      @Override
+      public Integer apply(String value) {
+        return value.length();
+      }
+    }).whenComplete(recorder);
+
+    future.onSuccess("foo");
+    assertEquals(Collections.singletonList(3), recorder.results);
+  }
+
+  @Test
+  public void shouldFailOnTransformationException() throws JSONException {
+    Recorder<Integer> recorder = new Recorder<>();
+
+    KuzzleFuture.completed("foo").thenApply(new KuzzleFuture.Function<String, Integer>() {
+      @Override
+      public Integer apply(String value) throws Exception {
+        throw new Exception("transformation failed");
+      }
+    }).whenComplete(recorder);
+
+    assertEquals(1, recorder.errors.size());
+    assertEquals(500, recorder.errors.get(0).getInt("status"));
+    assertEquals("transformation failed", recorder.errors.get(0).getString("message"));
+  }
+
+  @Test
+  public void shouldChainAsynchronousCalls() throws JSONException {
+    final KuzzleFuture<Integer> second = new KuzzleFuture<>();
+    KuzzleFuture<String> first = new KuzzleFuture<>();
+    Recorder<Integer> recorder = new Recorder<>();
+
+    first.thenCompose(new KuzzleFuture.Function<String, KuzzleFuture<Integer>>() {
+      @Override
+      public KuzzleFuture<Integer> apply(String value) {
+        return second;
+      }
+    }).whenComplete(recorder);
+
+    first.onSuccess("foo");
+    assertTrue(recorder.results.isEmpty());
+
+    second.onSuccess(42);
+    assertEquals(Collections.singletonList(42), recorder.results);
+  }
+
+  @Test
+  public void shouldPropagateErrorsThroughCompositions() throws JSONException {
+    JSONObject error = error("foo");
+    final AtomicInteger calls = new AtomicInteger();
+    Recorder<Integer> recorder = new Recorder<>();
+
+    KuzzleFuture.<String>failed(error).thenApply(new KuzzleFuture.Function<String, Integer>() {
+      @Override
+      public Integer apply(String value) {
+        calls.incrementAndGet();
+        return 0;
+      }
+    }).whenComplete(recorder);
+
+    assertEquals(0, calls.get());
+    assertEquals(Collections.singletonList(error), recorder.errors);
+  }
+
+  @Test
+  public void shouldWaitForAllResultsInOrder() {
+    KuzzleFuture<String> first = new KuzzleFuture<>();
+    KuzzleFuture<String> second = new KuzzleFuture<>();
+    Recorder<List<String>> recorder = new Recorder<>();
+
+    KuzzleFuture.<String>allOf(Arrays.asList(first, second)).whenComplete(recorder);
+
+    second.onSuccess("bar");
+    assertTrue(recorder.results.isEmpty());
+
+    first.onSuccess("foo");
+    assertEquals(1, recorder.results.size());
+    assertEquals(Arrays.asList("foo", "bar"), recorder.results.get(0));
+  }
+
+  @Test
+  public void shouldFailFastOnFirstError() throws JSONException {
+    JSONObject error = error("foo");
+    KuzzleFuture<String> first = new KuzzleFuture<>();
+    KuzzleFuture<String> second = new KuzzleFuture<>();
+    Recorder<List<String>> recorder = new Recorder<>();
+
+    KuzzleFuture.<String>allOf(Arrays.asList(first, second)).whenComplete(recorder);
+
+    second.onError(error);
+    assertEquals(Collections.singletonList(error), recorder.errors);
+
+    first.onError(error("bar"));
+    assertEquals(1, recorder.errors.size());
+    assertTrue(recorder.results.isEmpty());
+  }
+
+  @Test
+  public void shouldCompleteAllOfWithoutFutures() {
+    Recorder<List<String>> recorder = new Recorder<>();
+
+    KuzzleFuture.allOf(new ArrayList<KuzzleFuture<String>>()).whenComplete(recorder);
+
+    assertEquals(1, recorder.results.size());
+    assertTrue(recorder.results.get(0).isEmpty());
+  }
+
+  @Test
+  public void shouldCompleteWithFirstSuccess() throws JSONException {
+    KuzzleFuture<String> first = new KuzzleFuture<>();
+    KuzzleFuture<String> second = new KuzzleFuture<>();
+    Recorder<String> recorder = new Recorder<>();
+
+    KuzzleFuture.<String>anyOf(Arrays.asList(first, second)).whenComplete(recorder);
+
+    first.onError(error("foo"));
+    assertTrue(recorder.errors.isEmpty());
+
+    second.onSuccess("bar");
+    assertEquals(Collections.singletonList("bar"), recorder.results);
+    assertTrue(recorder.errors.isEmpty());
+  }
+
+  @Test
+  public void shouldFailAnyOfWithLastError() throws JSONException {
+    JSONObject last = error("bar");
+    KuzzleFuture<String> first = new KuzzleFuture<>();
+    KuzzleFuture<String> second = new KuzzleFuture<>();
+    Recorder<String> recorder = new Recorder<>();
+
+    KuzzleFuture.<String>anyOf(Arrays.asList(first, second)).whenComplete(recorder);
+
+    first.onError(error("foo"));
+    second.onError(last);
+    assertEquals(Collections.singletonList(last), recorder.errors);
+  }
+
+  @Test
+  public void shouldFailAnyOfWithoutFutures() {
+    Recorder<String> recorder = new Recorder<>();
+
+    KuzzleFuture.anyOf(new ArrayList<KuzzleFuture<String>>()).whenComplete(recorder);
+
+    assertEquals(1, recorder.errors.size());
+  }
+
+  @Test
+  public void shouldRunOperationsWithTheFutureAsListener() throws JSONException {
+    final List<ResponseListener<String>> listeners = new ArrayList<>();
+
+    KuzzleFuture<String> future = KuzzleFuture.of(new KuzzleFuture.Operation<String>() {
+      @Override
+      public void run(ResponseListener<String> listener) {
+        listeners.add(listener);
+      }
+    });
+
+    assertEquals(1, listeners.size());
+    assertSame(future, listeners.get(0));
+
+    listeners.get(0).onSuccess("foo");
+    assertEquals("foo", future.getResult());
+  }
+}
@@ -0,0 +1,278 @@
+package io.kuzzle.test.util;
+
+import org.json.JSONException;
+import org.json.JSONObject;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+
+import io.kuzzle.sdk.enums.Overflow;
+import io.kuzzle.sdk.util.NotificationPublisher;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+public class NotificationPublisherTest {
+  private static class Recorder<T> implements NotificationPublisher.Subscriber<T> {
+    final List<T> received = Collections.synchronizedList(new ArrayList<T>());
+    NotificationPublisher.Subscription subscription;
+    JSONObject error;
+    boolean completed = false;
+
+    @Override
+    public void onSubscribe(NotificationPublisher.Subscription subscription) {
+      this.subscription = subscription;
+    }
+
+    @Override
+    public void onNext(T notification) {
+      this.received.add(notification);
+    }
+
+    @Override
+    public void onError(JSONObject error) {
+      this.error = error;
+    }
+
+    @Override
+    public void onComplete() {
+      this.completed = true;
+    }
+  }
+
+  private static NotificationPublisher<Integer> publish(final Overflow overflow, final int bufferSize, final int count) {
+    NotificationPublisher<Integer> publisher = new NotificationPublisher<>(bufferSize, overflow);
+
+    for (int i = 1; i <= count; i++) {
+      publisher.onSuccess(i);
+    }
+
+    return publisher;
+  }
+
+  @Test
+  public void shouldDeliverOnDemandOnly() {
+    NotificationPublisher<Integer> publisher = publish(Overflow.ERROR, 10, 5);
+    Recorder<Integer> recorder = new Recorder<>();
+
+    publisher.subscribe(recorder);
+    assertTrue(recorder.received.isEmpty());
+
+    recorder.subscription.request(2);
+    assertEquals(Arrays.asList(1, 2), recorder.received);
+
+    publisher.onSuccess(6);
+    recorder.subscription.request(Long.MAX_VALUE);
+    assertEquals(Arrays.asList(1, 2, 3, 4, 5, 6), recorder.received);
+
+    publisher.onSuccess(7);
+    assertEquals(7, recorder.received.size());
+    assertEquals(0, publisher.getBufferedCount());
+  }
+
+  @Test
+  public void shouldDropOldestNotifications() {
+    NotificationPublisher<Integer> publisher = publish(Overflow.DROP_OLDEST, 3, 5);
+    Recorder<Integer> recorder = new Recorder<>();
+
+    publisher.subscribe(recorder);
+    recorder.subscription.request(10);
+
+    assertEquals(Arrays.asList(3, 4, 5), recorder.received);
+    assertEquals(2, publisher.getDroppedCount());
+  }
+
+  @Test
+  public void shouldDropNewestNotifications() {
+    NotificationPublisher<Integer> publisher = publish(Overflow.DROP_NEWEST, 3, 5);
+    Recorder<Integer> recorder = new Recorder<>();
+
+    publisher.subscribe(recorder);
+    recorder.subscription.request(10);
+
+    assertEquals(Arrays.asList(1, 2, 3), recorder.received);
+    assertEquals(2, publisher.getDroppedCount());
+  }
+
+  @Test
+  public void shouldKeepLatestNotificationOnly() {
+    NotificationPublisher<Integer> publisher = publish(Overflow.LATEST, 3, 4);
+    Recorder<Integer> recorder = new Recorder<>();
+
+    publisher.subscribe(recorder);
+    recorder.subscription.request(10);
+
+    assertEquals(Collections.singletonList(4), recorder.received);
+    assertEquals(3, publisher.getDroppedCount());
+  }
+
+  @Test
+  public void shouldFailOnOverflow() throws JSONException {
+    NotificationPublisher<Integer> publisher = publish(Overflow.ERROR, 3, 4);
+    Recorder<Integer> recorder = new Recorder<>();
+
+    publisher.subscribe(recorder);
+
+    assertEquals(503, recorder.error.getInt("status"));
+    assertTrue(recorder.received.isEmpty());
+
+    publisher.onSuccess(5);
+    recorder.subscription.request(10);
+    assertTrue(recorder.received.isEmpty());
+  }
+
+  @Test
+  public void shouldTerminateAfterBufferedNotifications() throws JSONException {
+    NotificationPublisher<Integer> publisher = publish(Overflow.ERROR, 10, 2);
+    Recorder<Integer> recorder = new Recorder<>();
+
+    publisher.subscribe(recorder);
+    publisher.onError(new JSONObject().put("status", 400).put("message", "foo"));
+    assertNull(recorder.error);
+
+    recorder.subscription.request(2);
+    assertEquals(Arrays.asList(1, 2), recorder.received);
+    assertEquals("foo", recorder.error.getString("message"));
+  }
+
+  @Test
+  public void shouldCompleteStreams() {
+    NotificationPublisher<Integer> publisher = publish(Overflow.ERROR, 10, 1);
+    Recorder<Integer> recorder = new Recorder<>();
+
+    publisher.subscribe(recorder);
+    publisher.complete();
+    assertTrue(!recorder.completed);
+
+    recorder.subscription.request(1);
+    assertTrue(recorder.completed);
+  }
+
+  @Test
+  public void shouldRejectInvalidDemand() throws JSONException {
+    NotificationPublisher<Integer> publisher = publish(Overflow.ERROR, 10, 1);
+    Recorder<Integer> recorder = new Recorder<>();
+
+    publisher.subscribe(recorder);
+    recorder.subscription.request(0);
+
+    assertEquals(400, recorder.error.getInt("status"));
+    assertTrue(recorder.received.isEmpty());
+  }
+
+  @Test
+  public void shouldRefuseASecondSubscriber() throws JSONException {
+    NotificationPublisher<Integer> publisher = new NotificationPublisher<>(10, Overflow.ERROR);
+    Recorder<Integer> second = new Recorder<>();
+
+    publisher.subscribe(new Recorder<Integer>());
+    publisher.subscribe(second);
+
+    assertEquals(409, second.error.getInt("status"));
+  }
+
+  @Test
+  public void shouldDropNotificationsOnCancel() {
+    final int[] cancelled = {0};
+    NotificationPublisher<Integer> publisher = new NotificationPublisher<Integer>(10, Overflow.ERROR) {
+      @Override
+      protected void cancelled() {
+        cancelled[0]++;
+      }
+    };
+    Recorder<Integer> recorder = new Recorder<>();
+
+    publisher.onSuccess(1);
+    publisher.subscribe(recorder);
+    recorder.subscription.cancel();
+    recorder.subscription.cancel();
+    publisher.onSuccess(2);
+    recorder.subscription.request(10);
+
+    assertTrue(recorder.received.isEmpty());
+    assertEquals(0, publisher.getBufferedCount());
+    assertEquals(1, cancelled[0]);
+  }
+
+  @Test
+  public void shouldReleaseTheSourceOnOverflow() {
+    final int[] cancelled = {0};
+    NotificationPublisher<Integer> publisher = new NotificationPublisher<Integer>(1, Overflow.ERROR) {
+      @Override
+      protected void cancelled() {
+        cancelled[0]++;
+      }
+    };
+    Recorder<Integer> recorder = new Recorder<>();
+
+    publisher.subscribe(recorder);
+    publisher.onSuccess(1);
+    publisher.onSuccess(2);
+    assertEquals(1, cancelled[0]);
+
+    recorder.subscription.cancel();
+    assertEquals(1, cancelled[0]);
+  }
+
+  @Test
+  public void shouldBatchByCount() {
+    NotificationPublisher<Integer> publisher = new NotificationPublisher<>(10, Overflow.ERROR);
+    Recorder<List<Integer>> recorder = new Recorder<>();
+
+    publisher.batch(2, 0, null).subscribe(recorder);
+    recorder.subscription.request(Long.MAX_VALUE);
+
+    for (int i = 1; i <= 5; i++) {
+      publisher.onSuccess(i);
+    }
+
+    assertEquals(Arrays.asList(Arrays.asList(1, 2), Arrays.asList(3, 4)), recorder.received);
+
+    publisher.complete();
+    assertEquals(Arrays.asList(5), recorder.received.get(2));
+    assertTrue(recorder.completed);
+  }
+
+  @Test
+  public void shouldBatchByDelay() throws InterruptedException {
+    ScheduledExecutorService scheduler = Executors.newSingleThreadScheduledExecutor();
+    NotificationPublisher<Integer> publisher = new NotificationPublisher<>(10, Overflow.ERROR);
+    Recorder<List<Integer>> recorder = new Recorder<>();
+
+    publisher.batch(100, 50, scheduler).subscribe(recorder);
+    recorder.subscription.request(Long.MAX_VALUE);
+    publisher.onSuccess(1);
+    publisher.onSuccess(2);
+    assertTrue(recorder.received.isEmpty());
+
+    for (int i = 0; i < 100 && recorder.received.isEmpty(); i++) {
+      Thread.sleep(10);
+    }
+
+    scheduler.shutdown();
+    assertEquals(Collections.singletonList(Arrays.asList(1, 2)), recorder.received);
+  }
+
+  @Test
+  public void shouldCancelUpstreamWithBatches() {
+    final int[] cancelled = {0};
+    NotificationPublisher<Integer> publisher = new NotificationPublisher<Integer>(10, Overflow.ERROR) {
+      @Override
+      protected void cancelled() {
+        cancelled[0]++;
+      }
+    };
+    Recorder<List<Integer>> recorder = new Recorder<>();
+
+    publisher.batch(2, 0, null).subscribe(recorder);
+    recorder.subscription.cancel();
+
+    assertEquals(1, cancelled[0]);
+  }
+}
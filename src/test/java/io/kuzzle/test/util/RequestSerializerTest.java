@@ -0,0 +1,88 @@
+package io.kuzzle.test.util;
+
+import org.json.JSONArray;
+import org.json.JSONException;
+import org.json.JSONObject;
+import org.junit.Test;
+import org.skyscreamer.jsonassert.JSONAssert;
+
+import io.kuzzle.sdk.util.KuzzleJSONObject;
+import io.kuzzle.sdk.util.RequestEnvelope;
+import io.kuzzle.sdk.util.RequestSerializer;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+
+public class RequestSerializerTest {
+  private final RequestSerializer serializer = new RequestSerializer();
+
+  @Test
+  public void shouldSerializeLikeToString() throws JSONException {
+    JSONObject request = new JSONObject()
+      .put("requestId", "foo")
+      .put("string", "quote \" backslash \\ slash / newline \n tab \t control \u0001 separator   unicode é")
+      .put("int", 42)
+      .put("long", 1L << 40)
+      .put("negative", -7)
+      .put("double", 3.25)
+      .put("boolean", true)
+      .put("null", JSONObject.NULL)
+      .put("array", new JSONArray().put(1).put("two").put(new JSONObject().put("three", 3)).put(new JSONArray()))
+      .put("object", new JSONObject().put("nested", new JSONObject()));
+
+    String serialized = serializer.serialize(request, null);
+    JSONAssert.assertEquals(request.toString(), serialized, true);
+    assertEquals(request.getString("string"), new JSONObject(serialized).getString("string"));
+  }
+
+  @Test
+  public void shouldReuseTheSerializedEnvelope() throws JSONException {
+    RequestEnvelope envelope = new RequestEnvelope(new JSONObject().put("foo", "bar"), new JSONObject().put("baz", "qux"), "1.0");
+    JSONObject request = new JSONObject().put("requestId", "foo").put("volatile", envelope.getVolatile(null));
+    envelope.addHeaders(request);
+
+    JSONAssert.assertEquals(
+      "{requestId: 'foo', foo: 'bar', volatile: {baz: 'qux', sdkVersion: '1.0'}}",
+      serializer.serialize(request, envelope),
+      true);
+  }
+
+  @Test
+  public void shouldSerializeSubclassesWithTheirOwnMethod() throws JSONException {
+    JSONObject custom = new JSONObject() {
+      @Override
+      public String toString() {
+        return "{\"custom\":true}";
+      }
+    };
+
+    assertEquals("{\"custom\":true}", serializer.serialize(custom, null));
+    assertEquals("{\"body\":{\"custom\":true}}", serializer.serialize(new JSONObject().put("body", custom), null));
+    assertEquals("{\"body\":{\"foo\":\"bar\"}}", serializer.serialize(new JSONObject().put("body", new KuzzleJSONObject().put("foo", "bar")), null));
+  }
+
+  @Test
+  public void shouldShareTheGlobalVolatileData() throws JSONException {
+    RequestEnvelope envelope = new RequestEnvelope(null, new JSONObject().put("foo", "foo"), "1.0");
+
+    assertSame(envelope.getVolatile(null), envelope.getVolatile(new JSONObject()));
+    assertNull(envelope.getSerialized(new JSONObject()));
+
+    JSONObject merged = envelope.getVolatile(new JSONObject().put("foo", "bar").put("sdkVersion", "0"));
+    assertNotSame(envelope.getVolatile(null), merged);
+    assertEquals("bar", merged.getString("foo"));
+    assertEquals("1.0", merged.getString("sdkVersion"));
+  }
+
+  @Test
+  public void shouldKeepRequestHeaders() throws JSONException {
+    RequestEnvelope envelope = new RequestEnvelope(new JSONObject().put("foo", "bar").put("baz", "qux"), null, "1.0");
+    JSONObject request = new JSONObject().put("foo", "foo");
+
+    envelope.addHeaders(request);
+    assertEquals("foo", request.getString("foo"));
+    assertEquals("qux", request.getString("baz"));
+  }
+}
@@ -0,0 +1,204 @@
+package io.kuzzle.test.util;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import io.kuzzle.sdk.util.SerialExecutor;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+public class SerialExecutorTest {
+  @Test
+  public void shouldRunTasksInOrderOnAPool() throws InterruptedException {
+    ExecutorService pool = Executors.newFixedThreadPool(4);
+    SerialExecutor executor = new SerialExecutor(pool);
+    final List<Integer> order = Collections.synchronizedList(new ArrayList<Integer>());
+
+    for (int i = 0; i < 1000; i++) {
+      final int index = i;
+      executor.execute(new Runnable() {
+        @Override
+        public void run() {
+          order.add(index);
+        }
+      });
+    }
+
+    for (int i = 0; i < 100 && order.size() < 1000; i++) {
+      Thread.sleep(10);
+    }
+    pool.shutdown();
+
+    assertEquals(1000, order.size());
+    for (int i = 0; i < 1000; i++) {
+      assertEquals(i, (int) order.get(i));
+    }
+  }
+
+  @Test
+  public void shouldRunOneTaskAtATime() throws InterruptedException {
+    ExecutorService pool = Executors.newFixedThreadPool(4);
+    SerialExecutor executor = new SerialExecutor(pool);
+    final AtomicInteger running = new AtomicInteger();
+    final AtomicInteger maxRunning = new AtomicInteger();
+
+    for (int i = 0; i < 50; i++) {
+      executor.execute(new Runnable() {
+        @Override
+        public void run() {
+          int current = running.incrementAndGet();
+          maxRunning.set(Math.max(maxRunning.get(), current));
+          running.decrementAndGet();
+        }
+      });
+    }
+
+    for (int i = 0; i < 100 && executor.getPendingCount() > 0; i++) {
+      Thread.sleep(10);
+    }
+    pool.shutdown();
+    assertTrue(pool.awaitTermination(1, TimeUnit.SECONDS));
+    assertEquals(1, maxRunning.get());
+    assertEquals(0, executor.getPendingCount());
+  }
+
+  @Test
+  public void shouldResumeAfterAFailingTask() {
+    final List<Runnable> submitted = new ArrayList<>();
+    SerialExecutor executor = new SerialExecutor(new Executor() {
+      @Override
+      public void execute(Runnable command) {
+        submitted.add(command);
+      }
+    });
+    final AtomicInteger ran = new AtomicInteger();
+
+    executor.execute(new Runnable() {
+      @Override
+      public void run() {
+        throw new IllegalStateException("failure");
+      }
+    });
+    executor.execute(new Runnable() {
+      @Override
+      public void run() {
+        ran.incrementAndGet();
+      }
+    });
+    assertEquals(1, submitted.size());
+
+    try {
+      submitted.remove(0).run();
+    } catch (IllegalStateException e) {
+      // expected
+    }
+
+    assertEquals(1, submitted.size());
+    submitted.remove(0).run();
+    assertEquals(1, ran.get());
+  }
+
+  @Test
+  public void shouldNotNestTasksOnACallerRunsPool() throws InterruptedException {
+    final CountDownLatch release = new CountDownLatch(1);
+    ThreadPoolExecutor pool = new ThreadPoolExecutor(1, 1, 0, TimeUnit.MILLISECONDS,
+      new ArrayBlockingQueue<Runnable>(1), new ThreadPoolExecutor.CallerRunsPolicy());
+    final SerialExecutor executor = new SerialExecutor(pool);
+    final List<Integer> order = new ArrayList<>();
+    final Thread caller = Thread.currentThread();
+    final AtomicInteger elsewhere = new AtomicInteger();
+    Runnable blocker = new Runnable() {
+      @Override
+      public void run() {
+        try {
+          release.await();
+        } catch (InterruptedException e) {
+          Thread.currentThread().interrupt();
+        }
+      }
+    };
+
+    // saturated pool: every hand-off runs on the submitting thread
+    pool.execute(blocker);
+    pool.execute(blocker);
+
+    executor.execute(new Runnable() {
+      @Override
+      public void run() {
+        for (int i = 0; i < 50000; i++) {
+          final int index = i;
+          executor.execute(new Runnable() {
+            @Override
+            public void run() {
+              if (Thread.currentThread() != caller) {
+                elsewhere.incrementAndGet();
+              }
+              order.add(index);
+            }
+          });
+        }
+      }
+    });
+
+    release.countDown();
+    pool.shutdown();
+    assertTrue(pool.awaitTermination(1, TimeUnit.SECONDS));
+
+    assertEquals(0, elsewhere.get());
+    assertEquals(50000, order.size());
+    for (int i = 0; i < 50000; i++) {
+      assertEquals(i, (int) order.get(i));
+    }
+    assertEquals(0, executor.getPendingCount());
+  }
+
+  @Test
+  public void shouldKeepRunningTasksWhenHandOffsAreRejected() {
+    final AtomicInteger submissions = new AtomicInteger();
+    final SerialExecutor executor = new SerialExecutor(new Executor() {
+      @Override
+      public void execute(Runnable command) {
+        if (submissions.incrementAndGet() > 1) {
+          throw new RejectedExecutionException("saturated");
+        }
+        command.run();
+      }
+    });
+    final AtomicInteger ran = new AtomicInteger();
+
+    executor.execute(new Runnable() {
+      @Override
+      public void run() {
+        for (int i = 0; i < 3; i++) {
+          executor.execute(new Runnable() {
+            @Override
+            public void run() {
+              ran.incrementAndGet();
+            }
+          });
+        }
+      }
+    });
+
+    assertEquals(3, ran.get());
+    assertEquals(0, executor.getPendingCount());
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void shouldRequireADelegate() {
+    new SerialExecutor(null);
+  }
+}
@@ -0,0 +1,75 @@
+package io.kuzzle.test.util;
+
+import org.junit.Test;
+
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+import io.kuzzle.sdk.util.SessionRequestIdGenerator;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class SessionRequestIdGeneratorTest {
+  @Test
+  public void shouldPrefixACounter() {
+    SessionRequestIdGenerator generator = new SessionRequestIdGenerator(0);
+
+    assertEquals("00000000000.0", generator.next());
+    assertEquals("00000000000.1", generator.next());
+
+    for (int i = 2; i < 64; i++) {
+      generator.next();
+    }
+    assertEquals("00000000000.10", generator.next());
+  }
+
+  @Test
+  public void shouldEncodeTheWholeSeed() {
+    assertEquals("F__________.0", new SessionRequestIdGenerator(-1).next());
+    assertFalse(new SessionRequestIdGenerator(1).next().equals(new SessionRequestIdGenerator(2).next()));
+  }
+
+  @Test
+  public void shouldNotCollideAcrossGenerators() {
+    Set<String> ids = new HashSet<>();
+
+    for (int i = 0; i < 100; i++) {
+      SessionRequestIdGenerator generator = new SessionRequestIdGenerator();
+
+      for (int j = 0; j < 100; j++) {
+        String id = generator.next();
+        assertTrue(ids.add(id));
+        assertTrue(id.length() <= 23);
+      }
+    }
+  }
+
+  @Test
+  public void shouldNotCollideAcrossThreads() throws InterruptedException {
+    final SessionRequestIdGenerator generator = new SessionRequestIdGenerator();
+    final Set<String> ids = Collections.newSetFromMap(new ConcurrentHashMap<String, Boolean>());
+    Thread[] threads = new Thread[4];
+
+    for (int t = 0; t < threads.length; t++) {
+      threads[t] = new Thread(new Runnable() {
+        @Override
+        public void run() {
+          for (int i = 0; i < 10000; i++) {
+            ids.add(generator.next());
+          }
+        }
+      });
+      threads[t].start();
+    }
+
+    for (Thread thread : threads) {
+      thread.join();
+    }
+
+    assertEquals(40000, ids.size());
+  }
+}
@@ -0,0 +1,95 @@
+package io.kuzzle.test.util;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.List;
+
+import io.kuzzle.sdk.util.TimingWheel;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class TimingWheelTest {
+  private TimingWheel<String> wheel;
+
+  @Before
+  public void setUp() {
+    wheel = new TimingWheel<>(10, 8);
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void shouldRejectInvalidTickDuration() {
+    new TimingWheel<String>(0, 8);
+  }
+
+  @Test
+  public void shouldExpireOnlyReachedDeadlines() {
+    wheel.schedule("foo", 50, 1000);
+    wheel.schedule("bar", 100, 1000);
+
+    assertTrue(wheel.advance(1040).isEmpty());
+
+    List<String> expired = wheel.advance(1050);
+    assertEquals(1, expired.size());
+    assertEquals("foo", expired.get(0));
+    assertEquals(1, wheel.size());
+
+    expired = wheel.advance(1100);
+    assertEquals(1, expired.size());
+    assertEquals("bar", expired.get(0));
+    assertTrue(wheel.isEmpty());
+  }
+
+  @Test
+  public void shouldHandleDeadlinesBeyondOneRotation() {
+    // the wheel covers 80ms per rotation
+    wheel.schedule("foo", 500, 1000);
+
+    for (long now = 1000; now < 1500; now += 10) {
+      assertTrue(wheel.advance(now).isEmpty());
+    }
+
+    assertEquals("foo", wheel.advance(1500).get(0));
+  }
+
+  @Test
+  public void shouldExpireEverythingAfterALongPause() {
+    wheel.schedule("foo", 20, 1000);
+    wheel.schedule("bar", 500, 1000);
+    wheel.advance(1000);
+
+    assertEquals(2, wheel.advance(5000).size());
+    assertTrue(wheel.isEmpty());
+  }
+
+  @Test
+  public void shouldCancelDeadlines() {
+    wheel.schedule("foo", 20, 1000);
+
+    assertTrue(wheel.cancel("foo"));
+    assertFalse(wheel.cancel("foo"));
+    assertTrue(wheel.advance(2000).isEmpty());
+  }
+
+  @Test
+  public void shouldReplaceExistingDeadlines() {
+    wheel.schedule("foo", 20, 1000);
+    wheel.schedule("foo", 200, 1000);
+
+    assertEquals(1, wheel.size());
+    assertTrue(wheel.advance(1100).isEmpty());
+    assertEquals(1, wheel.advance(1200).size());
+  }
+
+  @Test
+  public void shouldClearAllDeadlines() {
+    wheel.schedule("foo", 20, 1000);
+    wheel.schedule("bar", 30, 1000);
+    wheel.clear();
+
+    assertTrue(wheel.isEmpty());
+    assertTrue(wheel.advance(2000).isEmpty());
+  }
+}